@@ -0,0 +1,133 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.CompiledExpression;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.TransientListValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// a formula evaluated over many input rows
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BatchEvaluationBench {
+
+  private static final String FORMULA = "if price > 100 then price * qty * 0.9 else price * qty";
+
+  private static final String MODULE =
+      "library row {\n" +
+      "  provided double price;\n" +
+      "  provided long qty;\n" +
+      "  total: " + FORMULA + ";\n" +
+      "}";
+
+  @Param({"10000"})
+  public int size;
+
+  private Runtime runtime;
+  private CompiledExpression expression;
+  private ForkJoinPool pool;
+  private List<Map<String, Value>> rows;
+  private ListValue prices;
+  private ListValue quantities;
+
+  @Setup
+  public void setup(){
+    runtime = BenchModules.compile(MODULE);
+    runtime.evaluate();
+    expression = new CompiledExpression.Builder()
+        .input("price", Types.DOUBLE)
+        .input("qty", Types.LONG)
+        .expression(FORMULA)
+        .build();
+    pool = new ForkJoinPool();
+
+    rows = new ArrayList<>(size);
+    TransientListValue priceColumn = new TransientListValue(size);
+    TransientListValue qtyColumn = new TransientListValue(size);
+    for (int i = 0; i < size; i++) {
+      Value price = Values.make((double) (i % 200));
+      Value qty = Values.make((long) (i % 7));
+      Map<String, Value> row = new HashMap<>();
+      row.put("price", price);
+      row.put("qty", qty);
+      rows.add(row);
+      priceColumn.append(price);
+      qtyColumn.append(qty);
+    }
+    prices = priceColumn.persistent();
+    quantities = qtyColumn.persistent();
+  }
+
+  @TearDown
+  public void tearDown(){
+    pool.shutdown();
+  }
+
+  @Benchmark
+  public ListValue update_vars_per_row(){
+    Runtime.Library row = BenchModules.library(runtime, "row");
+    Runtime.Var price = row.getVar("price");
+    Runtime.Var qty = row.getVar("qty");
+    Runtime.Var total = row.getVar("total");
+    TransientListValue results = new TransientListValue(size);
+    for (Map<String, Value> r : rows) {
+      runtime.updateVars(price, r.get("price"), qty, r.get("qty"));
+      results.append(total.getValue());
+    }
+    return results.persistent();
+  }
+
+  @Benchmark
+  public ListValue evaluate_rows(){
+    return expression.evaluateRows(rows);
+  }
+
+  @Benchmark
+  public ListValue evaluate_columns(){
+    return expression.evaluateColumns(prices, quantities);
+  }
+
+  @Benchmark
+  public ListValue evaluate_columns_parallel(){
+    return expression.evaluateColumns(pool, prices, quantities);
+  }
+
+}
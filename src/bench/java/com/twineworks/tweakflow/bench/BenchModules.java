@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.parse.ParseResult;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Random;
+import java.util.concurrent.ConcurrentMap;
+
+final class BenchModules {
+
+  static final String MODULE_PATH = "bench";
+
+  private BenchModules() {}
+
+  static LoadPath loadPath(String module, ConcurrentMap<String, ParseResult> parseCache){
+
+    LoadPath.Builder builder = new LoadPath.Builder()
+        .addStdLocation()
+        .add(new MemoryLocation.Builder()
+            .allowNativeFunctions(false)
+            .add(MODULE_PATH, module)
+            .build());
+
+    if (parseCache != null){
+      builder.withParseResultCache(parseCache);
+    }
+
+    return builder.build();
+  }
+
+  static Runtime compile(String module){
+    return compile(module, false);
+  }
+
+  static Runtime compile(String module, boolean compiledOps){
+    Runtime runtime = TweakFlow.compile(loadPath(module, null), MODULE_PATH);
+    runtime.setCompiledOps(compiledOps);
+    runtime.evaluate();
+    return runtime;
+  }
+
+  static Runtime.Library library(Runtime runtime, String name){
+    return runtime
+        .getModules().get(runtime.unitKey(MODULE_PATH))
+        .getLibrary(name);
+  }
+
+  static Value longs(int size){
+    return Values.makeRange(0, size-1);
+  }
+
+  static Value shuffledLongs(int size){
+    ArrayList<Value> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(Values.make(i));
+    }
+    Collections.shuffle(items, new Random(42));
+    return Values.make(new ListValue(items));
+  }
+
+  static Value records(int size){
+    Random random = new Random(42);
+    String[] tiers = {"gold", "silver", "bronze"};
+    ArrayList<Value> items = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      items.add(Values.makeDict(
+          "id", (long) i,
+          "name", "customer-"+i,
+          "tier", tiers[i % tiers.length],
+          "score", random.nextDouble(),
+          "tags", Values.makeList("a", "b", (long) i)
+      ));
+    }
+    return Values.make(new ListValue(items));
+  }
+
+}
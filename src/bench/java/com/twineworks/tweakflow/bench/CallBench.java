@@ -0,0 +1,91 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Arity1CallSite;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CallBench {
+
+  private static final String MODULE =
+      "library lib {\n" +
+      "  function inc: (long x) -> long x + 1;\n" +
+      "  function fib: (long x) -> long if x < 2 then x else fib(x-1) + fib(x-2);\n" +
+      "  function count_down: (long x) -> long if x <= 0 then 0 else count_down(x-1);\n" +
+      "}";
+
+  @Param({"false", "true"})
+  public boolean compiledOps;
+
+  private Runtime.Var inc;
+  private Arity1CallSite incCallSite;
+  private Arity1CallSite fibCallSite;
+  private Arity1CallSite countDownCallSite;
+
+  private final Value arg = Values.make(1000L);
+  private final Value fibArg = Values.make(15L);
+  private final Value countDownArg = Values.make(500L);
+
+  @Setup
+  public void setup(){
+    Runtime.Library lib = BenchModules.library(BenchModules.compile(MODULE, compiledOps), "lib");
+    inc = lib.getVar("inc");
+    incCallSite = inc.arity1CallSite();
+    fibCallSite = lib.getVar("fib").arity1CallSite();
+    countDownCallSite = lib.getVar("count_down").arity1CallSite();
+  }
+
+  @Benchmark
+  public Value var_call(){
+    return inc.call(arg);
+  }
+
+  @Benchmark
+  public Value arity1_call_site(){
+    return incCallSite.call(arg);
+  }
+
+  @Benchmark
+  public Value recursive_fib(){
+    return fibCallSite.call(fibArg);
+  }
+
+  @Benchmark
+  public Value recursive_count_down(){
+    return countDownCallSite.call(countDownArg);
+  }
+
+}
@@ -0,0 +1,111 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.CompiledExpression;
+import com.twineworks.tweakflow.lang.ExpressionCache;
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.parse.ParseResult;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompileBench {
+
+  private static final String MODULE =
+      "import data, math, strings from 'std';\n" +
+      "library lib {\n" +
+      "  provided input;\n" +
+      "  doubled: data.map(input, (x) -> x * 2);\n" +
+      "  total: data.reduce(doubled, 0, (a, x) -> a + x);\n" +
+      "  label: strings.join(data.map(doubled, (x) -> x as string), \", \");\n" +
+      "}";
+
+  private LoadPath uncachedLoadPath;
+  private LoadPath cachedLoadPath;
+  private CompiledExpression compiledExpression;
+
+  @Setup
+  public void setup(){
+    uncachedLoadPath = BenchModules.loadPath(MODULE, null);
+    cachedLoadPath = BenchModules.loadPath(MODULE, new ConcurrentHashMap<String, ParseResult>());
+    // populate the parse cache
+    TweakFlow.compile(cachedLoadPath, BenchModules.MODULE_PATH);
+    compiledExpression = new CompiledExpression.Builder()
+        .input("a", Types.LONG)
+        .input("b", Types.LONG)
+        .expression(COMPILED_EXPRESSION)
+        .build();
+  }
+
+  @Benchmark
+  public Runtime compile_module_with_std(){
+    return TweakFlow.compile(uncachedLoadPath, BenchModules.MODULE_PATH);
+  }
+
+  @Benchmark
+  public Runtime compile_module_with_std_parse_cache(){
+    return TweakFlow.compile(cachedLoadPath, BenchModules.MODULE_PATH);
+  }
+
+  private static final String EXPRESSION = "let {a: 1; b: 2;} [a+b, a*b, \"#{a}-#{b}\"]";
+
+  @Benchmark
+  public Value evaluate_expression(){
+    return TweakFlow.evaluate(EXPRESSION);
+  }
+
+  @Benchmark
+  public Value evaluate_expression_uncached(){
+    ExpressionCache cache = TweakFlow.getExpressionCache();
+    TweakFlow.setExpressionCache(null);
+    try {
+      return TweakFlow.evaluate(EXPRESSION);
+    }
+    finally {
+      TweakFlow.setExpressionCache(cache);
+    }
+  }
+
+  private static final String COMPILED_EXPRESSION = "[a+b, a*b, \"#{a}-#{b}\"]";
+
+  @Benchmark
+  public Value evaluate_compiled_expression(){
+    return compiledExpression.evaluate(Values.make(1L), Values.make(2L));
+  }
+
+}
@@ -0,0 +1,191 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Arity1CallSite;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.TransientDictValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DataBench {
+
+  private static final String MODULE =
+      "import data from 'std';\n" +
+      "library lib {\n" +
+      "  function map: (list xs) -> data.map(xs, (x) -> x * 2);\n" +
+      "  function filter: (list xs) -> data.filter(xs, (x) -> x % 2 == 0);\n" +
+      "  function reduce: (list xs) -> data.reduce(xs, 0, (a, x) -> a + x);\n" +
+      "  function sort: (list xs) -> data.sort(xs, (a, b) -> a - b);\n" +
+      "  function group_by: (list xs) -> data.group_by(xs, (x) -> x % 10);\n" +
+      "  function range: (long n) -> data.range(0, n);\n" +
+      "  function concat: (list xs) -> data.concat([xs, [1, 2, 3]]);\n" +
+      "  function take_while: (list xs) -> data.take_while((x) -> x % 1000 != 999, xs);\n" +
+      "  function drop_while: (list xs) -> data.drop_while((x) -> x < 10, xs);\n" +
+      "  function index_by: (list xs) -> data.index_by(xs, (x) -> x);\n" +
+      "  function filter_dict: (dict d) -> data.filter(d, (x) -> x != 0);\n" +
+      "  function merge: (dict d) -> data.merge([d, {:extra 1}]);\n" +
+      "  function omit: (dict d) -> data.omit(d, [\"k0\", \"k1\", \"missing\"]);\n" +
+      "}";
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private Arity1CallSite map;
+  private Arity1CallSite filter;
+  private Arity1CallSite reduce;
+  private Arity1CallSite sort;
+  private Arity1CallSite groupBy;
+  private Arity1CallSite range;
+  private Arity1CallSite concat;
+  private Arity1CallSite takeWhile;
+  private Arity1CallSite dropWhile;
+  private Arity1CallSite indexBy;
+  private Arity1CallSite filterDict;
+  private Arity1CallSite merge;
+  private Arity1CallSite omit;
+
+  private Value longs;
+  private Value shuffled;
+  private Value rangeEnd;
+  private Value dict;
+  private Value trie;
+
+  @Setup
+  public void setup(){
+    Runtime.Library lib = BenchModules.library(BenchModules.compile(MODULE), "lib");
+    map = lib.getVar("map").arity1CallSite();
+    filter = lib.getVar("filter").arity1CallSite();
+    reduce = lib.getVar("reduce").arity1CallSite();
+    sort = lib.getVar("sort").arity1CallSite();
+    groupBy = lib.getVar("group_by").arity1CallSite();
+    range = lib.getVar("range").arity1CallSite();
+    concat = lib.getVar("concat").arity1CallSite();
+    takeWhile = lib.getVar("take_while").arity1CallSite();
+    dropWhile = lib.getVar("drop_while").arity1CallSite();
+    indexBy = lib.getVar("index_by").arity1CallSite();
+    filterDict = lib.getVar("filter_dict").arity1CallSite();
+    merge = lib.getVar("merge").arity1CallSite();
+    omit = lib.getVar("omit").arity1CallSite();
+
+    longs = BenchModules.longs(size);
+    shuffled = BenchModules.shuffledLongs(size);
+    rangeEnd = Values.make((long) size - 1);
+
+    TransientDictValue t = new TransientDictValue();
+    for (int i = 0; i < size; i++) {
+      t.put("k"+i, Values.make((long) i + 1));
+    }
+    dict = Values.make(t.persistent());
+
+    // built by appending, so backed by a trie rather than an array
+    ListValue appended = new ListValue();
+    for (int i = 0; i < size; i++) {
+      appended = appended.append(Values.make((long) i));
+    }
+    trie = Values.make(appended);
+  }
+
+  @Benchmark
+  public Value data_map(){
+    return map.call(longs);
+  }
+
+  @Benchmark
+  public Value data_filter(){
+    return filter.call(longs);
+  }
+
+  @Benchmark
+  public Value data_reduce(){
+    return reduce.call(longs);
+  }
+
+  @Benchmark
+  public Value data_sort(){
+    return sort.call(shuffled);
+  }
+
+  @Benchmark
+  public Value data_group_by(){
+    return groupBy.call(longs);
+  }
+
+  @Benchmark
+  public Value data_range(){
+    return range.call(rangeEnd);
+  }
+
+  @Benchmark
+  public Value data_concat(){
+    return concat.call(longs);
+  }
+
+  @Benchmark
+  public Value data_concat_trie(){
+    return concat.call(trie);
+  }
+
+  @Benchmark
+  public Value data_take_while(){
+    return takeWhile.call(longs);
+  }
+
+  @Benchmark
+  public Value data_drop_while(){
+    return dropWhile.call(longs);
+  }
+
+  @Benchmark
+  public Value data_index_by(){
+    return indexBy.call(longs);
+  }
+
+  @Benchmark
+  public Value data_filter_dict(){
+    return filterDict.call(dict);
+  }
+
+  @Benchmark
+  public Value data_merge(){
+    return merge.call(dict);
+  }
+
+  @Benchmark
+  public Value data_omit(){
+    return omit.call(dict);
+  }
+
+}
@@ -0,0 +1,137 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Arity1CallSite;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ExpressionBench {
+
+  private static final String MODULE =
+      "import data, strings from 'std';\n" +
+      "library lib {\n" +
+      "  function for_squares: (list xs) -> list\n" +
+      "    for x <- xs, y: x * x, x % 2 == 0, y;\n" +
+      "  function for_nested: (list xs) -> list\n" +
+      "    for x <- xs, y <- [1, 2, 3], x + y;\n" +
+      "  function let_chain: (long x) -> long\n" +
+      "    let {a: x + 1; b: a * 2; c: b - a; d: c * c;} a + b + c + d;\n" +
+      "  function match_shapes: (x) -> string\n" +
+      "    match x\n" +
+      "      0 -> \"zero\",\n" +
+      "      long -> \"long\",\n" +
+      "      [@h, @...t] -> \"list\",\n" +
+      "      {:a @a, :b @b} -> \"record\",\n" +
+      "      default -> \"other\";\n" +
+      "  function match_all: (list xs) -> list\n" +
+      "    data.map(xs, match_shapes);\n" +
+      "  function records: (list xs) -> list\n" +
+      "    for x <- xs, r: {:id x, :name \"n\", :score 0.5, :active true}, r[:id] + r[:score];\n" +
+      "  function render: (list xs) -> long\n" +
+      "    strings.length(data.reduce(xs, \"\", (a, x) -> a .. \"<li>\" .. x .. \"</li>\"));\n" +
+      "}";
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private Arity1CallSite forSquares;
+  private Arity1CallSite forNested;
+  private Arity1CallSite letChain;
+  private Arity1CallSite matchAll;
+  private Arity1CallSite records;
+  private Arity1CallSite render;
+
+  private Value longs;
+  private Value shapes;
+  private final Value letArg = Values.make(42L);
+
+  @Setup
+  public void setup(){
+    Runtime.Library lib = BenchModules.library(BenchModules.compile(MODULE), "lib");
+    forSquares = lib.getVar("for_squares").arity1CallSite();
+    forNested = lib.getVar("for_nested").arity1CallSite();
+    letChain = lib.getVar("let_chain").arity1CallSite();
+    matchAll = lib.getVar("match_all").arity1CallSite();
+    records = lib.getVar("records").arity1CallSite();
+    render = lib.getVar("render").arity1CallSite();
+
+    longs = BenchModules.longs(size);
+
+    Value[] kinds = {
+        Values.LONG_ZERO,
+        Values.make(7L),
+        Values.makeList(1L, 2L, 3L),
+        Values.makeDict("a", 1L, "b", 2L),
+        Values.make("s")
+    };
+    Value[] items = new Value[size];
+    for (int i = 0; i < size; i++) {
+      items[i] = kinds[i % kinds.length];
+    }
+    shapes = Values.makeList(items);
+  }
+
+  @Benchmark
+  public Value for_comprehension(){
+    return forSquares.call(longs);
+  }
+
+  @Benchmark
+  public Value for_comprehension_nested(){
+    return forNested.call(longs);
+  }
+
+  @Benchmark
+  public Value let_bindings(){
+    return letChain.call(letArg);
+  }
+
+  @Benchmark
+  public Value match_patterns(){
+    return matchAll.call(shapes);
+  }
+
+  @Benchmark
+  public Value record_literals(){
+    return records.call(longs);
+  }
+
+  @Benchmark
+  public Value string_accumulation(){
+    return render.call(longs);
+  }
+
+}
@@ -0,0 +1,79 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// per-request runtimes derived from an evaluated base runtime that defines a large lookup table
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ForkBench {
+
+  private static final String MODULE =
+      "import data, strings from 'std';\n" +
+      "library row {\n" +
+      "  provided id;\n" +
+      "}\n" +
+      "library lib {\n" +
+      "  table: data.map(data.range(0, 9999), (x) -> {:id x, :name strings.join(['item', x], '-')});\n" +
+      "  index: data.index_by(table, (r) -> r[:id]);\n" +
+      "  name: index[row.id][:name];\n" +
+      "}";
+
+  private Runtime base;
+  private final Value[] ids = {Values.make(1L), Values.make(4711L), Values.make(9999L)};
+  private int i;
+
+  @Setup
+  public void setup(){
+    base = BenchModules.compile(MODULE);
+  }
+
+  private Value update(Runtime runtime){
+    i = (i + 1) % ids.length;
+    runtime.updateVars(BenchModules.library(runtime, "row").getVar("id"), ids[i]);
+    return BenchModules.library(runtime, "lib").getVar("name").getValue();
+  }
+
+  @Benchmark
+  public Value copy_and_update(){
+    return update(base.copy());
+  }
+
+  @Benchmark
+  public Value fork_and_update(){
+    return update(base.fork());
+  }
+
+}
@@ -0,0 +1,109 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.*;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ListBuildBench {
+
+  private static final String MODULE =
+      "import data from 'std';\n" +
+      "library lib {\n" +
+      "  function comprehension: (list xs) -> for x <- xs, x % 2 == 0, x;\n" +
+      "  function filter: (list xs) -> data.filter(xs, (x) -> x % 2 == 0);\n" +
+      "  function concat: (list xs) -> data.concat([xs, xs, xs]);\n" +
+      "}";
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private Arity1CallSite comprehension;
+  private Arity1CallSite filter;
+  private Arity1CallSite concat;
+
+  private Value strings;
+  private Value longs;
+
+  @Setup
+  public void setup(){
+    Runtime.Library lib = BenchModules.library(BenchModules.compile(MODULE), "lib");
+    comprehension = lib.getVar("comprehension").arity1CallSite();
+    filter = lib.getVar("filter").arity1CallSite();
+    concat = lib.getVar("concat").arity1CallSite();
+
+    TransientListValue t = new TransientListValue(size);
+    for (int i = 0; i < size; i++) {
+      t.append(Values.make("s" + i));
+    }
+    strings = Values.make(t.persistent());
+    longs = BenchModules.longs(size);
+  }
+
+  @Benchmark
+  public ListValue persistent_append(){
+    ListValue list = new ListValue();
+    ListValue xs = strings.list();
+    for (int i = 0, n = xs.size(); i < n; i++) {
+      list = list.append(xs.get(i));
+    }
+    return list;
+  }
+
+  @Benchmark
+  public ListValue transient_append(){
+    TransientListValue list = new TransientListValue();
+    ListValue xs = strings.list();
+    for (int i = 0, n = xs.size(); i < n; i++) {
+      list.append(xs.get(i));
+    }
+    return list.persistent();
+  }
+
+  @Benchmark
+  public Value for_comprehension(){
+    return comprehension.call(longs);
+  }
+
+  @Benchmark
+  public Value data_filter(){
+    return filter.call(longs);
+  }
+
+  @Benchmark
+  public Value data_concat(){
+    return concat.call(strings);
+  }
+
+}
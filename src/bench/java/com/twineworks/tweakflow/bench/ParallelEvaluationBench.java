@@ -0,0 +1,98 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+// a rule module of many independent vars, all depending on the same input
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ParallelEvaluationBench {
+
+  private static final int RULES = 400;
+
+  private static final String MODULE;
+
+  static {
+    StringBuilder module = new StringBuilder(
+        "import data from 'std';\n" +
+        "library row {\n" +
+        "  provided a;\n" +
+        "}\n" +
+        "library lib {\n");
+    StringBuilder all = new StringBuilder();
+    for (int i = 0; i < RULES; i++) {
+      module.append("  r").append(i).append(": data.reduce(data.range(0, 999), 0, (s, x) -> s + (x * row.a + ").append(i).append(") % 7);\n");
+      all.append(i == 0 ? "" : ", ").append("r").append(i);
+    }
+    module.append("  total: data.reduce([").append(all).append("], 0, (s, x) -> s + x);\n");
+    module.append("}");
+    MODULE = module.toString();
+  }
+
+  private Runtime sequential;
+  private Runtime parallel;
+  private ForkJoinPool pool;
+  private long a;
+
+  @Setup
+  public void setup(){
+    pool = new ForkJoinPool();
+    sequential = BenchModules.compile(MODULE);
+    parallel = sequential.copy().setEvaluationPool(pool);
+    parallel.evaluate();
+  }
+
+  @TearDown
+  public void tearDown(){
+    pool.shutdown();
+  }
+
+  private Value update(Runtime runtime){
+    runtime.updateVars(BenchModules.library(runtime, "row").getVar("a"), Values.make(++a));
+    return BenchModules.library(runtime, "lib").getVar("total").getValue();
+  }
+
+  @Benchmark
+  public Value update_sequential(){
+    return update(sequential);
+  }
+
+  @Benchmark
+  public Value update_parallel(){
+    return update(parallel);
+  }
+
+}
@@ -0,0 +1,107 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+// var updates re-evaluate dependent vars, which resolve their references to
+// std library functions and to other vars on every evaluation
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ReferenceBench {
+
+  private static final String MODULE =
+      "import data, strings, math from 'std';\n" +
+      "library row {\n" +
+      "  provided name;\n" +
+      "  provided score;\n" +
+      "  provided tick;\n" +
+      "}\n" +
+      "library lib {\n" +
+      "  upper: strings.upper_case(row.name);\n" +
+      "  length: strings.length(row.name);\n" +
+      "  chars: strings.chars(upper);\n" +
+      "  initial: data.get(chars, 0);\n" +
+      "  rounded: math.round(row.score);\n" +
+      "  scaled: let {s: math.abs(rounded); l: math.max([length, 1]);} s * l;\n" +
+      "  summary: data.size(data.filter(chars, (c) -> c == initial)) + scaled;\n" +
+      "  lookups: [row.tick, data.map, data.filter, data.size, data.get, strings.length, strings.chars,\n" +
+      "            strings.upper_case, math.abs, math.max, math.round, upper, length, chars, scaled];\n" +
+      "}";
+
+  private Runtime runtime;
+  private Runtime.Var name;
+  private Runtime.Var score;
+  private Runtime.Var summary;
+  private Runtime.Var tick;
+  private Runtime.Var lookups;
+
+  private final Value[] names = {Values.make("alpha"), Values.make("bravo"), Values.make("charlie")};
+  private final Value[] scores = {Values.make(1.5d), Values.make(-2.5d), Values.make(42.25d)};
+  private int i;
+
+  @Setup
+  public void setup(){
+    runtime = BenchModules.compile(MODULE);
+    name = BenchModules.library(runtime, "row").getVar("name");
+    score = BenchModules.library(runtime, "row").getVar("score");
+    summary = BenchModules.library(runtime, "lib").getVar("summary");
+    tick = BenchModules.library(runtime, "row").getVar("tick");
+    lookups = BenchModules.library(runtime, "lib").getVar("lookups");
+  }
+
+  @Benchmark
+  public Value update_dependents(){
+    i = (i + 1) % names.length;
+    runtime.updateVars(name, names[i], score, scores[i]);
+    return summary.getValue();
+  }
+
+  @Benchmark
+  public Value update_lookups(){
+    i = (i + 1) % names.length;
+    runtime.updateVars(tick, names[i]);
+    return lookups.getValue();
+  }
+
+  @Benchmark
+  public Value copy_and_update(){
+    i = (i + 1) % names.length;
+    Runtime copy = runtime.copy();
+    Runtime.Library row = BenchModules.library(copy, "row");
+    copy.updateVars(row.getVar("name"), names[i], row.getVar("score"), scores[i]);
+    return BenchModules.library(copy, "lib").getVar("summary").getValue();
+  }
+
+}
@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.bench;
+
+import com.twineworks.tweakflow.io.In;
+import com.twineworks.tweakflow.io.Out;
+import com.twineworks.tweakflow.io.chunk.ChunkIn;
+import com.twineworks.tweakflow.io.chunk.ChunkOut;
+import com.twineworks.tweakflow.lang.values.Value;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class SerializationBench {
+
+  private static final int CHUNK_SIZE = 64 * 1024;
+  private static final int BUFFER_SIZE = 64 * 1024;
+
+  private static final class DiscardingChannel implements WritableByteChannel {
+
+    @Override
+    public int write(ByteBuffer src) {
+      int n = src.remaining();
+      src.position(src.limit());
+      return n;
+    }
+
+    @Override
+    public boolean isOpen() {
+      return true;
+    }
+
+    @Override
+    public void close() { }
+  }
+
+  @Param({"100", "10000"})
+  public int size;
+
+  private Value records;
+  private byte[] serialized;
+  private ArrayList<byte[]> chunks;
+  private final DiscardingChannel discard = new DiscardingChannel();
+
+  @Setup
+  public void setup() throws IOException {
+    records = BenchModules.records(size);
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (Out out = new Out(Channels.newChannel(bytes), BUFFER_SIZE)) {
+      out.write(records);
+    }
+    serialized = bytes.toByteArray();
+
+    chunks = new ArrayList<>();
+    ChunkOut chunkOut = new ChunkOut(records, CHUNK_SIZE);
+    while (chunkOut.hasMoreChunks()) {
+      chunks.add(chunkOut.nextChunk());
+    }
+  }
+
+  @Benchmark
+  public void out_write() throws IOException {
+    Out out = new Out(discard, BUFFER_SIZE);
+    out.write(records);
+    out.flush();
+  }
+
+  @Benchmark
+  public Value in_read() throws IOException {
+    In in = new In(Channels.newChannel(new ByteArrayInputStream(serialized)), BUFFER_SIZE);
+    return in.readNext();
+  }
+
+  @Benchmark
+  public void chunk_out(Blackhole bh){
+    ChunkOut chunkOut = new ChunkOut(records, CHUNK_SIZE);
+    while (chunkOut.hasMoreChunks()) {
+      bh.consume(chunkOut.nextChunk());
+    }
+  }
+
+  @Benchmark
+  public Value chunk_in(){
+    return new ChunkIn(chunks.iterator()).read();
+  }
+
+}
@@ -25,82 +25,56 @@
 package com.twineworks.tweakflow.examples;
 
 import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.errors.LangError;
 import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationBudget;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.values.ValueInspector;
 
-import java.util.concurrent.ExecutionException;
-import java.util.concurrent.FutureTask;
 import java.util.concurrent.TimeUnit;
-import java.util.concurrent.TimeoutException;
 
 public class LimitingExecTime {
 
-  @SuppressWarnings("deprecation")
-  private static void stopTask(FutureTask task, Thread taskThread) {
-    // ask the thread to stop
-    task.cancel(true);
-    try {
-      // give it some time to cleanly finish
-      taskThread.join(100);
-    } catch (InterruptedException ignored) {
-    }
-
-    // forcibly stop it, if it did not cleanly finish
-    if (taskThread.isAlive()) {
-      taskThread.stop();
-    }
-  }
-
   public static void main(String[] args) {
 
     // evaluating naive implementation of fibonacci function
     // with exponential runtime complexity causing O(2^x) recursive calls
     String[] expressions = {
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(1)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(5)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(10)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(20)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(30)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(40)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(50)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(60)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(70)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(80)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(90)",
-        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1 } f(100)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(1)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(5)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(10)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(20)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(30)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(40)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(50)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(60)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(70)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(80)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(90)",
+        "let { f: (x) -> if x > 2 then f(x-2)+f(x-1) else 1; } f(100)",
     };
 
+    // the interpreter checks the budget as it goes, and aborts evaluation once exhausted
+    // no threads need to be stopped, and the calling thread can carry on
+    EvaluationBudget budget = new EvaluationBudget.Builder()
+        .timeout(1000, TimeUnit.MILLISECONDS)
+        .build();
+
     for (String expression : expressions) {
-      FutureTask<Value> task = new FutureTask<>(() -> TweakFlow.evaluate(expression));
-      Thread thread = new Thread(task);
       try {
         System.out.println("evaluating: " + expression);
-        thread.start();
-        Value value = task.get(1000, TimeUnit.MILLISECONDS);
+        Value value = TweakFlow.evaluate(expression, true, budget);
         // successful evaluation
         System.out.println("result: " + ValueInspector.inspect(value));
-      } catch (ExecutionException e) {
-        // evaluation failed
-        if (e.getCause() instanceof LangException) {
-          LangException langException = (LangException) e.getCause();
-          System.out.println(langException.getDigestMessage());
+      } catch (LangException e) {
+        if (e.getCode() == LangError.BUDGET_EXCEEDED) {
+          // evaluation timed out
+          System.out.println("could not evaluate expression in time, skipping");
         } else {
-          e.getCause().printStackTrace();
+          // evaluation failed
+          System.out.println(e.getDigestMessage());
         }
-
-      } catch (TimeoutException e) {
-        // evaluation timed out
-        System.out.println("could not evaluate expression in time, skipping");
-        stopTask(task, thread);
-
-      } catch (InterruptedException e) {
-        // main program got interrupted (Ctrl+C)
-        System.out.println("program interrupted");
-        stopTask(task, thread);
-        break;
       }
-
     }
   }
 
@@ -25,6 +25,7 @@
 package com.twineworks.tweakflow.io;
 
 import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.ValueInterner;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -39,6 +40,7 @@ public class In implements AutoCloseable {
   private final ByteBuffer buffer;
   private final ArrayDeque<ValueDeserializer> deserializers;
   private boolean channelDepleted = false;
+  private final ValueInterner interner;
 
   private final BooleanSerializer booleanSerializer = new BooleanSerializer();
   private final LongSerializer longSerializer = new LongSerializer();
@@ -56,7 +58,12 @@ public class In implements AutoCloseable {
   }
 
   public In(ReadableByteChannel channel, int bufferSize) {
+    this(channel, bufferSize, null);
+  }
+
+  public In(ReadableByteChannel channel, int bufferSize, ValueInterner interner) {
     this.channel = channel;
+    this.interner = interner;
     buffer = ByteBuffer.allocate(bufferSize);
     buffer.clear();
     buffer.limit(0);
@@ -146,6 +153,7 @@ public class In implements AutoCloseable {
     deserializers.push(d);
     Value ret = fromBuffer(format);
     deserializers.pop();
+    if (interner != null) return interner.intern(ret);
     return ret;
   }
 
@@ -16,9 +16,15 @@ public class ChunkIn {
 
   Iterator<byte[]> chunkIterator;
 
+  ValueInterner interner;
+
   public ChunkIn(Iterator<byte[]> chunkIterator) {
-    this.chunkIterator = chunkIterator;
+    this(chunkIterator, null);
+  }
 
+  public ChunkIn(Iterator<byte[]> chunkIterator, ValueInterner interner) {
+    this.chunkIterator = chunkIterator;
+    this.interner = interner;
   }
 
   public Value read() {
@@ -77,13 +83,22 @@ public class ChunkIn {
     String tz = new String(bytes, 12, bytes.length-12, StandardCharsets.UTF_8);
     ZoneId zoneId = ZoneId.of(tz);
     ZonedDateTime zonedDateTime = ZonedDateTime.ofInstant(Instant.ofEpochSecond(secs, nanos), zoneId);
-    return Values.make(new DateTimeValue(zonedDateTime));
+    DateTimeValue dt = new DateTimeValue(zonedDateTime);
+    return interner == null ? Values.make(dt) : interner.make(dt);
+  }
+
+  private Value makeString(String s){
+    return interner == null ? Values.make(s) : interner.make(s);
+  }
+
+  private Value makeDecimal(BigDecimal d){
+    return interner == null ? Values.make(d) : interner.make(d);
   }
 
   private Value readNextValue() {
 
     byte[] partial = null;
-    ListValue list = null;
+    TransientListValue list = null;
     TransientDictValue t = null;
 
     while (true) {
@@ -110,7 +125,7 @@ public class ChunkIn {
           case MagicNumbers.Format.DECIMAL:
             bin = new byte[buffer.getInt()];
             buffer.get(bin);
-            return Values.make(new BigDecimal(new String(bin, StandardCharsets.UTF_8)));
+            return makeDecimal(new BigDecimal(new String(bin, StandardCharsets.UTF_8)));
           case MagicNumbers.Format.DECIMAL_PART: {
             int totalSize = buffer.getInt();
             int index = buffer.getInt();
@@ -120,14 +135,14 @@ public class ChunkIn {
             }
             buffer.get(partial, index, partLen);
             if (index + partLen == totalSize) {
-              return Values.make(new BigDecimal(new String(partial, StandardCharsets.UTF_8)));
+              return makeDecimal(new BigDecimal(new String(partial, StandardCharsets.UTF_8)));
             }
             continue;
           }
           case MagicNumbers.Format.STRING:
             bin = new byte[buffer.getInt()];
             buffer.get(bin);
-            return Values.make(new String(bin, StandardCharsets.UTF_8));
+            return makeString(new String(bin, StandardCharsets.UTF_8));
           case MagicNumbers.Format.STRING_PART: {
             int totalSize = buffer.getInt();
             int index = buffer.getInt();
@@ -137,7 +152,7 @@ public class ChunkIn {
             }
             buffer.get(partial, index, partLen);
             if (index + partLen == totalSize) {
-              return Values.make(new String(partial, StandardCharsets.UTF_8));
+              return makeString(new String(partial, StandardCharsets.UTF_8));
             }
             continue;
           }
@@ -180,11 +195,11 @@ public class ChunkIn {
           case MagicNumbers.Format.LIST: {
             int size = buffer.getInt();
             if (size == 0) return Values.EMPTY_LIST;
-            list = new ListValue();
+            list = new TransientListValue(size);
             for (int i = 0; i < size; i++) {
-              list = list.append(readNextValue());
+              list.append(readNextValue());
             }
-            return Values.make(list);
+            return Values.make(list.persistent());
           }
           case MagicNumbers.Format.DICT: {
             int size = buffer.getInt();
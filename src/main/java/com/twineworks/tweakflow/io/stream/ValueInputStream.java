@@ -40,13 +40,19 @@ public class ValueInputStream implements AutoCloseable {
   private final LRUCache<String, Value> stringCache;
   private final LRUCache<Long, Value> longCache;
   private final LRUCache<String, String> keyCache;
+  private final ValueInterner interner;
 
   public ValueInputStream(InputStream in) {
     this(in, 0);
   }
 
   public ValueInputStream(InputStream in, int cacheSize) {
+    this(in, cacheSize, null);
+  }
+
+  public ValueInputStream(InputStream in, int cacheSize, ValueInterner interner) {
     this.ds = new DataInputStream(in);
+    this.interner = interner;
     if (cacheSize > 0){
       stringCache = new LRUCache<>(cacheSize);
       longCache = new LRUCache<>(cacheSize);
@@ -60,7 +66,10 @@ public class ValueInputStream implements AutoCloseable {
   }
 
   private Value makeString(String str){
-    if (stringCache != null){
+    if (interner != null){
+      return interner.make(str);
+    }
+    else if (stringCache != null){
       Value v = stringCache.get(str);
       if (v == null){
         v = Values.make(str);
@@ -119,7 +128,8 @@ public class ValueInputStream implements AutoCloseable {
       case MagicNumbers.Format.DOUBLE:
         return Values.make(ds.readDouble());
       case MagicNumbers.Format.DECIMAL:
-        return Values.make(new BigDecimal(ds.readUTF()));
+        BigDecimal d = new BigDecimal(ds.readUTF());
+        return interner == null ? Values.make(d) : interner.make(d);
       case MagicNumbers.Format.STRING:
         return makeString(ds.readUTF());
       case MagicNumbers.Format.DATETIME:
@@ -127,14 +137,15 @@ public class ValueInputStream implements AutoCloseable {
         int nanos = ds.readInt();
         ZoneId zoneId = ZoneId.of(getKey(ds.readUTF()));
         ZonedDateTime zonedDateTime = ZonedDateTime.ofInstant(Instant.ofEpochSecond(epochSeconds, nanos), zoneId);
-        return Values.make(new DateTimeValue(zonedDateTime));
+        DateTimeValue dt = new DateTimeValue(zonedDateTime);
+        return interner == null ? Values.make(dt) : interner.make(dt);
       case MagicNumbers.Format.LIST:
         int size = ds.readInt();
-        Value[] items = new Value[size];
+        TransientListValue items = new TransientListValue(size);
         for (int i = 0; i < size; i++) {
-          items[i] = read();
+          items.append(read());
         }
-        return Values.make(new ListValue(items));
+        return Values.make(items.persistent());
       case MagicNumbers.Format.DICT:
 
         TransientDictValue t = new TransientDictValue();
@@ -0,0 +1,302 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang;
+
+import com.twineworks.tweakflow.lang.ast.args.ParameterNode;
+import com.twineworks.tweakflow.lang.ast.args.Parameters;
+import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
+import com.twineworks.tweakflow.lang.ast.expressions.FunctionNode;
+import com.twineworks.tweakflow.lang.ast.expressions.NilNode;
+import com.twineworks.tweakflow.lang.interpreter.CallContext;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationBudget;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
+import com.twineworks.tweakflow.lang.interpreter.Interpreter;
+import com.twineworks.tweakflow.lang.interpreter.Stack;
+import com.twineworks.tweakflow.lang.interpreter.StackEntry;
+import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.parse.SourceInfo;
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntFunction;
+
+// an expression compiled once against a fixed set of typed inputs
+// evaluation binds inputs as arguments of a function wrapping the expression,
+// so no parsing, analysis or scope building happens per call
+// batches of rows share a call context per evaluating thread
+// instances are thread-safe, evaluations do not share mutable state
+public final class CompiledExpression {
+
+  private final String source;
+  private final List<String> inputNames;
+  private final Map<String, Integer> inputIndex;
+  private final Value function;
+  private final StackEntry entry;
+  private final EvaluationBudget budget;
+
+  private CompiledExpression(String source, List<String> inputNames, Value function, StackEntry entry, EvaluationBudget budget) {
+    this.source = source;
+    this.inputNames = Collections.unmodifiableList(inputNames);
+    this.function = function;
+    this.entry = entry;
+    this.budget = budget;
+
+    HashMap<String, Integer> index = new HashMap<>();
+    for (int i = 0; i < inputNames.size(); i++) {
+      index.put(inputNames.get(i), i);
+    }
+    this.inputIndex = index;
+  }
+
+  public String getSource() {
+    return source;
+  }
+
+  public List<String> getInputNames() {
+    return inputNames;
+  }
+
+  // inputs are given in declaration order, and cast to declared input types
+  public Value evaluate(Value ... inputs){
+    if (inputs.length != inputNames.size()){
+      throw new IllegalArgumentException("expected "+inputNames.size()+" inputs, got "+inputs.length);
+    }
+    Value[] args = inputs.clone();
+    for (int i = 0; i < args.length; i++) {
+      if (args[i] == null) args[i] = Values.NIL;
+    }
+    return call(args);
+  }
+
+  // inputs are given by name, missing inputs are nil
+  public Value evaluate(Map<String, Value> inputs){
+    return call(argsOf(inputs));
+  }
+
+  // evaluates once per row, rows give inputs by name
+  public ListValue evaluateRows(List<? extends Map<String, Value>> rows){
+    return evaluateRows(rows, null);
+  }
+
+  // evaluates rows concurrently on given pool, null evaluates on the calling thread
+  public ListValue evaluateRows(List<? extends Map<String, Value>> rows, ForkJoinPool pool){
+    return evaluateBatch(rows.size(), i -> argsOf(rows.get(i)), pool);
+  }
+
+  // evaluates once per row, columns are lists of equal size in input declaration order
+  public ListValue evaluateColumns(ListValue ... columns){
+    return evaluateColumns(null, columns);
+  }
+
+  // evaluates rows concurrently on given pool, null evaluates on the calling thread
+  public ListValue evaluateColumns(ForkJoinPool pool, ListValue ... columns){
+    if (columns.length != inputNames.size()){
+      throw new IllegalArgumentException("expected "+inputNames.size()+" columns, got "+columns.length);
+    }
+    int size = columns.length == 0 ? 0 : columns[0].size();
+    for (int i = 0; i < columns.length; i++) {
+      if (columns[i].size() != size){
+        throw new IllegalArgumentException("column "+inputNames.get(i)+" has size "+columns[i].size()+", expected "+size);
+      }
+    }
+    return evaluateBatch(size, i -> {
+      Value[] args = new Value[columns.length];
+      for (int c = 0; c < columns.length; c++) {
+        args[c] = columns[c].get(i);
+      }
+      return args;
+    }, pool);
+  }
+
+  private Value[] argsOf(Map<String, Value> inputs){
+    Value[] args = new Value[inputNames.size()];
+    Arrays.fill(args, Values.NIL);
+    for (Map.Entry<String, Value> e : inputs.entrySet()) {
+      Integer idx = inputIndex.get(e.getKey());
+      if (idx == null){
+        throw new IllegalArgumentException("unknown input: "+e.getKey());
+      }
+      Value v = e.getValue();
+      args[idx] = v == null ? Values.NIL : v;
+    }
+    return args;
+  }
+
+  private Value call(Value[] args){
+    return callContext(new EvaluationContext().setBudget(budget)).call(function, args);
+  }
+
+  private CallContext callContext(EvaluationContext context){
+    Stack stack = new Stack();
+    stack.push(entry);
+    return new CallContext(stack, context);
+  }
+
+  // rows of a batch share a call context per thread, results are packed where possible
+  private ListValue evaluateBatch(int size, IntFunction<Value[]> args, ForkJoinPool pool){
+    Value[] results = new Value[size];
+    if (pool == null || size < 2 * MIN_CHUNK_SIZE){
+      evaluateRange(args, results, 0, size);
+    }
+    else {
+      int chunkSize = Math.max(MIN_CHUNK_SIZE, size / (pool.getParallelism() * 4));
+      AtomicReference<Throwable> failure = new AtomicReference<>();
+      pool.invoke(new BatchTask(args, results, 0, size, chunkSize, failure));
+      Throwable t = failure.get();
+      if (t instanceof RuntimeException) throw (RuntimeException) t;
+      if (t instanceof Error) throw (Error) t;
+    }
+    return new ListValue(results);
+  }
+
+  // each row evaluates with a fresh budget
+  private void evaluateRange(IntFunction<Value[]> args, Value[] results, int from, int to){
+    EvaluationContext context = new EvaluationContext().setBudget(budget);
+    CallContext callContext = callContext(context);
+    for (int i = from; i < to; i++) {
+      context.startBudget();
+      results[i] = callContext.call(function, args.apply(i));
+    }
+  }
+
+  private static final int MIN_CHUNK_SIZE = 64;
+
+  private final class BatchTask extends RecursiveAction {
+
+    private static final long serialVersionUID = 1L;
+
+    private final IntFunction<Value[]> args;
+    private final Value[] results;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+    private final AtomicReference<Throwable> failure;
+
+    private BatchTask(IntFunction<Value[]> args, Value[] results, int from, int to, int chunkSize, AtomicReference<Throwable> failure) {
+      this.args = args;
+      this.results = results;
+      this.from = from;
+      this.to = to;
+      this.chunkSize = chunkSize;
+      this.failure = failure;
+    }
+
+    @Override
+    protected void compute() {
+      if (failure.get() != null) return;
+      if (to - from <= chunkSize){
+        try {
+          evaluateRange(args, results, from, to);
+        }
+        catch (Throwable t){
+          failure.compareAndSet(null, t);
+        }
+        return;
+      }
+      int mid = (from + to) >>> 1;
+      invokeAll(
+          new BatchTask(args, results, from, mid, chunkSize, failure),
+          new BatchTask(args, results, mid, to, chunkSize, failure));
+    }
+  }
+
+  public static class Builder {
+
+    private final LinkedHashMap<String, Type> inputs = new LinkedHashMap<>();
+    private boolean allowNativeFunctions = true;
+    private String expression;
+    private EvaluationBudget budget;
+
+    public Builder input(String name, Type type){
+      if (name == null) throw new IllegalArgumentException("input name cannot be null");
+      if (type == null) throw new IllegalArgumentException("input type cannot be null");
+      if (inputs.containsKey(name)) throw new IllegalArgumentException("input "+name+" defined more than once");
+      inputs.put(name, type);
+      return this;
+    }
+
+    public Builder input(String name){
+      return input(name, Types.ANY);
+    }
+
+    public Builder allowNativeFunctions(boolean allowNativeFunctions){
+      this.allowNativeFunctions = allowNativeFunctions;
+      return this;
+    }
+
+    public Builder expression(String expression){
+      this.expression = expression;
+      return this;
+    }
+
+    // bounds each evaluation, null evaluates without limits
+    public Builder budget(EvaluationBudget budget){
+      this.budget = budget;
+      return this;
+    }
+
+    public CompiledExpression build(){
+      if (expression == null) throw new IllegalArgumentException("expression cannot be null");
+
+      ExpressionNode node = TweakFlow.parseExpression(expression, allowNativeFunctions);
+      SourceInfo sourceInfo = node.getSourceInfo();
+
+      // inputs become parameters of a function with the expression as body
+      LinkedHashMap<String, ParameterNode> paramMap = new LinkedHashMap<>();
+      for (Map.Entry<String, Type> e : inputs.entrySet()) {
+        paramMap.put(e.getKey(), new ParameterNode()
+            .setSymbolName(e.getKey())
+            .setIndex(paramMap.size())
+            .setDeclaredType(e.getValue())
+            .setDefaultValue(new NilNode().setSourceInfo(sourceInfo))
+            .setSourceInfo(sourceInfo));
+      }
+
+      ExpressionNode fn = new FunctionNode()
+          .setExpression(node)
+          .setParameters(new Parameters().setSourceInfo(sourceInfo).setMap(paramMap))
+          .setDeclaredReturnType(Types.ANY)
+          .setSourceInfo(sourceInfo);
+
+      TweakFlow.analyzeExpression(fn);
+      Value function = Interpreter.evaluateInEmptyScope(fn);
+
+      StackEntry entry = new StackEntry(
+          new NilNode().setSourceInfo(sourceInfo),
+          new Cell().setValue(Values.NIL),
+          Collections.emptyMap());
+
+      return new CompiledExpression(expression, new ArrayList<>(inputs.keySet()), function, entry, budget);
+    }
+  }
+
+}
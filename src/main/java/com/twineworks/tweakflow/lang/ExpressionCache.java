@@ -0,0 +1,105 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang;
+
+import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
+import com.twineworks.tweakflow.lang.interpreter.Interpreter;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.util.BoundedCache;
+
+// bounded cache of compiled expressions keyed by source text
+// repeatedly evaluated expressions are parsed and analyzed once only
+// instances are thread-safe, compiled expressions are evaluated concurrently
+public final class ExpressionCache {
+
+  private static final class Key {
+
+    private final String source;
+    private final boolean allowNativeFunctions;
+
+    private Key(String source, boolean allowNativeFunctions) {
+      this.source = source;
+      this.allowNativeFunctions = allowNativeFunctions;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) return true;
+      if (!(o instanceof Key)) return false;
+      Key key = (Key) o;
+      return allowNativeFunctions == key.allowNativeFunctions && source.equals(key.source);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * source.hashCode() + (allowNativeFunctions ? 1 : 0);
+    }
+  }
+
+  private final BoundedCache<Key, ExpressionNode> cache;
+
+  public ExpressionCache(int capacity) {
+    this.cache = new BoundedCache<>(capacity);
+  }
+
+  public Value evaluate(String exp, boolean allowNativeFunctions) {
+    return Interpreter.evaluateInEmptyScope(compile(exp, allowNativeFunctions));
+  }
+
+  ExpressionNode compile(String exp, boolean allowNativeFunctions) {
+    Key key = new Key(exp, allowNativeFunctions);
+    ExpressionNode node = cache.get(key);
+    if (node != null) return node;
+
+    // compiling happens outside the lock, racing threads may compile the same expression
+    // errors propagate and leave nothing in the cache
+    return cache.putIfAbsent(key, TweakFlow.compileExpression(exp, allowNativeFunctions));
+  }
+
+  public long hits() {
+    return cache.hits();
+  }
+
+  public long misses() {
+    return cache.misses();
+  }
+
+  public double hitRate() {
+    return cache.hitRate();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public int capacity() {
+    return cache.capacity();
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+}
@@ -32,9 +32,13 @@ import com.twineworks.tweakflow.lang.analysis.ops.OpSpecializationVisitor;
 import com.twineworks.tweakflow.lang.analysis.references.ClosureAnalysisVisitor;
 import com.twineworks.tweakflow.lang.analysis.references.DependencyVerification;
 import com.twineworks.tweakflow.lang.analysis.references.MetaDataAnalysisVisitor;
+import com.twineworks.tweakflow.lang.analysis.references.TailCallAnalysisVisitor;
 import com.twineworks.tweakflow.lang.analysis.scope.ExpressionResolverVisitor;
+import com.twineworks.tweakflow.lang.analysis.scope.FrameLayoutVisitor;
 import com.twineworks.tweakflow.lang.analysis.scope.ScopeBuilderVisitor;
 import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationBudget;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.DebugHandler;
 import com.twineworks.tweakflow.lang.interpreter.SimpleDebugHandler;
 import com.twineworks.tweakflow.lang.interpreter.Interpreter;
@@ -59,6 +63,8 @@ import java.util.Map;
  * Use <code>compile</code> to load a set of files and create a {@link Runtime}.
  * <p>
  * Use <code>evaluate</code> to evaluate an expression in empty scope.
+ * <p>
+ * Use {@link CompiledExpression.Builder} to compile an expression once, and evaluate it repeatedly with given inputs.
  */
 public class TweakFlow {
 
@@ -112,6 +118,18 @@ public class TweakFlow {
 
   }
 
+  // compiles a new runtime, analyzing only changed modules and the modules depending on them
+  public static Runtime recompile(Runtime previous, List<String> changedPaths){
+    return recompile(previous, previous.getRuntimeSet().getAnalysisSet().getLoadPath(), changedPaths);
+  }
+
+  public static Runtime recompile(Runtime previous, LoadPath loadPath, List<String> changedPaths){
+    AnalysisResult analysisResult = Analysis.analyze(previous.getRuntimeSet().getAnalysisResult(), loadPath, changedPaths);
+    if (analysisResult.isError()) throw analysisResult.getException();
+    RuntimeSet runtimeSet = new RuntimeSet(analysisResult);
+    return new Runtime(runtimeSet, previous.getDebugHandler());
+  }
+
   public static Runtime compileRecovery(LoadPath loadPath, List<String> paths, DebugHandler debugHandler, boolean multiThreaded){
     AnalysisResult analysisResult = Analysis.recoveryAnalysis(paths, loadPath, multiThreaded);
     if (analysisResult.isError()) throw analysisResult.getException();
@@ -129,11 +147,51 @@ public class TweakFlow {
 
   }
 
+  public static final int DEFAULT_EXPRESSION_CACHE_SIZE = 1024;
+
+  private static volatile ExpressionCache expressionCache = new ExpressionCache(DEFAULT_EXPRESSION_CACHE_SIZE);
+
+  // the cache used by evaluate, and consequently by std core.eval
+  public static ExpressionCache getExpressionCache(){
+    return expressionCache;
+  }
+
+  // replaces the cache used by evaluate, null disables caching
+  public static void setExpressionCache(ExpressionCache cache){
+    expressionCache = cache;
+  }
+
   public static Value evaluate(String exp){
     return evaluate(exp, true);
   }
 
   public static Value evaluate(String exp, boolean allowNativeFunctions){
+    ExpressionCache cache = expressionCache;
+    if (cache != null){
+      return cache.evaluate(exp, allowNativeFunctions);
+    }
+    return Interpreter.evaluateInEmptyScope(compileExpression(exp, allowNativeFunctions));
+  }
+
+  // evaluates within given budget, null evaluates without limits
+  public static Value evaluate(String exp, boolean allowNativeFunctions, EvaluationBudget budget){
+    return evaluateInContext(exp, allowNativeFunctions, new EvaluationContext().setBudget(budget));
+  }
+
+  // evaluates as part of a running evaluation, counting against the budget it has started
+  public static Value evaluateInContext(String exp, boolean allowNativeFunctions, EvaluationContext context){
+    ExpressionCache cache = expressionCache;
+    ExpressionNode node = cache != null ? cache.compile(exp, allowNativeFunctions) : compileExpression(exp, allowNativeFunctions);
+    return Interpreter.evaluateInEmptyScope(node, context);
+  }
+
+  static ExpressionNode compileExpression(String exp, boolean allowNativeFunctions){
+    ExpressionNode node = parseExpression(exp, allowNativeFunctions);
+    analyzeExpression(node);
+    return node;
+  }
+
+  static ExpressionNode parseExpression(String exp, boolean allowNativeFunctions){
 
     ParseUnit parseUnit = new MemoryLocation.Builder()
         .allowNativeFunctions(allowNativeFunctions)
@@ -147,19 +205,22 @@ public class TweakFlow {
       throw parseResult.getException();
     }
 
-    ExpressionNode node = (ExpressionNode) parseResult.getNode();
+    return (ExpressionNode) parseResult.getNode();
+  }
 
+  // prepares a parsed expression for evaluation in empty scope
+  static void analyzeExpression(ExpressionNode node){
     new MetaDataAnalysisVisitor().visit(node);
     new ScopeBuilderVisitor(new GlobalScope()).visit(node);
     new ExpressionResolverVisitor().visit(node);
     new ClosureAnalysisVisitor().visit(node);
     DependencyVerification.verify(node);
+    new FrameLayoutVisitor().visit(node);
+    new TailCallAnalysisVisitor().visit(node);
     new OpBuilderVisitor().visit(node);
     new ConstantOpsFoldingVisitor().visit(node);
     new OpSpecializationVisitor().visit(node);
 
-    return Interpreter.evaluateInEmptyScope(node);
-
   }
 
 }
@@ -30,7 +30,9 @@ import com.twineworks.tweakflow.lang.analysis.ops.OpSpecialization;
 import com.twineworks.tweakflow.lang.analysis.references.ClosureAnalysis;
 import com.twineworks.tweakflow.lang.analysis.references.DependencyVerification;
 import com.twineworks.tweakflow.lang.analysis.references.MetaDataAnalysis;
+import com.twineworks.tweakflow.lang.analysis.references.TailCallAnalysis;
 import com.twineworks.tweakflow.lang.analysis.scope.ExpressionResolver;
+import com.twineworks.tweakflow.lang.analysis.scope.FrameLayout;
 import com.twineworks.tweakflow.lang.analysis.scope.Linker;
 import com.twineworks.tweakflow.lang.analysis.scope.ScopeBuilder;
 import com.twineworks.tweakflow.lang.errors.LangException;
@@ -39,7 +41,7 @@ import com.twineworks.tweakflow.lang.load.ParallelLoader;
 import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
 
 import java.util.ArrayList;
-import java.util.Collections;
+import java.util.Collection;
 import java.util.List;
 
 public class Analysis {
@@ -68,6 +70,14 @@ public class Analysis {
     MetaDataAnalysis.analyze(analysisSet, recovery);
   }
 
+  private static void layoutFrames(AnalysisSet analysisSet) {
+    FrameLayout.analyze(analysisSet);
+  }
+
+  private static void analyzeTailCalls(AnalysisSet analysisSet) {
+    TailCallAnalysis.analyze(analysisSet);
+  }
+
   private static void foldConstantOps(AnalysisSet analysisSet) {
     ConstantOpsFolding.analyze(analysisSet);
   }
@@ -102,6 +112,23 @@ public class Analysis {
     }
   }
 
+  // analyzes changed units and all units depending on them, directly or transitively
+  // any other units are carried over from the previous analysis as compiled
+  public static AnalysisResult analyze(AnalysisResult previous, Collection<String> changedPaths){
+    return analyze(previous, previous.getAnalysisSet().getLoadPath(), changedPaths);
+  }
+
+  public static AnalysisResult analyze(AnalysisResult previous, LoadPath loadPath, Collection<String> changedPaths){
+    long start = System.currentTimeMillis();
+    try {
+      AnalysisSet analysisSet = IncrementalAnalysis.prepare(previous, loadPath, changedPaths);
+      return analyze(analysisSet, start);
+    } catch (RuntimeException e){
+      long end = System.currentTimeMillis();
+      return AnalysisResult.error(LangException.wrap(e), end-start);
+    }
+  }
+
   public static AnalysisResult recoveryAnalysis(List<String> paths, LoadPath loadPath, boolean multiThreaded){
     long start = System.currentTimeMillis();
     try {
@@ -134,6 +161,8 @@ public class Analysis {
       resolveReferences(analysisSet, false);
       analyzeClosures(analysisSet);
       verifyDependencies(analysisSet, false);
+      layoutFrames(analysisSet);
+      analyzeTailCalls(analysisSet);
       buildOps(analysisSet, false);
       foldConstantOps(analysisSet);
       specializeOps(analysisSet);
@@ -160,6 +189,8 @@ public class Analysis {
       resolveReferences(analysisSet, true);
       analyzeClosures(analysisSet);
       verifyDependencies(analysisSet, true);
+      layoutFrames(analysisSet);
+      analyzeTailCalls(analysisSet);
       buildOps(analysisSet, true);
       foldConstantOps(analysisSet);
       specializeOps(analysisSet);
@@ -37,6 +37,7 @@ public class AnalysisSet {
   private final Map<String, AnalysisUnit> units = new HashMap<>();
 
   private IdentityHashMap<Symbol, LinkedHashSet<Symbol>> dependencies;
+  private IdentityHashMap<Symbol, LinkedHashSet<Symbol>> varDependencies;
   private IdentityHashMap<Symbol, LinkedHashSet<Symbol>> dependants;
 
   private final ArrayList<LangException> recoveryErrors = new ArrayList<>();
@@ -68,6 +69,15 @@ public class AnalysisSet {
     return this;
   }
 
+  public IdentityHashMap<Symbol, LinkedHashSet<Symbol>> getVarDependencies() {
+    return varDependencies;
+  }
+
+  public AnalysisSet setVarDependencies(IdentityHashMap<Symbol, LinkedHashSet<Symbol>> varDependencies) {
+    this.varDependencies = varDependencies;
+    return this;
+  }
+
   public IdentityHashMap<Symbol, LinkedHashSet<Symbol>> getDependants() {
     return dependants;
   }
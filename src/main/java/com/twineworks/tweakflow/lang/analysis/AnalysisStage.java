@@ -33,6 +33,8 @@ public enum AnalysisStage {
   RESOLVED_EXPRESSIONS(40),
   CLOSURES_ANALYZED(45),
   DEPENDENCIES_VERIFIED(50),
+  FRAMES_LAID_OUT(60),
+  TAIL_CALLS_ANALYZED(65),
   OPS_ASSIGNED(70),
   CONSTANTS_FOLDED(80),
   OPS_SPECIALIZED(90),
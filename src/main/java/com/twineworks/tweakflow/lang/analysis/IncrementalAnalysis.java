@@ -0,0 +1,192 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.analysis;
+
+import com.twineworks.tweakflow.lang.ast.Node;
+import com.twineworks.tweakflow.lang.ast.SymbolNode;
+import com.twineworks.tweakflow.lang.ast.aliases.AliasNode;
+import com.twineworks.tweakflow.lang.ast.exports.ExportNode;
+import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
+import com.twineworks.tweakflow.lang.ast.imports.ImportMemberNode;
+import com.twineworks.tweakflow.lang.ast.imports.ImportNode;
+import com.twineworks.tweakflow.lang.ast.structure.InteractiveNode;
+import com.twineworks.tweakflow.lang.load.Loader;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPathLocation;
+import com.twineworks.tweakflow.lang.parse.ParseResult;
+import com.twineworks.tweakflow.lang.scope.GlobalScope;
+import com.twineworks.tweakflow.lang.scope.Symbol;
+
+import java.util.*;
+
+// prepares an analysis set from a previous analysis, such that only changed units
+// and units that depend on them, directly or transitively, are analyzed again
+// compiled units of the previous analysis are shared, they do not change
+class IncrementalAnalysis {
+
+  static AnalysisSet prepare(AnalysisResult previous, LoadPath loadPath, Collection<String> changedPaths){
+
+    if (!previous.isSuccess()) throw new IllegalArgumentException("previous analysis must be successful");
+
+    AnalysisSet previousSet = previous.getAnalysisSet();
+    Map<String, AnalysisUnit> previousUnits = previousSet.getUnits();
+
+    // changed units, and forget about their parse results
+    Set<String> changed = new HashSet<>();
+    Map<String, ParseResult> parseResultCache = loadPath.getParseResultCache();
+    for (String path : changedPaths) {
+      LoadPathLocation location = loadPath.pathLocationFor(path);
+      String key = location == null ? path : location.resolve(path);
+      changed.add(key);
+      if (parseResultCache != null){
+        parseResultCache.remove(key);
+      }
+    }
+
+    // units to analyze again: changed units and all units depending on them
+    Map<String, Set<String>> dependants = unitDependants(previousUnits);
+    LinkedHashSet<String> stale = new LinkedHashSet<>();
+    ArrayDeque<String> queue = new ArrayDeque<>();
+    for (String key : previousUnits.keySet()) {
+      // interactive units are cheap to analyze, and refer to modules by path
+      if (changed.contains(key) || previousUnits.get(key).getUnit() instanceof InteractiveNode){
+        queue.add(key);
+      }
+    }
+
+    while (!queue.isEmpty()){
+      String key = queue.poll();
+      if (!stale.add(key)) continue;
+      queue.addAll(dependants.getOrDefault(key, Collections.emptySet()));
+    }
+
+    AnalysisSet analysisSet = new AnalysisSet(loadPath);
+    Map<String, AnalysisUnit> units = analysisSet.getUnits();
+    GlobalScope previousScope = previousSet.getGlobalScope();
+    GlobalScope globalScope = analysisSet.getGlobalScope();
+
+    // compiled units carry over, along with their symbols in global scope
+    for (AnalysisUnit unit : previousUnits.values()) {
+      String key = unit.getPath();
+      if (stale.contains(key)) continue;
+      units.put(key, new AnalysisUnit()
+          .setLocation(unit.getLocation())
+          .setPath(key)
+          .setUnit(unit.getUnit())
+          .setStage(unit.getStage())
+          .setTotalLoadDurationMillis(unit.getTotalLoadDurationMillis())
+          .setLoadDurationMillis(unit.getLoadDurationMillis())
+          .setParseDurationMillis(unit.getParseDurationMillis())
+          .setBuildDurationMillis(unit.getBuildDurationMillis()));
+
+      globalScope.getUnitScope().getSymbols().put(key, previousScope.getUnitScope().getSymbols().get(key));
+    }
+
+    for (Symbol symbol : previousScope.getSymbols().values()) {
+      if (units.containsKey(unitOf(symbol))){
+        globalScope.getSymbols().put(symbol.getName(), symbol);
+      }
+    }
+
+    // known dependencies of compiled units carry over
+    analysisSet.setDependencies(retainUnits(previousSet.getDependencies(), units.keySet()));
+    analysisSet.setVarDependencies(retainUnits(previousSet.getVarDependencies(), units.keySet()));
+
+    // load stale units again, along with any new imports
+    Loader.load(loadPath, new ArrayList<>(stale), units, true);
+
+    return analysisSet;
+
+  }
+
+  private static IdentityHashMap<Symbol, LinkedHashSet<Symbol>> retainUnits(IdentityHashMap<Symbol, LinkedHashSet<Symbol>> dependencies, Set<String> keys){
+    IdentityHashMap<Symbol, LinkedHashSet<Symbol>> ret = new IdentityHashMap<>();
+    if (dependencies == null) return ret;
+    for (Map.Entry<Symbol, LinkedHashSet<Symbol>> entry : dependencies.entrySet()) {
+      if (keys.contains(unitOf(entry.getKey()))){
+        ret.put(entry.getKey(), entry.getValue());
+      }
+    }
+    return ret;
+  }
+
+  // unit key -> keys of units referring to it
+  private static Map<String, Set<String>> unitDependants(Map<String, AnalysisUnit> units){
+    Map<String, Set<String>> dependants = new HashMap<>();
+    for (AnalysisUnit unit : units.values()) {
+      Set<String> dependencies = new HashSet<>();
+      collectDependencies(unit.getUnit(), dependencies);
+      for (String dependency : dependencies) {
+        if (dependency.equals(unit.getPath())) continue;
+        dependants.computeIfAbsent(dependency, (k) -> new HashSet<>()).add(unit.getPath());
+      }
+    }
+    return dependants;
+  }
+
+  private static void collectDependencies(Node node, Set<String> dependencies){
+
+    if (node == null) return;
+
+    if (node instanceof ImportNode){
+      AnalysisUnit importedUnit = ((ImportNode) node).getImportedUnit();
+      if (importedUnit != null) dependencies.add(importedUnit.getPath());
+    }
+    else if (node instanceof ImportMemberNode){
+      collectSymbolChain(((ImportMemberNode) node).getSymbol(), dependencies);
+    }
+    else if (node instanceof AliasNode){
+      collectSymbolChain(((AliasNode) node).getSymbol(), dependencies);
+    }
+    else if (node instanceof ExportNode){
+      collectSymbolChain(((ExportNode) node).getExportedSymbol(), dependencies);
+    }
+    else if (node instanceof ReferenceNode){
+      collectSymbolChain(((ReferenceNode) node).getReferencedSymbol(), dependencies);
+    }
+
+    List<? extends Node> children = node.getChildren();
+    if (children == null) return;
+    for (Node child : children) {
+      collectDependencies(child, dependencies);
+    }
+  }
+
+  private static void collectSymbolChain(Symbol symbol, Set<String> dependencies){
+    Symbol s = symbol;
+    while (s != null){
+      String unit = unitOf(s);
+      if (unit != null) dependencies.add(unit);
+      if (s.getRef() == s) break;
+      s = s.getRef();
+    }
+  }
+
+  private static String unitOf(Symbol symbol){
+    SymbolNode node = symbol.getNode();
+    if (node == null || node.getSourceInfo() == null) return null;
+    return node.getSourceInfo().getParseUnit().getPath();
+  }
+
+}
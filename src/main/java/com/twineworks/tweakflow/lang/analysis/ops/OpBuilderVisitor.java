@@ -457,6 +457,9 @@ public class OpBuilderVisitor extends AExpressionDescendingVisitor implements Vi
     if (node.isClosure()) {
       return node.setOp(new ClosureReferenceOp(node));
     }
+    if (node.isFrameSlot()) {
+      return node.setOp(new FrameReferenceOp(node));
+    }
     if (node.isSimpleLocal()) {
       return node.setOp(new SimpleLocalReferenceOp(node.getSimpleName()));
     }
@@ -115,7 +115,13 @@ public class DependencyVerification {
 
     IdentityHashMap<Symbol, LinkedHashSet<Symbol>> dependencies = analysis.getDirectDependencies();
     IdentityHashMap<Symbol, LinkedHashSet<Symbol>> varDependencies = analysis.getVarDependencies();
+
+    // units verified in a previous analysis contribute their known dependencies
+    mergeDependencies(dependencies, analysisSet.getDependencies());
+    mergeDependencies(varDependencies, analysisSet.getVarDependencies());
+
     analysisSet.setDependencies(dependencies);
+    analysisSet.setVarDependencies(varDependencies);
 
     // find global evaluation order
     List<Symbol> globalOrder;
@@ -162,7 +168,9 @@ public class DependencyVerification {
     }
 
     for (AnalysisUnit unit : analysisSet.getUnits().values()) {
-      unit.setStage(AnalysisStage.DEPENDENCIES_VERIFIED);
+      if (unit.getStage().getProgress() < AnalysisStage.DEPENDENCIES_VERIFIED.getProgress()){
+        unit.setStage(AnalysisStage.DEPENDENCIES_VERIFIED);
+      }
     }
 
   }
@@ -213,6 +221,13 @@ public class DependencyVerification {
 
   }
 
+  private static void mergeDependencies(IdentityHashMap<Symbol, LinkedHashSet<Symbol>> dependencies, IdentityHashMap<Symbol, LinkedHashSet<Symbol>> known){
+    if (known == null) return;
+    for (Map.Entry<Symbol, LinkedHashSet<Symbol>> entry : known.entrySet()) {
+      dependencies.computeIfAbsent(entry.getKey(), (k) -> new LinkedHashSet<>()).addAll(entry.getValue());
+    }
+  }
+
   private static void transitiveDependencies(Symbol x, IdentityHashMap<Symbol, LinkedHashSet<Symbol>> deps, LinkedHashSet<Symbol> collect){
 
     LinkedHashSet<Symbol> directDeps = deps.get(x);
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.analysis.references;
+
+import com.twineworks.tweakflow.lang.analysis.visitors.AExpressionDescendingVisitor;
+import com.twineworks.tweakflow.lang.analysis.visitors.Visitor;
+import com.twineworks.tweakflow.lang.ast.expressions.*;
+import com.twineworks.tweakflow.lang.ast.structure.InteractiveNode;
+import com.twineworks.tweakflow.lang.ast.structure.InteractiveSectionNode;
+import com.twineworks.tweakflow.lang.ast.structure.LibraryNode;
+import com.twineworks.tweakflow.lang.ast.structure.ModuleNode;
+import com.twineworks.tweakflow.lang.ast.structure.match.MatchLineNode;
+
+// marks calls in tail position of function bodies
+// a tail call is the last thing a function does, so the interpreter performs it
+// after the calling function has returned, reusing the call's stack space
+public class TailCallAnalysisVisitor extends AExpressionDescendingVisitor implements Visitor {
+
+  @Override
+  public InteractiveNode visit(InteractiveNode node) {
+    node.getSections().forEach(this::visit);
+    return node;
+  }
+
+  @Override
+  public InteractiveSectionNode visit(InteractiveSectionNode node) {
+    visit(node.getVars());
+    return node;
+  }
+
+  @Override
+  public ModuleNode visit(ModuleNode node) {
+    node.getComponents().forEach(this::visit);
+    return node;
+  }
+
+  @Override
+  public LibraryNode visit(LibraryNode node) {
+    visit(node.getVars());
+    return node;
+  }
+
+  @Override
+  public ExpressionNode visit(FunctionNode node) {
+    super.visit(node);
+    if (node.getExpression() != null){
+      markTailCalls(node.getExpression());
+    }
+    return node;
+  }
+
+  // marks tail calls in given expression, which is in tail position
+  // returns true if any tail calls were found
+  private boolean markTailCalls(ExpressionNode node){
+
+    if (node instanceof CallNode){
+      ((CallNode) node).setTailCall(true);
+      return true;
+    }
+
+    if (node instanceof IfNode){
+      IfNode ifNode = (IfNode) node;
+      boolean inThen = markTailCalls(ifNode.getThenExpression());
+      boolean inElse = markTailCalls(ifNode.getElseExpression());
+      return inThen || inElse;
+    }
+
+    if (node instanceof LetNode){
+      return markTailCalls(((LetNode) node).getExpression());
+    }
+
+    if (node instanceof MatchNode){
+      boolean found = false;
+      for (MatchLineNode line : ((MatchNode) node).getMatchLines().getElements()) {
+        found |= markTailCalls(line.getExpression());
+      }
+      return found;
+    }
+
+    // the declared return type of a function is a cast around its body
+    // the cast applies to whatever value the tail call eventually returns
+    if (node instanceof CastNode){
+      CastNode castNode = (CastNode) node;
+      boolean found = markTailCalls(castNode.getExpression());
+      castNode.setTailCall(found);
+      return found;
+    }
+
+    return false;
+  }
+
+}
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.analysis.scope;
+
+import com.twineworks.tweakflow.lang.analysis.visitors.AExpressionDescendingVisitor;
+import com.twineworks.tweakflow.lang.analysis.visitors.Visitor;
+import com.twineworks.tweakflow.lang.ast.expressions.*;
+import com.twineworks.tweakflow.lang.ast.structure.InteractiveNode;
+import com.twineworks.tweakflow.lang.ast.structure.InteractiveSectionNode;
+import com.twineworks.tweakflow.lang.ast.structure.LibraryNode;
+import com.twineworks.tweakflow.lang.ast.structure.ModuleNode;
+import com.twineworks.tweakflow.lang.ast.structure.match.MatchLineNode;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
+import com.twineworks.tweakflow.lang.scope.Scope;
+import com.twineworks.tweakflow.lang.scope.Scopes;
+import com.twineworks.tweakflow.lang.scope.Symbol;
+
+// lays out the memory frames of local scopes, and assigns a (depth, slot) coordinate
+// to local references, so they can be read from their frame directly
+public class FrameLayoutVisitor extends AExpressionDescendingVisitor implements Visitor {
+
+  @Override
+  public InteractiveNode visit(InteractiveNode node) {
+    node.getSections().forEach(this::visit);
+    return node;
+  }
+
+  @Override
+  public InteractiveSectionNode visit(InteractiveSectionNode node) {
+    visit(node.getVars());
+    return node;
+  }
+
+  @Override
+  public ModuleNode visit(ModuleNode node) {
+    node.getComponents().forEach(this::visit);
+    return node;
+  }
+
+  @Override
+  public LibraryNode visit(LibraryNode node) {
+    visit(node.getVars());
+    return node;
+  }
+
+  private void layout(Scope scope) {
+    if (scope instanceof LocalScope) {
+      ((LocalScope) scope).layoutFrame();
+    }
+  }
+
+  @Override
+  public ExpressionNode visit(LetNode node) {
+    layout(node.getExpression().getScope());
+    return super.visit(node);
+  }
+
+  @Override
+  public ExpressionNode visit(ForNode node) {
+    layout(node.getExpression().getScope());
+    return super.visit(node);
+  }
+
+  @Override
+  public MatchLineNode visit(MatchLineNode node) {
+    layout(node.getExpression().getScope());
+    return super.visit(node);
+  }
+
+  @Override
+  public ExpressionNode visit(TryCatchNode node) {
+    // catch gets a frame only if it binds the caught exception
+    if (node.getCaughtException() != null) {
+      layout(node.getCatchExpression().getScope());
+    }
+    return super.visit(node);
+  }
+
+  @Override
+  public ExpressionNode visit(FunctionNode node) {
+    // functions implemented via native code have no body, and no frame
+    if (node.getExpression() != null) {
+      layout(node.getExpression().getScope());
+    }
+    return super.visit(node);
+  }
+
+  @Override
+  public ExpressionNode visit(ReferenceNode node) {
+
+    Symbol symbol = node.getReferencedSymbol();
+
+    if (symbol == null || node.isClosure()) return node;
+    if (node.getAnchor() != ReferenceNode.Anchor.LOCAL || node.getElements().size() != 1) return node;
+
+    int depth = Scopes.frameDepth(node.getScope(), symbol);
+    if (depth < 0) return node;
+
+    int slot = ((LocalScope) symbol.getScope()).getFrameSlot(symbol.getName());
+    if (slot > 0) {
+      node.setFrameSlot(depth, slot);
+    }
+
+    return node;
+  }
+
+}
@@ -28,9 +28,11 @@ import com.twineworks.tweakflow.lang.analysis.visitors.Visitor;
 import com.twineworks.tweakflow.lang.parse.SourceInfo;
 import com.twineworks.tweakflow.lang.scope.Scope;
 
+import java.io.Serializable;
 import java.util.List;
 
-public interface Node {
+// nodes are serializable right after parsing, see DiskParseCache
+public interface Node extends Serializable {
 
   SourceInfo getSourceInfo();
   Node setSourceInfo(SourceInfo sourceInfo);
@@ -34,6 +34,8 @@ import java.util.List;
 
 public class Arguments implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private List<ArgumentNode> list = new ArrayList<>();
   private SourceInfo sourceInfo;
   private Scope scope;
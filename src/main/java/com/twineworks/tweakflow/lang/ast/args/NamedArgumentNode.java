@@ -35,6 +35,8 @@ import java.util.List;
 
 public class NamedArgumentNode implements ArgumentNode {
 
+  private static final long serialVersionUID = 1L;
+
   private String name;
   private ExpressionNode expression;
   private SourceInfo sourceInfo;
@@ -37,6 +37,8 @@ import java.util.List;
 
 public class ParameterNode implements Node, SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
   private String name;
   private int index;
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class Parameters implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private LinkedHashMap<String, ParameterNode> map;
   private SourceInfo sourceInfo;
   private Scope scope;
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class PositionalArgumentNode implements ArgumentNode {
 
+  private static final long serialVersionUID = 1L;
+
   private int index;
   private Scope scope;
   private ExpressionNode expression;
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class SplatArgumentNode implements ArgumentNode {
 
+  private static final long serialVersionUID = 1L;
+
   private int index;
   private ExpressionNode expression;
   private SourceInfo sourceInfo;
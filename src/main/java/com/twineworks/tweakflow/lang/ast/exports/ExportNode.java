@@ -37,6 +37,8 @@ import java.util.List;
 
 public class ExportNode implements SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ReferenceNode source;
   private SourceInfo sourceInfo;
   private String symbolName;
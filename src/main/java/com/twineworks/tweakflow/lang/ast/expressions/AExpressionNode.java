@@ -30,7 +30,10 @@ import com.twineworks.tweakflow.lang.scope.Scope;
 
 public abstract class AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   protected ExpressionOp expressionOp;
+  protected volatile ExpressionOp compiledOp;
   protected SourceInfo sourceInfo;
   protected Scope scope;
 
@@ -48,6 +51,7 @@ public abstract class AExpressionNode implements ExpressionNode {
   @Override
   public ExpressionNode setOp(ExpressionOp op) {
     this.expressionOp = op;
+    this.compiledOp = null;
     return this;
   }
 
@@ -56,6 +60,17 @@ public abstract class AExpressionNode implements ExpressionNode {
     return expressionOp;
   }
 
+  @Override
+  public ExpressionNode setCompiledOp(ExpressionOp op) {
+    this.compiledOp = op;
+    return this;
+  }
+
+  @Override
+  public ExpressionOp getCompiledOp() {
+    return compiledOp;
+  }
+
   @Override
   public Scope getScope() {
     return scope;
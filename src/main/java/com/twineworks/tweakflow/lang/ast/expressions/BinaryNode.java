@@ -34,6 +34,8 @@ import java.util.List;
 
 public class BinaryNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private byte[] bytes;
 
   @Override
@@ -34,6 +34,8 @@ import java.util.List;
 
 public class BitwiseAndNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode leftExpression;
   private ExpressionNode rightExpression;
 
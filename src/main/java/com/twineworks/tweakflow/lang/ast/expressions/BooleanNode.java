@@ -35,6 +35,8 @@ import java.util.List;
 
 public class BooleanNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private Boolean boolVal;
 
   @Override
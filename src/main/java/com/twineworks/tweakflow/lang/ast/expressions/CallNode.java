@@ -35,8 +35,11 @@ import java.util.List;
 
 public class CallNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private Arguments arguments = new Arguments();
   private ExpressionNode expression;
+  private boolean tailCall;
 
   @Override
   public CallNode copy() {
@@ -87,4 +90,14 @@ public class CallNode extends AExpressionNode implements ExpressionNode {
     return this;
   }
 
+  // set by analysis if this is the last call a function body makes
+  public boolean isTailCall() {
+    return tailCall;
+  }
+
+  public CallNode setTailCall(boolean tailCall) {
+    this.tailCall = tailCall;
+    return this;
+  }
+
 }
@@ -33,8 +33,11 @@ import java.util.List;
 
 public class CastNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode expression;
   private Type targetType;
+  private boolean tailCall;
 
   @Override
   public CastNode copy() {
@@ -54,6 +57,16 @@ public class CastNode extends AExpressionNode implements ExpressionNode {
     return this;
   }
 
+  // set by analysis if this cast applies to the result of a tail call
+  public boolean isTailCall() {
+    return tailCall;
+  }
+
+  public CastNode setTailCall(boolean tailCall) {
+    this.tailCall = tailCall;
+    return this;
+  }
+
   public ExpressionNode getExpression() {
     return expression;
   }
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class DateTimeNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DateTimeValue dateTime;
 
   @Override
@@ -36,10 +36,13 @@ import java.util.List;
 
 public class DebugNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<ExpressionNode> expressions;
   private SourceInfo sourceInfo;
   private Scope scope;
   private ExpressionOp op;
+  private volatile ExpressionOp compiledOp;
 
   @Override
   public DebugNode copy() {
@@ -106,6 +109,7 @@ public class DebugNode implements ExpressionNode {
   @Override
   public DebugNode setOp(ExpressionOp op) {
     this.op = op;
+    this.compiledOp = null;
     return this;
   }
 
@@ -114,5 +118,16 @@ public class DebugNode implements ExpressionNode {
     return op;
   }
 
+  @Override
+  public DebugNode setCompiledOp(ExpressionOp op) {
+    this.compiledOp = op;
+    return this;
+  }
+
+  @Override
+  public ExpressionOp getCompiledOp() {
+    return compiledOp;
+  }
+
 
 }
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class DecimalNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private BigDecimal decimal;
 
   public DecimalNode(BigDecimal decimal) {
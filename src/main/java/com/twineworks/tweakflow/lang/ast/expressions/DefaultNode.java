@@ -34,6 +34,8 @@ import java.util.List;
 
 public class DefaultNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode expression;
   private ExpressionNode defaultExpression;
   private Type cachedValueType;
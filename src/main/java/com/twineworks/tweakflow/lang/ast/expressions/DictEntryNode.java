@@ -34,6 +34,8 @@ import java.util.List;
 
 public class DictEntryNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode key;
   private ExpressionNode value;
 
@@ -34,6 +34,8 @@ import java.util.List;
 
 public class DictNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private List<DictEntryNode> entries = new ArrayList<>();
 
   @Override
@@ -49,4 +49,8 @@ public interface ExpressionNode extends Node, ForHeadElementNode {
   ExpressionNode setOp(ExpressionOp op);
   ExpressionOp getOp();
 
+  // generated replacement of the op tree, present once compiled ops were used
+  ExpressionNode setCompiledOp(ExpressionOp op);
+  ExpressionOp getCompiledOp();
+
 }
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class ForNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ForHead head = new ForHead();
   private ExpressionNode expression;
 
@@ -40,6 +40,8 @@ import java.util.Set;
 
 public class FunctionNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private Parameters parameters = new Parameters();
   private ExpressionNode expression;
   private Set<ReferenceNode> closedOverReferences = new HashSet<>();
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class IfNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode condition;
   private ExpressionNode thenExpression;
   private ExpressionNode elseExpression;
@@ -34,6 +34,8 @@ import java.util.List;
 
 public class ListNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private List<ExpressionNode> elements = new ArrayList<>();
 
   @Override
@@ -38,6 +38,8 @@ import java.util.List;
 
 public class MatchNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode subject;
   private MatchLines matchLines = new MatchLines();
 
@@ -34,6 +34,8 @@ import java.util.List;
 
 public class NilNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   @Override
   public NilNode copy() {
     NilNode copy = new NilNode();
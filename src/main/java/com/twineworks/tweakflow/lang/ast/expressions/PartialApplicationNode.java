@@ -35,6 +35,8 @@ import java.util.List;
 
 public class PartialApplicationNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private PartialArguments arguments = new PartialArguments();
   private ExpressionNode expression;
 
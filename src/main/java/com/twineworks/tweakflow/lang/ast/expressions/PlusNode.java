@@ -35,6 +35,8 @@ import java.util.List;
 
 public class PlusNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode leftExpression;
   private ExpressionNode rightExpression;
   private Type cachedValueType;
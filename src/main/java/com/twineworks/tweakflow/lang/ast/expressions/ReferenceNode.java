@@ -37,6 +37,8 @@ import java.util.List;
 
 public class ReferenceNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   public enum Anchor {
     LOCAL, LIBRARY, FLOW, MODULE, GLOBAL
   }
@@ -48,6 +50,8 @@ public class ReferenceNode extends AExpressionNode implements ExpressionNode {
   private boolean isSimpleLocal = false;
   private boolean isSimpleParent = false;
   private String simpleName;
+  private int frameDepth = -1;
+  private int frameSlot = -1;
 
   public Symbol getReferencedSymbol() {
     return referencedSymbol;
@@ -76,6 +80,24 @@ public class ReferenceNode extends AExpressionNode implements ExpressionNode {
     return simpleName;
   }
 
+  public boolean isFrameSlot() {
+    return frameSlot >= 0;
+  }
+
+  public int getFrameDepth() {
+    return frameDepth;
+  }
+
+  public int getFrameSlot() {
+    return frameSlot;
+  }
+
+  public ReferenceNode setFrameSlot(int frameDepth, int frameSlot) {
+    this.frameDepth = frameDepth;
+    this.frameSlot = frameSlot;
+    return this;
+  }
+
   public boolean isClosure() {
     return isClosure;
   }
@@ -127,6 +149,8 @@ public class ReferenceNode extends AExpressionNode implements ExpressionNode {
     copy.isClosure = isClosure;
     copy.isSimpleLocal = isSimpleLocal;
     copy.isSimpleParent = isSimpleParent;
+    copy.frameDepth = frameDepth;
+    copy.frameSlot = frameSlot;
     return copy;
   }
 
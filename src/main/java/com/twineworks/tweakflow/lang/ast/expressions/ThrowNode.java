@@ -34,6 +34,8 @@ import java.util.List;
 
 public class ThrowNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode exceptionExpression;
 
   @Override
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class TryCatchNode extends AExpressionNode implements ExpressionNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode tryExpression;
   private VarDecNode caughtException;
   private VarDecNode caughtTrace;
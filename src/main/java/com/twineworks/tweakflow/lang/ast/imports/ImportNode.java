@@ -36,6 +36,8 @@ import java.util.List;
 
 public class ImportNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode modulePath;
   private SourceInfo sourceInfo;
   private List<ImportMemberNode> members = new ArrayList<>();
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class ModuleImportNode implements ImportMemberNode {
 
+  private static final long serialVersionUID = 1L;
+
   private String importName;
   private SourceInfo sourceInfo;
   private AnalysisUnit importedCompilationUnit;
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class NameImportNode implements ImportMemberNode {
 
+  private static final long serialVersionUID = 1L;
+
   private String importName;
   private String exportName;
   private SourceInfo sourceInfo;
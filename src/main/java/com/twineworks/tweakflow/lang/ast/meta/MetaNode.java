@@ -35,6 +35,8 @@ import java.util.List;
 
 public class MetaNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode expression;
   private SourceInfo sourceInfo;
   private Scope scope;
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class PartialArgumentNode implements ArgumentNode {
 
+  private static final long serialVersionUID = 1L;
+
   private String name;
   private ExpressionNode expression;
   private SourceInfo sourceInfo;
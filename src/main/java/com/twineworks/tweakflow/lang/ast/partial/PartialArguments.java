@@ -36,6 +36,8 @@ import java.util.List;
 
 public class PartialArguments implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private List<PartialArgumentNode> list = new ArrayList<>();
   private HashMap<String, ExpressionNode> map;
   private SourceInfo sourceInfo;
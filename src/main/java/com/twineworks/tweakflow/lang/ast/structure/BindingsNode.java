@@ -34,6 +34,8 @@ import java.util.List;
 
 public class BindingsNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
   private VarDefs vars = new VarDefs();
   private Scope scope;
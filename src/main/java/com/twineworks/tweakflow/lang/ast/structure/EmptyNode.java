@@ -40,6 +40,8 @@ import java.util.List;
 
 public class EmptyNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
 
   @Override
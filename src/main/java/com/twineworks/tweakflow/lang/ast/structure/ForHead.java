@@ -35,6 +35,8 @@ import java.util.List;
 
 public class ForHead implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<ForHeadElementNode> elements = new ArrayList<>();
 
   private SourceInfo sourceInfo;
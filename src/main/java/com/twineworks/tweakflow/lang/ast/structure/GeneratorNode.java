@@ -39,6 +39,8 @@ import java.util.List;
 
 public class GeneratorNode implements SymbolNode, ForHeadElementNode, NamedValueNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode valueExpression;
   private Type declaredType;
 
@@ -37,6 +37,8 @@ import java.util.List;
 
 public class InteractiveNode implements UnitNode, SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
   private Scope scope;
   private Symbol unitSymbol;
@@ -37,6 +37,8 @@ import java.util.List;
 
 public class InteractiveSectionNode implements SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
   private ReferenceNode inScopeRef;
   private VarDefs vars = new VarDefs();
@@ -38,6 +38,8 @@ import java.util.List;
 
 public class LibraryNode implements ComponentNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DocNode docNode;
   private MetaNode metaNode;
 
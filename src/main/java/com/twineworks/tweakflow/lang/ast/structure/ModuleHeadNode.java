@@ -41,6 +41,8 @@ import java.util.List;
 
 public class ModuleHeadNode implements MetaDataNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DocNode docNode;
   private MetaNode metaNode;
   private List<ImportNode> imports = new ArrayList<>();
@@ -41,6 +41,8 @@ import java.util.stream.Collectors;
 
 public class ModuleNode implements MetaDataNode, SymbolNode, UnitNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DocNode docNode;
   private MetaNode metaNode;
   private List<ImportNode> imports = new ArrayList<>();
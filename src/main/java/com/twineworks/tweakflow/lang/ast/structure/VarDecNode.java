@@ -39,6 +39,8 @@ import java.util.List;
 
 public class VarDecNode implements MetaDataNode, SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DocNode docNode;
   private MetaNode metaNode;
 
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class VarDecs implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private LinkedHashMap<String, VarDecNode> map = new LinkedHashMap<>();
   private SourceInfo sourceInfo;
   private Scope scope;
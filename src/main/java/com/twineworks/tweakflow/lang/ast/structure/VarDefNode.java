@@ -42,6 +42,8 @@ import java.util.List;
 
 public class VarDefNode implements MetaDataNode, SymbolNode, ForHeadElementNode, NamedValueNode {
 
+  private static final long serialVersionUID = 1L;
+
   private DocNode docNode;
   private MetaNode metaNode;
   private ExpressionNode valueExpression;
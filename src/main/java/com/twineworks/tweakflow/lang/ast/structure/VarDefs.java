@@ -31,6 +31,8 @@ import com.twineworks.tweakflow.lang.parse.SourceInfo;
 import com.twineworks.tweakflow.lang.scope.Scope;
 import com.twineworks.tweakflow.lang.scope.Symbol;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -38,12 +40,14 @@ import java.util.Set;
 
 public class VarDefs implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private LinkedHashMap<String, VarDefNode> map = new LinkedHashMap<>();
 
-  private VarDefNode[] array;
+  private transient VarDefNode[] array;
   private SourceInfo sourceInfo;
   private Scope scope;
-  private Set<ShapeKey> shapeKeys;
+  private transient Set<ShapeKey> shapeKeys;
 
   public LinkedHashMap<String, VarDefNode> getMap() {
     return map;
@@ -106,6 +110,11 @@ public class VarDefs implements Node {
     shapeKeys = ShapeKey.getAll(map.keySet());
   }
 
+  private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+    in.defaultReadObject();
+    cook();
+  }
+
   public VarDefNode[] getArray(){
     return array;
   }
@@ -37,6 +37,8 @@ import java.util.List;
 
 public class CapturePatternNode implements Node, MatchPatternNode, SymbolNode {
 
+  private static final long serialVersionUID = 1L;
+
   private String name;
   private CapturePatternOp patternOp;
   private SourceInfo sourceInfo;
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class DataTypePatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private Type type;
   private PatternOp patternOp;
   private SourceInfo sourceInfo;
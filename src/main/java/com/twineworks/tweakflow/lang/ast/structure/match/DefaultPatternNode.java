@@ -35,6 +35,8 @@ import java.util.List;
 
 public class DefaultPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private SourceInfo sourceInfo;
   private Scope scope;
   private PatternOp patternOp;
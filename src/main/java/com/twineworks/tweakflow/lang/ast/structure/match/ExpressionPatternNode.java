@@ -37,6 +37,8 @@ import java.util.List;
 
 public class ExpressionPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ExpressionNode expression;
   private PatternOp patternOp;
   private CapturePatternNode capture;
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class HeadTailListPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<MatchPatternNode> elements = new ArrayList<>();
   private CapturePatternNode tailCapture;
   private CapturePatternNode capture;
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class ListPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<MatchPatternNode> elements = new ArrayList<>();
   private PatternOp patternOp;
   private CapturePatternNode capture;
@@ -35,6 +35,8 @@ import java.util.List;
 
 public class MatchLineNode implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private MatchPatternNode pattern;
   private ExpressionNode guard;
   private ExpressionNode expression;
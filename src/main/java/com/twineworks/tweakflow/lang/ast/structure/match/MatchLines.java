@@ -34,6 +34,8 @@ import java.util.List;
 
 public class MatchLines implements Node {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<MatchLineNode> elements = new ArrayList<>();
 
   private SourceInfo sourceInfo;
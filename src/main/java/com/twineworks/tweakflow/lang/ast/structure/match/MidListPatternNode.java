@@ -35,6 +35,8 @@ import java.util.List;
 
 public class MidListPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private ArrayList<MatchPatternNode> headElements = new ArrayList<>();
   private ArrayList<MatchPatternNode> lastElements = new ArrayList<>();
   private CapturePatternNode midCapture;
@@ -36,6 +36,8 @@ import java.util.List;
 
 public class OpenDictPatternNode implements Node, MatchPatternNode {
 
+  private static final long serialVersionUID = 1L;
+
   private LinkedHashMap<String, MatchPatternNode> elements = new LinkedHashMap<>();
   private CapturePatternNode restCapture;
   private CapturePatternNode capture;
@@ -54,7 +54,8 @@ public enum LangError implements ErrorCode {
   ILLEGAL_ARGUMENT,
   INVALID_DATETIME,
   ROUNDING_NECESSARY,
-  NATIVE_CODE_RESTRICTED;
+  NATIVE_CODE_RESTRICTED,
+  BUDGET_EXCEEDED;
 
   @Override
   public String getName() {
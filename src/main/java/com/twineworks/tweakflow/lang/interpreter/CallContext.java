@@ -67,4 +67,9 @@ public class CallContext implements UserCallContext {
     return stack;
   }
 
+  @Override
+  public EvaluationContext getEvaluationContext() {
+    return evaluationContext;
+  }
+
 }
@@ -0,0 +1,108 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter;
+
+import java.util.concurrent.TimeUnit;
+
+// limits for a single evaluation, checked cooperatively by the interpreter
+// at function calls, loop iterations and when producing collections
+// exceeding any limit aborts evaluation with LangError.BUDGET_EXCEEDED
+// instances are immutable, and can be shared between threads
+public final class EvaluationBudget {
+
+  public static final long UNLIMITED = Long.MAX_VALUE;
+
+  private final long timeoutNanos;
+  private final long maxSteps;
+  private final long maxCallDepth;
+  private final long maxCollectionSize;
+
+  private EvaluationBudget(long timeoutNanos, long maxSteps, long maxCallDepth, long maxCollectionSize) {
+    this.timeoutNanos = timeoutNanos;
+    this.maxSteps = maxSteps;
+    this.maxCallDepth = maxCallDepth;
+    this.maxCollectionSize = maxCollectionSize;
+  }
+
+  // wall-clock time an evaluation may take
+  public long getTimeoutNanos() {
+    return timeoutNanos;
+  }
+
+  // function calls and loop iterations an evaluation may perform
+  public long getMaxSteps() {
+    return maxSteps;
+  }
+
+  // stack depth an evaluation may reach, counting function calls as well as let, for and match scopes
+  public long getMaxCallDepth() {
+    return maxCallDepth;
+  }
+
+  // size of lists and dicts an evaluation may produce
+  public long getMaxCollectionSize() {
+    return maxCollectionSize;
+  }
+
+  public static class Builder implements com.twineworks.tweakflow.util.Builder<EvaluationBudget> {
+
+    private long timeoutNanos = UNLIMITED;
+    private long maxSteps = UNLIMITED;
+    private long maxCallDepth = UNLIMITED;
+    private long maxCollectionSize = UNLIMITED;
+
+    public Builder() { }
+
+    public Builder timeout(long duration, TimeUnit unit){
+      if (duration <= 0) throw new IllegalArgumentException("timeout must be positive, got "+duration);
+      this.timeoutNanos = unit.toNanos(duration);
+      return this;
+    }
+
+    public Builder maxSteps(long maxSteps){
+      if (maxSteps <= 0) throw new IllegalArgumentException("max steps must be positive, got "+maxSteps);
+      this.maxSteps = maxSteps;
+      return this;
+    }
+
+    public Builder maxCallDepth(long maxCallDepth){
+      if (maxCallDepth <= 0) throw new IllegalArgumentException("max call depth must be positive, got "+maxCallDepth);
+      this.maxCallDepth = maxCallDepth;
+      return this;
+    }
+
+    public Builder maxCollectionSize(long maxCollectionSize){
+      if (maxCollectionSize < 0) throw new IllegalArgumentException("max collection size cannot be negative, got "+maxCollectionSize);
+      this.maxCollectionSize = maxCollectionSize;
+      return this;
+    }
+
+    @Override
+    public EvaluationBudget build() {
+      return new EvaluationBudget(timeoutNanos, maxSteps, maxCallDepth, maxCollectionSize);
+    }
+  }
+
+}
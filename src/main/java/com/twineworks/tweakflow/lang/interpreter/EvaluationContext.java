@@ -24,28 +24,73 @@
 
 package com.twineworks.tweakflow.lang.interpreter;
 
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
+import com.twineworks.tweakflow.lang.values.Value;
 
 import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class EvaluationContext {
 
   private final DebugHandler debugHandler;
 
+  private final RuntimeState state;
+
   private final Map<Cell, List<RecursiveDeferredClosure>> recursiveDeferredClosures;
 
+  private boolean compiledOps;
+
+  private ForkJoinPool evaluationPool;
+
+  // pending tail call of a returning function, created on first use
+  private TailCall tailCall;
+
+  // checked only if a budget is set
+  private EvaluationBudget budget;
+  private long deadline;
+  // shared with copies, so concurrently evaluated cells count against one budget
+  private AtomicLong steps = new AtomicLong();
+
+  // the deadline is checked every this many steps, as reading the clock is comparatively expensive
+  private static final long DEADLINE_CHECK_INTERVAL = 256;
+
   public EvaluationContext() {
-    this.debugHandler = new SimpleDebugHandler();
-    this.recursiveDeferredClosures = new IdentityHashMap<>();
+    this(new SimpleDebugHandler());
   }
 
   public EvaluationContext(DebugHandler debugHandler) {
+    this(debugHandler, new RuntimeState(0));
+  }
+
+  public EvaluationContext(DebugHandler debugHandler, RuntimeState state) {
     this.debugHandler = debugHandler;
+    this.state = state;
     this.recursiveDeferredClosures = new IdentityHashMap<>();
   }
 
+  // same settings and state, own bookkeeping of deferred closures
+  // used when evaluating cells concurrently on another thread
+  // copies share the deadline and step count of a running budget
+  public EvaluationContext copy() {
+    EvaluationContext copy = new EvaluationContext(debugHandler, state)
+        .setCompiledOps(compiledOps)
+        .setEvaluationPool(evaluationPool);
+    copy.budget = budget;
+    copy.deadline = deadline;
+    copy.steps = steps;
+    return copy;
+  }
+
+  public RuntimeState getState() {
+    return state;
+  }
+
   public Map<Cell, List<RecursiveDeferredClosure>> getRecursiveDeferredClosures() {
     return recursiveDeferredClosures;
   }
@@ -53,4 +98,96 @@ public class EvaluationContext {
   public DebugHandler getDebugHandler() {
     return debugHandler;
   }
+
+  public boolean isCompiledOps() {
+    return compiledOps;
+  }
+
+  public EvaluationContext setCompiledOps(boolean compiledOps) {
+    this.compiledOps = compiledOps;
+    return this;
+  }
+
+  public ForkJoinPool getEvaluationPool() {
+    return evaluationPool;
+  }
+
+  public EvaluationContext setEvaluationPool(ForkJoinPool evaluationPool) {
+    this.evaluationPool = evaluationPool;
+    return this;
+  }
+
+  public TailCall getTailCall() {
+    if (tailCall == null){
+      tailCall = new TailCall();
+    }
+    return tailCall;
+  }
+
+  public EvaluationBudget getBudget() {
+    return budget;
+  }
+
+  // sets the budget for subsequent evaluations and starts it, null removes any limits
+  public EvaluationContext setBudget(EvaluationBudget budget) {
+    this.budget = budget;
+    startBudget();
+    return this;
+  }
+
+  // starts a fresh budget for an evaluation: resets the step count and deadline
+  // copies made from here on share the new step count
+  public void startBudget() {
+    steps = new AtomicLong();
+    if (budget == null || budget.getTimeoutNanos() == EvaluationBudget.UNLIMITED){
+      deadline = 0;
+    }
+    else {
+      deadline = System.nanoTime() + budget.getTimeoutNanos();
+    }
+  }
+
+  // called on entry of tweakflow functions
+  public void checkCall(Stack stack) {
+    if (budget == null) return;
+    if (stack.size() >= budget.getMaxCallDepth()){
+      throw new LangException(LangError.BUDGET_EXCEEDED, "evaluation exceeded call depth limit of "+budget.getMaxCallDepth(), stack);
+    }
+    countStep(stack);
+  }
+
+  // called on loop iterations
+  public void checkStep(Stack stack) {
+    if (budget == null) return;
+    countStep(stack);
+  }
+
+  private void countStep(Stack stack) {
+    long steps = this.steps.incrementAndGet();
+    if (steps > budget.getMaxSteps()){
+      throw new LangException(LangError.BUDGET_EXCEEDED, "evaluation exceeded step limit of "+budget.getMaxSteps(), stack);
+    }
+    if (deadline != 0 && steps % DEADLINE_CHECK_INTERVAL == 0 && System.nanoTime() - deadline > 0){
+      throw new LangException(LangError.BUDGET_EXCEEDED, "evaluation exceeded time limit of "+budget.getTimeoutNanos() / 1_000_000+"ms", stack);
+    }
+  }
+
+  // called when producing collections
+  public void checkSize(long size, Stack stack) {
+    if (budget == null) return;
+    if (size > budget.getMaxCollectionSize()){
+      throw new LangException(LangError.BUDGET_EXCEEDED, "evaluation exceeded collection size limit of "+budget.getMaxCollectionSize(), stack);
+    }
+  }
+
+  public Value checkSize(Value value, Stack stack) {
+    if (budget == null) return value;
+    if (value.isList()){
+      checkSize(value.list().size(), stack);
+    }
+    else if (value.isDict()){
+      checkSize(value.dict().size(), stack);
+    }
+    return value;
+  }
 }
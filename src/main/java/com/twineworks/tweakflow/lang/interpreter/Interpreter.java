@@ -25,7 +25,7 @@
 package com.twineworks.tweakflow.lang.interpreter;
 
 import com.twineworks.collections.shapemap.ConstShapeMap;
-import com.twineworks.collections.shapemap.ShapeKey;
+import com.twineworks.tweakflow.lang.interpreter.compiler.OpCompiler;
 import com.twineworks.tweakflow.lang.interpreter.memory.*;
 import com.twineworks.tweakflow.lang.interpreter.ops.ExpressionOp;
 import com.twineworks.tweakflow.lang.analysis.ops.OpBuilderVisitor;
@@ -43,6 +43,7 @@ import com.twineworks.tweakflow.lang.ast.structure.VarDefNode;
 import com.twineworks.tweakflow.lang.errors.LangError;
 import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.scope.GlobalScope;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.types.Type;
 import com.twineworks.tweakflow.lang.types.Types;
 import com.twineworks.tweakflow.lang.values.*;
@@ -71,7 +72,8 @@ public class Interpreter {
 
   public static void evaluateCell(Cell cell, Stack stack, EvaluationContext context) {
 
-    if (!cell.isDirty()) return;
+    RuntimeState state = context.getState();
+    if (!cell.isDirty(state)) return;
 
     // variable cell
     if (cell.isVar()) {
@@ -84,9 +86,9 @@ public class Interpreter {
         // need to push cell lexical space so transitively referenced items can be found
         // when referenced from other spaces
         stack.push(new StackEntry(targetNode, cell.getEnclosingSpace(), stack.peek().getClosures()));
-        cell.setEvaluating(true);
-        cell.setValue(evaluateExpression(exp, stack, context));
-        cell.setEvaluating(false);
+        cell.setEvaluating(state, true);
+        cell.setValue(state, evaluateExpression(exp, OpCompiler.opFor(exp, context), stack, context));
+        cell.setEvaluating(state, false);
         closeDeferredClosures(cell, context);
         stack.pop();
       }
@@ -127,7 +129,7 @@ public class Interpreter {
       for (RecursiveDeferredClosure deferredClosureDef : closureList) {
         Map<ReferenceNode, ValueProvider> closures = deferredClosureDef.getClosures();
         ReferenceNode key = deferredClosureDef.getReferenceNode();
-        closures.put(key, cell.getValue());
+        closures.put(key, cell.getValue(context.getState()));
       }
       deferredClosures.remove(cell);
     }
@@ -171,41 +173,114 @@ public class Interpreter {
 
   public static Value evaluateStandardFunctionCall(CallNode node, StandardFunctionValue standardFunction, Arguments arguments, Stack stack, EvaluationContext context) {
 
-    ConstShapeMap<Cell> args = mapArgumentsIntoCellMap(
-        arguments,
-        evalArguments(arguments, stack, context),
-        standardFunction.getSignature()
-    );
+    Value[] argumentValues = evalArguments(arguments, stack, context);
 
+    // arguments are mapped into the function's frame directly
     LocalMemorySpace argSpace = new LocalMemorySpace(
         stack.peek().getSpace(),
-        standardFunction.getBody().getScope(),
-        MemorySpaceType.CALL_ARGUMENTS,
-        args
+        (LocalScope) standardFunction.getBody().getScope(),
+        MemorySpaceType.CALL_ARGUMENTS
     );
 
+    mapArgumentsIntoCellMap(argSpace, arguments, argumentValues, standardFunction.getSignature());
+
     // put all local closures into arg space
+    context.checkCall(stack);
     stack.push(new StackEntry(node, argSpace, standardFunction.getClosures()));
-    Value retValue = standardFunction.getBody().getOp().eval(stack, context);
+    Value retValue = OpCompiler.opFor(standardFunction.getBody(), context).eval(stack, context);
     stack.pop();
 
+    if (retValue == TailCall.PENDING) return evaluateTailCalls(stack, context);
     return retValue;
 
   }
 
-  private static Value evaluateStandardFunctionCall(StandardFunctionValue standardFunction, ConstShapeMap<Cell> args, Node at, Stack stack, EvaluationContext context) {
+  private static Value evaluateStandardFunctionCall(StandardFunctionValue standardFunction, List<Value> args, Node at, Stack stack, EvaluationContext context) {
 
     LocalMemorySpace argSpace = new LocalMemorySpace(
         stack.peek().getSpace(),
-        standardFunction.getBody().getScope(),
-        MemorySpaceType.CALL_ARGUMENTS,
-        args
+        (LocalScope) standardFunction.getBody().getScope(),
+        MemorySpaceType.CALL_ARGUMENTS
     );
 
+    mapArgumentsIntoCellMap(argSpace, args, standardFunction.getSignature());
+
     // put all local closures into arg space
+    context.checkCall(stack);
     stack.push(new StackEntry(at, argSpace, standardFunction.getClosures()));
-    Value retValue = standardFunction.getBody().getOp().eval(stack, context);
+    Value retValue = OpCompiler.opFor(standardFunction.getBody(), context).eval(stack, context);
     stack.pop();
+
+    if (retValue == TailCall.PENDING) return evaluateTailCalls(stack, context);
+    return retValue;
+  }
+
+  // performs the pending tail call of a function that has returned, and any tail calls made in turn
+  // a function calling itself reuses its frame, so tail recursion runs in constant space
+  public static Value evaluateTailCalls(Stack stack, EvaluationContext context) {
+
+    TailCall tailCall = context.getTailCall();
+
+    // casts pending on the result, the top is applied first
+    ArrayDeque<Type> casts = null;
+
+    StandardFunctionValue current = null;
+    LocalMemorySpace argSpace = null;
+    int[] slots = null;
+    StackEntry stackEntry = null;
+    ExpressionOp op = null;
+    Value retValue;
+
+    do {
+
+      List<Type> callCasts = tailCall.getCasts();
+      for (int i = callCasts.size() - 1; i >= 0; i--) {
+        if (casts == null) casts = new ArrayDeque<>();
+        Type type = callCasts.get(i);
+        // a cast applied twice in a row has no further effect, which keeps casts of recursive calls from piling up
+        if (casts.peek() != type) casts.push(type);
+      }
+
+      StandardFunctionValue f = tailCall.getFunction();
+      Value[] args = tailCall.getArgs();
+      FunctionParameter[] parameters = f.getSignature().getParameterArray();
+
+      if (f == current) {
+        for (int i = 0; i < parameters.length; i++) {
+          argSpace.getSlot(slots[i]).setValue(args[i]);
+        }
+      }
+      else {
+        LocalScope scope = (LocalScope) f.getBody().getScope();
+        argSpace = new LocalMemorySpace(
+            stack.peek().getSpace(),
+            scope,
+            MemorySpaceType.CALL_ARGUMENTS
+        );
+        // parameters sit at fixed slots of the function's frame
+        slots = new int[parameters.length];
+        for (int i = 0; i < parameters.length; i++) {
+          slots[i] = scope.getFrameSlot(parameters[i].getName());
+          argSpace.setSlot(slots[i], new Cell().setValue(args[i]));
+        }
+        stackEntry = new StackEntry(tailCall.getAt(), argSpace, f.getClosures());
+        op = OpCompiler.opFor(f.getBody(), context);
+        current = f;
+      }
+
+      context.checkCall(stack);
+      stack.push(stackEntry);
+      retValue = op.eval(stack, context);
+      stack.pop();
+
+    } while (retValue == TailCall.PENDING);
+
+    if (casts != null) {
+      while (!casts.isEmpty()) {
+        retValue = retValue.castTo(casts.pop());
+      }
+    }
+
     return retValue;
   }
 
@@ -218,6 +293,8 @@ public class Interpreter {
     try {
       ret = evaluateExpression(tryExpression, stack, context);
     } catch (LangException e) {
+      // exceeded budgets cannot be recovered from
+      if (e.getCode() == LangError.BUDGET_EXCEEDED) throw e;
       // discard stack frames lost in unwinding
       while (stack.peek() != entryStackFrame) stack.pop();
       // process catch
@@ -226,15 +303,8 @@ public class Interpreter {
       if (tryCatchNode.getCaughtException() != null) {
         VarDecNode caughtException = tryCatchNode.getCaughtException();
 
-        Set<ShapeKey> keys;
-        if (tryCatchNode.getCaughtTrace() != null) {
-          keys = ShapeKey.getAll(tryCatchNode.getCaughtException().getSymbolName(), tryCatchNode.getCaughtTrace().getSymbolName());
-        } else {
-          keys = ShapeKey.getAll(tryCatchNode.getCaughtException().getSymbolName());
-        }
-
-        LocalMemorySpace bindingsSpace = new LocalMemorySpace(stack.peek().getSpace(), catchExpression.getScope(), MemorySpaceType.LOCAL, new ConstShapeMap<>(keys));
-        ConstShapeMap<Cell> bindingsCells = bindingsSpace.getCells();
+        LocalScope catchScope = (LocalScope) catchExpression.getScope();
+        LocalMemorySpace bindingsSpace = new LocalMemorySpace(stack.peek().getSpace(), catchScope, MemorySpaceType.LOCAL);
 
         Cell errorCell = new Cell()
             .setSymbol(catchExpression.getScope().getSymbols().get(caughtException.getSymbolName()));
@@ -251,7 +321,7 @@ public class Interpreter {
 //          errorCell.setValue(e.toValue());
 //        }
 
-        bindingsCells.puts(caughtException.getSymbolName(), errorCell);
+        bindingsSpace.setSlot(catchScope.getFrameSlot(caughtException.getSymbolName()), errorCell);
 
         // add trace?
         if (tryCatchNode.getCaughtTrace() != null) {
@@ -261,7 +331,7 @@ public class Interpreter {
 
           traceCell.setValue(e.toTraceValue());
 
-          bindingsCells.puts(caughtTrace.getSymbolName(), traceCell);
+          bindingsSpace.setSlot(catchScope.getFrameSlot(caughtTrace.getSymbolName()), traceCell);
 
         }
 
@@ -287,13 +357,17 @@ public class Interpreter {
   }
 
   public static Value evaluateInEmptyScope(ExpressionNode node) {
+    return evaluateInEmptyScope(node, new EvaluationContext());
+  }
+
+  public static Value evaluateInEmptyScope(ExpressionNode node, EvaluationContext context) {
     Stack stack = new Stack();
     stack.push(new StackEntry(
         node,
         new GlobalMemorySpace(new GlobalScope()),
         Collections.emptyMap())
     );
-    return evaluateExpression(node, stack, new EvaluationContext());
+    return evaluateExpression(node, stack, context);
   }
 
   public static Value evaluateInEmptyScope(ExpressionOp op) {
@@ -330,12 +404,16 @@ public class Interpreter {
   }
 
   private static Value evaluateExpression(ExpressionNode node, Stack stack, EvaluationContext context) {
+    return evaluateExpression(node, node.getOp(), stack, context);
+  }
+
+  private static Value evaluateExpression(ExpressionNode node, ExpressionOp op, Stack stack, EvaluationContext context) {
 
     try {
       if (Thread.interrupted()) {
         throw new InterruptedException("Interpreter thread interrupted");
       }
-      return node.getOp().eval(stack, context);
+      return op.eval(stack, context);
     } catch (Throwable e) {
       LangException ex = LangException.wrap(e);
       if (ex.getSourceInfo() == null) {
@@ -379,22 +457,21 @@ public class Interpreter {
   }
 
   @SuppressWarnings("unchecked")
-  private static ConstShapeMap<Cell> mapArgumentsIntoCellMap(Arguments arguments, Value[] argumentValues, FunctionSignature signature) {
+  private static ConstShapeMap<Cell> mapArgumentsIntoCellMap(ConstShapeMap<Cell> args, Arguments arguments, Value[] argumentValues, FunctionSignature signature) {
 
     if (argumentValues.length <= 3 && arguments.allPositional()) {
       switch (argumentValues.length) {
         case 0:
-          return mapArgumentsIntoCellMap(Collections.emptyList(), signature); // TODO: could be done with dedicated option
+          return mapArgumentsIntoCellMap(args, Collections.emptyList(), signature); // TODO: could be done with dedicated option
         case 1:
-          return mapArguments1IntoCellMap(argumentValues[0], signature);
+          return mapArguments1IntoCellMap(args, argumentValues[0], signature);
         case 2:
-          return mapArguments2IntoCellMap(argumentValues[0], argumentValues[1], signature);
+          return mapArguments2IntoCellMap(args, argumentValues[0], argumentValues[1], signature);
         case 3:
-          return mapArguments3IntoCellMap(argumentValues[0], argumentValues[1], argumentValues[2], signature);
+          return mapArguments3IntoCellMap(args, argumentValues[0], argumentValues[1], argumentValues[2], signature);
       }
     }
 
-    ConstShapeMap<Cell> args = new ConstShapeMap<>(signature.getParameterShapeMap());
     Map<String, FunctionParameter> parameterMap = signature.getParameterMap();
     List<FunctionParameter> parameterList = signature.getParameterList();
     List<ArgumentNode> list = arguments.getList();
@@ -703,6 +780,31 @@ public class Interpreter {
 
   }
 
+  // arguments of a tail call to a standard function, in parameter order
+  @SuppressWarnings({"unchecked"})
+  public static Value[] argumentsForTailCall(Arguments arguments, Value[] argumentValues, FunctionSignature signature) {
+
+    FunctionParameter[] parameters = signature.getParameterArray();
+
+    if (arguments.allPositional() && argumentValues.length == parameters.length) {
+      // can simply cast arguments in place
+      List<ArgumentNode> list = arguments.getList();
+      for (int i = 0; i < argumentValues.length; i++) {
+        argumentValues[i] = castArgumentValue(list.get(i), parameters[i], argumentValues[i]);
+      }
+      return argumentValues;
+    } else {
+      ConstShapeMap<Value> shapeMap = mapArgumentsIntoValueMap(arguments, argumentValues, signature);
+      Value[] args = new Value[parameters.length];
+      for (int i = 0; i < parameters.length; i++) {
+        args[i] = (Value) parameters[i].getShapeAccessor().get(shapeMap);
+      }
+
+      return args;
+    }
+
+  }
+
   @SuppressWarnings({"unchecked"})
   public static Value[] argumentsForPositionalUserCall(Value[] argumentValues, FunctionSignature signature) {
 
@@ -806,9 +908,8 @@ public class Interpreter {
   }
 
   @SuppressWarnings("unchecked")
-  private static ConstShapeMap<Cell> mapArgumentsIntoCellMap(List<Value> arguments, FunctionSignature parameters) {
+  private static ConstShapeMap<Cell> mapArgumentsIntoCellMap(ConstShapeMap<Cell> args, List<Value> arguments, FunctionSignature parameters) {
 
-    ConstShapeMap<Cell> args = new ConstShapeMap<>(parameters.getParameterShapeMap());
     List<FunctionParameter> parameterList = parameters.getParameterList();
 
     int argumentsSize = arguments.size();
@@ -922,9 +1023,8 @@ public class Interpreter {
   }
 
   @SuppressWarnings("unchecked")
-  private static ConstShapeMap<Cell> mapArguments1IntoCellMap(Value arg1, FunctionSignature signature) {
+  private static ConstShapeMap<Cell> mapArguments1IntoCellMap(ConstShapeMap<Cell> args, Value arg1, FunctionSignature signature) {
 
-    ConstShapeMap<Cell> args = new ConstShapeMap<>(signature.getParameterShapeMap());
     FunctionParameter[] parameterArray = signature.getParameterArray();
 
     int paramsSize = parameterArray.length;
@@ -1007,9 +1107,8 @@ public class Interpreter {
   }
 
   @SuppressWarnings("unchecked")
-  private static ConstShapeMap<Cell> mapArguments2IntoCellMap(Value arg1, Value arg2, FunctionSignature parameters) {
+  private static ConstShapeMap<Cell> mapArguments2IntoCellMap(ConstShapeMap<Cell> args, Value arg1, Value arg2, FunctionSignature parameters) {
 
-    ConstShapeMap<Cell> args = new ConstShapeMap<>(parameters.getParameterShapeMap());
     List<FunctionParameter> parameterList = parameters.getParameterList();
 
     int paramsSize = parameterList.size();
@@ -1107,9 +1206,8 @@ public class Interpreter {
   }
 
   @SuppressWarnings("unchecked")
-  private static ConstShapeMap<Cell> mapArguments3IntoCellMap(Value arg1, Value arg2, Value arg3, FunctionSignature parameters) {
+  private static ConstShapeMap<Cell> mapArguments3IntoCellMap(ConstShapeMap<Cell> args, Value arg1, Value arg2, Value arg3, FunctionSignature parameters) {
 
-    ConstShapeMap<Cell> args = new ConstShapeMap<>(parameters.getParameterShapeMap());
     List<FunctionParameter> parameterList = parameters.getParameterList();
 
     int paramsSize = parameterList.size();
@@ -1172,7 +1270,7 @@ public class Interpreter {
     if (function.isStandard()) {
       return evaluateStandardFunctionCall(
           (StandardFunctionValue) function,
-          mapArgumentsIntoCellMap(Arrays.asList(args), function.getSignature()),
+          Arrays.asList(args),
           stack.peek().getNode(),
           stack,
           context
@@ -0,0 +1,335 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.interpreter;
+
+import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
+import com.twineworks.tweakflow.lang.scope.Symbol;
+
+import java.util.*;
+import java.util.concurrent.CountedCompleter;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicReference;
+
+// evaluates library vars concurrently, following their dependencies
+// vars that depend on each other through recursive functions form a group, and
+// evaluate together on the same thread, groups are scheduled once all groups
+// they depend on are evaluated
+public class ParallelEvaluator {
+
+  private final Cell[] cells;
+
+  // per var cell state index, transitive library var dependencies and dependants
+  private final int[][] dependencies;
+  private final int[][] dependants;
+
+  // per var cell state index, lowest index of vars in the same group, -1 if not a library var
+  private final int[] group;
+
+  ParallelEvaluator(RuntimeSet runtimeSet) {
+
+    cells = runtimeSet.getVarCells();
+    int size = cells.length;
+
+    IdentityHashMap<Symbol, Integer> indexes = new IdentityHashMap<>();
+    for (Cell cell : cells) {
+      indexes.put(cell.getSymbol(), cell.getStateIndex());
+    }
+
+    IdentityHashMap<Symbol, LinkedHashSet<Symbol>> allDependants = runtimeSet.getAnalysisSet().getDependants();
+
+    dependants = new int[size][];
+    int[] dependencyCounts = new int[size];
+    group = new int[size];
+
+    for (int i = 0; i < size; i++) {
+      Cell cell = cells[i];
+      group[i] = cell.getSymbol().isLibraryVar() ? i : -1;
+      LinkedHashSet<Symbol> symbols = allDependants.get(cell.getSymbol());
+      if (symbols == null || group[i] == -1){
+        dependants[i] = new int[0];
+        continue;
+      }
+      int[] ds = new int[symbols.size()];
+      int n = 0;
+      for (Symbol symbol : symbols) {
+        Integer d = indexes.get(symbol);
+        if (d == null || d == i) continue;
+        ds[n++] = d;
+        dependencyCounts[d]++;
+      }
+      ds = Arrays.copyOf(ds, n);
+      Arrays.sort(ds);
+      dependants[i] = ds;
+    }
+
+    dependencies = new int[size][];
+    for (int i = 0; i < size; i++) {
+      dependencies[i] = new int[dependencyCounts[i]];
+      dependencyCounts[i] = 0;
+    }
+
+    for (int i = 0; i < size; i++) {
+      for (int d : dependants[i]) {
+        dependencies[d][dependencyCounts[d]++] = i;
+      }
+    }
+
+    // dependencies are transitive, so vars depending on each other form a group
+    for (int i = 0; i < size; i++) {
+      for (int d : dependants[i]) {
+        if (d < group[i] && Arrays.binarySearch(dependants[d], i) >= 0){
+          group[i] = d;
+        }
+      }
+    }
+
+  }
+
+  // evaluates all dirty library vars
+  public void evaluateAll(EvaluationContext context){
+    evaluate(Arrays.asList(cells), context);
+  }
+
+  // evaluates given cells and any dirty library vars they depend on
+  // uses the evaluation pool of given context
+  public void evaluate(Collection<Cell> requested, EvaluationContext context){
+
+    RuntimeState state = context.getState();
+    ForkJoinPool pool = context.getEvaluationPool();
+
+    // collect dirty library vars to evaluate, anything else evaluates afterwards
+    boolean[] selected = new boolean[cells.length];
+    ArrayList<Cell> rest = new ArrayList<>();
+    int[] targets = new int[cells.length];
+    int targetCount = 0;
+
+    for (Cell cell : requested) {
+      int i = cell.getStateIndex();
+      if (i < 0 || cells[i] != cell || group[i] == -1){
+        rest.add(cell);
+        continue;
+      }
+      if (selected[i] || !cell.isDirty(state)) continue;
+      selected[i] = true;
+      targets[targetCount++] = i;
+      for (int d : dependencies[i]) {
+        if (!selected[d] && cells[d].isDirty(state)){
+          selected[d] = true;
+          targets[targetCount++] = d;
+        }
+      }
+    }
+
+    // group targets
+    int[] unitOf = new int[cells.length];
+    int[] groupUnit = new int[cells.length];
+    Arrays.fill(unitOf, -1);
+    Arrays.fill(groupUnit, -1);
+    int[] unitCells = new int[targetCount];
+    int[] unitStart = new int[targetCount + 1];
+    int unitCount = 0;
+    {
+      Arrays.sort(targets, 0, targetCount);
+      int[] unitSizes = new int[targetCount];
+      for (int t = 0; t < targetCount; t++) {
+        int i = targets[t];
+        int g = group[i];
+        if (groupUnit[g] == -1){
+          groupUnit[g] = unitCount++;
+        }
+        unitOf[i] = groupUnit[g];
+        unitSizes[unitOf[i]]++;
+      }
+      for (int u = 0; u < unitCount; u++) {
+        unitStart[u+1] = unitStart[u] + unitSizes[u];
+        unitSizes[u] = unitStart[u];
+      }
+      for (int t = 0; t < targetCount; t++) {
+        int i = targets[t];
+        unitCells[unitSizes[unitOf[i]]++] = i;
+      }
+    }
+
+    if (unitCount < 2 || pool == null){
+      // nothing to gain from going parallel
+      for (int t = 0; t < targetCount; t++) {
+        evaluateCell(cells[targets[t]], context);
+      }
+    }
+    else {
+      Schedule schedule = new Schedule(context, unitCount, unitCells, unitStart, unitOf);
+      for (int t = 0; t < targetCount; t++) {
+        state.prepareWrite(targets[t]);
+      }
+      pool.invoke(new Root(schedule));
+      schedule.rethrowFailure();
+    }
+
+    for (Cell cell : rest) {
+      evaluateCell(cell, context);
+    }
+
+  }
+
+  private static void evaluateCell(Cell cell, EvaluationContext context){
+    if (cell.isDirty(context.getState())){
+      Stack stack = new Stack();
+      stack.push(new StackEntry(cell.getSymbol().getNode(), cell.getEnclosingSpace(), Collections.emptyMap()));
+      Interpreter.evaluateCell(cell, stack, context);
+    }
+  }
+
+  private final class Schedule {
+
+    private final EvaluationContext context;
+    private final int unitCount;
+    private final int[] unitCells;
+    private final int[] unitStart;
+    private final int[][] successors;
+    private final int[] ready;
+    private final AtomicIntegerArray pending;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    private Schedule(EvaluationContext context, int unitCount, int[] unitCells, int[] unitStart, int[] unitOf) {
+      this.context = context;
+      this.unitCount = unitCount;
+      this.unitCells = unitCells;
+      this.unitStart = unitStart;
+
+      int[] predecessorCounts = new int[unitCount];
+      int[] successorCounts = new int[unitCount];
+      int[][] predecessors = new int[unitCount][];
+
+      // distinct units each unit waits for
+      int[] seen = new int[unitCount];
+      Arrays.fill(seen, -1);
+      int[] buffer = new int[unitCount];
+      for (int u = 0; u < unitCount; u++) {
+        int n = 0;
+        for (int c = unitStart[u]; c < unitStart[u+1]; c++) {
+          for (int d : dependencies[unitCells[c]]) {
+            int p = unitOf[d];
+            if (p == -1 || p == u || seen[p] == u) continue;
+            seen[p] = u;
+            buffer[n++] = p;
+            successorCounts[p]++;
+          }
+        }
+        predecessors[u] = Arrays.copyOf(buffer, n);
+        predecessorCounts[u] = n;
+      }
+
+      successors = new int[unitCount][];
+      for (int u = 0; u < unitCount; u++) {
+        successors[u] = new int[successorCounts[u]];
+        successorCounts[u] = 0;
+      }
+      for (int u = 0; u < unitCount; u++) {
+        for (int p : predecessors[u]) {
+          successors[p][successorCounts[p]++] = u;
+        }
+      }
+
+      int readyCount = 0;
+      for (int u = 0; u < unitCount; u++) {
+        if (predecessorCounts[u] == 0) buffer[readyCount++] = u;
+      }
+      ready = Arrays.copyOf(buffer, readyCount);
+
+      pending = new AtomicIntegerArray(predecessorCounts);
+    }
+
+    private void evaluateUnit(int unit){
+      // skip remaining work once anything failed
+      if (failure.get() != null) return;
+      try {
+        EvaluationContext unitContext = context.copy();
+        for (int c = unitStart[unit]; c < unitStart[unit+1]; c++) {
+          evaluateCell(cells[unitCells[c]], unitContext);
+        }
+      }
+      catch (Throwable t){
+        failure.compareAndSet(null, t);
+      }
+    }
+
+    private void rethrowFailure(){
+      Throwable t = failure.get();
+      if (t == null) return;
+      if (t instanceof RuntimeException) throw (RuntimeException) t;
+      if (t instanceof Error) throw (Error) t;
+      throw new RuntimeException(t);
+    }
+  }
+
+  // completes once all units completed
+  private final class Root extends CountedCompleter<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Schedule schedule;
+
+    private Root(Schedule schedule) {
+      this.schedule = schedule;
+      setPendingCount(schedule.unitCount);
+    }
+
+    @Override
+    public void compute() {
+      for (int u : schedule.ready) {
+        new UnitTask(this, schedule, u).fork();
+      }
+      tryComplete();
+    }
+  }
+
+  private final class UnitTask extends CountedCompleter<Void> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Schedule schedule;
+    private final int unit;
+
+    private UnitTask(Root root, Schedule schedule, int unit) {
+      super(root);
+      this.schedule = schedule;
+      this.unit = unit;
+    }
+
+    @Override
+    public void compute() {
+      schedule.evaluateUnit(unit);
+      Root root = (Root) getCompleter();
+      for (int s : schedule.successors[unit]) {
+        if (schedule.pending.decrementAndGet(s) == 0){
+          new UnitTask(root, schedule, s).fork();
+        }
+      }
+      tryComplete();
+    }
+  }
+
+}
@@ -26,22 +26,38 @@ package com.twineworks.tweakflow.lang.interpreter;
 
 import com.twineworks.tweakflow.lang.analysis.AnalysisResult;
 import com.twineworks.tweakflow.lang.analysis.AnalysisSet;
+import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.interpreter.memory.GlobalMemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpaceBuilder;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
 
+import java.util.concurrent.atomic.AtomicBoolean;
+
+// the compiled program: analysis, ops, and memory spaces
+// nothing in a runtime set changes during evaluation, values of vars are kept in runtime state
 public class RuntimeSet {
 
   private final AnalysisSet analysisSet;
   private final AnalysisResult analysisResult;
 
   private final GlobalMemorySpace globalMemorySpace;
+  private final Cell[] varCells;
+
+  // state of the first runtime created for this set, var cells resolve accessors without explicit state against it
+  private final RuntimeState defaultState;
+  private final AtomicBoolean defaultStateClaimed = new AtomicBoolean();
+  private volatile ParallelEvaluator parallelEvaluator;
 
   public RuntimeSet(AnalysisResult analysisResult) {
     if (!analysisResult.isSuccess()) throw new AssertionError("RuntimeSet can only be instantiated with a successful AnalysisResult");
     this.analysisResult = analysisResult;
     this.analysisSet = analysisResult.getAnalysisSet();
     this.globalMemorySpace = new GlobalMemorySpace(analysisSet.getGlobalScope());
-    MemorySpaceBuilder.buildRuntimeSpace(this);
+    this.varCells = MemorySpaceBuilder.buildRuntimeSpace(this);
+    this.defaultState = new RuntimeState(varCells.length);
+    for (Cell varCell : varCells) {
+      varCell.setDefaultState(defaultState);
+    }
   }
 
   public AnalysisSet getAnalysisSet() {
@@ -56,6 +72,31 @@ public class RuntimeSet {
     return globalMemorySpace;
   }
 
+  // the first state created is the default state, any further states are independent of it
+  public RuntimeState createState() {
+    if (defaultStateClaimed.compareAndSet(false, true)) return defaultState;
+    return new RuntimeState(varCells.length);
+  }
+
+  public Cell[] getVarCells() {
+    return varCells;
+  }
+
+  // dependency graph of library vars, built on first use
+  public ParallelEvaluator getParallelEvaluator() {
+    ParallelEvaluator evaluator = parallelEvaluator;
+    if (evaluator == null) {
+      synchronized (this) {
+        evaluator = parallelEvaluator;
+        if (evaluator == null) {
+          evaluator = new ParallelEvaluator(this);
+          parallelEvaluator = evaluator;
+        }
+      }
+    }
+    return evaluator;
+  }
+
   public RuntimeSet copy() {
     return new RuntimeSet(analysisResult);
   }
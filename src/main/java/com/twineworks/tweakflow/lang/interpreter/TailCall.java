@@ -0,0 +1,82 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter;
+
+import com.twineworks.tweakflow.lang.ast.Node;
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.values.StandardFunctionValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// a call in tail position is not performed by the calling function
+// it is recorded here instead, and performed by the enclosing function call
+// once the calling function has returned, see Interpreter.evaluateTailCalls
+public final class TailCall {
+
+  // returned by a function body in place of its value when it ends in a tail call
+  // compared by identity only, it never escapes the enclosing function call
+  public static final Value PENDING = Values.make("<pending tail call>");
+
+  private Node at;
+  private StandardFunctionValue function;
+  private Value[] args;
+
+  // casts to apply to the result of the call, innermost first
+  private final ArrayList<Type> casts = new ArrayList<>();
+
+  // records a call with arguments in parameter order, already cast to parameter types
+  public Value call(Node at, StandardFunctionValue function, Value[] args) {
+    this.at = at;
+    this.function = function;
+    this.args = args;
+    casts.clear();
+    return PENDING;
+  }
+
+  public Value cast(Type type) {
+    casts.add(type);
+    return PENDING;
+  }
+
+  Node getAt() {
+    return at;
+  }
+
+  StandardFunctionValue getFunction() {
+    return function;
+  }
+
+  Value[] getArgs() {
+    return args;
+  }
+
+  List<Type> getCasts() {
+    return casts;
+  }
+
+}
@@ -26,11 +26,15 @@ package com.twineworks.tweakflow.lang.interpreter.calls;
 
 import com.twineworks.collections.shapemap.ConstShapeMap;
 import com.twineworks.tweakflow.lang.ast.Node;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.types.Type;
 import com.twineworks.tweakflow.lang.values.*;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
+import com.twineworks.tweakflow.lang.interpreter.Interpreter;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.StackEntry;
+import com.twineworks.tweakflow.lang.interpreter.TailCall;
+import com.twineworks.tweakflow.lang.interpreter.compiler.OpCompiler;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.interpreter.memory.LocalMemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpaceType;
@@ -58,10 +62,15 @@ public class Arity1CallSiteToStandard implements Arity1CallSite {
     this.signature = f.getSignature();
     this.stack = stack;
     this.context = context;
-    this.op = f.getBody().getOp();
+    this.op = OpCompiler.opFor(f.getBody(), context);
 
     // fill args frame with default values
-    this.argsFrame = new ConstShapeMap<>(signature.getParameterShapeMap());
+    argSpace = new LocalMemorySpace(
+        stack.peek().getSpace(),
+        (LocalScope) f.getBody().getScope(),
+        MemorySpaceType.CALL_ARGUMENTS
+    );
+    this.argsFrame = argSpace;
     FunctionParameter[] parameterArray = signature.getParameterArray();
     int paramsSize = parameterArray.length;
 
@@ -73,13 +82,6 @@ public class Arity1CallSiteToStandard implements Arity1CallSite {
     p0a = p0.getShapeAccessor();
     p0Type = p0.getDeclaredType();
 
-    argSpace = new LocalMemorySpace(
-        stack.peek().getSpace(),
-        f.getBody().getScope(),
-        MemorySpaceType.CALL_ARGUMENTS,
-        argsFrame
-    );
-
     stackEntry = new StackEntry(at, argSpace, f.getClosures());
 
   }
@@ -90,9 +92,12 @@ public class Arity1CallSiteToStandard implements Arity1CallSite {
 
     argsFrame.geta(p0a).setValue(arg0.castTo(p0Type));
 
+    context.checkCall(stack);
     stack.push(stackEntry);
     Value retValue = op.eval(stack, context);
     stack.pop();
+
+    if (retValue == TailCall.PENDING) return Interpreter.evaluateTailCalls(stack, context);
     return retValue;
   }
 }
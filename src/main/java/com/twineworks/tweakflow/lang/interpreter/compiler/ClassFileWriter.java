@@ -0,0 +1,553 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Minimal class file writer covering the subset of the JVM instruction set
+ * the op compiler emits. Generates version 49 class files, so the verifier
+ * infers stack map frames and none need to be written.
+ */
+final class ClassFileWriter {
+
+  static final int ACC_PUBLIC = 0x0001;
+  static final int ACC_PRIVATE = 0x0002;
+  static final int ACC_FINAL = 0x0010;
+  static final int ACC_SUPER = 0x0020;
+
+  private static final int VERSION_MAJOR = 49;
+
+  private static final int CONSTANT_UTF8 = 1;
+  private static final int CONSTANT_INTEGER = 3;
+  private static final int CONSTANT_CLASS = 7;
+  private static final int CONSTANT_FIELD_REF = 9;
+  private static final int CONSTANT_METHOD_REF = 10;
+  private static final int CONSTANT_INTERFACE_METHOD_REF = 11;
+  private static final int CONSTANT_NAME_AND_TYPE = 12;
+
+  private final ByteArrayOutputStream poolBytes = new ByteArrayOutputStream();
+  private final DataOutputStream pool = new DataOutputStream(poolBytes);
+  private final HashMap<String, Integer> poolIndex = new HashMap<>();
+  private int poolSize = 1;
+
+  private final ByteArrayOutputStream memberBytes = new ByteArrayOutputStream();
+  private final DataOutputStream fields = new DataOutputStream(memberBytes);
+  private int fieldCount = 0;
+
+  private final List<Code> methods = new ArrayList<>();
+
+  private final String className;
+  private final String superName;
+  private final String[] interfaces;
+
+  ClassFileWriter(String className, String superName, String... interfaces) {
+    this.className = className;
+    this.superName = superName;
+    this.interfaces = interfaces;
+  }
+
+  String getClassName() {
+    return className;
+  }
+
+  void field(int access, String name, String desc) {
+    try {
+      fields.writeShort(access);
+      fields.writeShort(utf8(name));
+      fields.writeShort(utf8(desc));
+      fields.writeShort(0);
+      fieldCount++;
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  Code method(int access, String name, String desc, int argSlots) {
+    Code code = new Code(this, access, name, desc, argSlots);
+    methods.add(code);
+    return code;
+  }
+
+  byte[] toByteArray() {
+
+    try {
+      // resolve all constants before writing the pool
+      int thisIdx = cls(className);
+      int superIdx = cls(superName);
+      int[] interfaceIdx = new int[interfaces.length];
+      for (int i = 0; i < interfaces.length; i++) {
+        interfaceIdx[i] = cls(interfaces[i]);
+      }
+      int codeIdx = utf8("Code");
+      int[] nameIdx = new int[methods.size()];
+      int[] descIdx = new int[methods.size()];
+      for (int i = 0; i < methods.size(); i++) {
+        nameIdx[i] = utf8(methods.get(i).name);
+        descIdx[i] = utf8(methods.get(i).desc);
+      }
+
+      ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      DataOutputStream out = new DataOutputStream(bytes);
+
+      out.writeInt(0xCAFEBABE);
+      out.writeShort(0);
+      out.writeShort(VERSION_MAJOR);
+      out.writeShort(poolSize);
+      pool.flush();
+      poolBytes.writeTo(out);
+
+      out.writeShort(ACC_PUBLIC | ACC_FINAL | ACC_SUPER);
+      out.writeShort(thisIdx);
+      out.writeShort(superIdx);
+      out.writeShort(interfaceIdx.length);
+      for (int idx : interfaceIdx) {
+        out.writeShort(idx);
+      }
+
+      out.writeShort(fieldCount);
+      fields.flush();
+      memberBytes.writeTo(out);
+
+      out.writeShort(methods.size());
+      for (int i = 0; i < methods.size(); i++) {
+        Code m = methods.get(i);
+        byte[] code = m.toByteArray();
+        out.writeShort(m.access);
+        out.writeShort(nameIdx[i]);
+        out.writeShort(descIdx[i]);
+        out.writeShort(1);
+        out.writeShort(codeIdx);
+        out.writeInt(12 + code.length);
+        out.writeShort(m.maxStack);
+        out.writeShort(m.maxLocals);
+        out.writeInt(code.length);
+        out.write(code);
+        out.writeShort(0); // exception table
+        out.writeShort(0); // attributes
+      }
+
+      out.writeShort(0); // class attributes
+      out.flush();
+      return bytes.toByteArray();
+
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+  }
+
+  // constant pool
+
+  int utf8(String s) {
+    String key = "U" + s;
+    Integer idx = poolIndex.get(key);
+    if (idx != null) return idx;
+    try {
+      pool.writeByte(CONSTANT_UTF8);
+      pool.writeUTF(s);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return register(key, 1);
+  }
+
+  int integer(int i) {
+    String key = "I" + i;
+    Integer idx = poolIndex.get(key);
+    if (idx != null) return idx;
+    try {
+      pool.writeByte(CONSTANT_INTEGER);
+      pool.writeInt(i);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return register(key, 1);
+  }
+
+  int cls(String internalName) {
+    String key = "C" + internalName;
+    Integer idx = poolIndex.get(key);
+    if (idx != null) return idx;
+    int nameIdx = utf8(internalName);
+    try {
+      pool.writeByte(CONSTANT_CLASS);
+      pool.writeShort(nameIdx);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return register(key, 1);
+  }
+
+  int fieldRef(String owner, String name, String desc) {
+    return memberRef(CONSTANT_FIELD_REF, owner, name, desc);
+  }
+
+  int methodRef(String owner, String name, String desc) {
+    return memberRef(CONSTANT_METHOD_REF, owner, name, desc);
+  }
+
+  int interfaceMethodRef(String owner, String name, String desc) {
+    return memberRef(CONSTANT_INTERFACE_METHOD_REF, owner, name, desc);
+  }
+
+  private int memberRef(int tag, String owner, String name, String desc) {
+    String key = "M" + tag + owner + "." + name + ":" + desc;
+    Integer idx = poolIndex.get(key);
+    if (idx != null) return idx;
+    int ownerIdx = cls(owner);
+    int natIdx = nameAndType(name, desc);
+    try {
+      pool.writeByte(tag);
+      pool.writeShort(ownerIdx);
+      pool.writeShort(natIdx);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return register(key, 1);
+  }
+
+  private int nameAndType(String name, String desc) {
+    String key = "N" + name + ":" + desc;
+    Integer idx = poolIndex.get(key);
+    if (idx != null) return idx;
+    int nameIdx = utf8(name);
+    int descIdx = utf8(desc);
+    try {
+      pool.writeByte(CONSTANT_NAME_AND_TYPE);
+      pool.writeShort(nameIdx);
+      pool.writeShort(descIdx);
+    } catch (IOException e) {
+      throw new AssertionError(e);
+    }
+    return register(key, 1);
+  }
+
+  private int register(String key, int slots) {
+    int idx = poolSize;
+    poolSize += slots;
+    if (poolSize > 0xFFFF) {
+      throw new IllegalStateException("constant pool overflow");
+    }
+    poolIndex.put(key, idx);
+    return idx;
+  }
+
+  static final class Label {
+    private int pos = -1;
+    private int stack = -1;
+  }
+
+  /**
+   * Bytecode of a single method. Tracks operand stack depth as instructions
+   * are appended, so max_stack does not need to be computed separately.
+   */
+  static final class Code {
+
+    private static final int ALOAD = 0x19;
+    private static final int ASTORE = 0x3A;
+    private static final int ALOAD_0 = 0x2A;
+    private static final int ASTORE_0 = 0x4B;
+    private static final int AALOAD = 0x32;
+    private static final int ICONST_0 = 0x03;
+    private static final int BIPUSH = 0x10;
+    private static final int SIPUSH = 0x11;
+    private static final int LDC_W = 0x13;
+    private static final int DUP = 0x59;
+    private static final int POP = 0x57;
+    private static final int ARETURN = 0xB0;
+    private static final int RETURN = 0xB1;
+    private static final int GETSTATIC = 0xB2;
+    private static final int GETFIELD = 0xB4;
+    private static final int PUTFIELD = 0xB5;
+    private static final int INVOKEVIRTUAL = 0xB6;
+    private static final int INVOKESPECIAL = 0xB7;
+    private static final int INVOKESTATIC = 0xB8;
+    private static final int INVOKEINTERFACE = 0xB9;
+    private static final int CHECKCAST = 0xC0;
+
+    static final int IFEQ = 0x99;
+    static final int IFNE = 0x9A;
+    static final int IF_ACMPEQ = 0xA5;
+    static final int IF_ACMPNE = 0xA6;
+    static final int GOTO = 0xA7;
+
+    private final ClassFileWriter cw;
+    private final int access;
+    private final String name;
+    private final String desc;
+
+    private byte[] code = new byte[256];
+    private int length = 0;
+
+    private int stack = 0;
+    private int maxStack = 0;
+    private int maxLocals;
+
+    private final List<int[]> jumps = new ArrayList<>();
+    private final List<Label> jumpTargets = new ArrayList<>();
+
+    private Code(ClassFileWriter cw, int access, String name, String desc, int argSlots) {
+      this.cw = cw;
+      this.access = access;
+      this.name = name;
+      this.desc = desc;
+      this.maxLocals = argSlots;
+    }
+
+    int newLocal() {
+      if (maxLocals > 0xFF) {
+        throw new IllegalStateException("too many locals");
+      }
+      return maxLocals++;
+    }
+
+    Code aload(int local) {
+      if (local <= 3) {
+        op(ALOAD_0 + local);
+      } else {
+        op(ALOAD);
+        u1(local);
+      }
+      return push(1);
+    }
+
+    Code astore(int local) {
+      if (local <= 3) {
+        op(ASTORE_0 + local);
+      } else {
+        op(ASTORE);
+        u1(local);
+      }
+      return push(-1);
+    }
+
+    Code aaload() {
+      op(AALOAD);
+      return push(-1);
+    }
+
+    Code pushInt(int i) {
+      if (i >= -1 && i <= 5) {
+        op(ICONST_0 + i);
+      } else if (i >= Byte.MIN_VALUE && i <= Byte.MAX_VALUE) {
+        op(BIPUSH);
+        u1(i);
+      } else if (i >= Short.MIN_VALUE && i <= Short.MAX_VALUE) {
+        op(SIPUSH);
+        u2(i);
+      } else {
+        op(LDC_W);
+        u2(cw.integer(i));
+      }
+      return push(1);
+    }
+
+    Code dup() {
+      op(DUP);
+      return push(1);
+    }
+
+    Code pop() {
+      op(POP);
+      return push(-1);
+    }
+
+    Code areturn() {
+      op(ARETURN);
+      stack = 0;
+      return this;
+    }
+
+    Code vreturn() {
+      op(RETURN);
+      stack = 0;
+      return this;
+    }
+
+    Code getStatic(String owner, String name, String desc) {
+      op(GETSTATIC);
+      u2(cw.fieldRef(owner, name, desc));
+      return push(1);
+    }
+
+    Code getField(String owner, String name, String desc) {
+      op(GETFIELD);
+      u2(cw.fieldRef(owner, name, desc));
+      return this;
+    }
+
+    Code putField(String owner, String name, String desc) {
+      op(PUTFIELD);
+      u2(cw.fieldRef(owner, name, desc));
+      return push(-2);
+    }
+
+    Code checkCast(String internalName) {
+      op(CHECKCAST);
+      u2(cw.cls(internalName));
+      return this;
+    }
+
+    Code invokeStatic(String owner, String name, String desc) {
+      op(INVOKESTATIC);
+      u2(cw.methodRef(owner, name, desc));
+      return push(returnSlots(desc) - argSlots(desc));
+    }
+
+    Code invokeVirtual(String owner, String name, String desc) {
+      op(INVOKEVIRTUAL);
+      u2(cw.methodRef(owner, name, desc));
+      return push(returnSlots(desc) - argSlots(desc) - 1);
+    }
+
+    Code invokeSpecial(String owner, String name, String desc) {
+      op(INVOKESPECIAL);
+      u2(cw.methodRef(owner, name, desc));
+      return push(returnSlots(desc) - argSlots(desc) - 1);
+    }
+
+    Code invokeInterface(String owner, String name, String desc) {
+      int args = argSlots(desc);
+      op(INVOKEINTERFACE);
+      u2(cw.interfaceMethodRef(owner, name, desc));
+      u1(args + 1);
+      u1(0);
+      return push(returnSlots(desc) - args - 1);
+    }
+
+    Code jump(int opcode, Label target) {
+      int pops = (opcode == GOTO) ? 0 : (opcode == IF_ACMPEQ || opcode == IF_ACMPNE) ? 2 : 1;
+      push(-pops);
+      if (target.stack == -1) {
+        target.stack = stack;
+      } else if (target.stack != stack) {
+        throw new IllegalStateException("inconsistent stack depth at jump target");
+      }
+      jumps.add(new int[]{length});
+      jumpTargets.add(target);
+      op(opcode);
+      u2(0);
+      return this;
+    }
+
+    Code mark(Label label) {
+      label.pos = length;
+      if (label.stack == -1) {
+        label.stack = stack;
+      }
+      stack = label.stack;
+      return this;
+    }
+
+    private Code push(int slots) {
+      stack += slots;
+      if (stack < 0) {
+        throw new IllegalStateException("operand stack underflow");
+      }
+      if (stack > maxStack) maxStack = stack;
+      return this;
+    }
+
+    private byte[] toByteArray() {
+      for (int i = 0; i < jumps.size(); i++) {
+        int at = jumps.get(i)[0];
+        Label target = jumpTargets.get(i);
+        if (target.pos == -1) {
+          throw new IllegalStateException("unmarked jump target");
+        }
+        int offset = target.pos - at;
+        if (offset < Short.MIN_VALUE || offset > Short.MAX_VALUE) {
+          throw new IllegalStateException("jump offset out of range");
+        }
+        code[at + 1] = (byte) (offset >> 8);
+        code[at + 2] = (byte) offset;
+      }
+      if (length > 0xFFFF) {
+        throw new IllegalStateException("method too large");
+      }
+      byte[] ret = new byte[length];
+      System.arraycopy(code, 0, ret, 0, length);
+      return ret;
+    }
+
+    private void op(int opcode) {
+      u1(opcode);
+    }
+
+    private void u1(int b) {
+      if (length == code.length) {
+        byte[] grown = new byte[code.length * 2];
+        System.arraycopy(code, 0, grown, 0, length);
+        code = grown;
+      }
+      code[length++] = (byte) b;
+    }
+
+    private void u2(int s) {
+      u1(s >> 8);
+      u1(s);
+    }
+
+    private static int returnSlots(String desc) {
+      char r = desc.charAt(desc.indexOf(')') + 1);
+      if (r == 'V') return 0;
+      if (r == 'J' || r == 'D') return 2;
+      return 1;
+    }
+
+    private static int argSlots(String desc) {
+      int slots = 0;
+      int i = 1;
+      while (desc.charAt(i) != ')') {
+        char c = desc.charAt(i);
+        if (c == 'J' || c == 'D') {
+          slots += 2;
+          i++;
+        } else if (c == 'L') {
+          slots += 1;
+          i = desc.indexOf(';', i) + 1;
+        } else if (c == '[') {
+          while (desc.charAt(i) == '[') i++;
+          if (desc.charAt(i) == 'L') {
+            i = desc.indexOf(';', i) + 1;
+          } else {
+            i++;
+          }
+          slots += 1;
+        } else {
+          slots += 1;
+          i++;
+        }
+      }
+      return slots;
+    }
+  }
+
+}
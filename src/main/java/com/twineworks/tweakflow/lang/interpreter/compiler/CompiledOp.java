@@ -0,0 +1,68 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.compiler;
+
+import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
+import com.twineworks.tweakflow.lang.interpreter.ops.ExpressionOp;
+
+/**
+ * Base class of ops generated by {@link OpCompiler}. Generated subclasses
+ * implement eval, everything else is delegated to the interpreted op the
+ * compiled code replaces.
+ */
+public abstract class CompiledOp implements ExpressionOp {
+
+  protected final ExpressionNode node;
+  protected final ExpressionOp interpreted;
+
+  protected CompiledOp(ExpressionNode node, ExpressionOp interpreted) {
+    this.node = node;
+    this.interpreted = interpreted;
+  }
+
+  public ExpressionNode getNode() {
+    return node;
+  }
+
+  public ExpressionOp getInterpreted() {
+    return interpreted;
+  }
+
+  @Override
+  public boolean isConstant() {
+    return interpreted.isConstant();
+  }
+
+  @Override
+  public ExpressionOp specialize() {
+    return interpreted.specialize();
+  }
+
+  @Override
+  public ExpressionOp refresh() {
+    return interpreted.refresh();
+  }
+
+}
@@ -0,0 +1,151 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.compiler;
+
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+
+/**
+ * Operations invoked from compiled ops. Each method mirrors the eval logic of
+ * the op it stands in for, after the compiled code has handled evaluation
+ * order and nil short-circuits.
+ */
+public final class Intrinsics {
+
+  private Intrinsics() {
+  }
+
+  // IfOp
+  public static boolean test(Value v) {
+    return v != Values.NIL && v.bool();
+  }
+
+  // AndOp
+  public static boolean andTest(Value v) {
+    Value b = v.castTo(Types.BOOLEAN);
+    return b != Values.FALSE && b != Values.NIL;
+  }
+
+  // OrOp
+  public static boolean orTest(Value v) {
+    return v.castTo(Types.BOOLEAN) == Values.TRUE;
+  }
+
+  // NotOp
+  public static Value not(Value v) {
+    Value b = v.castTo(Types.BOOLEAN);
+    return (b == Values.FALSE || b == Values.NIL) ? Values.TRUE : Values.FALSE;
+  }
+
+  // EqualOp
+  public static Value equal(Value left, Value right) {
+    return left.valueEquals(right) ? Values.TRUE : Values.FALSE;
+  }
+
+  // NotEqualOp
+  public static Value notEqual(Value left, Value right) {
+    return left.valueEquals(right) ? Values.FALSE : Values.TRUE;
+  }
+
+  // non-nil long operands
+
+  public static Value plusLL(Value left, Value right) {
+    return Values.make(left.longValue() + right.longValue());
+  }
+
+  public static Value minusLL(Value left, Value right) {
+    return Values.make(left.longValue() - right.longValue());
+  }
+
+  public static Value multLL(Value left, Value right) {
+    return Values.make(left.longValue() * right.longValue());
+  }
+
+  public static Value divLL(Value left, Value right) {
+    return Values.make((double) left.longValue() / (double) right.longValue());
+  }
+
+  public static Value lessThanLL(Value left, Value right) {
+    return (left.longValue() < right.longValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  public static Value greaterThanLL(Value left, Value right) {
+    return (left.longValue() > right.longValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  // non-nil double operands
+
+  public static Value plusDD(Value left, Value right) {
+    return Values.make(left.doubleValue() + right.doubleValue());
+  }
+
+  public static Value minusDD(Value left, Value right) {
+    return Values.make(left.doubleValue() - right.doubleValue());
+  }
+
+  public static Value multDD(Value left, Value right) {
+    return Values.make(left.doubleValue() * right.doubleValue());
+  }
+
+  public static Value divDD(Value left, Value right) {
+    return Values.make(left.doubleValue() / right.doubleValue());
+  }
+
+  public static Value lessThanDD(Value left, Value right) {
+    return (left.doubleValue() < right.doubleValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  public static Value greaterThanDD(Value left, Value right) {
+    return (left.doubleValue() > right.doubleValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  // possibly nil operands, both evaluated
+
+  public static Value lessThanOrEqualLL(Value leftValue, Value rightValue) {
+    if (leftValue == Values.NIL) return rightValue == Values.NIL ? Values.TRUE : Values.FALSE;
+    if (rightValue == Values.NIL) return Values.FALSE;
+    return (leftValue.longValue() <= rightValue.longValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  public static Value greaterThanOrEqualLL(Value leftValue, Value rightValue) {
+    if (leftValue == Values.NIL) return rightValue == Values.NIL ? Values.TRUE : Values.FALSE;
+    if (rightValue == Values.NIL) return Values.FALSE;
+    return (leftValue.longValue() >= rightValue.longValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  public static Value lessThanOrEqualDD(Value leftValue, Value rightValue) {
+    if (leftValue == Values.NIL) return rightValue == Values.NIL ? Values.TRUE : Values.FALSE;
+    if (rightValue == Values.NIL) return Values.FALSE;
+    return (leftValue.doubleValue() <= rightValue.doubleValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+  public static Value greaterThanOrEqualDD(Value leftValue, Value rightValue) {
+    if (leftValue == Values.NIL) return rightValue == Values.NIL ? Values.TRUE : Values.FALSE;
+    if (rightValue == Values.NIL) return Values.FALSE;
+    return (leftValue.doubleValue() >= rightValue.doubleValue()) ? Values.TRUE : Values.FALSE;
+  }
+
+}
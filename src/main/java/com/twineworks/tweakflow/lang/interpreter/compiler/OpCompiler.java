@@ -0,0 +1,407 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.compiler;
+
+import com.twineworks.tweakflow.lang.ast.expressions.*;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
+import com.twineworks.tweakflow.lang.interpreter.ops.*;
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.values.Value;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compiles the op tree of an expression into a generated JVM class.
+ * <p>
+ * Control flow, logic and the specialized long and double arithmetic and
+ * comparison ops are inlined into a single eval method. Any other op is
+ * kept as is, and called from its own call site in the generated code, so
+ * the JIT sees a monomorphic call it can inline instead of the megamorphic
+ * call sites of the interpreted op tree.
+ * <p>
+ * Expressions that cannot be compiled fall back to their interpreted op.
+ */
+public final class OpCompiler {
+
+  private static final String PACKAGE = "com/twineworks/tweakflow/lang/interpreter/compiler/generated/";
+
+  private static final String COMPILED_OP = internalName(CompiledOp.class);
+  private static final String EXPRESSION_OP = internalName(ExpressionOp.class);
+  private static final String EXPRESSION_NODE = internalName(ExpressionNode.class);
+  private static final String INTRINSICS = internalName(Intrinsics.class);
+  private static final String VALUES = internalName(com.twineworks.tweakflow.lang.values.Values.class);
+
+  private static final String VALUE_DESC = "L" + internalName(Value.class) + ";";
+  private static final String TYPE = internalName(Type.class);
+  private static final String CAST_DESC = "(L" + TYPE + ";)" + VALUE_DESC;
+  private static final String EVAL_DESC = "(L" + internalName(com.twineworks.tweakflow.lang.interpreter.Stack.class) + ";L" + internalName(EvaluationContext.class) + ";)" + VALUE_DESC;
+  private static final String INIT_DESC = "(L" + EXPRESSION_NODE + ";L" + EXPRESSION_OP + ";[Ljava/lang/Object;)V";
+  private static final String SUPER_INIT_DESC = "(L" + EXPRESSION_NODE + ";L" + EXPRESSION_OP + ";)V";
+  private static final String TEST_DESC = "(" + VALUE_DESC + ")Z";
+  private static final String UNARY_DESC = "(" + VALUE_DESC + ")" + VALUE_DESC;
+  private static final String BINARY_DESC = "(" + VALUE_DESC + VALUE_DESC + ")" + VALUE_DESC;
+
+  private static final int STACK_LOCAL = 1;
+  private static final int CONTEXT_LOCAL = 2;
+
+  private static final AtomicLong classCounter = new AtomicLong();
+
+  private OpCompiler() {
+  }
+
+  /**
+   * Returns the op to evaluate the given expression with. If compiled ops are
+   * enabled in the evaluation context, this is the compiled op, which is
+   * generated on first use. The interpreted op otherwise.
+   */
+  public static ExpressionOp opFor(ExpressionNode node, EvaluationContext context) {
+    if (!context.isCompiledOps()) return node.getOp();
+
+    ExpressionOp compiled = node.getCompiledOp();
+    if (compiled == null) {
+      compiled = compile(node);
+      node.setCompiledOp(compiled);
+    }
+    return compiled;
+  }
+
+  /**
+   * Compiles the op tree of given expression. Returns the interpreted op if
+   * the expression does not benefit from compilation, or cannot be compiled.
+   */
+  public static ExpressionOp compile(ExpressionNode node) {
+    ExpressionOp op = node.getOp();
+    if (!isInlined(op) || op instanceof ConstantOp) return op;
+
+    try {
+      return new Generator(node).generate();
+    } catch (RuntimeException | LinkageError | ReflectiveOperationException e) {
+      // the interpreter is always a valid fallback
+      return op;
+    }
+  }
+
+  private static boolean isInlined(ExpressionOp op) {
+    return op instanceof ConstantOp
+        || op instanceof CastOp
+        || op instanceof IfOp
+        || op instanceof AndOp
+        || op instanceof OrOp
+        || op instanceof NotOp
+        || op instanceof EqualOp
+        || op instanceof NotEqualOp
+        || op instanceof PlusOpLL
+        || op instanceof PlusOpLCL
+        || op instanceof MinusOpLL
+        || op instanceof MinusOpLCL
+        || op instanceof MultOpLL
+        || op instanceof DivOpLL
+        || op instanceof LessThanOpLL
+        || op instanceof GreaterThanOpLL
+        || op instanceof LessThanOrEqualOpLL
+        || op instanceof GreaterThanOrEqualOpLL
+        || op instanceof PlusOpDD
+        || op instanceof MinusOpDD
+        || op instanceof MultOpDD
+        || op instanceof DivOpDD
+        || op instanceof LessThanOpDD
+        || op instanceof GreaterThanOpDD
+        || op instanceof LessThanOrEqualOpDD
+        || op instanceof GreaterThanOrEqualOpDD;
+  }
+
+  private static String internalName(Class<?> c) {
+    return c.getName().replace('.', '/');
+  }
+
+  private static final class OpClassLoader extends ClassLoader {
+
+    OpClassLoader(ClassLoader parent) {
+      super(parent);
+    }
+
+    Class<?> define(String name, byte[] bytes) {
+      return defineClass(name, bytes, 0, bytes.length);
+    }
+  }
+
+  private static final class Generator {
+
+    private final ExpressionNode root;
+    private final ClassFileWriter cw;
+    private final ClassFileWriter.Code code;
+
+    private final List<Object> fieldValues = new ArrayList<>();
+    private final List<String> fieldNames = new ArrayList<>();
+    private final List<String> fieldTypes = new ArrayList<>();
+
+    private Generator(ExpressionNode root) {
+      this.root = root;
+      this.cw = new ClassFileWriter(PACKAGE + "Op" + classCounter.incrementAndGet(), COMPILED_OP);
+      this.code = cw.method(ClassFileWriter.ACC_PUBLIC, "eval", EVAL_DESC, 3);
+    }
+
+    private CompiledOp generate() throws ReflectiveOperationException {
+
+      emit(root);
+      code.areturn();
+
+      // fields and constructor
+      ClassFileWriter.Code init = cw.method(ClassFileWriter.ACC_PUBLIC, "<init>", INIT_DESC, 4);
+      init.aload(0).aload(1).aload(2).invokeSpecial(COMPILED_OP, "<init>", SUPER_INIT_DESC);
+
+      for (int i = 0; i < fieldNames.size(); i++) {
+        String name = fieldNames.get(i);
+        String type = fieldTypes.get(i);
+        cw.field(ClassFileWriter.ACC_PRIVATE | ClassFileWriter.ACC_FINAL, name, "L" + type + ";");
+        init.aload(0).aload(3).pushInt(i).aaload().checkCast(type)
+            .putField(cw.getClassName(), name, "L" + type + ";");
+      }
+      init.vreturn();
+
+      byte[] bytes = cw.toByteArray();
+      OpClassLoader loader = new OpClassLoader(OpCompiler.class.getClassLoader());
+      Class<?> c = loader.define(cw.getClassName().replace('/', '.'), bytes);
+
+      return (CompiledOp) c
+          .getConstructor(ExpressionNode.class, ExpressionOp.class, Object[].class)
+          .newInstance(root, root.getOp(), fieldValues.toArray());
+
+    }
+
+    private String addField(String prefix, String type, Object value) {
+      String name = prefix + fieldNames.size();
+      fieldNames.add(name);
+      fieldTypes.add(type);
+      fieldValues.add(value);
+      return name;
+    }
+
+    private void emit(ExpressionNode node) {
+
+      ExpressionOp op = node.getOp();
+
+      if (op instanceof ConstantOp) {
+        String name = addField("c", internalName(Value.class), ((ConstantOp) op).getValue());
+        code.aload(0).getField(cw.getClassName(), name, VALUE_DESC);
+      }
+      else if (node instanceof CastNode && !(op instanceof TailCastOp)) {
+        CastNode n = (CastNode) node;
+        emit(n.getExpression());
+        // casts to the static type of the expression specialize away
+        if (op instanceof CastOp) {
+          String name = addField("t", TYPE, n.getTargetType());
+          code.aload(0)
+              .getField(cw.getClassName(), name, "L" + TYPE + ";")
+              .invokeVirtual(internalName(Value.class), "castTo", CAST_DESC);
+        }
+      }
+      else if (op instanceof IfOp) {
+        IfNode n = (IfNode) node;
+        ClassFileWriter.Label otherwise = new ClassFileWriter.Label();
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        emit(n.getCondition());
+        code.invokeStatic(INTRINSICS, "test", TEST_DESC)
+            .jump(ClassFileWriter.Code.IFEQ, otherwise);
+        emit(n.getThenExpression());
+        code.jump(ClassFileWriter.Code.GOTO, end)
+            .mark(otherwise);
+        emit(n.getElseExpression());
+        code.mark(end);
+      }
+      else if (op instanceof AndOp) {
+        AndNode n = (AndNode) node;
+        ClassFileWriter.Label no = new ClassFileWriter.Label();
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        emit(n.getLeftExpression());
+        code.invokeStatic(INTRINSICS, "andTest", TEST_DESC)
+            .jump(ClassFileWriter.Code.IFEQ, no);
+        emit(n.getRightExpression());
+        code.invokeStatic(INTRINSICS, "andTest", TEST_DESC)
+            .jump(ClassFileWriter.Code.IFEQ, no)
+            .getStatic(VALUES, "TRUE", VALUE_DESC)
+            .jump(ClassFileWriter.Code.GOTO, end)
+            .mark(no)
+            .getStatic(VALUES, "FALSE", VALUE_DESC)
+            .mark(end);
+      }
+      else if (op instanceof OrOp) {
+        OrNode n = (OrNode) node;
+        ClassFileWriter.Label yes = new ClassFileWriter.Label();
+        ClassFileWriter.Label end = new ClassFileWriter.Label();
+        emit(n.getLeftExpression());
+        code.invokeStatic(INTRINSICS, "orTest", TEST_DESC)
+            .jump(ClassFileWriter.Code.IFNE, yes);
+        emit(n.getRightExpression());
+        code.invokeStatic(INTRINSICS, "orTest", TEST_DESC)
+            .jump(ClassFileWriter.Code.IFNE, yes)
+            .getStatic(VALUES, "FALSE", VALUE_DESC)
+            .jump(ClassFileWriter.Code.GOTO, end)
+            .mark(yes)
+            .getStatic(VALUES, "TRUE", VALUE_DESC)
+            .mark(end);
+      }
+      else if (op instanceof NotOp) {
+        emit(((NotNode) node).getExpression());
+        code.invokeStatic(INTRINSICS, "not", UNARY_DESC);
+      }
+      else if (op instanceof EqualOp) {
+        EqualNode n = (EqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "equal");
+      }
+      else if (op instanceof NotEqualOp) {
+        NotEqualNode n = (NotEqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "notEqual");
+      }
+      else if (op instanceof PlusOpLL || op instanceof PlusOpLCL) {
+        PlusNode n = (PlusNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "plusLL", "NIL");
+      }
+      else if (op instanceof MinusOpLL || op instanceof MinusOpLCL) {
+        MinusNode n = (MinusNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "minusLL", "NIL");
+      }
+      else if (op instanceof MultOpLL) {
+        MultNode n = (MultNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "multLL", "NIL");
+      }
+      else if (op instanceof DivOpLL) {
+        DivNode n = (DivNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "divLL", "NIL");
+      }
+      else if (op instanceof LessThanOpLL) {
+        LessThanNode n = (LessThanNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "lessThanLL", "FALSE");
+      }
+      else if (op instanceof GreaterThanOpLL) {
+        GreaterThanNode n = (GreaterThanNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "greaterThanLL", "FALSE");
+      }
+      else if (op instanceof LessThanOrEqualOpLL) {
+        LessThanOrEqualNode n = (LessThanOrEqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "lessThanOrEqualLL");
+      }
+      else if (op instanceof GreaterThanOrEqualOpLL) {
+        GreaterThanOrEqualNode n = (GreaterThanOrEqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "greaterThanOrEqualLL");
+      }
+      else if (op instanceof PlusOpDD) {
+        PlusNode n = (PlusNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "plusDD", "NIL");
+      }
+      else if (op instanceof MinusOpDD) {
+        MinusNode n = (MinusNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "minusDD", "NIL");
+      }
+      else if (op instanceof MultOpDD) {
+        MultNode n = (MultNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "multDD", "NIL");
+      }
+      else if (op instanceof DivOpDD) {
+        DivNode n = (DivNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "divDD", "NIL");
+      }
+      else if (op instanceof LessThanOpDD) {
+        LessThanNode n = (LessThanNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "lessThanDD", "FALSE");
+      }
+      else if (op instanceof GreaterThanOpDD) {
+        GreaterThanNode n = (GreaterThanNode) node;
+        guarded(n.getLeftExpression(), n.getRightExpression(), "greaterThanDD", "FALSE");
+      }
+      else if (op instanceof LessThanOrEqualOpDD) {
+        LessThanOrEqualNode n = (LessThanOrEqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "lessThanOrEqualDD");
+      }
+      else if (op instanceof GreaterThanOrEqualOpDD) {
+        GreaterThanOrEqualNode n = (GreaterThanOrEqualNode) node;
+        strict(n.getLeftExpression(), n.getRightExpression(), "greaterThanOrEqualDD");
+      }
+      else {
+        leaf(op);
+      }
+    }
+
+    // both operands are evaluated, the intrinsic handles nil
+    private void strict(ExpressionNode left, ExpressionNode right, String intrinsic) {
+      emit(left);
+      emit(right);
+      code.invokeStatic(INTRINSICS, intrinsic, BINARY_DESC);
+    }
+
+    // evaluation stops at the first nil operand, yielding the given result
+    private void guarded(ExpressionNode left, ExpressionNode right, String intrinsic, String nilResult) {
+      ClassFileWriter.Label nil = new ClassFileWriter.Label();
+      ClassFileWriter.Label end = new ClassFileWriter.Label();
+      int l = code.newLocal();
+      int r = code.newLocal();
+
+      emit(left);
+      code.astore(l)
+          .aload(l)
+          .getStatic(VALUES, "NIL", VALUE_DESC)
+          .jump(ClassFileWriter.Code.IF_ACMPEQ, nil);
+      emit(right);
+      code.astore(r)
+          .aload(r)
+          .getStatic(VALUES, "NIL", VALUE_DESC)
+          .jump(ClassFileWriter.Code.IF_ACMPEQ, nil)
+          .aload(l)
+          .aload(r)
+          .invokeStatic(INTRINSICS, intrinsic, BINARY_DESC)
+          .jump(ClassFileWriter.Code.GOTO, end)
+          .mark(nil)
+          .getStatic(VALUES, nilResult, VALUE_DESC)
+          .mark(end);
+    }
+
+    // ops that are not inlined are called through a field of their exact type
+    private void leaf(ExpressionOp op) {
+      Class<?> c = op.getClass();
+      boolean exact = Modifier.isPublic(c.getModifiers())
+          && c.getEnclosingClass() == null
+          && c.getClassLoader() == OpCompiler.class.getClassLoader();
+
+      String type = exact ? internalName(c) : EXPRESSION_OP;
+      String name = addField("op", type, op);
+
+      code.aload(0)
+          .getField(cw.getClassName(), name, "L" + type + ";")
+          .aload(STACK_LOCAL)
+          .aload(CONTEXT_LOCAL);
+
+      if (exact) {
+        code.invokeVirtual(type, "eval", EVAL_DESC);
+      } else {
+        code.invokeInterface(type, "eval", EVAL_DESC);
+      }
+    }
+
+  }
+
+}
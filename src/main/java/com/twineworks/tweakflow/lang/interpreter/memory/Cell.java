@@ -40,6 +40,8 @@ public class Cell implements MemorySpace, ValueProvider {
   private Scope scope;                                 // in case the cell is a space/scope itself
 
   private Symbol symbol;
+  private int stateIndex = -1;                         // in case the cell is a var of a runtime set
+  private RuntimeState defaultState;                   // in case the cell is a var of a runtime set
   private Value value;
   private boolean dirty = true;
   private boolean evaluating = false;
@@ -84,11 +86,28 @@ public class Cell implements MemorySpace, ValueProvider {
     return this;
   }
 
+  public int getStateIndex() {
+    return stateIndex;
+  }
+
+  public Cell setStateIndex(int stateIndex) {
+    this.stateIndex = stateIndex;
+    return this;
+  }
+
+  // the accessors without explicit state read and write vars in the state of the runtime owning the runtime set
+  public Cell setDefaultState(RuntimeState defaultState) {
+    this.defaultState = defaultState;
+    return this;
+  }
+
   public boolean isEvaluating() {
+    if (stateIndex >= 0) return isEvaluating(defaultState);
     return evaluating;
   }
 
   public Cell setEvaluating(boolean evaluating) {
+    if (stateIndex >= 0) return setEvaluating(defaultState, evaluating);
     this.evaluating = evaluating;
     return this;
   }
@@ -161,21 +180,63 @@ public class Cell implements MemorySpace, ValueProvider {
 
   @Override
   public Value getValue() {
+    if (stateIndex >= 0) return getValue(defaultState);
     return value;
   }
 
   public Cell setValue(Value value) {
+    if (stateIndex >= 0) return setValue(defaultState, value);
     this.value = value;
     dirty = false;
     return this;
   }
 
   public boolean isDirty() {
+    if (stateIndex >= 0) return isDirty(defaultState);
     return dirty;
   }
 
   public Cell setDirty(boolean dirty) {
+    if (stateIndex >= 0) return setDirty(defaultState, dirty);
     this.dirty = dirty;
     return this;
   }
+
+  // vars of a runtime set keep their value in the state of the evaluating runtime,
+  // any other cell keeps it in place
+
+  public Value getValue(RuntimeState state) {
+    return stateIndex < 0 ? value : state.getValue(stateIndex);
+  }
+
+  public Cell setValue(RuntimeState state, Value value) {
+    if (stateIndex < 0) return setValue(value);
+    state.setValue(stateIndex, value);
+    return this;
+  }
+
+  public boolean isDirty(RuntimeState state) {
+    return stateIndex < 0 ? dirty : !state.hasFlag(stateIndex, RuntimeState.CLEAN);
+  }
+
+  public Cell setDirty(RuntimeState state, boolean dirty) {
+    if (stateIndex < 0) return setDirty(dirty);
+    state.setFlag(stateIndex, RuntimeState.CLEAN, !dirty);
+    return this;
+  }
+
+  public boolean isEvaluating(RuntimeState state) {
+    return stateIndex < 0 ? evaluating : state.hasFlag(stateIndex, RuntimeState.EVALUATING);
+  }
+
+  public Cell setEvaluating(RuntimeState state, boolean evaluating) {
+    if (stateIndex < 0) return setEvaluating(evaluating);
+    state.setFlag(stateIndex, RuntimeState.EVALUATING, evaluating);
+    return this;
+  }
+
+  public ValueProvider valueProvider(RuntimeState state) {
+    if (stateIndex < 0) return this;
+    return () -> getValue(state);
+  }
 }
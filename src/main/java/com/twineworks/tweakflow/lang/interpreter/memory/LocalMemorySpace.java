@@ -25,21 +25,31 @@
 package com.twineworks.tweakflow.lang.interpreter.memory;
 
 import com.twineworks.collections.shapemap.ConstShapeMap;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.scope.Scope;
 
-public class LocalMemorySpace implements MemorySpace {
+// a local memory space is its own cell map, so creating a frame costs one object and its storage
+// frames laid out by a local scope hold each symbol's cell at the slot assigned by the scope
+public class LocalMemorySpace extends ConstShapeMap<Cell> implements MemorySpace {
 
   public static final MemorySpace EMPTY = new LocalMemorySpace(null, null, MemorySpaceType.LOCAL, new ConstShapeMap<>());
-  private final ConstShapeMap<Cell> cells;
   private MemorySpace enclosingSpace;
   private Scope scope;
   private final MemorySpaceType memorySpaceType;
 
   public LocalMemorySpace(MemorySpace enclosingSpace, Scope scope, MemorySpaceType memorySpaceType, ConstShapeMap<Cell> cells) {
+    super(cells);
+    this.enclosingSpace = enclosingSpace;
+    this.scope = scope;
+    this.memorySpaceType = memorySpaceType;
+  }
+
+  @SuppressWarnings("unchecked")
+  public LocalMemorySpace(MemorySpace enclosingSpace, LocalScope scope, MemorySpaceType memorySpaceType) {
+    super(scope.getFrameTemplate());
     this.enclosingSpace = enclosingSpace;
     this.scope = scope;
     this.memorySpaceType = memorySpaceType;
-    this.cells = cells;
   }
 
   public LocalMemorySpace setScope(Scope scope) {
@@ -47,9 +57,18 @@ public class LocalMemorySpace implements MemorySpace {
     return this;
   }
 
+  public Cell getSlot(int slot) {
+    return (Cell) storage[slot];
+  }
+
+  public LocalMemorySpace setSlot(int slot, Cell cell) {
+    storage[slot] = cell;
+    return this;
+  }
+
   @Override
   public ConstShapeMap<Cell> getCells() {
-    return cells;
+    return this;
   }
 
   @Override
@@ -73,4 +92,15 @@ public class LocalMemorySpace implements MemorySpace {
     return memorySpaceType;
   }
 
+  // spaces have identity, regardless of the cells they hold
+  @Override
+  public boolean equals(Object o) {
+    return this == o;
+  }
+
+  @Override
+  public int hashCode() {
+    return System.identityHashCode(this);
+  }
+
 }
@@ -33,7 +33,8 @@ import java.util.Map;
 
 public class MemorySpaceBuilder {
 
-  public static void buildRuntimeSpace(RuntimeSet runtimeSet){
+  // returns the var cells, which keep their values in runtime state, indexed by state index
+  public static Cell[] buildRuntimeSpace(RuntimeSet runtimeSet){
 
     GlobalMemorySpace globalMemorySpace = runtimeSet.getGlobalMemorySpace();
     MemorySpaceBuilderVisitor builder = new MemorySpaceBuilderVisitor(globalMemorySpace);
@@ -52,6 +53,8 @@ public class MemorySpaceBuilder {
     // linker resolves imports, aliases, and exported names
     MemorySpaceLinker.link(runtimeSet);
 
+    return builder.getVarCells().toArray(new Cell[0]);
+
   }
 
 }
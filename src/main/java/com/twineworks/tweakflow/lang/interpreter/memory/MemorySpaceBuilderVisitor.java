@@ -31,18 +31,24 @@ import com.twineworks.tweakflow.lang.ast.UnitNode;
 import com.twineworks.tweakflow.lang.ast.structure.*;
 
 import java.util.ArrayDeque;
+import java.util.ArrayList;
 
 
 public class MemorySpaceBuilderVisitor extends AVisitor implements Visitor {
 
   private final ArrayDeque<MemorySpace> spaces = new ArrayDeque<>();
   private final GlobalMemorySpace globalMemorySpace;
+  private final ArrayList<Cell> varCells = new ArrayList<>();
 
   MemorySpaceBuilderVisitor(GlobalMemorySpace globalMemorySpace) {
     this.globalMemorySpace = globalMemorySpace;
     spaces.push(globalMemorySpace);
   }
 
+  ArrayList<Cell> getVarCells() {
+    return varCells;
+  }
+
   void buildUnitSpaces(UnitNode node){
 
     Cell unitCell;
@@ -189,10 +195,13 @@ public class MemorySpaceBuilderVisitor extends AVisitor implements Visitor {
   public VarDefNode visit(VarDefNode node) {
     MemorySpace space = spaces.peek();
     Cell varCell = new Cell()
+        .setStateIndex(varCells.size())
         .setEnclosingSpace(space)
         .setScope(space.getScope())
         .setSymbol(node.getSymbol());
 
+    varCells.add(varCell);
+
     space.getCells().puts(node.getSymbolName(), varCell);
     return node;
   }
@@ -32,19 +32,19 @@ import com.twineworks.tweakflow.util.LangUtil;
 
 public class MemorySpaceInspector {
 
-  public static String inspect(MemorySpace space){
+  public static String inspect(MemorySpace space, RuntimeState state){
     StringBuilder out = new StringBuilder();
-    inspect(out, space, "", "", "  ", false);
+    inspect(out, space, state, "", "", "  ", false);
     return out.toString();
   }
 
-  public static String inspect(MemorySpace space, boolean expandFunctions){
+  public static String inspect(MemorySpace space, RuntimeState state, boolean expandFunctions){
     StringBuilder out = new StringBuilder();
-    inspect(out, space, "", "", "  ", expandFunctions);
+    inspect(out, space, state, "", "", "  ", expandFunctions);
     return out.toString();
   }
 
-  public static void inspect(StringBuilder out, MemorySpace space, String leadingIndent, String inheritedIndent, String indentationUnit, boolean expandFunctions){
+  public static void inspect(StringBuilder out, MemorySpace space, RuntimeState state, String leadingIndent, String inheritedIndent, String indentationUnit, boolean expandFunctions){
 
     if (space == null){
       out.append(leadingIndent).append("null");
@@ -107,7 +107,7 @@ public class MemorySpaceInspector {
 
       case VAR: {
         Cell cell = (Cell) space;
-        ValueInspector.inspect(out, cell.getValue(), "", inheritedIndent, indentationUnit, expandFunctions);
+        ValueInspector.inspect(out, cell.getValue(state), "", inheritedIndent, indentationUnit, expandFunctions);
         out.append("\n");
         inspectChildren = false;
         break;
@@ -120,18 +120,18 @@ public class MemorySpaceInspector {
     }
 
     if (inspectChildren){
-      inspectChildren(out, space, leadingIndent, inheritedIndent, indentationUnit, expandFunctions);
+      inspectChildren(out, space, state, leadingIndent, inheritedIndent, indentationUnit, expandFunctions);
     }
 
   }
 
-  private static void inspectChildren(StringBuilder out, MemorySpace space, String leadingIndent, String inheritedIndent, String indentationUnit, boolean expandFunctions){
+  private static void inspectChildren(StringBuilder out, MemorySpace space, RuntimeState state, String leadingIndent, String inheritedIndent, String indentationUnit, boolean expandFunctions){
 
     ConstShapeMap<Cell> cells = space.getCells();
     String childIndent = inheritedIndent+indentationUnit;
     for (ShapeKey key : cells.keySet()) {
       out.append(childIndent).append(LangUtil.escapeIdentifier(key.toString())).append(": ");
-      inspect(out, cells.get(key), childIndent, childIndent, indentationUnit, expandFunctions);
+      inspect(out, cells.get(key), state, childIndent, childIndent, indentationUnit, expandFunctions);
     }
 
   }
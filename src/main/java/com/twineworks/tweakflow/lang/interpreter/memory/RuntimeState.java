@@ -0,0 +1,127 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.memory;
+
+import com.twineworks.tweakflow.lang.values.Value;
+
+import java.util.Arrays;
+
+// values of the var cells of a runtime set
+// the memory spaces of a runtime set do not change once built, so any number of
+// runtimes can share them, each evaluating vars into its own state
+// state is paged, forks share all pages with their parent and copy a page before writing to it
+public class RuntimeState {
+
+  static final byte CLEAN = 1;
+  static final byte EVALUATING = 2;
+
+  private static final int PAGE_BITS = 6;
+  private static final int PAGE_SIZE = 1 << PAGE_BITS;
+  private static final int PAGE_MASK = PAGE_SIZE - 1;
+
+  private final int size;
+  private final Page[] pages;
+  private final boolean[] owned;
+
+  public RuntimeState(int size) {
+    this.size = size;
+    int pageCount = (size + PAGE_MASK) >>> PAGE_BITS;
+    pages = new Page[pageCount];
+    owned = new boolean[pageCount];
+    for (int i = 0; i < pageCount; i++) {
+      pages[i] = new Page(new Value[PAGE_SIZE], new byte[PAGE_SIZE]);
+      owned[i] = true;
+    }
+  }
+
+  private RuntimeState(RuntimeState parent) {
+    size = parent.size;
+    pages = parent.pages.clone();
+    owned = new boolean[pages.length];
+  }
+
+  // a state can be forked from multiple threads, as long as it is not being evaluated at the same time
+  public synchronized RuntimeState fork(){
+    Arrays.fill(owned, false);
+    return new RuntimeState(this);
+  }
+
+  public int size(){
+    return size;
+  }
+
+  Value getValue(int index){
+    return pages[index >>> PAGE_BITS].values[index & PAGE_MASK];
+  }
+
+  void setValue(int index, Value value){
+    Page page = writablePage(index >>> PAGE_BITS);
+    page.values[index & PAGE_MASK] = value;
+    page.flags[index & PAGE_MASK] |= CLEAN;
+  }
+
+  boolean hasFlag(int index, byte flag){
+    return (pages[index >>> PAGE_BITS].flags[index & PAGE_MASK] & flag) != 0;
+  }
+
+  void setFlag(int index, byte flag, boolean on){
+    // no need to copy a shared page if nothing changes
+    if (hasFlag(index, flag) == on) return;
+    Page page = writablePage(index >>> PAGE_BITS);
+    if (on){
+      page.flags[index & PAGE_MASK] |= flag;
+    }
+    else {
+      page.flags[index & PAGE_MASK] &= ~flag;
+    }
+  }
+
+  // takes ownership of the page holding index ahead of time, so cells on that page
+  // can be written from multiple threads without racing to copy it
+  public void prepareWrite(int index){
+    writablePage(index >>> PAGE_BITS);
+  }
+
+  private Page writablePage(int pageIndex){
+    if (!owned[pageIndex]){
+      Page page = pages[pageIndex];
+      pages[pageIndex] = new Page(page.values.clone(), page.flags.clone());
+      owned[pageIndex] = true;
+    }
+    return pages[pageIndex];
+  }
+
+  private static final class Page {
+
+    private final Value[] values;
+    private final byte[] flags;
+
+    private Page(Value[] values, byte[] flags) {
+      this.values = values;
+      this.flags = flags;
+    }
+  }
+
+}
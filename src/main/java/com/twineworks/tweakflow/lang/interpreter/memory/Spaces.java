@@ -81,9 +81,6 @@ public class Spaces {
 
   static public Cell resolve(ReferenceOp op, MemorySpace space){
 
-//    IdentityHashMap<Object, Cell> cache = space.cache();
-//    Cell cell = cache.get(op);
-//    if (cell != null) return cell;
     Cell cell;
     ConstShapeMap.Accessor[] names = op.getNames();
     try {
@@ -104,7 +101,6 @@ public class Spaces {
         default:
           throw new AssertionError("Invalid reference: unknown or missing anchor "+op.getAnchor());
       }
-//      cache.put(op, cell);
       return cell;
     } catch (LangException e){
       if (e.getSourceInfo() != null){
@@ -117,6 +113,19 @@ public class Spaces {
 
   }
 
+  // reads a cell at a (depth, slot) coordinate assigned by frame layout
+  static public Cell resolveInFrame(MemorySpace space, int depth, int slot){
+    return (Cell) enclosing(space, depth).getCells().storage[slot];
+  }
+
+  static public MemorySpace enclosing(MemorySpace space, int depth){
+    MemorySpace current = space;
+    for (int i = depth; i > 0; i--){
+      current = current.getEnclosingSpace();
+    }
+    return current;
+  }
+
   private static MemorySpace findGlobalSpace(MemorySpace s){
 
     Objects.requireNonNull(s);
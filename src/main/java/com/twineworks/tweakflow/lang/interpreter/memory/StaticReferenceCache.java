@@ -0,0 +1,104 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.memory;
+
+import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
+import com.twineworks.tweakflow.lang.scope.Scope;
+import com.twineworks.tweakflow.lang.scope.Scopes;
+import com.twineworks.tweakflow.lang.scope.Symbol;
+
+import java.lang.ref.WeakReference;
+
+// inline cache for references to module, library and interactive vars
+// such references resolve to the same cell for as long as the memory spaces of a runtime set exist
+// resolved cells are cached per static memory space the reference is evaluated in, so runtime sets
+// built from the same analysis, which share ops but not spaces, resolve against their own cells
+// entries hold their spaces and cells weakly, so cached runtime sets can be collected
+final public class StaticReferenceCache {
+
+  private static final int CAPACITY = 4;
+
+  private final ReferenceNode node;
+  private final int depth;
+  private volatile Entry entries;
+
+  private StaticReferenceCache(ReferenceNode node, int depth) {
+    this.node = node;
+    this.depth = depth;
+  }
+
+  // returns null if the reference is not cacheable when resolved from given scope
+  public static StaticReferenceCache forReference(ReferenceNode node, Scope scope){
+    Symbol symbol = node.getReferencedSymbol();
+    if (symbol == null || !Scopes.isStatic(symbol)) return null;
+    int depth = Scopes.staticSpaceDepth(scope);
+    if (depth < 0) return null;
+    return new StaticReferenceCache(node, depth);
+  }
+
+  public Cell resolve(MemorySpace space){
+
+    MemorySpace key = Spaces.enclosing(space, depth);
+
+    for (Entry e = entries; e != null; e = e.next){
+      if (e.get() == key){
+        Cell cell = e.cell.get();
+        if (cell != null) return cell;
+      }
+    }
+
+    Cell cell = Spaces.resolve(node, space);
+    put(key, cell);
+    return cell;
+  }
+
+  private void put(MemorySpace key, Cell cell){
+    // entries are immutable, racing writers may drop each other's entries, which only costs a miss
+    Entry head = new Entry(key, cell, null);
+    Entry tail = head;
+    int size = 1;
+    for (Entry e = entries; e != null && size < CAPACITY; e = e.next){
+      MemorySpace space = e.get();
+      if (space == null || space == key) continue;
+      tail.next = new Entry(space, e.cell.get(), null);
+      tail = tail.next;
+      size++;
+    }
+    entries = head;
+  }
+
+  private static final class Entry extends WeakReference<MemorySpace> {
+
+    private final WeakReference<Cell> cell;
+    private Entry next;
+
+    private Entry(MemorySpace space, Cell cell, Entry next) {
+      super(space);
+      this.cell = new WeakReference<>(cell);
+      this.next = next;
+    }
+  }
+
+}
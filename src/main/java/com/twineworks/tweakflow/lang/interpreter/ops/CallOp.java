@@ -64,7 +64,8 @@ final public class CallOp implements ExpressionOp {
       return evaluateStandard((StandardFunctionValue) function, arguments, stack, context);
     }
     else{
-      return evaluateUser((UserFunctionValue) function, arguments, stack, context);
+      // collections produced by native functions count against the budget
+      return context.checkSize(evaluateUser((UserFunctionValue) function, arguments, stack, context), stack);
     }
   }
 
@@ -119,6 +120,9 @@ final public class CallOp implements ExpressionOp {
       }
       catch (LangException ignored){}
     }
+    if (node.isTailCall()){
+      return new TailCallOp(node);
+    }
     return new CallOp(node);
   }
 
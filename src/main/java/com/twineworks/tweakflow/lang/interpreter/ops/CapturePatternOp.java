@@ -24,20 +24,21 @@
 
 package com.twineworks.tweakflow.lang.interpreter.ops;
 
-import com.twineworks.collections.shapemap.ConstShapeMap;
 import com.twineworks.tweakflow.lang.ast.structure.match.CapturePatternNode;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.scope.Symbol;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.LocalMemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpace;
 
 final public class CapturePatternOp implements PatternOp {
 
   private final CapturePatternNode node;
   private final Symbol symbol;
-  private final ConstShapeMap.Accessor<Cell> accessor;
+  private final int slot;
   private final boolean capturing;
 
   public boolean isCapturing(){
@@ -49,11 +50,11 @@ final public class CapturePatternOp implements PatternOp {
     this.capturing = node.getSymbolName() != null;
     if (capturing){
       symbol = node.getSymbol();
-      accessor = ConstShapeMap.accessor(symbol.getName());
+      slot = ((LocalScope) symbol.getScope()).getFrameSlot(symbol.getName());
     }
     else{
       symbol = null;
-      accessor = null;
+      slot = -1;
     }
   }
 
@@ -66,7 +67,7 @@ final public class CapturePatternOp implements PatternOp {
   public void bind(Value subject, MemorySpace frame) {
     if (capturing){
       Cell cell = new Cell().setLeafSymbol(symbol).setValue(subject).setEnclosingSpace(frame);
-      frame.getCells().seta(accessor, cell);
+      ((LocalMemorySpace) frame).setSlot(slot, cell);
     }
   }
 
@@ -57,6 +57,9 @@ final public class CastOp implements ExpressionOp {
     if (node.getExpression().getValueType() == targetType){
       return exp;
     }
+    else if (node.isTailCall()){
+      return new TailCastOp(node);
+    }
     else{
       return new CastOp(node);
     }
@@ -32,6 +32,7 @@ import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Interpreter;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
+import com.twineworks.tweakflow.lang.values.DictShape;
 import com.twineworks.tweakflow.lang.values.DictValue;
 import com.twineworks.tweakflow.lang.values.TransientDictValue;
 import com.twineworks.tweakflow.lang.values.Value;
@@ -53,6 +54,11 @@ final public class ConstantKeysDictOp implements ExpressionOp {
   private final int constSize;
   private final DictValue constEntries;
 
+  // set when dicts are built in a fixed shape
+  private final DictShape shape;
+  private final Value[] constSlots;
+  private final int[] nonConstSlots;
+
   @SuppressWarnings("unchecked")
   public ConstantKeysDictOp(DictNode dictNode) {
     this.node = dictNode;
@@ -101,11 +107,43 @@ final public class ConstantKeysDictOp implements ExpressionOp {
     nonConstValueOps = nonConstOpsList.toArray(new ExpressionOp[0]);
     constEntries = c.persistent();
     constSize = constEntries.size();
+
+    String[] keys = new String[size];
+    for (int j = 0; j < size; j++) {
+      keys[j] = entries[j].getKey();
+    }
+    shape = DictShape.of(keys);
+    if (shape != null){
+      constSlots = new Value[size];
+      nonConstSlots = new int[nonConstSize];
+      int n = 0;
+      for (int j = 0; j < size; j++) {
+        int slot = shape.indexOf(keys[j]);
+        if (nonConstSize > n && nonConstEntries[n] == entries[j]){
+          nonConstSlots[n++] = slot;
+        }
+        else{
+          constSlots[slot] = entries[j].getValue();
+        }
+      }
+    }
+    else{
+      constSlots = null;
+      nonConstSlots = null;
+    }
   }
 
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
+    if (shape != null){
+      Value[] slots = constSlots.clone();
+      for (int i = 0; i < nonConstSize; i++) {
+        slots[nonConstSlots[i]] = nonConstValueOps[i].eval(stack, context);
+      }
+      return Values.make(new DictValue(shape, slots));
+    }
+
     for (int i = 0; i < nonConstSize; i++) {
       nonConstEntries[i].setValue(nonConstValueOps[i].eval(stack, context));
     }
@@ -53,7 +53,7 @@ final public class DictMergeOp implements ExpressionOp {
     DictValue right = rightOp.eval(stack, context).castTo(Types.DICT).dict();
     if (right == null) return Values.NIL;
 
-    return Values.make(left.putAll(right));
+    return context.checkSize(Values.make(left.putAll(right)), stack);
   }
 
   @Override
@@ -68,17 +68,17 @@ final public class DivOp implements ExpressionOp {
     // normal division promotes longs to doubles or decimals
     if (leftType == Types.LONG){
       if (rightType == Types.LONG){
-        return Values.make(left.longNum().doubleValue() / right.longNum().doubleValue());
+        return Values.make((double) left.longValue() / (double) right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.longNum().doubleValue() / right.doubleNum());
+        return Values.make((double) left.longValue() / right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
         BigDecimal divisor = right.decimal();
         if (divisor.compareTo(BigDecimal.ZERO) == 0){
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
         }
-        BigDecimal result = BigDecimal.valueOf(left.longNum()).divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
+        BigDecimal result = BigDecimal.valueOf(left.longValue()).divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
         if(result.scale() < 0){
           result = result.setScale(0);
         }
@@ -87,17 +87,17 @@ final public class DivOp implements ExpressionOp {
     }
     else if (leftType == Types.DOUBLE){
       if (rightType == Types.LONG){
-        return Values.make(left.doubleNum() / right.longNum().doubleValue());
+        return Values.make(left.doubleValue() / (double) right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.doubleNum() / right.doubleNum());
+        return Values.make(left.doubleValue() / right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)){
           BigDecimal divisor = right.decimal();
           if (divisor.compareTo(BigDecimal.ZERO) == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-          BigDecimal result = BigDecimal.valueOf(left.doubleNum()).divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
+          BigDecimal result = BigDecimal.valueOf(left.doubleValue()).divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
           if(result.scale() < 0){
             result = result.setScale(0);
           }
@@ -120,7 +120,7 @@ final public class DivOp implements ExpressionOp {
     else if (leftType == Types.DECIMAL){
 
       if (rightType == Types.LONG){
-        BigDecimal divisor = BigDecimal.valueOf(right.longNum());
+        BigDecimal divisor = BigDecimal.valueOf(right.longValue());
         if (divisor.compareTo(BigDecimal.ZERO) == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
         BigDecimal dividend = left.decimal();
         BigDecimal result = dividend.divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
@@ -130,9 +130,9 @@ final public class DivOp implements ExpressionOp {
         return Values.make(result);
       }
       if (rightType == Types.DOUBLE){
-        double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)){
-          BigDecimal divisor = BigDecimal.valueOf(right.doubleNum());
+          BigDecimal divisor = BigDecimal.valueOf(right.doubleValue());
           if (divisor.compareTo(BigDecimal.ZERO) == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
           BigDecimal dividend = left.decimal();
           BigDecimal result = dividend.divide(divisor, DEFAULT_SCALE, ROUNDING_MODE).stripTrailingZeros();
@@ -52,7 +52,7 @@ final public class DivOpDD implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left.doubleNum() / right.doubleNum());
+    return Values.make(left.doubleValue() / right.doubleValue());
 
   }
 
@@ -52,7 +52,7 @@ final public class DivOpLL implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left.longNum().doubleValue() / right.longNum().doubleValue());
+    return Values.make((double) left.longValue() / (double) right.longValue());
 
   }
 
@@ -40,7 +40,7 @@ final public class FixedFunArity1CallOp implements ExpressionOp {
 
   private final ExpressionOp arg0Op;
   private final Value f;
-  private final ThreadLocal<Arity1CallSite> tlcs;
+  private final ThreadLocal<BoundCallSite<Arity1CallSite>> tlcs;
 
   public FixedFunArity1CallOp(CallNode node) {
     this.node = node;
@@ -52,13 +52,13 @@ final public class FixedFunArity1CallOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Arity1CallSite cs = tlcs.get();
-
-    if (cs == null){
-      cs = CallSites.createArity1CallSite(f, node, stack, context, new CallContext(stack, context));
+    // call sites hold on to the stack and context they were created with
+    BoundCallSite<Arity1CallSite> cs = tlcs.get();
+    if (cs == null || !cs.isBoundTo(stack, context)){
+      cs = new BoundCallSite<>(stack, context, CallSites.createArity1CallSite(f, node, stack, context, new CallContext(stack, context)));
       tlcs.set(cs);
     }
-    return cs.call(arg0Op.eval(stack, context));
+    return context.checkSize(cs.site.call(arg0Op.eval(stack, context)), stack);
   }
 
   @Override
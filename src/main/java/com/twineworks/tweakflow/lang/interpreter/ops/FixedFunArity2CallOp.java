@@ -43,7 +43,7 @@ final public class FixedFunArity2CallOp implements ExpressionOp {
   private final Value f;
   private final ExpressionOp arg0Op;
   private final ExpressionOp arg1Op;
-  private final ThreadLocal<Arity2CallSite> tlcs;
+  private final ThreadLocal<BoundCallSite<Arity2CallSite>> tlcs;
 
   public FixedFunArity2CallOp(CallNode node) {
     this.node = node;
@@ -57,12 +57,13 @@ final public class FixedFunArity2CallOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Arity2CallSite cs = tlcs.get();
-    if (cs == null){
-      cs = CallSites.createArity2CallSite(f, node, stack, context, new CallContext(stack, context));
+    // call sites hold on to the stack and context they were created with
+    BoundCallSite<Arity2CallSite> cs = tlcs.get();
+    if (cs == null || !cs.isBoundTo(stack, context)){
+      cs = new BoundCallSite<>(stack, context, CallSites.createArity2CallSite(f, node, stack, context, new CallContext(stack, context)));
       tlcs.set(cs);
     }
-    return cs.call(arg0Op.eval(stack, context), arg1Op.eval(stack, context));
+    return context.checkSize(cs.site.call(arg0Op.eval(stack, context), arg1Op.eval(stack, context)), stack);
   }
 
   @Override
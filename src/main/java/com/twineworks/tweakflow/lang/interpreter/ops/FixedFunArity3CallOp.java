@@ -43,7 +43,7 @@ final public class FixedFunArity3CallOp implements ExpressionOp {
   private final ExpressionOp arg0Op;
   private final ExpressionOp arg1Op;
   private final ExpressionOp arg2Op;
-  private final ThreadLocal<Arity3CallSite> tlcs;
+  private final ThreadLocal<BoundCallSite<Arity3CallSite>> tlcs;
 
   public FixedFunArity3CallOp(CallNode node) {
     this.node = node;
@@ -59,12 +59,13 @@ final public class FixedFunArity3CallOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Arity3CallSite cs = tlcs.get();
-    if (cs == null){
-      cs = CallSites.createArity3CallSite(f, node, stack, context, new CallContext(stack, context));
+    // call sites hold on to the stack and context they were created with
+    BoundCallSite<Arity3CallSite> cs = tlcs.get();
+    if (cs == null || !cs.isBoundTo(stack, context)){
+      cs = new BoundCallSite<>(stack, context, CallSites.createArity3CallSite(f, node, stack, context, new CallContext(stack, context)));
       tlcs.set(cs);
     }
-    return cs.call(arg0Op.eval(stack, context), arg1Op.eval(stack, context), arg2Op.eval(stack, context));
+    return context.checkSize(cs.site.call(arg0Op.eval(stack, context), arg1Op.eval(stack, context), arg2Op.eval(stack, context)), stack);
   }
 
   @Override
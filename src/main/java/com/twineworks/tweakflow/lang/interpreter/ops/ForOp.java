@@ -24,16 +24,16 @@
 
 package com.twineworks.tweakflow.lang.interpreter.ops;
 
-import com.twineworks.collections.shapemap.ConstShapeMap;
-import com.twineworks.collections.shapemap.ShapeKey;
 import com.twineworks.tweakflow.lang.ast.ForHeadElementNode;
 import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
 import com.twineworks.tweakflow.lang.ast.expressions.ForNode;
 import com.twineworks.tweakflow.lang.ast.structure.ForHead;
 import com.twineworks.tweakflow.lang.ast.structure.GeneratorNode;
 import com.twineworks.tweakflow.lang.ast.structure.VarDefNode;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.types.Types;
 import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.TransientListValue;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.values.Values;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
@@ -41,20 +41,16 @@ import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.StackEntry;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.interpreter.memory.LocalMemorySpace;
-import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpaceType;
 
-import java.util.HashSet;
-import java.util.Set;
-
 final public class ForOp implements ExpressionOp {
 
   private final ForNode node;
   private final ForHead head;
   private final ExpressionOp expressionOp;
   private final ForHeadElementNode[] elements;
-  private final ConstShapeMap.Accessor[] accessors;
-  private final ConstShapeMap<Cell> templateShapeMap;
+  private final LocalScope scope;
+  private final int[] slots;
 
   public ForOp(ForNode node) {
     this.node = node;
@@ -64,9 +60,9 @@ final public class ForOp implements ExpressionOp {
 
     this.expressionOp = node.getExpression().getOp();
 
-    // build frame infrastructure
-    Set<ShapeKey> keySet = new HashSet<>();
-    accessors = new ConstShapeMap.Accessor[head.getElements().size()];
+    // generators and locals live in the bindings scope
+    scope = (LocalScope) node.getExpression().getScope();
+    slots = new int[elements.length];
 
     for (int i = 0; i < elements.length; i++) {
 
@@ -75,47 +71,46 @@ final public class ForOp implements ExpressionOp {
       if (element instanceof VarDefNode) {
         // locals
         VarDefNode def = (VarDefNode) element;
-        keySet.add(ShapeKey.get(def.getSymbolName()));
-        accessors[i] = ConstShapeMap.accessor(def.getSymbolName());
+        slots[i] = scope.getFrameSlot(def.getSymbolName());
       } else if (element instanceof GeneratorNode) {
         // generators
         GeneratorNode gen = (GeneratorNode) element;
-        keySet.add(ShapeKey.get(gen.getSymbolName()));
-        accessors[i] = ConstShapeMap.accessor(gen.getSymbolName());
+        slots[i] = scope.getFrameSlot(gen.getSymbolName());
       }
     }
 
-    templateShapeMap = new ConstShapeMap<>(keySet);
-
   }
 
-  private ListValue processGenerator(GeneratorNode gen, int i, Cell[] cells, ListValue list, Stack stack, EvaluationContext context){
+  // results are collected in place, a nil generator makes the whole comprehension nil
+  private boolean processGenerator(GeneratorNode gen, int i, Cell[] cells, TransientListValue list, Stack stack, EvaluationContext context){
 
     Value iteration = gen.getValueExpression().getOp().eval(stack, context).castTo(Types.LIST);
-    if (iteration == Values.NIL) return null;
-
-    for (Value it : iteration.list()) {
-      cells[i].setValue(it);
-      list = processElement(i+1, cells, list, stack, context);
-      if (list == null) return null;
+    if (iteration == Values.NIL) return false;
+
+    // indexed access does not materialize lazy lists
+    ListValue items = iteration.list();
+    for (int k = 0, size = items.size(); k < size; k++) {
+      context.checkStep(stack);
+      cells[i].setValue(items.get(k));
+      if (!processElement(i+1, cells, list, stack, context)) return false;
     }
 
-    return list;
+    return true;
   }
 
-  private ListValue processLocal(VarDefNode def, int i, Cell[] cells, ListValue list, Stack stack, EvaluationContext context){
+  private boolean processLocal(VarDefNode def, int i, Cell[] cells, TransientListValue list, Stack stack, EvaluationContext context){
     Value value = def.getValueExpression().getOp().eval(stack, context);
     cells[i].setValue(value);
     return processElement(i+1, cells, list, stack, context);
   }
 
-  private ListValue processPredicate(ExpressionOp op, int i, Cell[] cells, ListValue list, Stack stack, EvaluationContext context){
+  private boolean processPredicate(ExpressionOp op, int i, Cell[] cells, TransientListValue list, Stack stack, EvaluationContext context){
     Value value = op.eval(stack, context).castTo(Types.BOOLEAN);
     if (value == Values.TRUE) return processElement(i+1, cells, list, stack, context);
-    return list;
+    return true;
   }
 
-  private ListValue processElement(int i, Cell[] cells, ListValue list, Stack stack, EvaluationContext context){
+  private boolean processElement(int i, Cell[] cells, TransientListValue list, Stack stack, EvaluationContext context){
 
     if (i < elements.length){
       ForHeadElementNode element = elements[i];
@@ -133,31 +128,19 @@ final public class ForOp implements ExpressionOp {
       }
     }
     else{
-      return list.append(expressionOp.eval(stack, context));
+      list.append(expressionOp.eval(stack, context));
+      context.checkSize(list.size(), stack);
+      return true;
     }
 
   }
 
-  private LocalMemorySpace makeFrame(MemorySpace parentSpace){
-
-    ConstShapeMap<Cell> cellMap = new ConstShapeMap<>(templateShapeMap);
-
-    return new LocalMemorySpace(
-        parentSpace,
-        node.getScope(),
-        MemorySpaceType.LOCAL,
-        cellMap
-    );
-  }
-
-  @SuppressWarnings("unchecked")
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
     StackEntry entrance = stack.peek();
 
-    LocalMemorySpace frame = makeFrame(entrance.getSpace());
-    ConstShapeMap<Cell> cellMap = frame.getCells();
+    LocalMemorySpace frame = new LocalMemorySpace(entrance.getSpace(), scope, MemorySpaceType.LOCAL);
     stack.push(new StackEntry(node, frame, entrance.getClosures()));
 
     Cell[] cells = new Cell[elements.length];
@@ -169,26 +152,26 @@ final public class ForOp implements ExpressionOp {
         // locals
         VarDefNode def = (VarDefNode) element;
         Cell cell = new Cell().setLeafSymbol(def.getSymbol());
-        cellMap.seta(accessors[i], cell);
+        frame.setSlot(slots[i], cell);
         cells[i] = cell;
       } else if (element instanceof GeneratorNode) {
         // generators
         GeneratorNode gen = (GeneratorNode) element;
         Cell cell = new Cell().setLeafSymbol(gen.getSymbol());
-        cellMap.seta(accessors[i], cell);
+        frame.setSlot(slots[i], cell);
         cells[i] = cell;
       }
     }
 
-    ListValue list = Values.EMPTY_LIST.list();
+    TransientListValue list = new TransientListValue();
 
-    list = processElement(0, cells, list, stack, context);
+    boolean complete = processElement(0, cells, list, stack, context);
 
     stack.pop();
 
-    if (list == null) return Values.NIL;
+    if (!complete) return Values.NIL;
 
-    return Values.make(list);
+    return Values.make(list.persistent());
   }
 
   @Override
@@ -26,13 +26,18 @@ package com.twineworks.tweakflow.lang.interpreter.ops;
 
 import com.twineworks.tweakflow.lang.ast.expressions.FunctionNode;
 import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
+import com.twineworks.tweakflow.lang.scope.Scopes;
+import com.twineworks.tweakflow.lang.scope.Symbol;
 import com.twineworks.tweakflow.lang.values.*;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.RecursiveDeferredClosure;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.StackEntry;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
 import com.twineworks.tweakflow.lang.interpreter.memory.Spaces;
+import com.twineworks.tweakflow.lang.interpreter.memory.StaticReferenceCache;
 
 import java.util.*;
 
@@ -41,9 +46,35 @@ import static com.twineworks.tweakflow.lang.interpreter.Interpreter.evaluateCell
 final public class FunctionOp implements ExpressionOp {
 
   private final FunctionNode node;
+  private final ReferenceNode[] closedOverReferences;
+  private final int[] frameDepths;
+  private final int[] frameSlots;
+  private final StaticReferenceCache[] staticCaches;
 
   public FunctionOp(FunctionNode node) {
     this.node = node;
+
+    // closed over locals are captured from their frame slots directly when possible
+    Set<ReferenceNode> references = node.getClosedOverReferences();
+    closedOverReferences = references.toArray(new ReferenceNode[0]);
+    frameDepths = new int[closedOverReferences.length];
+    frameSlots = new int[closedOverReferences.length];
+    staticCaches = new StaticReferenceCache[closedOverReferences.length];
+
+    for (int i = 0; i < closedOverReferences.length; i++) {
+      ReferenceNode ref = closedOverReferences[i];
+      Symbol symbol = ref.getReferencedSymbol();
+      frameDepths[i] = -1;
+      staticCaches[i] = StaticReferenceCache.forReference(ref, node.getScope());
+      if (symbol == null || ref.getAnchor() != ReferenceNode.Anchor.LOCAL || ref.getElements().size() != 1) continue;
+      int depth = Scopes.frameDepth(node.getScope(), symbol);
+      if (depth < 0) continue;
+      int slot = ((LocalScope) symbol.getScope()).getFrameSlot(symbol.getName());
+      if (slot > 0) {
+        frameDepths[i] = depth;
+        frameSlots[i] = slot;
+      }
+    }
   }
 
   @Override
@@ -54,15 +85,16 @@ final public class FunctionOp implements ExpressionOp {
     // during constant folding, and is not evaluated by the interpreter
 
     FunctionSignature functionSignature = node.getSignature();
-    Set<ReferenceNode> closedOverReferences = node.getClosedOverReferences();
     IdentityHashMap<ReferenceNode, ValueProvider> closures = new IdentityHashMap<>();
     Value value = Values.make(new StandardFunctionValue(node, functionSignature, closures));
 
     // find closed over values
     StackEntry currentStack = stack.peek();
+    RuntimeState state = context.getState();
     Map<ReferenceNode, ValueProvider> stackClosures = currentStack.getClosures();
 
-    for (ReferenceNode closure : closedOverReferences) {
+    for (int i = 0; i < closedOverReferences.length; i++) {
+      ReferenceNode closure = closedOverReferences[i];
 
       // if this value has been closed over by a parent, it's on the stack in closure space
       if (stackClosures.containsKey(closure)){
@@ -70,13 +102,17 @@ final public class FunctionOp implements ExpressionOp {
       }
       // not closed over by a parent, find cell in memory space, and capture the value
       else{
-        Cell cell = Spaces.resolve(closure, currentStack.getSpace());
+        Cell cell = frameDepths[i] >= 0
+            ? Spaces.resolveInFrame(currentStack.getSpace(), frameDepths[i], frameSlots[i])
+            : staticCaches[i] != null
+                ? staticCaches[i].resolve(currentStack.getSpace())
+                : Spaces.resolve(closure, currentStack.getSpace());
 
         // closed over value has not been evaluated yet
-        if (cell.isDirty()){
-          closures.put(closure, cell);
+        if (cell.isDirty(state)){
+          closures.put(closure, cell.valueProvider(state));
           // is currently evaluating
-          if (cell.isEvaluating()){
+          if (cell.isEvaluating(state)){
             // recursive closure call case, replace cell reference with cell value when cell evaluates
             RecursiveDeferredClosure deferredClosure = new RecursiveDeferredClosure(closures, closure);
             Map<Cell, List<RecursiveDeferredClosure>> deferredClosures = context.getRecursiveDeferredClosures();
@@ -88,12 +124,12 @@ final public class FunctionOp implements ExpressionOp {
           // can be evaluated
           else{
             evaluateCell(cell, stack, context);
-            closures.put(closure, cell.getValue());
+            closures.put(closure, cell.getValue(state));
           }
         }
         // closed over value is already present
         else{
-          closures.put(closure, cell.getValue());
+          closures.put(closure, cell.getValue(state));
         }
       }
     }
@@ -105,7 +141,6 @@ final public class FunctionOp implements ExpressionOp {
   @Override
   public boolean isConstant() {
     // if all closures are constant, the function is constant
-    Set<ReferenceNode> closedOverReferences = node.getClosedOverReferences();
     for (ReferenceNode closedOverReference : closedOverReferences) {
       if (!closedOverReference.getOp().isConstant()){
         return false;
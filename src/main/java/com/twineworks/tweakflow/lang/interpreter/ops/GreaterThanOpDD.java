@@ -45,13 +45,13 @@ final public class GreaterThanOpDD implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Double left = leftOp.eval(stack, context).doubleNum();
-    if (left == null) return Values.FALSE;
+    Value left = leftOp.eval(stack, context);
+    if (left == Values.NIL) return Values.FALSE;
 
-    Double right = rightOp.eval(stack, context).doubleNum();
-    if (right == null) return Values.FALSE;
+    Value right = rightOp.eval(stack, context);
+    if (right == Values.NIL) return Values.FALSE;
 
-    return (left > right) ? Values.TRUE : Values.FALSE;
+    return (left.doubleValue() > right.doubleValue()) ? Values.TRUE : Values.FALSE;
 
   }
 
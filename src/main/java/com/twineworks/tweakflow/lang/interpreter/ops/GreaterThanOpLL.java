@@ -45,13 +45,13 @@ final public class GreaterThanOpLL implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Long left = leftOp.eval(stack, context).longNum();
-    if (left == null) return Values.FALSE;
+    Value left = leftOp.eval(stack, context);
+    if (left == Values.NIL) return Values.FALSE;
 
-    Long right = rightOp.eval(stack, context).longNum();
-    if (right == null) return Values.FALSE;
+    Value right = rightOp.eval(stack, context);
+    if (right == Values.NIL) return Values.FALSE;
 
-    return (left > right) ? Values.TRUE : Values.FALSE;
+    return (left.longValue() > right.longValue()) ? Values.TRUE : Values.FALSE;
 
   }
 
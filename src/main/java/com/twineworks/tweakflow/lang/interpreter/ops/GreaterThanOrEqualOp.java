@@ -65,26 +65,26 @@ final public class GreaterThanOrEqualOp implements ExpressionOp {
 
     if (leftType == Types.LONG){
       if (rightType == Types.LONG){
-        return (left.longNum() >= right.longNum()) ? Values.TRUE : Values.FALSE;
+        return (left.longValue() >= right.longValue()) ? Values.TRUE : Values.FALSE;
       }
       if (rightType == Types.DOUBLE){
-        return (left.longNum() >= right.doubleNum()) ? Values.TRUE : Values.FALSE;
+        return (left.longValue() >= right.doubleValue()) ? Values.TRUE : Values.FALSE;
       }
       if (rightType == Types.DECIMAL){
-        return BigDecimal.valueOf(left.longNum()).compareTo(right.decimal()) >= 0 ? Values.TRUE : Values.FALSE;
+        return BigDecimal.valueOf(left.longValue()).compareTo(right.decimal()) >= 0 ? Values.TRUE : Values.FALSE;
       }
     }
     else if (leftType == Types.DOUBLE){
       if (rightType == Types.LONG){
-        return (left.doubleNum() >= right.longNum()) ? Values.TRUE : Values.FALSE;
+        return (left.doubleValue() >= right.longValue()) ? Values.TRUE : Values.FALSE;
       }
       if (rightType == Types.DOUBLE){
-        return (left.doubleNum() >= right.doubleNum()) ? Values.TRUE : Values.FALSE;
+        return (left.doubleValue() >= right.doubleValue()) ? Values.TRUE : Values.FALSE;
       }
       if (rightType == Types.DECIMAL){
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)){
-          return BigDecimal.valueOf(left.doubleNum()).compareTo(right.decimal()) >= 0 ? Values.TRUE : Values.FALSE;
+          return BigDecimal.valueOf(left.doubleValue()).compareTo(right.decimal()) >= 0 ? Values.TRUE : Values.FALSE;
         }
         else{
           return (d == Double.POSITIVE_INFINITY) ? Values.TRUE : Values.FALSE;
@@ -93,12 +93,12 @@ final public class GreaterThanOrEqualOp implements ExpressionOp {
     }
     else if (leftType == Types.DECIMAL){
       if (rightType == Types.LONG){
-        return left.decimal().compareTo(BigDecimal.valueOf(right.longNum())) >= 0 ? Values.TRUE : Values.FALSE;
+        return left.decimal().compareTo(BigDecimal.valueOf(right.longValue())) >= 0 ? Values.TRUE : Values.FALSE;
       }
       if (rightType == Types.DOUBLE){
-        double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)){
-          return left.decimal().compareTo(BigDecimal.valueOf(right.doubleNum())) >= 0 ? Values.TRUE : Values.FALSE;
+          return left.decimal().compareTo(BigDecimal.valueOf(right.doubleValue())) >= 0 ? Values.TRUE : Values.FALSE;
         }
         else{
           return (d == Double.NEGATIVE_INFINITY) ? Values.TRUE : Values.FALSE;
@@ -63,64 +63,64 @@ final public class IntDivOp implements ExpressionOp {
     // integer division promotes doubles and decimals to longs
     if (leftType == Types.LONG) {
       if (rightType == Types.LONG) {
-        long r = right.longNum();
+        long r = right.longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.longNum() / r);
+        return Values.make(left.longValue() / r);
       }
       if (rightType == Types.DOUBLE) {
-        long r = right.doubleNum().longValue();
+        long r = (long) right.doubleValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-        return Values.make(left.longNum() / r);
+        return Values.make(left.longValue() / r);
       }
       if (rightType == Types.DECIMAL) {
-        long r = right.castTo(Types.LONG).longNum();
+        long r = right.castTo(Types.LONG).longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-        return Values.make(left.longNum() / r);
+        return Values.make(left.longValue() / r);
       }
     } else if (leftType == Types.DOUBLE) {
       if (rightType == Types.LONG) {
-        long r = right.longNum();
+        long r = right.longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-        return Values.make(left.doubleNum().longValue() / r);
+        return Values.make((long) left.doubleValue() / r);
       }
       if (rightType == Types.DOUBLE) {
-        long r = right.doubleNum().longValue();
+        long r = (long) right.doubleValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.doubleNum().longValue() / r);
+        return Values.make((long) left.doubleValue() / r);
       }
       if (rightType == Types.DECIMAL) {
-        long r = right.castTo(Types.LONG).longNum();
+        long r = right.castTo(Types.LONG).longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-        return Values.make(left.doubleNum().longValue() / r);
+        return Values.make((long) left.doubleValue() / r);
       }
     } else if (leftType == Types.DECIMAL) {
       if (rightType == Types.LONG) {
-        long r = right.longNum();
+        long r = right.longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.castTo(Types.LONG).longNum() / r);
+        return Values.make(left.castTo(Types.LONG).longValue() / r);
       }
       if (rightType == Types.DOUBLE) {
-        long r = right.doubleNum().longValue();
+        long r = (long) right.doubleValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.castTo(Types.LONG).longNum() / r);
+        return Values.make(left.castTo(Types.LONG).longValue() / r);
       }
       if (rightType == Types.DECIMAL) {
-        long r = right.castTo(Types.LONG).longNum();
+        long r = right.castTo(Types.LONG).longValue();
         if (r == 0)
           throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.castTo(Types.LONG).longNum() / r);
+        return Values.make(left.castTo(Types.LONG).longValue() / r);
       }
     }
 
@@ -54,11 +54,11 @@ final public class IntDivOpDD implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    long r = right.doubleNum().longValue();
+    long r = (long) right.doubleValue();
     if (r == 0)
       throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-    return Values.make(left.doubleNum().longValue() / r);
+    return Values.make((long) left.doubleValue() / r);
 
   }
 
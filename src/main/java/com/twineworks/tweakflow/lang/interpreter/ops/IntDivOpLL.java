@@ -54,11 +54,11 @@ final public class IntDivOpLL implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    long r = right.longNum();
+    long r = right.longValue();
     if (r == 0)
       throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
 
-    return Values.make(left.longNum() / r);
+    return Values.make(left.longValue() / r);
 
   }
 
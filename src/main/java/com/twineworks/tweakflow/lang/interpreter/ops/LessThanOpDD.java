@@ -51,7 +51,7 @@ final public class LessThanOpDD implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.FALSE;
 
-    return (left.doubleNum() < right.doubleNum()) ? Values.TRUE : Values.FALSE;
+    return (left.doubleValue() < right.doubleValue()) ? Values.TRUE : Values.FALSE;
 
   }
 
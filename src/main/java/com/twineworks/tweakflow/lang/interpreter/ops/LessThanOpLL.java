@@ -51,7 +51,7 @@ final public class LessThanOpLL implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.FALSE;
 
-    return (left.longNum() < right.longNum()) ? Values.TRUE : Values.FALSE;
+    return (left.longValue() < right.longValue()) ? Values.TRUE : Values.FALSE;
 
   }
 
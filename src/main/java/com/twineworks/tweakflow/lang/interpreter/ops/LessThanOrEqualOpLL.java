@@ -45,13 +45,13 @@ final public class LessThanOrEqualOpLL implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Long left = leftOp.eval(stack, context).longNum();
-    Long right = rightOp.eval(stack, context).longNum();
+    Value left = leftOp.eval(stack, context);
+    Value right = rightOp.eval(stack, context);
 
-    if (left == null) return right == null ? Values.TRUE : Values.FALSE;
-    if (right == null) return Values.FALSE;
+    if (left == Values.NIL) return right == Values.NIL ? Values.TRUE : Values.FALSE;
+    if (right == Values.NIL) return Values.FALSE;
 
-    return (left <= right) ? Values.TRUE : Values.FALSE;
+    return (left.longValue() <= right.longValue()) ? Values.TRUE : Values.FALSE;
 
   }
 
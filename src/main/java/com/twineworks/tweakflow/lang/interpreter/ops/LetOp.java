@@ -24,12 +24,11 @@
 
 package com.twineworks.tweakflow.lang.interpreter.ops;
 
-import com.twineworks.collections.shapemap.ConstShapeMap;
 import com.twineworks.tweakflow.lang.ast.expressions.LetNode;
 import com.twineworks.tweakflow.lang.ast.structure.BindingsNode;
 import com.twineworks.tweakflow.lang.ast.structure.VarDefNode;
 import com.twineworks.tweakflow.lang.ast.structure.VarDefs;
-import com.twineworks.tweakflow.lang.scope.Scope;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.scope.Symbol;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
@@ -46,29 +45,26 @@ final public class LetOp implements ExpressionOp {
   private final Symbol[] varSymbols;
   private final ExpressionOp[] varOps;
   private final ExpressionOp expOp;
-  private final ConstShapeMap<Cell> templateShapeMap;
-  private final Scope scope;
-  private final ConstShapeMap.Accessor[] accessors;
+  private final LocalScope scope;
+  private final int[] slots;
 
-  @SuppressWarnings("unchecked")
   public LetOp(LetNode node) {
     this.node = node;
-    scope = node.getExpression().getScope();
+    scope = (LocalScope) node.getExpression().getScope();
     expOp = node.getExpression().getOp();
 
     BindingsNode bindings = node.getBindings();
     VarDefs varDefs = bindings.getVars();
-    templateShapeMap = new ConstShapeMap<>(varDefs.getShapeKeys());
     vars = varDefs.getDependencyOrderedArray();
 
     varOps = new ExpressionOp[vars.length];
     varSymbols = new Symbol[vars.length];
-    accessors = new ConstShapeMap.Accessor[vars.length];
+    slots = new int[vars.length];
 
     for (int i=0;i < vars.length; i++){
       varOps[i] = vars[i].getValueExpression().getOp();
       varSymbols[i] = vars[i].getSymbol();
-      accessors[i] = ConstShapeMap.accessor(vars[i].getSymbolName());
+      slots[i] = scope.getFrameSlot(vars[i].getSymbolName());
     }
 
   }
@@ -78,32 +74,24 @@ final public class LetOp implements ExpressionOp {
     return evalWithNewFrame(stack, context);
   }
 
-  @SuppressWarnings("unchecked")
   private Value evalWithNewFrame(Stack stack, EvaluationContext context){
 
     StackEntry currentStackEntry = stack.peek();
     // create a new frame
-    ConstShapeMap<Cell> bindingsCells = new ConstShapeMap<>(templateShapeMap);
     LocalMemorySpace bindingsSpace = new LocalMemorySpace(
         currentStackEntry.getSpace(),
         scope,
-        MemorySpaceType.LOCAL,
-        bindingsCells
+        MemorySpaceType.LOCAL
     );
 
-    Cell[] cells = new Cell[vars.length];
-
     for (int i = 0, varsLength = vars.length; i < varsLength; i++) {
-      Cell cell = new Cell().setLeafSymbol(varSymbols[i]).setEnclosingSpace(bindingsSpace);
-      cells[i] = cell;
-      bindingsCells.seta(accessors[i], cell);
+      bindingsSpace.setSlot(slots[i], new Cell().setLeafSymbol(varSymbols[i]).setEnclosingSpace(bindingsSpace));
     }
 
     stack.push(new StackEntry(node, bindingsSpace, currentStackEntry.getClosures()));
 
     for (int i = 0, varsLength = vars.length; i < varsLength; i++) {
-      Cell cell = cells[i];
-      cell.setValue(varOps[i].eval(stack, context));
+      bindingsSpace.getSlot(slots[i]).setValue(varOps[i].eval(stack, context));
     }
 
     Value ret = expOp.eval(stack, context);
@@ -53,6 +53,7 @@ final public class ListConcatOp implements ExpressionOp {
     ListValue right = rightOp.eval(stack, context).castTo(Types.LIST).list();
     if (right == null) return Values.NIL;
 
+    context.checkSize((long) left.size() + right.size(), stack);
     return Values.make(left.appendAll(right));
   }
 
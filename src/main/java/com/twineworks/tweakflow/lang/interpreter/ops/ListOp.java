@@ -30,11 +30,10 @@ import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Interpreter;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
-import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.TransientListValue;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.values.Values;
 
-import java.util.Arrays;
 import java.util.List;
 
 final public class ListOp implements ExpressionOp {
@@ -45,19 +44,13 @@ final public class ListOp implements ExpressionOp {
   private final Value[] values;
   private final boolean[] nonConstIndexes;
   private final boolean hasConst;
-  private final int firstNonConstIndex;
-  private final int lastNonConstIndex;
-  private final ThreadLocal<Value[]> tlvs;
 
   public ListOp(ListNode node) {
     this.node = node;
     this.size = node.getElements().size();
-    this.tlvs = new ThreadLocal<>();
     ops = new ExpressionOp[size];
     values = new Value[size];
     nonConstIndexes = new boolean[size];
-    int firstDynamic = size + 1;
-    int lastDynamic = -1;
 
     List<ExpressionNode> elements = node.getElements();
     int constIndexes = 0;
@@ -77,55 +70,30 @@ final public class ListOp implements ExpressionOp {
         nonConstIndexes[i] = false;
         constIndexes++;
       } else {
-        if (i < firstDynamic) firstDynamic = i;
-        if (i > lastDynamic) lastDynamic = i;
         nonConstIndexes[i] = true;
       }
     }
-    firstNonConstIndex = firstDynamic;
-    lastNonConstIndex = lastDynamic;
     hasConst = constIndexes > 0;
   }
 
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Value[] vs = tlvs.get();
-    if (vs == null) {
-      vs = Arrays.copyOf(values, values.length);
-      tlvs.set(vs);
-    }
+    // the builder is sized exactly, its buffer becomes the list
+    TransientListValue t = new TransientListValue(size);
 
     if (hasConst) {
-      for (int i = firstNonConstIndex; i <= lastNonConstIndex; i++) {
-        if (nonConstIndexes[i]) {
-          vs[i] = ops[i].eval(stack, context);
-        }
-      }
-      Value ret = Values.make(new ListValue(vs));
-
-      // aggressively clear non-constants
-      for (int i = firstNonConstIndex; i <= lastNonConstIndex; i++) {
-        if (nonConstIndexes[i]) {
-          vs[i] = null;
-        }
-      }
-
-      return ret;
-    } else {
       for (int i = 0; i < size; i++) {
-        vs[i] = ops[i].eval(stack, context);
+        t.append(nonConstIndexes[i] ? ops[i].eval(stack, context) : values[i]);
       }
-      Value ret = Values.make(new ListValue(vs));
-
-      // aggressively clear non-constants
+    } else {
       for (int i = 0; i < size; i++) {
-        vs[i] = null;
+        t.append(ops[i].eval(stack, context));
       }
-
-      return ret;
     }
 
+    return Values.make(t.persistent());
+
   }
 
   @Override
@@ -24,23 +24,20 @@
 
 package com.twineworks.tweakflow.lang.interpreter.ops;
 
-import com.twineworks.collections.shapemap.ConstShapeMap;
-import com.twineworks.collections.shapemap.ShapeKey;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.StackEntry;
-import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.interpreter.memory.LocalMemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpaceType;
 import com.twineworks.tweakflow.lang.ast.expressions.MatchNode;
 import com.twineworks.tweakflow.lang.ast.structure.match.MatchLineNode;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
 import com.twineworks.tweakflow.lang.types.Types;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.values.Values;
 
 import java.util.List;
-import java.util.Set;
 
 final public class MatchOp implements ExpressionOp {
 
@@ -49,7 +46,7 @@ final public class MatchOp implements ExpressionOp {
   private final PatternOp[] patternOps;
   private final ExpressionOp[] guardOps;
   private final ExpressionOp[] resultOps;
-  private final ConstShapeMap[] templateFrames;
+  private final LocalScope[] lineScopes;
   private final List<MatchLineNode> matchLineNodes;
 
 
@@ -60,16 +57,14 @@ final public class MatchOp implements ExpressionOp {
     patternOps = new PatternOp[matchLineNodes.size()];
     guardOps = new ExpressionOp[matchLineNodes.size()];
     resultOps = new ExpressionOp[matchLineNodes.size()];
-    templateFrames = new ConstShapeMap[matchLineNodes.size()];
+    lineScopes = new LocalScope[matchLineNodes.size()];
 
     for (int i = 0; i < matchLineNodes.size(); i++) {
       MatchLineNode lineNode = matchLineNodes.get(i);
       patternOps[i] = lineNode.getPattern().getPatternOp();
       guardOps[i] = lineNode.getGuard() != null ? lineNode.getGuard().getOp() : null;
       resultOps[i] = lineNode.getExpression().getOp();
-
-      Set<String> keySet = lineNode.getExpression().getScope().getSymbols().keySet();
-      templateFrames[i] = new ConstShapeMap<>(ShapeKey.getAll(keySet));
+      lineScopes[i] = (LocalScope) lineNode.getExpression().getScope();
 
     }
 
@@ -87,8 +82,7 @@ final public class MatchOp implements ExpressionOp {
 
       if (patternOp.matches(subject, stack, context)){
 
-        ConstShapeMap<Cell> cells = new ConstShapeMap<>(templateFrames[i]);
-        MemorySpace frame = new LocalMemorySpace(stackEntry.getSpace(), matchLineNodes.get(i).getExpression().getScope(), MemorySpaceType.LOCAL, cells);
+        MemorySpace frame = new LocalMemorySpace(stackEntry.getSpace(), lineScopes[i], MemorySpaceType.LOCAL);
 
         patternOp.bind(subject, frame);
         stack.push(new StackEntry(matchLineNodes.get(i).getPattern(), frame, stackEntry.getClosures()));
@@ -65,24 +65,24 @@ final public class MinusOp implements ExpressionOp {
 
     if (leftType == Types.LONG){
       if (rightType == Types.LONG){
-        return Values.make(left.longNum() - right.longNum());
+        return Values.make(left.longValue() - right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.longNum() - right.doubleNum());
+        return Values.make(left.longValue() - right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        return Values.make(BigDecimal.valueOf(left.longNum()).subtract(right.decimal()));
+        return Values.make(BigDecimal.valueOf(left.longValue()).subtract(right.decimal()));
       }
     }
     else if (leftType == Types.DOUBLE){
       if (rightType == Types.LONG){
-        return Values.make(left.doubleNum() - right.longNum());
+        return Values.make(left.doubleValue() - right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.doubleNum() - right.doubleNum());
+        return Values.make(left.doubleValue() - right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)){
           return Values.make(BigDecimal.valueOf(d).subtract(right.decimal()));
         }
@@ -97,10 +97,10 @@ final public class MinusOp implements ExpressionOp {
     }
     else if (leftType == Types.DECIMAL){
       if (rightType == Types.LONG){
-        return Values.make(left.decimal().subtract(BigDecimal.valueOf(right.longNum())));
+        return Values.make(left.decimal().subtract(BigDecimal.valueOf(right.longValue())));
       }
       if (rightType == Types.DOUBLE){
-        Double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)){
           return Values.make(left.decimal().subtract(BigDecimal.valueOf(d)));
         }
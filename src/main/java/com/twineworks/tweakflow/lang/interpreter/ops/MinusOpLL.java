@@ -47,7 +47,7 @@ final public class MinusOpLL implements ExpressionOp {
     Value right = node.getRightExpression().getOp().eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left.longNum() - right.longNum());
+    return Values.make(left.longValue() - right.longValue());
 
   }
 
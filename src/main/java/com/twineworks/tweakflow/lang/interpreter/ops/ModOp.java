@@ -65,32 +65,32 @@ final public class ModOp implements ExpressionOp {
 
     if (leftType == Types.LONG){
       if (rightType == Types.LONG){
-        long r = right.longNum();
+        long r = right.longValue();
         if (r == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-        return Values.make(left.longNum() % r);
+        return Values.make(left.longValue() % r);
       }
       if (rightType == Types.DOUBLE){
-        double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)){
-          return Values.make(left.longNum() % right.doubleNum());
+          return Values.make(left.longValue() % right.doubleValue());
         }
         else{
           return left;
         }
       }
       if (rightType == Types.DECIMAL){
-        return Values.make(BigDecimal.valueOf(left.longNum()).remainder(right.decimal()));
+        return Values.make(BigDecimal.valueOf(left.longValue()).remainder(right.decimal()));
       }
     }
     else if (leftType == Types.DOUBLE){
       if (rightType == Types.LONG){
-        return Values.make(left.doubleNum() % right.longNum());
+        return Values.make(left.doubleValue() % right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.doubleNum() % right.doubleNum());
+        return Values.make(left.doubleValue() % right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)){
           BigDecimal r = right.decimal();
           if (r.compareTo(BigDecimal.ZERO) == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
@@ -104,12 +104,12 @@ final public class ModOp implements ExpressionOp {
     }
     if (leftType == Types.DECIMAL){
       if (rightType == Types.LONG){
-        long r = right.longNum();
+        long r = right.longValue();
         if (r == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
         return Values.make(left.decimal().remainder(BigDecimal.valueOf(r)));
       }
       if (rightType == Types.DOUBLE){
-        double r = right.doubleNum();
+        double r = right.doubleValue();
         if (r == 0.0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
         if (Double.isFinite(r)){
           return Values.make(left.decimal().remainder(BigDecimal.valueOf(r)));
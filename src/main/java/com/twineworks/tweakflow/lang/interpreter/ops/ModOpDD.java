@@ -53,7 +53,7 @@ final public class ModOpDD implements ExpressionOp {
 
     if (left == Values.NAN || right == Values.NAN) return Values.NAN;
 
-    return Values.make(left.doubleNum() % right.doubleNum());
+    return Values.make(left.doubleValue() % right.doubleValue());
 
   }
 
@@ -53,9 +53,9 @@ final public class ModOpLL implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    long r = right.longNum();
+    long r = right.longValue();
     if (r == 0) throw new LangException(LangError.DIVISION_BY_ZERO, "division by zero", stack, node.getSourceInfo());
-    return Values.make(left.longNum() % r);
+    return Values.make(left.longValue() % r);
 
   }
 
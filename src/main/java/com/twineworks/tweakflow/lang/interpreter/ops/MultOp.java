@@ -64,24 +64,24 @@ final public class MultOp implements ExpressionOp {
 
     if (leftType == Types.LONG){
       if (rightType == Types.LONG){
-        return Values.make(left.longNum() * right.longNum());
+        return Values.make(left.longValue() * right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.longNum() * right.doubleNum());
+        return Values.make(left.longValue() * right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        return Values.make(BigDecimal.valueOf(left.longNum()).multiply(right.decimal()));
+        return Values.make(BigDecimal.valueOf(left.longValue()).multiply(right.decimal()));
       }
     }
     else if (leftType == Types.DOUBLE){
       if (rightType == Types.LONG){
-        return Values.make(left.doubleNum() * right.longNum());
+        return Values.make(left.doubleValue() * right.longValue());
       }
       if (rightType == Types.DOUBLE){
-        return Values.make(left.doubleNum() * right.doubleNum());
+        return Values.make(left.doubleValue() * right.doubleValue());
       }
       if (rightType == Types.DECIMAL){
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)){
           return Values.make(BigDecimal.valueOf(d).multiply(right.decimal()));
         }
@@ -100,10 +100,10 @@ final public class MultOp implements ExpressionOp {
     }
     else if (leftType == Types.DECIMAL){
       if (rightType == Types.LONG){
-        return Values.make(left.decimal().multiply(BigDecimal.valueOf(right.longNum())));
+        return Values.make(left.decimal().multiply(BigDecimal.valueOf(right.longValue())));
       }
       if (rightType == Types.DOUBLE){
-        Double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)){
           return Values.make(left.decimal().multiply(BigDecimal.valueOf(d)));
         }
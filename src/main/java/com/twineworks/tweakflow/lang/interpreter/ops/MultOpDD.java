@@ -51,7 +51,7 @@ final public class MultOpDD implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left.doubleNum() * right.doubleNum());
+    return Values.make(left.doubleValue() * right.doubleValue());
 
   }
 
@@ -51,7 +51,7 @@ final public class MultOpLL implements ExpressionOp {
     Value right = rightOp.eval(stack, context);
     if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left.longNum() * right.longNum());
+    return Values.make(left.longValue() * right.longValue());
 
   }
 
@@ -53,10 +53,10 @@ final public class NegateOp implements ExpressionOp {
     Type leftType = value.type();
 
     if (leftType == Types.LONG) {
-      return Values.make(-value.longNum());
+      return Values.make(-value.longValue());
     }
     if (leftType == Types.DOUBLE) {
-      return Values.make(-value.doubleNum());
+      return Values.make(-value.doubleValue());
     }
     if (leftType == Types.DECIMAL) {
       return Values.make(value.decimal().negate());
@@ -65,26 +65,26 @@ final public class PlusOp implements ExpressionOp {
 
     if (leftType == Types.LONG) {
       if (rightType == Types.LONG) {
-        return Values.make(left.longNum() + right.longNum());
+        return Values.make(left.longValue() + right.longValue());
       }
       if (rightType == Types.DOUBLE) {
-        return Values.make(left.longNum() + right.doubleNum());
+        return Values.make(left.longValue() + right.doubleValue());
       }
       if (rightType == Types.DECIMAL) {
-        return Values.make(BigDecimal.valueOf(left.longNum()).add(right.decimal()));
+        return Values.make(BigDecimal.valueOf(left.longValue()).add(right.decimal()));
       }
     }
     if (leftType == Types.DOUBLE) {
       if (rightType == Types.LONG) {
-        return Values.make(left.doubleNum() + right.longNum());
+        return Values.make(left.doubleValue() + right.longValue());
       }
       if (rightType == Types.DOUBLE) {
-        return Values.make(left.doubleNum() + right.doubleNum());
+        return Values.make(left.doubleValue() + right.doubleValue());
       }
       if (rightType == Types.DECIMAL) {
-        double d = left.doubleNum();
+        double d = left.doubleValue();
         if (Double.isFinite(d)) {
-          return Values.make(BigDecimal.valueOf(left.doubleNum()).add(right.decimal()));
+          return Values.make(BigDecimal.valueOf(left.doubleValue()).add(right.decimal()));
         } else {
           // NaN + some_d -> NaN
           // +-Infinity + some_d -> +-Infinity
@@ -94,10 +94,10 @@ final public class PlusOp implements ExpressionOp {
     }
     if (leftType == Types.DECIMAL) {
       if (rightType == Types.LONG) {
-        return Values.make(left.decimal().add(BigDecimal.valueOf(right.longNum())));
+        return Values.make(left.decimal().add(BigDecimal.valueOf(right.longValue())));
       }
       if (rightType == Types.DOUBLE) {
-        double d = right.doubleNum();
+        double d = right.doubleValue();
         if (Double.isFinite(d)) {
           return Values.make(left.decimal().add(BigDecimal.valueOf(d)));
         } else {
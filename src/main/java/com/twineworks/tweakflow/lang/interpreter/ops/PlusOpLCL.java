@@ -40,7 +40,7 @@ final public class PlusOpLCL implements ExpressionOp {
   public PlusOpLCL(PlusNode node) {
     this.node = node;
     leftOp = node.getLeftExpression().getOp();
-    right = Interpreter.evaluateInEmptyScope(node.getRightExpression()).longNum();
+    right = Interpreter.evaluateInEmptyScope(node.getRightExpression()).longValue();
   }
 
   @Override
@@ -49,7 +49,7 @@ final public class PlusOpLCL implements ExpressionOp {
     Value left = leftOp.eval(stack, context);
     if (left == Values.NIL) return Values.NIL;
 
-    return Values.make(left.longNum() + right);
+    return Values.make(left.longValue() + right);
 
   }
 
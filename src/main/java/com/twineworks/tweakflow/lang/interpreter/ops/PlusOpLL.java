@@ -45,13 +45,13 @@ final public class PlusOpLL implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    Long left = leftOp.eval(stack, context).longNum();
-    if (left == null) return Values.NIL;
+    Value left = leftOp.eval(stack, context);
+    if (left == Values.NIL) return Values.NIL;
 
-    Long right = rightOp.eval(stack, context).longNum();
-    if (right == null) return Values.NIL;
+    Value right = rightOp.eval(stack, context);
+    if (right == Values.NIL) return Values.NIL;
 
-    return Values.make(left + right);
+    return Values.make(left.longValue() + right.longValue());
 
   }
 
@@ -65,7 +65,7 @@ final public class PowOp implements ExpressionOp {
 
     // special case for exact exponentiation
     if (baseType == Types.DECIMAL && exponentType == Types.LONG){
-      long exp = exponent.longNum();
+      long exp = exponent.longValue();
       // documented range of BigDecimal.pow
       if (exp >= 0 && exp <= 999999999){
         return Values.make(base.decimal().pow((int)exp));
@@ -80,20 +80,20 @@ final public class PowOp implements ExpressionOp {
     double e;
 
     if (baseType == Types.LONG){
-      b = (double) base.longNum();
+      b = (double) base.longValue();
     }
     else if (baseType == Types.DOUBLE){
-      b = base.doubleNum();
+      b = base.doubleValue();
     }
     else {
       b = base.decimal().doubleValue();
     }
 
     if (exponentType == Types.LONG){
-      e = (double) exponent.longNum();
+      e = (double) exponent.longValue();
     }
     else if (exponentType == Types.DOUBLE){
-      e = exponent.doubleNum();
+      e = exponent.doubleValue();
     }
     else {
       e = exponent.decimal().doubleValue();
@@ -29,8 +29,10 @@ import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.Spaces;
+import com.twineworks.tweakflow.lang.interpreter.memory.StaticReferenceCache;
 import com.twineworks.tweakflow.lang.values.Value;
 
 import java.util.List;
@@ -41,8 +43,7 @@ final public class ReferenceOp implements ExpressionOp {
   private final ReferenceNode node;
   private final ReferenceNode.Anchor anchor;
   private final ConstShapeMap.Accessor[] names;
-  private MemorySpace lastSpace;
-  private Cell lastCell;
+  private final StaticReferenceCache cache;
 
   public ReferenceOp(ReferenceNode node) {
     this.node = node;
@@ -55,6 +56,8 @@ final public class ReferenceOp implements ExpressionOp {
       names[i] = ConstShapeMap.accessor(s);
     }
 
+    cache = StaticReferenceCache.forReference(node, node.getScope());
+
   }
 
   public ReferenceNode getNode() {
@@ -73,24 +76,12 @@ final public class ReferenceOp implements ExpressionOp {
   public Value eval(Stack stack, EvaluationContext context) {
 
     MemorySpace space = stack.peek().getSpace();
-    Cell cell = Spaces.resolve(this, space);
-//    Cell cell = lastCell;
-//    if (lastSpace != space){
-//      cell = Spaces.resolve(this, space);
-//      lastCell = cell;
-//      lastSpace = space;
-//    }
-//    Cell cell = Spaces.resolve(this, space);
-//    Cell cell = resolvedCells.get(space);
-
-//    if (cell == null){
-//      cell = Spaces.resolve(this, space);
-//      resolvedCells.put(space, cell);
-//    }
-
-    if (cell.isDirty()) evaluateCell(cell, stack, context);
-
-    return cell.getValue();
+    Cell cell = cache != null ? cache.resolve(space) : Spaces.resolve(this, space);
+
+    RuntimeState state = context.getState();
+    if (cell.isDirty(state)) evaluateCell(cell, stack, context);
+
+    return cell.getValue(state);
   }
 
   @Override
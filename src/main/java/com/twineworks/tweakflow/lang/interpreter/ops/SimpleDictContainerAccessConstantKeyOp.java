@@ -27,6 +27,7 @@ package com.twineworks.tweakflow.lang.interpreter.ops;
 import com.twineworks.tweakflow.lang.interpreter.Interpreter;
 import com.twineworks.tweakflow.lang.ast.expressions.ContainerAccessNode;
 import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.DictShape;
 import com.twineworks.tweakflow.lang.values.DictValue;
 import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.values.Values;
@@ -39,6 +40,19 @@ final public class SimpleDictContainerAccessConstantKeyOp implements ExpressionO
   private final String key;
   private final ContainerAccessNode node;
 
+  // last seen shape and slot of key in it
+  private static final class ShapeSlot {
+    final DictShape shape;
+    final int slot;
+
+    ShapeSlot(DictShape shape, int slot) {
+      this.shape = shape;
+      this.slot = slot;
+    }
+  }
+
+  private ShapeSlot cached;
+
   public SimpleDictContainerAccessConstantKeyOp(ContainerAccessNode node) {
     this.node = node;
     containerOp = node.getContainerExpression().getOp();
@@ -49,6 +63,17 @@ final public class SimpleDictContainerAccessConstantKeyOp implements ExpressionO
   public Value eval(Stack stack, EvaluationContext context) {
     DictValue xs = containerOp.eval(stack, context).dict();
     if (xs == null) return Values.NIL;
+
+    DictShape shape = xs.shape();
+    if (shape != null){
+      ShapeSlot c = cached;
+      if (c == null || c.shape != shape){
+        c = new ShapeSlot(shape, shape.indexOf(key));
+        cached = c;
+      }
+      return c.slot < 0 ? Values.NIL : xs.slot(c.slot);
+    }
+
     return xs.get(key);
   }
 
@@ -28,6 +28,7 @@ import com.twineworks.tweakflow.lang.values.Value;
 import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
 
 import static com.twineworks.collections.shapemap.ConstShapeMap.Accessor;
 import static com.twineworks.collections.shapemap.ConstShapeMap.accessor;
@@ -44,8 +45,9 @@ final public class SimpleLocalReferenceOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
     Cell cell = name.get(stack.peek().getSpace().getCells());
-    if (cell.isDirty()) evaluateCell(cell, stack, context);
-    return cell.getValue();
+    RuntimeState state = context.getState();
+    if (cell.isDirty(state)) evaluateCell(cell, stack, context);
+    return cell.getValue(state);
   }
 
   @Override
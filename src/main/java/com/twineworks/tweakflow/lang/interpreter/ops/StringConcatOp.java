@@ -47,13 +47,9 @@ final public class StringConcatOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    String left = leftOp.eval(stack, context).string();
-    if (left == null) left = "nil";
-
-    String right = rightOp.eval(stack, context).string();
-    if (right == null) right = "nil";
-
-    return Values.make(left+right);
+    Value left = leftOp.eval(stack, context);
+    Value right = rightOp.eval(stack, context);
+    return Values.concat(left, right);
   }
 
   @Override
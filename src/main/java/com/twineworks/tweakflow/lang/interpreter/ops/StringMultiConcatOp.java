@@ -42,14 +42,12 @@ final public class StringMultiConcatOp implements ExpressionOp {
   @Override
   public Value eval(Stack stack, EvaluationContext context) {
 
-    StringBuilder sb = new StringBuilder();
-    for (ExpressionOp op : ops) {
-      String s = op.eval(stack, context).string();
-      if (s == null) s = "nil";
-      sb.append(s);
+    Value[] parts = new Value[ops.size()];
+    for (int i = 0; i < parts.length; i++) {
+      parts[i] = ops.get(i).eval(stack, context);
     }
 
-    return Values.make(sb.toString());
+    return Values.concat(parts);
   }
 
   @Override
@@ -0,0 +1,95 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.ops;
+
+import com.twineworks.tweakflow.lang.ast.args.Arguments;
+import com.twineworks.tweakflow.lang.ast.expressions.CallNode;
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
+import com.twineworks.tweakflow.lang.interpreter.Interpreter;
+import com.twineworks.tweakflow.lang.interpreter.Stack;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.FunctionValue;
+import com.twineworks.tweakflow.lang.values.StandardFunctionValue;
+import com.twineworks.tweakflow.lang.values.UserFunctionValue;
+import com.twineworks.tweakflow.lang.values.Value;
+
+import static com.twineworks.tweakflow.lang.interpreter.Interpreter.evalArguments;
+
+// a call in tail position of a function body
+// calls to tweakflow functions are left to the enclosing function call to perform
+final public class TailCallOp implements ExpressionOp {
+
+  private final CallNode node;
+  private final ExpressionOp callableOp;
+
+  public TailCallOp(CallNode node) {
+    this.node = node;
+    callableOp = node.getExpression().getOp();
+  }
+
+  @Override
+  public Value eval(Stack stack, EvaluationContext context) {
+
+    Value callableValue = callableOp.eval(stack, context);
+
+    if (callableValue.type() != Types.FUNCTION){
+      throw new LangException(LangError.CANNOT_CALL, "Cannot call "+callableValue.toString()+". Not a function.", stack, node.getSourceInfo());
+    }
+    FunctionValue function = callableValue.function();
+    Arguments arguments = node.getArguments();
+    Value[] argValues = evalArguments(arguments, stack, context);
+
+    if (function.isStandard()){
+      StandardFunctionValue standardFunction = (StandardFunctionValue) function;
+      return context.getTailCall().call(node, standardFunction, Interpreter.argumentsForTailCall(arguments, argValues, standardFunction.getSignature()));
+    }
+    else{
+      // native functions do not recurse through tweakflow frames, they are called right away
+      UserFunctionValue userFunction = (UserFunctionValue) function;
+      Value[] callArgs = arguments.allPositional()
+          ? Interpreter.argumentsForPositionalUserCall(argValues, userFunction.getSignature())
+          : Interpreter.argumentsForUserCall(arguments, argValues, userFunction.getSignature());
+      return context.checkSize(Interpreter.evaluateUserFunctionCall(userFunction, callArgs, node, stack, context), stack);
+    }
+  }
+
+  @Override
+  public boolean isConstant() {
+    return false;
+  }
+
+  @Override
+  public ExpressionOp specialize() {
+    return new TailCallOp(node);
+  }
+
+  @Override
+  public ExpressionOp refresh() {
+    return new TailCallOp(node);
+  }
+
+}
@@ -36,6 +36,7 @@ import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
 import com.twineworks.tweakflow.lang.load.loadpath.LoadPathLocation;
 import com.twineworks.tweakflow.lang.load.relative.Resolved;
+import com.twineworks.tweakflow.lang.parse.DiskParseCache;
 import com.twineworks.tweakflow.lang.parse.ParseResult;
 import com.twineworks.tweakflow.lang.parse.Parser;
 import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
@@ -90,8 +91,7 @@ public class Loader {
     }
 
     if (parseResult == null){
-      Parser parser = new Parser(parseUnit, recovery);
-      parseResult = parser.parseUnit();
+      parseResult = parse(loadPath, parseUnit, recovery);
       if (!parseResult.isSuccess()){
         throw parseResult.getException();
       }
@@ -168,6 +168,28 @@ public class Loader {
   }
 
 
+  // parses the unit, unless the disk cache has a result for its current content
+  static ParseResult parse(LoadPath loadPath, ParseUnit parseUnit, boolean recovery){
+
+    if (!recovery && parseUnit.getLocation() != null){
+      ParseResult snapshot = parseUnit.getLocation().getParseSnapshot(parseUnit);
+      if (snapshot != null) return snapshot;
+    }
+
+    DiskParseCache diskParseCache = recovery ? null : loadPath.getDiskParseCache();
+    if (diskParseCache != null){
+      ParseResult parseResult = diskParseCache.get(parseUnit);
+      if (parseResult != null) return parseResult;
+    }
+
+    ParseResult parseResult = new Parser(parseUnit, recovery).parseUnit();
+    if (diskParseCache != null){
+      diskParseCache.put(parseUnit, parseResult);
+    }
+    return parseResult;
+
+  }
+
   // load finding the file in load path first
   public static AnalysisUnit load(LoadPath loadPath, String modulePath, Map<String, AnalysisUnit> workSet, boolean collectImports, boolean recovery, List<LangException> recoveryErrors){
 
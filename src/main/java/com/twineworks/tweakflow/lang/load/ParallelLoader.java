@@ -182,8 +182,7 @@ public class ParallelLoader {
         }
 
         if (parseResult == null) {
-          Parser parser = new Parser(parseUnit, recovery);
-          parseResult = parser.parseUnit();
+          parseResult = com.twineworks.tweakflow.lang.load.Loader.parse(loadPath, parseUnit, recovery);
 
           if (!parseResult.isSuccess()) {
             errors.putIfAbsent(parseUnitKey, parseResult.getException());
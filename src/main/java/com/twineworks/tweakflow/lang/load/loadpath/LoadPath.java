@@ -29,6 +29,7 @@ import com.twineworks.tweakflow.lang.errors.LangException;
 import com.twineworks.tweakflow.lang.load.relative.DefaultResolver;
 import com.twineworks.tweakflow.lang.load.relative.RelativeResolver;
 import com.twineworks.tweakflow.lang.load.relative.Resolved;
+import com.twineworks.tweakflow.lang.parse.DiskParseCache;
 import com.twineworks.tweakflow.lang.parse.ParseResult;
 import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
 
@@ -43,12 +44,13 @@ public class LoadPath {
     private final List<LoadPathLocation> locations = new ArrayList<>();
     private RelativeResolver relativeResolver = new DefaultResolver();
     private ConcurrentMap<String, ParseResult> parseResultCache;
+    private DiskParseCache diskParseCache;
 
     public Builder() { }
 
     @Override
     public LoadPath build() {
-      return new LoadPath(locations, relativeResolver, parseResultCache);
+      return new LoadPath(locations, relativeResolver, parseResultCache, diskParseCache);
     }
 
     public LoadPath.Builder add(LoadPathLocation location){
@@ -66,11 +68,18 @@ public class LoadPath {
       return this;
     }
 
+    // parse results kept on disk are used for any location, they are keyed by content
+    public LoadPath.Builder withDiskParseCache(DiskParseCache diskParseCache){
+      this.diskParseCache = diskParseCache;
+      return this;
+    }
+
     public LoadPath.Builder addStdLocation(){
       locations.add(
           new ResourceLocation.Builder()
               .path(Paths.get("com/twineworks/tweakflow/std"))
               .allowCaching(true)
+              .useSnapshots(true)
               .build()
       );
       return this;
@@ -91,11 +100,13 @@ public class LoadPath {
   private final List<LoadPathLocation> locations;
   private final RelativeResolver relativeResolver;
   private final Map<String, ParseResult> parseResultCache;
+  private final DiskParseCache diskParseCache;
 
-  private LoadPath(List<LoadPathLocation> locations, RelativeResolver relativeResolver, Map<String, ParseResult> parseResultCache){
+  private LoadPath(List<LoadPathLocation> locations, RelativeResolver relativeResolver, Map<String, ParseResult> parseResultCache, DiskParseCache diskParseCache){
     this.locations = Collections.unmodifiableList(locations);
     this.relativeResolver = relativeResolver;
     this.parseResultCache = parseResultCache;
+    this.diskParseCache = diskParseCache;
   }
 
   public Resolved resolve(String modulePath, LoadPathLocation pathLocation, String importPath) {
@@ -141,5 +152,8 @@ public class LoadPath {
     return parseResultCache;
   }
 
+  public DiskParseCache getDiskParseCache() {
+    return diskParseCache;
+  }
 
 }
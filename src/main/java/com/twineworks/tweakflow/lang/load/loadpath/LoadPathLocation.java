@@ -24,6 +24,7 @@
 
 package com.twineworks.tweakflow.lang.load.loadpath;
 
+import com.twineworks.tweakflow.lang.parse.ParseResult;
 import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
 
 public interface LoadPathLocation {
@@ -34,4 +35,10 @@ public interface LoadPathLocation {
   boolean allowsNativeFunctions();
   boolean allowsCaching();
   ParseUnit makeRecoveryUnit(String path);
+
+  // a location may provide pre-parsed results for its parse units
+  // the returned node is owned by the caller
+  default ParseResult getParseSnapshot(ParseUnit parseUnit) {
+    return null;
+  }
 }
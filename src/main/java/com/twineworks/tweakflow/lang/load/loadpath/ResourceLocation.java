@@ -26,14 +26,21 @@ package com.twineworks.tweakflow.lang.load.loadpath;
 
 import com.twineworks.tweakflow.lang.errors.LangError;
 import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.parse.ParseResult;
+import com.twineworks.tweakflow.lang.parse.ParseSnapshot;
 import com.twineworks.tweakflow.lang.parse.units.MemoryParseUnit;
 import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
 import com.twineworks.tweakflow.lang.parse.units.ResourceParseUnit;
 import com.twineworks.tweakflow.util.InOut;
 
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class ResourceLocation implements LoadPathLocation {
 
@@ -43,13 +50,14 @@ public class ResourceLocation implements LoadPathLocation {
     private boolean allowNativeFunctions = true;
     private boolean allowCaching = true;
     private String defaultExtension = ".tf";
+    private boolean useSnapshots = false;
 
     public Builder() {
     }
 
     @Override
     public ResourceLocation build() {
-      return new ResourceLocation(path, allowNativeFunctions, allowCaching, defaultExtension);
+      return new ResourceLocation(path, allowNativeFunctions, allowCaching, defaultExtension, useSnapshots);
     }
 
     public ResourceLocation.Builder path(Path path){
@@ -68,6 +76,12 @@ public class ResourceLocation implements LoadPathLocation {
       return this;
     }
 
+    // use parse snapshots bundled next to module resources, if current
+    public ResourceLocation.Builder useSnapshots(boolean useSnapshots) {
+      this.useSnapshots = useSnapshots;
+      return this;
+    }
+
     public ResourceLocation.Builder defaultExtension(String defaultExtension) {
       this.defaultExtension = defaultExtension;
       if (this.defaultExtension == null){
@@ -82,12 +96,21 @@ public class ResourceLocation implements LoadPathLocation {
   private final String defaultExtension;
   private final boolean allowNativeFunctions;
   private final boolean allowCaching;
+  private final boolean useSnapshots;
 
-  public ResourceLocation(Path rootPath, boolean allowNativeFunctions, boolean allowCaching, String defaultExtension){
+  // snapshots are read once per class loader, and copied for every use
+  private final static ConcurrentHashMap<String, Optional<ParseResult>> snapshots = new ConcurrentHashMap<>();
+
+  public ResourceLocation(Path rootPath, boolean allowNativeFunctions, boolean allowCaching, String defaultExtension, boolean useSnapshots){
     this.rootPath = rootPath;
     this.defaultExtension = defaultExtension;
     this.allowNativeFunctions = allowNativeFunctions;
     this.allowCaching = allowCaching;
+    this.useSnapshots = useSnapshots;
+  }
+
+  public ResourceLocation(Path rootPath, boolean allowNativeFunctions, boolean allowCaching, String defaultExtension){
+    this(rootPath, allowNativeFunctions, allowCaching, defaultExtension, false);
   }
 
   public ResourceLocation(Path rootPath, boolean allowNativeFunctions, String defaultExtension){
@@ -168,6 +191,41 @@ public class ResourceLocation implements LoadPathLocation {
   }
 
 
+  public boolean usesSnapshots() {
+    return useSnapshots;
+  }
+
+  @Override
+  public ParseResult getParseSnapshot(ParseUnit parseUnit) {
+
+    if (!useSnapshots || !(parseUnit instanceof ResourceParseUnit) || parseUnit.getLocation() != this) return null;
+
+    String absPath = pathToString(rootPath.resolve(parseUnit.getPath()).normalize());
+    // nodes refer to the location that read them, which governs native function use
+    String key = absPath + (allowNativeFunctions ? "" : "#restricted");
+
+    Optional<ParseResult> snapshot = snapshots.computeIfAbsent(key, (k) -> Optional.ofNullable(readSnapshot(absPath, parseUnit)));
+    if (!snapshot.isPresent()) return null;
+
+    ParseResult parseResult = snapshot.get();
+    return ParseResult.ok(parseResult.getNode().copy(), parseResult.getParseDurationMillis(), parseResult.getBuildDurationMillis());
+
+  }
+
+  private ParseResult readSnapshot(String absPath, ParseUnit parseUnit){
+
+    InputStream resource = getClass().getClassLoader().getResourceAsStream(absPath + ParseSnapshot.RESOURCE_SUFFIX);
+    if (resource == null) return null;
+
+    try (InputStream in = new BufferedInputStream(resource)) {
+      return ParseSnapshot.read(in, parseUnit);
+    }
+    catch (IOException | RuntimeException e){
+      // outdated or damaged snapshots are ignored, the module is parsed instead
+      return null;
+    }
+  }
+
   private String pathToString(Path path){
     return path.toString().replace('\\', '/');
   }
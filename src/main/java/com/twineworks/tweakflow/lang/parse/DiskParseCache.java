@@ -0,0 +1,117 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.parse;
+
+import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+// keeps parse results in a directory, so they survive restarts
+// there is one file per path, holding the parse result of the content it was last parsed with
+// entries from other versions of tweakflow, or for other content, are ignored and replaced
+// any number of processes can share a cache directory
+public class DiskParseCache {
+
+  private static final int MAGIC = 0x54465043; // TFPC
+  private static final int FORMAT_VERSION = 2;
+  private static final String SUFFIX = ".tfpc";
+
+  private static final String VERSION = version();
+
+  private final Path directory;
+
+  public DiskParseCache(Path directory) {
+    this.directory = directory;
+    try {
+      Files.createDirectories(directory);
+    } catch (IOException e) {
+      throw new UncheckedIOException("cannot create parse cache directory "+directory, e);
+    }
+  }
+
+  public Path getDirectory() {
+    return directory;
+  }
+
+  // returns null if there is no current entry for the parse unit
+  public ParseResult get(ParseUnit parseUnit){
+
+    Path file = fileFor(parseUnit.getPath());
+    if (!Files.isRegularFile(file)) return null;
+
+    try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      if (in.readInt() != MAGIC) return null;
+      if (in.readInt() != FORMAT_VERSION) return null;
+      if (!in.readUTF().equals(VERSION)) return null;
+      return ParseSnapshot.read(in, parseUnit);
+    }
+    catch (IOException | RuntimeException e){
+      // unreadable entries are parsed again and replaced
+      return null;
+    }
+
+  }
+
+  // only successful parse results are kept
+  public void put(ParseUnit parseUnit, ParseResult parseResult){
+
+    if (!parseResult.isSuccess() || parseResult.hasRecoveryErrors()) return;
+
+    Path file = fileFor(parseUnit.getPath());
+    Path tmp = null;
+    try {
+      tmp = Files.createTempFile(directory, "entry", ".tmp");
+      try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tmp)))) {
+        out.writeInt(MAGIC);
+        out.writeInt(FORMAT_VERSION);
+        out.writeUTF(VERSION);
+        ParseSnapshot.write(out, parseUnit, parseResult);
+      }
+      // readers see either the old or the new entry
+      Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    catch (IOException | RuntimeException e){
+      // caching is best effort
+      if (tmp != null){
+        try {
+          Files.deleteIfExists(tmp);
+        } catch (IOException ignored) {}
+      }
+    }
+
+  }
+
+  private Path fileFor(String path){
+    return directory.resolve(ParseSnapshot.sha256(path) + SUFFIX);
+  }
+
+  private static String version(){
+    String version = DiskParseCache.class.getPackage().getImplementationVersion();
+    return version == null ? "dev" : version;
+  }
+
+}
@@ -0,0 +1,211 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.parse;
+
+import com.twineworks.tweakflow.lang.ast.Node;
+import com.twineworks.tweakflow.lang.load.loadpath.ResourceLocation;
+import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.types.Types;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+// serialized form of a successful parse result
+// a snapshot is bound to the exact program text it was parsed from, and is ignored for any other text
+public final class ParseSnapshot {
+
+  private static final int MAGIC = 0x54465053; // TFPS
+  // syntax tree classes declare fixed serialVersionUIDs
+  // bump the format version whenever the serialized fields of nodes, source info, or values change
+  private static final int FORMAT_VERSION = 2;
+
+  public static final String RESOURCE_SUFFIX = ".snapshot";
+
+  private ParseSnapshot() {}
+
+  public static void write(OutputStream out, ParseUnit parseUnit, ParseResult parseResult) throws IOException {
+
+    if (!parseResult.isSuccess() || parseResult.hasRecoveryErrors()){
+      throw new IllegalArgumentException("cannot snapshot failed parse result of "+parseUnit.getPath());
+    }
+
+    DataOutputStream dataOut = new DataOutputStream(out);
+    dataOut.writeInt(MAGIC);
+    dataOut.writeInt(FORMAT_VERSION);
+    dataOut.writeUTF(parseUnit.getPath());
+    dataOut.writeUTF(contentHash(parseUnit));
+    dataOut.writeLong(parseResult.getParseDurationMillis());
+    dataOut.writeLong(parseResult.getBuildDurationMillis());
+
+    NodeOutputStream nodeOut = new NodeOutputStream(dataOut, parseUnit);
+    nodeOut.writeObject(parseResult.getNode());
+    nodeOut.flush();
+
+  }
+
+  // returns null if the snapshot was not taken from the given parse unit's current content
+  public static ParseResult read(InputStream in, ParseUnit parseUnit) throws IOException {
+
+    DataInputStream dataIn = new DataInputStream(in);
+    if (dataIn.readInt() != MAGIC) return null;
+    if (dataIn.readInt() != FORMAT_VERSION) return null;
+    if (!dataIn.readUTF().equals(parseUnit.getPath())) return null;
+    if (!dataIn.readUTF().equals(contentHash(parseUnit))) return null;
+
+    long parseDurationMillis = dataIn.readLong();
+    long buildDurationMillis = dataIn.readLong();
+
+    NodeInputStream nodeIn = new NodeInputStream(dataIn, parseUnit);
+    try {
+      Node node = (Node) nodeIn.readObject();
+      return ParseResult.ok(node, parseDurationMillis, buildDurationMillis);
+    } catch (ClassNotFoundException | ClassCastException e) {
+      throw new InvalidClassException(e.getMessage());
+    }
+
+  }
+
+  // build step: writes snapshots of the given resources next to them
+  // usage: ParseSnapshot <output directory> <resource path>...
+  public static void main(String[] args) throws IOException {
+
+    if (args.length < 2){
+      System.err.println("usage: ParseSnapshot <output directory> <resource path>...");
+      System.exit(1);
+    }
+
+    Path outputDirectory = Paths.get(args[0]);
+
+    for (int i = 1; i < args.length; i++) {
+      Path resource = Paths.get(args[i]);
+      Path parent = resource.getParent() == null ? Paths.get("") : resource.getParent();
+
+      ResourceLocation location = new ResourceLocation.Builder()
+          .path(parent)
+          .build();
+
+      ParseUnit parseUnit = location.getParseUnit(resource.getFileName().toString());
+      ParseResult parseResult = new Parser(parseUnit).parseUnit();
+      if (!parseResult.isSuccess()){
+        throw parseResult.getException();
+      }
+
+      Path target = outputDirectory.resolve(args[i] + RESOURCE_SUFFIX);
+      Files.createDirectories(target.toAbsolutePath().getParent());
+      try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+        write(out, parseUnit, parseResult);
+      }
+      System.out.println("wrote parse snapshot " + target);
+    }
+
+  }
+
+  static String contentHash(ParseUnit parseUnit){
+    return sha256(parseUnit.getProgramText());
+  }
+
+  static String sha256(String s){
+    try {
+      MessageDigest digest = MessageDigest.getInstance("SHA-256");
+      byte[] hash = digest.digest(s.getBytes(StandardCharsets.UTF_8));
+      StringBuilder hex = new StringBuilder(hash.length*2);
+      for (byte b : hash) {
+        hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+      }
+      return hex.toString();
+    } catch (NoSuchAlgorithmException e) {
+      throw new AssertionError("SHA-256 not available", e);
+    }
+  }
+
+  // parse units and types are not serialized, they are restored by reference
+
+  private enum ParseUnitRef {
+    INSTANCE
+  }
+
+  private static final class TypeRef implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final String name;
+
+    private TypeRef(String name) {
+      this.name = name;
+    }
+  }
+
+  private static final class NodeOutputStream extends ObjectOutputStream {
+
+    private final ParseUnit parseUnit;
+
+    private NodeOutputStream(OutputStream out, ParseUnit parseUnit) throws IOException {
+      super(out);
+      this.parseUnit = parseUnit;
+      enableReplaceObject(true);
+    }
+
+    @Override
+    protected Object replaceObject(Object obj) throws IOException {
+      if (obj == parseUnit) return ParseUnitRef.INSTANCE;
+      if (obj instanceof ParseUnit) throw new NotSerializableException("foreign parse unit "+((ParseUnit) obj).getPath());
+      if (obj instanceof Type) return new TypeRef(((Type) obj).name());
+      return obj;
+    }
+  }
+
+  private static final class NodeInputStream extends ObjectInputStream {
+
+    private final ParseUnit parseUnit;
+
+    private NodeInputStream(InputStream in, ParseUnit parseUnit) throws IOException {
+      super(in);
+      this.parseUnit = parseUnit;
+      enableResolveObject(true);
+    }
+
+    @Override
+    protected Class<?> resolveClass(ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      // snapshots only ever contain syntax trees
+      String name = desc.getName();
+      if (!name.startsWith("com.twineworks.tweakflow.") && !name.startsWith("java.") && !name.startsWith("[")){
+        throw new InvalidClassException(name, "unexpected class in parse snapshot");
+      }
+      return super.resolveClass(desc);
+    }
+
+    @Override
+    protected Object resolveObject(Object obj) throws IOException {
+      if (obj == ParseUnitRef.INSTANCE) return parseUnit;
+      if (obj instanceof TypeRef) return Types.byName(((TypeRef) obj).name);
+      return obj;
+    }
+  }
+
+}
@@ -26,9 +26,12 @@ package com.twineworks.tweakflow.lang.parse;
 
 import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
 
+import java.io.Serializable;
 import java.util.ArrayList;
 
-public class SourceInfo {
+public class SourceInfo implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private ParseUnit parseUnit;
   private int line;
@@ -41,6 +41,7 @@ import com.twineworks.tweakflow.lang.interpreter.*;
 import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.interpreter.memory.LocalMemorySpace;
 import com.twineworks.tweakflow.lang.interpreter.memory.MemorySpace;
+import com.twineworks.tweakflow.lang.interpreter.memory.RuntimeState;
 import com.twineworks.tweakflow.lang.interpreter.memory.Spaces;
 import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
 import com.twineworks.tweakflow.lang.load.loadpath.LoadPathLocation;
@@ -52,6 +53,7 @@ import com.twineworks.tweakflow.lang.types.Type;
 import com.twineworks.tweakflow.lang.values.*;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Collectors;
 
 public class Runtime {
@@ -91,7 +93,7 @@ public class Runtime {
 
     @Override
     public void evaluate() {
-      Interpreter.evaluateSpace(space, runtime.getEvaluationContext());
+      Interpreter.evaluateSpace(space, runtime.startEvaluation());
     }
 
   }
@@ -117,7 +119,7 @@ public class Runtime {
 
     @Override
     public void evaluate() {
-      Interpreter.evaluateSpace(space, runtime.getEvaluationContext());
+      Interpreter.evaluateSpace(space, runtime.startEvaluation());
     }
 
   }
@@ -143,7 +145,7 @@ public class Runtime {
 
     @Override
     public void evaluate() {
-      Interpreter.evaluateSpace(space, runtime.getEvaluationContext());
+      Interpreter.evaluateSpace(space, runtime.startEvaluation());
     }
   }
 
@@ -183,7 +185,7 @@ public class Runtime {
     }
 
     public void evaluate(){
-      Interpreter.evaluateCell(cell, new Stack(), runtime.getEvaluationContext());
+      Interpreter.evaluateCell(cell, new Stack(), runtime.startEvaluation());
     }
 
     @Override
@@ -240,7 +242,7 @@ public class Runtime {
     }
 
     public void evaluate(){
-      Interpreter.evaluateCell(cell, new Stack(), runtime.getEvaluationContext());
+      Interpreter.evaluateCell(cell, new Stack(), runtime.startEvaluation());
     }
 
     public Name resolve(ReferenceNode node){
@@ -333,7 +335,7 @@ public class Runtime {
     }
 
     public void evaluate(){
-      Interpreter.evaluateCell(cell, new Stack(), runtime.getEvaluationContext());
+      Interpreter.evaluateCell(cell, new Stack(), runtime.startEvaluation());
     }
 
     @Override
@@ -391,7 +393,7 @@ public class Runtime {
     }
 
     public void evaluate(){
-      Interpreter.evaluateCell(cell, new Stack(), runtime.getEvaluationContext());
+      Interpreter.evaluateCell(cell, new Stack(), runtime.startEvaluation());
     }
 
     @Override
@@ -462,7 +464,7 @@ public class Runtime {
     }
 
     public void evaluate(){
-      Interpreter.evaluateCell(cell, new Stack(), runtime.getEvaluationContext());
+      Interpreter.evaluateCell(cell, new Stack(), runtime.startEvaluation());
     }
 
     @Override
@@ -506,6 +508,7 @@ public class Runtime {
     private final VarDefNode varDefNode;
     private final Type declaredType;
     private final String name;
+    private List<VarAccess> accesses;
 
     private Var(Runtime runtime, Cell cell) {
 
@@ -529,17 +532,62 @@ public class Runtime {
       if (dependantSymbols != null){
         // collect dirties for re-evaluation
         for (Symbol dep : dependantSymbols) {
-          String modulePath = dep.getNode().getSourceInfo().getParseUnit().getPath();
-          MemorySpace moduleSpace = unitSpace.getCells().gets(modulePath);
-          String libraryName = ((Symbol)dep.getScope()).getNode().getSymbolName();
-          String varName = dep.getName();
-          Cell depCell = moduleSpace.getCells().gets(libraryName).getCells().gets(varName);
-          dependants.add(depCell);
+          dependants.add(cellOf(unitSpace, dep));
         }
       }
 
     }
 
+    private static Cell cellOf(LocalMemorySpace unitSpace, Symbol symbol){
+      String modulePath = symbol.getNode().getSourceInfo().getParseUnit().getPath();
+      MemorySpace moduleSpace = unitSpace.getCells().gets(modulePath);
+      String libraryName = ((Symbol)symbol.getScope()).getNode().getSymbolName();
+      String varName = symbol.getName();
+      return moduleSpace.getCells().gets(libraryName).getCells().gets(varName);
+    }
+
+    // the vars referencing this var directly, and which parts of its value they read
+    private List<VarAccess> getAccesses(){
+      if (accesses != null) return accesses;
+
+      AnalysisSet analysisSet = runtime.getRuntimeSet().getAnalysisSet();
+      LocalMemorySpace unitSpace = runtime.getRuntimeSet().getGlobalMemorySpace().getUnitSpace();
+      IdentityHashMap<Symbol, LinkedHashSet<Symbol>> varDependencies = analysisSet.getVarDependencies();
+      IdentityHashMap<Symbol, LinkedHashSet<Symbol>> allDependants = analysisSet.getDependants();
+      Symbol symbol = cell.getSymbol();
+
+      List<VarAccess> ret = new ArrayList<>();
+      for (Cell dependant : dependants) {
+        Symbol depSymbol = dependant.getSymbol();
+        LinkedHashSet<Symbol> direct = varDependencies.get(depSymbol);
+        if (direct == null || !direct.contains(symbol)) continue;
+
+        List<Cell> downstream = new ArrayList<>();
+        LinkedHashSet<Symbol> downstreamSymbols = allDependants.get(depSymbol);
+        if (downstreamSymbols != null){
+          for (Symbol s : downstreamSymbols) {
+            downstream.add(cellOf(unitSpace, s));
+          }
+        }
+        ExpressionNode expression = ((VarDefNode) depSymbol.getNode()).getValueExpression();
+        ret.add(VarAccess.of(symbol, expression, dependant, downstream));
+      }
+
+      accesses = ret;
+      return accesses;
+    }
+
+    // collects dependants that need re-evaluation when the value changes from existing to value
+    // dependants reading constant key paths only are affected if the values at these paths change
+    private void collectAffected(Value existing, Value value, Collection<Cell> affected){
+      for (VarAccess access : getAccesses()) {
+        if (access.readsChange(existing, value)){
+          affected.add(access.getCell());
+          affected.addAll(access.getDownstream());
+        }
+      }
+    }
+
     public boolean dependsOn(Runtime.Var other){
       LinkedHashSet<Symbol> dependencies = runtime.getRuntimeSet().getAnalysisSet().getDependencies().get(cell.getSymbol());
       if (dependencies == null) return false;
@@ -570,11 +618,11 @@ public class Runtime {
 
     @Override
     public Value getValue(){
-      return cell.getValue();
+      return cell.getValue(runtime.getState());
     }
 
     public boolean isDirty(){
-      return cell.isDirty();
+      return cell.isDirty(runtime.getState());
     }
 
     public String getName() {
@@ -592,7 +640,7 @@ public class Runtime {
     public Value call(Value ... args) {
       Stack stack = new Stack();
       stack.push(new StackEntry(cell.getSymbol().getNode(), cell, Collections.emptyMap()));
-      return new CallContext(stack, runtime.getEvaluationContext()).call(getValue(), args);
+      return new CallContext(stack, runtime.startEvaluation()).call(getValue(), args);
     }
 
     public Arity1CallSite arity1CallSite() {
@@ -614,10 +662,10 @@ public class Runtime {
     }
 
     public void evaluate(){
-      if (cell.isDirty()){
+      if (cell.isDirty(runtime.getState())){
         Stack stack = new Stack();
         stack.push(new StackEntry(cell.getSymbol().getNode(), cell.getEnclosingSpace(), Collections.emptyMap()));
-        Interpreter.evaluateCell(cell, stack, runtime.getEvaluationContext());
+        Interpreter.evaluateCell(cell, stack, runtime.startEvaluation());
       }
     }
 
@@ -649,10 +697,14 @@ public class Runtime {
 
     private final Var[] vars;
     private final Cell[] dependants;
+    private final RuntimeSet runtimeSet;
     private final EvaluationContext context;
+    private final RuntimeState state;
     private final Stack stack = new Stack();
 
-    UpdateBatch (Var[] vars, Cell[] dependants, EvaluationContext context){
+    UpdateBatch (Var[] vars, Cell[] dependants, RuntimeSet runtimeSet, EvaluationContext context){
+      this.runtimeSet = runtimeSet;
+      this.state = context.getState();
       this.vars = vars;
       this.dependants = dependants;
       this.context = context;
@@ -663,18 +715,24 @@ public class Runtime {
       for (int i = 0; i < valueProviders.length; i++) {
         Var var = vars[i];
         Value value = valueProviders[i].getValue();
-        var.cell.setValue(value.castTo(var.getDeclaredType()));
+        var.cell.setValue(state, value.castTo(var.getDeclaredType()));
       }
 
       for (Cell dependant : dependants) {
-        dependant.setDirty(true);
+        dependant.setDirty(state, true);
       }
 
-      for (Cell dependant : dependants) {
-        if (dependant.isDirty()){
-          stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-          Interpreter.evaluateCell(dependant, stack, context);
-          stack.pop();
+      context.startBudget();
+      if (context.getEvaluationPool() != null){
+        runtimeSet.getParallelEvaluator().evaluate(Arrays.asList(dependants), context);
+      }
+      else {
+        for (Cell dependant : dependants) {
+          if (dependant.isDirty(state)){
+            stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
+            Interpreter.evaluateCell(dependant, stack, context);
+            stack.pop();
+          }
         }
       }
     }
@@ -684,11 +742,11 @@ public class Runtime {
       for (int i = 0; i < valueProviders.length; i++) {
         Var var = vars[i];
         Value value = valueProviders[i].getValue();
-        var.cell.setValue(value.castTo(var.getDeclaredType()));
+        var.cell.setValue(state, value.castTo(var.getDeclaredType()));
       }
 
       for (Cell dependant : dependants) {
-        dependant.setDirty(true);
+        dependant.setDirty(state, true);
       }
 
     }
@@ -698,10 +756,14 @@ public class Runtime {
 
     private final Var[] vars;
     private final HashSet<Cell> dependants;
+    private final RuntimeSet runtimeSet;
     private final EvaluationContext context;
+    private final RuntimeState state;
     private final Stack stack = new Stack();
 
-    ChangeSensitiveUpdateBatch(Var[] vars, EvaluationContext context){
+    ChangeSensitiveUpdateBatch(Var[] vars, RuntimeSet runtimeSet, EvaluationContext context){
+      this.runtimeSet = runtimeSet;
+      this.state = context.getState();
       this.vars = vars;
       this.dependants = new HashSet<>();
       this.context = context;
@@ -714,21 +776,27 @@ public class Runtime {
         Var var = vars[i];
         Value value = valueProviders[i].getValue().castTo(var.getDeclaredType());
         Value existing = var.getValue();
-        if (!existing.equals(value)){
-          var.cell.setValue(value);
-          dependants.addAll(var.dependants);
+        if (!value.equals(existing)){
+          var.cell.setValue(state, value);
+          var.collectAffected(existing, value, dependants);
         }
       }
 
       for (Cell dependant : dependants) {
-        dependant.setDirty(true);
+        dependant.setDirty(state, true);
       }
 
-      for (Cell dependant : dependants) {
-        if (dependant.isDirty()){
-          stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-          Interpreter.evaluateCell(dependant, stack, context);
-          stack.pop();
+      context.startBudget();
+      if (context.getEvaluationPool() != null){
+        runtimeSet.getParallelEvaluator().evaluate(dependants, context);
+      }
+      else {
+        for (Cell dependant : dependants) {
+          if (dependant.isDirty(state)){
+            stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
+            Interpreter.evaluateCell(dependant, stack, context);
+            stack.pop();
+          }
         }
       }
       dependants.clear();
@@ -741,14 +809,14 @@ public class Runtime {
         Var var = vars[i];
         Value value = valueProviders[i].getValue().castTo(var.getDeclaredType());
         Value existing = var.getValue();
-        if (!existing.equals(value)){
-          var.cell.setValue(value);
-          dependants.addAll(var.dependants);
+        if (!value.equals(existing)){
+          var.cell.setValue(state, value);
+          var.collectAffected(existing, value, dependants);
         }
       }
 
       for (Cell dependant : dependants) {
-        dependant.setDirty(true);
+        dependant.setDirty(state, true);
       }
       dependants.clear();
 
@@ -763,21 +831,79 @@ public class Runtime {
   }
 
   public Runtime(RuntimeSet runtimeSet, DebugHandler debugHandler) {
+    this(runtimeSet, debugHandler, runtimeSet.createState());
+  }
+
+  private Runtime(RuntimeSet runtimeSet, DebugHandler debugHandler, RuntimeState state) {
     this.runtimeSet = runtimeSet;
-    context = new EvaluationContext(debugHandler);
+    context = new EvaluationContext(debugHandler, state);
   }
 
+  // copies share the compiled runtime set, and start with fresh, unevaluated state
+  // any number of copies can evaluate concurrently, as long as each is confined to a thread
   public Runtime copy(){
-    RuntimeSet rs = runtimeSet.copy();
-    return new Runtime(rs, getDebugHandler());
+    return new Runtime(runtimeSet, getDebugHandler()).setCompiledOps(isCompiledOps()).setEvaluationPool(getEvaluationPool()).setEvaluationBudget(getEvaluationBudget());
   }
 
   public Runtime copy(DebugHandler debugHandler){
-    RuntimeSet rs = runtimeSet.copy();
-    return new Runtime(rs, debugHandler);
+    return new Runtime(runtimeSet, debugHandler).setCompiledOps(isCompiledOps()).setEvaluationPool(getEvaluationPool()).setEvaluationBudget(getEvaluationBudget());
+  }
+
+  // forks share the compiled runtime set, and start with the state of this runtime
+  // evaluated vars are shared, each runtime copies state only where its vars change
+  public Runtime fork(){
+    return new Runtime(runtimeSet, getDebugHandler(), getState().fork()).setCompiledOps(isCompiledOps()).setEvaluationPool(getEvaluationPool()).setEvaluationBudget(getEvaluationBudget());
+  }
+
+  public Runtime fork(DebugHandler debugHandler){
+    return new Runtime(runtimeSet, debugHandler, getState().fork()).setCompiledOps(isCompiledOps()).setEvaluationPool(getEvaluationPool()).setEvaluationBudget(getEvaluationBudget());
+  }
+
+  // var definitions and function bodies evaluate through ops compiled to
+  // JVM bytecode, falling back to the interpreter where not supported
+  public Runtime setCompiledOps(boolean compiledOps){
+    context.setCompiledOps(compiledOps);
+    return this;
+  }
+
+  public boolean isCompiledOps(){
+    return context.isCompiledOps();
+  }
+
+  // library vars evaluate concurrently on given pool, following their dependencies
+  // null evaluates sequentially on the calling thread, which is the default
+  // debug handlers must be thread-safe when using a pool
+  public Runtime setEvaluationPool(ForkJoinPool evaluationPool){
+    context.setEvaluationPool(evaluationPool);
+    return this;
+  }
+
+  public ForkJoinPool getEvaluationPool(){
+    return context.getEvaluationPool();
+  }
+
+  // evaluations are bounded by given budget, null evaluates without limits, which is the default
+  // evaluate, updates and calls through vars each start a fresh budget
+  // with an evaluation pool, all vars evaluated concurrently by one update count against one budget
+  public Runtime setEvaluationBudget(EvaluationBudget budget){
+    context.setBudget(budget);
+    return this;
+  }
+
+  public EvaluationBudget getEvaluationBudget(){
+    return context.getBudget();
+  }
+
+  // starts a fresh budget for evaluations through call contexts and call sites handed out earlier
+  public void startEvaluationBudget(){
+    context.startBudget();
   }
 
   public void evaluate(){
+    context.startBudget();
+    if (context.getEvaluationPool() != null){
+      runtimeSet.getParallelEvaluator().evaluateAll(context);
+    }
     Interpreter.evaluateSpace(runtimeSet.getGlobalMemorySpace().getUnitSpace(), context);
   }
 
@@ -882,6 +1008,15 @@ public class Runtime {
     return context;
   }
 
+  private EvaluationContext startEvaluation() {
+    context.startBudget();
+    return context;
+  }
+
+  public RuntimeState getState() {
+    return context.getState();
+  }
+
   public void setVars(Runtime.Var[] vars, Value[] values){
 
     Objects.requireNonNull(vars, "vars cannot be null");
@@ -899,10 +1034,10 @@ public class Runtime {
 
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
 
-      Value existing = var.cell.getValue();
+      Value existing = var.cell.getValue(getState());
       if (value.equals(existing)) continue;
       try {
-        var.cell.setValue(value.castTo(var.getDeclaredType()));
+        var.cell.setValue(getState(), value.castTo(var.getDeclaredType()));
       }
       catch (LangException e){
         e.setSourceInfo(var.varDefNode.getSourceInfo());
@@ -932,21 +1067,18 @@ public class Runtime {
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
 
       // if there is no change in value, there's no need to re-evaluate anything
-      Value existing = var.cell.getValue();
+      Value existing = var.cell.getValue(getState());
       if (value.equals(existing)) continue;
-      var.cell.setValue(value.castTo(var.getDeclaredType()));
-      dependants.addAll(var.dependants);
+      Value cast = value.castTo(var.getDeclaredType());
+      var.cell.setValue(getState(), cast);
+      var.collectAffected(existing, cast, dependants);
     }
 
     for (Cell dependant : dependants) {
-      dependant.setDirty(true);
+      dependant.setDirty(getState(), true);
     }
 
-    for (Cell dependant : dependants) {
-      Stack stack = new Stack();
-      stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-      Interpreter.evaluateCell(dependant, stack, getEvaluationContext());
-    }
+    evaluateDependants(dependants);
 
   }
 
@@ -968,21 +1100,18 @@ public class Runtime {
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
 
       // if there is no change in value, there's no need to re-evaluate anything
-      Value existing = var.cell.getValue();
+      Value existing = var.cell.getValue(getState());
       if (value.equals(existing)) continue;
-      var.cell.setValue(value.castTo(var.getDeclaredType()));
-      dependants.addAll(var.dependants);
+      Value cast = value.castTo(var.getDeclaredType());
+      var.cell.setValue(getState(), cast);
+      var.collectAffected(existing, cast, dependants);
     }
 
     for (Cell dependant : dependants) {
-      dependant.setDirty(true);
+      dependant.setDirty(getState(), true);
     }
 
-    for (Cell dependant : dependants) {
-      Stack stack = new Stack();
-      stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-      Interpreter.evaluateCell(dependant, stack, getEvaluationContext());
-    }
+    evaluateDependants(dependants);
 
   }
 
@@ -1005,21 +1134,18 @@ public class Runtime {
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
 
       // if there is no change in value, there's no need to re-evaluate anything
-      Value existing = var.cell.getValue();
+      Value existing = var.cell.getValue(getState());
       if (value.equals(existing)) continue;
-      var.cell.setValue(value.castTo(var.getDeclaredType()));
-      dependants.addAll(var.dependants);
+      Value cast = value.castTo(var.getDeclaredType());
+      var.cell.setValue(getState(), cast);
+      var.collectAffected(existing, cast, dependants);
     }
 
     for (Cell dependant : dependants) {
-      dependant.setDirty(true);
+      dependant.setDirty(getState(), true);
     }
 
-    for (Cell dependant : dependants) {
-      Stack stack = new Stack();
-      stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-      Interpreter.evaluateCell(dependant, stack, getEvaluationContext());
-    }
+    evaluateDependants(dependants);
 
   }
 
@@ -1029,21 +1155,37 @@ public class Runtime {
     if (!var.isProvided()) throw new UnsupportedOperationException("Only vars declared as provided can change.");
 
     // if there is no change in value, there's no need to re-evaluate anything
-    Value existing = var.cell.getValue();
+    Value existing = var.cell.getValue(getState());
     if (value.equals(existing)) return;
 
-    var.cell.setValue(value.castTo(var.getDeclaredType()));
+    Value cast = value.castTo(var.getDeclaredType());
+    var.cell.setValue(getState(), cast);
+
+    HashSet<Cell> dependants = new HashSet<>();
+    var.collectAffected(existing, cast, dependants);
+
+    for (Cell dependant : dependants) {
+      dependant.setDirty(getState(), true);
+    }
+
+    evaluateDependants(dependants);
+
+  }
 
-    for (Cell dependant : var.dependants) {
-      dependant.setDirty(true);
+  private void evaluateDependants(Collection<Cell> dependants){
+
+    context.startBudget();
+
+    if (context.getEvaluationPool() != null){
+      runtimeSet.getParallelEvaluator().evaluate(dependants, context);
+      return;
     }
 
-    for (Cell dependant : var.dependants) {
+    for (Cell dependant : dependants) {
       Stack stack = new Stack();
       stack.push(new StackEntry(dependant.getSymbol().getNode(), dependant, Collections.emptyMap()));
-      Interpreter.evaluateCell(dependant, stack, getEvaluationContext());
+      Interpreter.evaluateCell(dependant, stack, context);
     }
-
   }
 
   private void setVar(Runtime.Var var, Value value){
@@ -1051,7 +1193,7 @@ public class Runtime {
     Objects.requireNonNull(value, "Value cannot be null, use Values.NIL instead");
     if (!var.isProvided()) throw new UnsupportedOperationException("Only vars declared as provided can change.");
 
-    var.cell.setValue(value.castTo(var.getDeclaredType()));
+    var.cell.setValue(getState(), value.castTo(var.getDeclaredType()));
 
   }
 
@@ -1071,7 +1213,7 @@ public class Runtime {
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
       dependants.addAll(var.dependants);
     }
-    return new UpdateBatch(vars, dependants.toArray(new Cell[0]), getEvaluationContext());
+    return new UpdateBatch(vars, dependants.toArray(new Cell[0]), runtimeSet, getEvaluationContext());
   }
 
   public ChangeSensitiveUpdateBatch createChangeSensitiveUpdateBatch(Runtime.Var[] vars){
@@ -1080,7 +1222,7 @@ public class Runtime {
       Var var = vars[i];
       if (!var.isProvided()) throw new UnsupportedOperationException("index: "+i+" only vars declared as provided can change.");
     }
-    return new ChangeSensitiveUpdateBatch(vars, getEvaluationContext());
+    return new ChangeSensitiveUpdateBatch(vars, runtimeSet, getEvaluationContext());
   }
 
 }
@@ -0,0 +1,171 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.runtime;
+
+import com.twineworks.tweakflow.lang.analysis.visitors.AExpressionDescendingVisitor;
+import com.twineworks.tweakflow.lang.ast.SymbolNode;
+import com.twineworks.tweakflow.lang.ast.expressions.ContainerAccessNode;
+import com.twineworks.tweakflow.lang.ast.expressions.ExpressionNode;
+import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.interpreter.Interpreter;
+import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
+import com.twineworks.tweakflow.lang.interpreter.ops.ExpressionOp;
+import com.twineworks.tweakflow.lang.scope.Symbol;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// a var that directly references a provided var, along with the constant key paths it reads from it
+// if any reference to the provided var is not a constant key path access, the dependant reads the whole value
+final class VarAccess {
+
+  private final Cell cell;
+  private final List<Cell> downstream;
+  private final ListValue[] paths;
+
+  private VarAccess(Cell cell, List<Cell> downstream, ListValue[] paths) {
+    this.cell = cell;
+    this.downstream = downstream;
+    this.paths = paths;
+  }
+
+  static VarAccess of(Symbol var, ExpressionNode dependantExpression, Cell cell, List<Cell> downstream){
+    PathCollector collector = new PathCollector(var);
+    dependantExpression.accept(collector);
+    ListValue[] paths = collector.whole ? null : collector.paths.toArray(new ListValue[0]);
+    return new VarAccess(cell, downstream, paths);
+  }
+
+  Cell getCell() {
+    return cell;
+  }
+
+  // cells depending on this dependant, they must re-evaluate whenever it does
+  List<Cell> getDownstream() {
+    return downstream;
+  }
+
+  boolean readsWholeValue(){
+    return paths == null;
+  }
+
+  boolean readsChange(Value existing, Value value){
+    if (paths == null || existing == null) return true;
+    for (ListValue path : paths) {
+      if (!at(existing, path).equals(at(value, path))) return true;
+    }
+    return false;
+  }
+
+  // navigates the path like container access does, stopping early where it cannot tell
+  // what the access would do, the value found there is then compared as a whole
+  private static Value at(Value value, ListValue path){
+    Value current = value;
+    for (Value key : path) {
+      if (current == Values.NIL) return Values.NIL;
+      if (current.isDict()){
+        current = current.dict().get(key.castTo(Types.STRING).string());
+      }
+      else if (current.isList() && key.isLongNum()){
+        current = current.list().get(key.longValue());
+      }
+      else {
+        return current;
+      }
+    }
+    return current;
+  }
+
+  private static final class PathCollector extends AExpressionDescendingVisitor {
+
+    private final Symbol var;
+    private final List<ListValue> paths = new ArrayList<>();
+    private boolean whole;
+
+    PathCollector(Symbol var) {
+      this.var = var;
+    }
+
+    private boolean refersToVar(ExpressionNode node){
+      if (!(node instanceof ReferenceNode)) return false;
+      SymbolNode target = ((ReferenceNode) node).getReferencedSymbol().getTargetNode();
+      return target.getScope().getSymbols().get(target.getSymbolName()) == var;
+    }
+
+    private ListValue constantKeys(ContainerAccessNode node){
+      ExpressionOp op = node.getKeysExpression().getOp();
+      if (op == null || !op.isConstant()) return null;
+      try {
+        ListValue keys = Interpreter.evaluateInEmptyScope(op).list();
+        for (Value key : keys) {
+          if (!key.isString() && !key.isLongNum()) return null;
+        }
+        return keys;
+      }
+      catch (LangException e){
+        return null;
+      }
+    }
+
+    @Override
+    public ExpressionNode visit(ContainerAccessNode node) {
+
+      // collect nested accesses like x[:a][:b] into a single path
+      ArrayList<ListValue> segments = new ArrayList<>();
+      ExpressionNode current = node;
+      while (current instanceof ContainerAccessNode){
+        ContainerAccessNode access = (ContainerAccessNode) current;
+        ListValue keys = constantKeys(access);
+        if (keys == null) break;
+        segments.add(0, keys);
+        current = access.getContainerExpression();
+      }
+
+      if (refersToVar(current)){
+        ListValue path = new ListValue();
+        for (ListValue segment : segments) {
+          path = path.appendAll(segment);
+        }
+        paths.add(path);
+        return node;
+      }
+
+      return super.visit(node);
+    }
+
+    @Override
+    public ExpressionNode visit(ReferenceNode node) {
+      if (refersToVar(node)){
+        whole = true;
+      }
+      return node;
+    }
+  }
+}
@@ -24,6 +24,9 @@
 
 package com.twineworks.tweakflow.lang.scope;
 
+import com.twineworks.collections.shapemap.ConstShapeMap;
+import com.twineworks.collections.shapemap.ShapeKey;
+
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -35,6 +38,7 @@ public class LocalScope implements Scope {
   private Scope enclosingScope;
   private final ScopeType scopeType;
   private final boolean ordered;
+  private volatile ConstShapeMap<?> frameTemplate;
 
   public LocalScope(Scope enclosingScope) {
     this.enclosingScope = enclosingScope;
@@ -98,4 +102,26 @@ public class LocalScope implements Scope {
   public void setDependencyOrderedSymbols(List<Symbol> dependencyOrderedSymbols) {
     this.dependencyOrderedSymbols = dependencyOrderedSymbols;
   }
+
+  // scopes that get a memory frame at runtime are laid out once, frames are copies
+  // of the template, and each symbol lives at a fixed slot of the template's storage
+  public LocalScope layoutFrame() {
+    if (frameTemplate == null) {
+      frameTemplate = new ConstShapeMap<>(ShapeKey.getAll(symbols.keySet()));
+    }
+    return this;
+  }
+
+  public boolean isFrame() {
+    return frameTemplate != null;
+  }
+
+  public ConstShapeMap<?> getFrameTemplate() {
+    layoutFrame();
+    return frameTemplate;
+  }
+
+  public int getFrameSlot(String name) {
+    return getFrameTemplate().shape.idxFor(ShapeKey.get(name));
+  }
 }
@@ -66,6 +66,60 @@ public class Scopes {
 
   }
 
+  // number of runtime frames between a frame evaluating in given scope and the frame holding given symbol
+  // -1 if the symbol does not live in a frame, or frames cannot be walked statically to reach it
+  static public int frameDepth(Scope scope, Symbol symbol) {
+
+    Scope symbolScope = symbol.getScope();
+    if (!(symbolScope instanceof LocalScope) || !((LocalScope) symbolScope).isFrame()) return -1;
+
+    int depth = 0;
+    Scope currentScope = scope;
+    while (currentScope != symbolScope) {
+      if (!(currentScope instanceof LocalScope)) return -1;
+      LocalScope localScope = (LocalScope) currentScope;
+      if (localScope.isFrame()) {
+        // function frames link to the caller's space, not the lexical one
+        if (localScope.getScopeType() == ScopeType.FUNCTION) return -1;
+        depth++;
+      }
+      // scopes without symbols do not necessarily get a frame, catch without bindings for example
+      else if (!localScope.getSymbols().isEmpty()) {
+        return -1;
+      }
+      currentScope = currentScope.getEnclosingScope();
+    }
+
+    return depth;
+  }
+
+  // number of frames between scope and the nearest enclosing scope that has a fixed memory space
+  // -1 if a function frame is in the way, since it links to the caller's space
+  static public int staticSpaceDepth(Scope scope) {
+
+    int depth = 0;
+    Scope currentScope = scope;
+    while (currentScope instanceof LocalScope) {
+      LocalScope localScope = (LocalScope) currentScope;
+      if (localScope.isFrame()) {
+        if (localScope.getScopeType() == ScopeType.FUNCTION) return -1;
+        depth++;
+      }
+      else if (!localScope.getSymbols().isEmpty()) {
+        break;
+      }
+      currentScope = currentScope.getEnclosingScope();
+    }
+
+    return depth;
+  }
+
+  // symbols outside of frames live in memory spaces built once per runtime
+  static public boolean isStatic(Symbol symbol) {
+    Scope symbolScope = symbol.getScope();
+    return !(symbolScope instanceof LocalScope) || !((LocalScope) symbolScope).isFrame();
+  }
+
   static public Symbol resolve(ReferenceNode node) {
     return resolve(node, false, null);
   }
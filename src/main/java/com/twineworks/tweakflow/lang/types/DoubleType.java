@@ -163,7 +163,7 @@ final public class DoubleType implements Type {
     }
 
     if (srcType == Types.LONG){
-      return Values.make((double) x.longNum());
+      return Values.make((double) x.longValue());
     }
 
     if (srcType == Types.DECIMAL){
@@ -175,18 +175,20 @@ final public class DoubleType implements Type {
 
   @Override
   public int valueHash(Value x) {
-      return x.value().hashCode();
+      // 0.0 and -0.0 are identical
+      double d = x.doubleValue();
+      return Double.hashCode(d == 0.0 ? 0.0 : d);
   }
 
   @Override
   public boolean valueEquals(Value x, Value o) {
 
     // doubles may be equal to other doubles and can equal longs and decimals
-    double d = x.doubleNum();
+    double d = x.doubleValue();
 
     //  comparing to a double?
     if (o.type() == this){
-      return d == o.doubleNum();
+      return d == o.doubleValue();
     }
     // NaN and Infinities are not equal to any value of any other type
     else if (!Double.isFinite(d)){
@@ -194,7 +196,7 @@ final public class DoubleType implements Type {
     }
     // comparing to a long?
     else if (o.type() == Types.LONG){
-      return d == (double) o.longNum();
+      return d == (double) o.longValue();
     }
     // comparing to a decimal?
     else if (o.type() == Types.DECIMAL){
@@ -206,7 +208,7 @@ final public class DoubleType implements Type {
 
   @Override
   public boolean valueAndTypeEquals(Value x, Value o) {
-    return o.type() == this && ((double) x.doubleNum() == (double) o.doubleNum());
+    return o.type() == this && (x.doubleValue() == o.doubleValue());
   }
 
   @Override
@@ -214,8 +216,8 @@ final public class DoubleType implements Type {
     if (x == o) return true;
     if (o.type() != this) return false;
 
-    double d_x = x.doubleNum();
-    double d_o = o.doubleNum();
+    double d_x = x.doubleValue();
+    double d_o = o.doubleValue();
     return d_x == d_o || Double.isNaN(d_x) && Double.isNaN(d_o);
   }
 
@@ -207,17 +207,8 @@ final public class ListType implements Type {
     if (x == o) return true;
     if (x.type() != this) return false;
     if (o.type() != this) return false;
-    ListValue xList = x.list();
-    ListValue oList = o.list();
-    if (xList.size() != oList.size()) return false;
-    Iterator<Value> xi = xList.iterator();
-    Iterator<Value> oi = oList.iterator();
-    // lists have same size, only one iterator need be queried for
-    // hasNext
-    while(xi.hasNext()){
-      if (!xi.next().valueIdentical(oi.next())) return false;
-    }
-    return true;
+    // compares cached hash codes first, and skips shared items
+    return x.list().equals(o.list());
   }
 
   @Override
@@ -140,7 +140,7 @@ final public class LongType implements Type {
     Type srcType = x.type();
 
     if (srcType == Types.DOUBLE){
-      return Values.make(x.doubleNum().longValue());
+      return Values.make((long) x.doubleValue());
     }
 
     if (srcType == Types.DECIMAL){
@@ -176,13 +176,13 @@ final public class LongType implements Type {
   @Override
   public int valueHash(Value x) {
     // always share the hashcode with doubles
-    return Double.hashCode((double)x.longNum());
+    return Double.hashCode((double) x.longValue());
   }
 
   @Override
   public boolean valueEquals(Value x, Value o) {
     if (o.type() == this){
-      return x.value().equals(o.longNum());
+      return x.longValue() == o.longValue();
     }
     if (o.type() == Types.DOUBLE){
       // the double type implements equality check between doubles and longs
@@ -197,7 +197,7 @@ final public class LongType implements Type {
 
   @Override
   public boolean valueAndTypeEquals(Value x, Value o) {
-    return (o.type() == this) && x.longNum().equals(o.longNum());
+    return (o.type() == this) && x.longValue() == o.longValue();
   }
 
   @Override
@@ -26,12 +26,15 @@ package com.twineworks.tweakflow.lang.values;
 
 import com.twineworks.tweakflow.util.LangUtil;
 
+import java.io.Serializable;
 import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeFormatterBuilder;
 import java.util.Objects;
 
-public class DateTimeValue {
+public class DateTimeValue implements Serializable {
+
+  private static final long serialVersionUID = 1L;
 
   private final Instant instant;
   private final LocalDateTime local;
@@ -0,0 +1,114 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import com.twineworks.collections.champ.ChampMap;
+import com.twineworks.collections.champ.TransientChampMap;
+
+import java.lang.ref.WeakReference;
+import java.util.*;
+
+// key layout shared by small dicts with a statically known key set
+// keys are kept in the iteration order of the equivalent champ map, so
+// shaped and champ dicts iterate, print and serialize identically
+public final class DictShape {
+
+  public static final int MAX_SIZE = 16;
+
+  // shapes are shared by all dicts with the same key set
+  // the table holds shapes weakly, so shapes of discarded programs are collected
+  // shapes are made when ops are built, not during evaluation
+  private static final WeakHashMap<List<String>, WeakReference<DictShape>> shapes = new WeakHashMap<>();
+
+  // the shape's key in the table, keeps its entry alive while the shape is in use
+  private final List<String> keyList;
+  private final String[] keys;
+  private final Set<String> keySet;
+
+  private DictShape(String[] keys) {
+    this.keys = keys;
+    this.keyList = Arrays.asList(keys);
+    this.keySet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(keys)));
+  }
+
+  // returns null if keys are not distinct, or too many for a shape
+  public static DictShape of(String ... keys){
+
+    if (keys.length == 0 || keys.length > MAX_SIZE) return null;
+
+    TransientChampMap<String, Value> t = new TransientChampMap<>();
+    for (String key : keys) {
+      t.set(key, Values.NIL);
+    }
+    ChampMap<String, Value> map = t.freeze();
+    if (map.size() != keys.length) return null;
+
+    String[] ordered = new String[keys.length];
+    Iterator<String> iter = map.keyIterator();
+    int i = 0;
+    while (iter.hasNext()){
+      ordered[i++] = iter.next();
+    }
+    return intern(ordered);
+  }
+
+  private static DictShape intern(String[] keys){
+    List<String> keyList = Arrays.asList(keys);
+    synchronized (shapes){
+      WeakReference<DictShape> ref = shapes.get(keyList);
+      DictShape shape = ref == null ? null : ref.get();
+      if (shape == null){
+        shape = new DictShape(keys);
+        shapes.remove(keyList);
+        shapes.put(shape.keyList, new WeakReference<>(shape));
+      }
+      return shape;
+    }
+  }
+
+  public int size(){
+    return keys.length;
+  }
+
+  public int indexOf(String key){
+    // keys from constant expressions are frequently identical
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i] == key) return i;
+    }
+    for (int i = 0; i < keys.length; i++) {
+      if (keys[i].equals(key)) return i;
+    }
+    return -1;
+  }
+
+  public String keyAt(int index){
+    return keys[index];
+  }
+
+  Set<String> keySet(){
+    return keySet;
+  }
+
+}
@@ -33,10 +33,27 @@ import java.util.*;
 
 final public class DictValue {
 
-  final ChampMap<String, Value> map;
+  // either map is set, or shape and slots
+  // shaped dicts are promoted to a champ map when keys are added or removed
+  private final ChampMap<String, Value> map;
+  private final DictShape shape;
+  private final Value[] slots;
+
+  // cached hash code of shaped dicts, champ maps maintain their own
+  private int hash;
 
   DictValue(ChampMap<String, Value> map) {
     this.map = map;
+    this.shape = null;
+    this.slots = null;
+  }
+
+  // takes ownership of slots, which must hold a non-null value per key of the shape
+  public DictValue(DictShape shape, Value[] slots) {
+    if (slots.length != shape.size()) throw new IllegalArgumentException("slots do not match shape");
+    this.map = null;
+    this.shape = shape;
+    this.slots = slots;
   }
 
   public DictValue() {
@@ -47,33 +64,63 @@ final public class DictValue {
     TransientChampMap<String, Value> t = new TransientChampMap<>();
     t.setAll(in);
     map = t.freeze();
+    shape = null;
+    slots = null;
   }
 
   public DictValue(Map.Entry<String, Value>[] entries) {
     TransientChampMap<String, Value> t = new TransientChampMap<>();
     t.setAll(Arrays.asList(entries));
     map = t.freeze();
+    shape = null;
+    slots = null;
+  }
+
+  ChampMap<String, Value> champ() {
+    if (map != null) return map;
+    TransientChampMap<String, Value> t = new TransientChampMap<>();
+    for (int i = 0; i < slots.length; i++) {
+      t.set(shape.keyAt(i), slots[i]);
+    }
+    return t.freeze();
+  }
+
+  public DictShape shape() {
+    return shape;
+  }
+
+  public Value slot(int index) {
+    return slots[index];
   }
 
   public int size() {
+    if (map == null) return slots.length;
     return map.size();
   }
 
   public boolean isEmpty() {
+    if (map == null) return false;
     return map.isEmpty();
   }
 
   public boolean containsKey(String key) {
+    if (map == null) return shape.indexOf(key) >= 0;
     return map.containsKey(key);
   }
 
   public boolean containsValue(Value value) {
+    if (map == null) {
+      for (Value slot : slots) {
+        if (slot.equals(value)) return true;
+      }
+      return false;
+    }
     return map.containsValue(value);
   }
 
   public HashMap<String, Value> toHashMap() {
     HashMap<String, Value> ret = new HashMap<>();
-    Iterator<Map.Entry<String, Value>> iter = map.entryIterator();
+    Iterator<Map.Entry<String, Value>> iter = entryIterator();
     while(iter.hasNext()){
       Map.Entry<String, Value> e = iter.next();
       ret.put(e.getKey(), e.getValue());
@@ -82,20 +129,34 @@ final public class DictValue {
   }
 
   public DictValue put(String key, Value value) {
-    return new DictValue(map.set(key, value));
+    if (map == null){
+      int idx = shape.indexOf(key);
+      if (idx >= 0){
+        Value[] updated = slots.clone();
+        updated[idx] = value;
+        DictValue ret = new DictValue(shape, updated);
+        if (hash != 0){
+          int keyHash = key.hashCode();
+          ret.hash = hash - (keyHash ^ slots[idx].hashCode()) + (keyHash ^ value.hashCode());
+        }
+        return ret;
+      }
+    }
+    return new DictValue(champ().set(key, value));
   }
 
   public DictValue putAll(Map<String, Value> entries) {
-    return new DictValue(map.setAll(entries));
+    return new DictValue(champ().setAll(entries));
   }
 
   public DictValue delete(String key) {
-    return new DictValue(map.remove(key));
+    if (map == null && shape.indexOf(key) < 0) return this;
+    return new DictValue(champ().remove(key));
   }
 
   public DictValue deleteAll(Iterable<? extends String> keys) {
 
-    TransientChampMap<String, Value> t = new TransientChampMap<>(map);
+    TransientChampMap<String, Value> t = new TransientChampMap<>(champ());
     for (String key : keys) {
       t.remove(key);
     }
@@ -104,28 +165,56 @@ final public class DictValue {
   }
 
   public DictValue deleteAll(DictValue dict) {
-    return new DictValue(map.removeAll(dict.keys()));
+    return new DictValue(champ().removeAll(dict.keys()));
   }
 
   public DictValue putAll(DictValue dict) {
-    return new DictValue(map.setAll(dict.map));
+    // all keys are replaced
+    if (map == null && dict.shape == shape) return dict;
+    return new DictValue(champ().setAll(dict.champ()));
   }
 
   public Value get(String key) {
-    Value v = map.get(key);
+    Value v;
+    if (map == null){
+      int idx = shape.indexOf(key);
+      if (idx < 0) return Values.NIL;
+      v = slots[idx];
+    }
+    else {
+      v = map.get(key);
+    }
     if (v == null) return Values.NIL;
     return v;
   }
 
+  // returns null if key is not present
+  private Value find(String key) {
+    if (map == null){
+      int idx = shape.indexOf(key);
+      return idx < 0 ? null : slots[idx];
+    }
+    return map.get(key);
+  }
+
   public ListValue values() {
+    if (map == null) return new ListValue(slots);
     return new ListValue(map.values().toArray());
   }
 
   public Set<String> keys() {
+    if (map == null) return shape.keySet();
     return map.keySet();
   }
 
   public void getAll(String[] keys, Value[] values){
+    if (map == null){
+      for (int i = 0; i < slots.length; i++) {
+        keys[i] = shape.keyAt(i);
+        values[i] = slots[i];
+      }
+      return;
+    }
     Iterator<ChampEntry<String, Value>> iter = map.champEntryIterator();
     int i=0;
     while(iter.hasNext()){
@@ -137,14 +226,34 @@ final public class DictValue {
   }
 
   public Iterator<Map.Entry<String, Value>> entryIterator(){
+    if (map == null){
+      return new Iterator<Map.Entry<String, Value>>() {
+        private int i = 0;
+
+        @Override
+        public boolean hasNext() {
+          return i < slots.length;
+        }
+
+        @Override
+        public Map.Entry<String, Value> next() {
+          if (i >= slots.length) throw new NoSuchElementException();
+          Map.Entry<String, Value> e = new AbstractMap.SimpleImmutableEntry<>(shape.keyAt(i), slots[i]);
+          i++;
+          return e;
+        }
+      };
+    }
     return map.entryIterator();
   }
 
   public Iterator<String> keyIterator(){
+    if (map == null) return shape.keySet().iterator();
     return map.keyIterator();
   }
 
   public Iterator<Value> valueIterator(){
+    if (map == null) return Collections.unmodifiableList(Arrays.asList(slots)).iterator();
     return map.valueIterator();
   }
 
@@ -154,7 +263,21 @@ final public class DictValue {
     if (o == null) return false;
     if (o.getClass() == getClass()) {
       DictValue that = (DictValue) o;
-      return map.equals(that.map);
+      if (map != null && that.map != null){
+        return map.equals(that.map);
+      }
+      if (size() != that.size()) return false;
+      if (hashCode() != that.hashCode()) return false;
+      if (shape != null && shape == that.shape){
+        return Arrays.equals(slots, that.slots);
+      }
+      Iterator<Map.Entry<String, Value>> iter = entryIterator();
+      while (iter.hasNext()){
+        Map.Entry<String, Value> e = iter.next();
+        Value other = that.find(e.getKey());
+        if (other == null || !other.equals(e.getValue())) return false;
+      }
+      return true;
     } else {
       return false;
     }
@@ -162,6 +285,17 @@ final public class DictValue {
   }
 
   public int hashCode() {
+    if (map == null){
+      // same as the equivalent champ map
+      int h = hash;
+      if (h == 0){
+        for (int i = 0; i < slots.length; i++) {
+          h += shape.keyAt(i).hashCode() ^ slots[i].hashCode();
+        }
+        hash = h;
+      }
+      return h;
+    }
     return map.hashCode();
   }
 }
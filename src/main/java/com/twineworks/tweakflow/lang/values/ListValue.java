@@ -27,42 +27,250 @@ package com.twineworks.tweakflow.lang.values;
 import com.twineworks.collections.trie.TrieList;
 import com.twineworks.tweakflow.lang.errors.LangError;
 import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.types.Types;
 
 import java.util.*;
 
 final public class ListValue implements Iterable<Value> {
 
-  private final TrieList vec;
+  // lists of at least this many longs, or this many doubles, are kept in packed arrays
+  // arrays are never written to, point updates turn the list into a generic trie list
+  static final int PACKING_THRESHOLD = 16;
 
-  private ListValue(TrieList vec) {
-    this.vec = vec;
+  // a TrieList of values, a Value[], a long[], a double[], or a LongRange
+  private final Object store;
+
+  // cached hash code, 0 if not known yet
+  // derived lists carry it over where that is cheaper than rehashing them
+  private int hash;
+
+  // consecutive longs, computed on access
+  private static final class LongRange {
+
+    private final long first;
+    private final long step; // 1 or -1
+    private final int size;
+
+    private LongRange(long first, long step, int size) {
+      this.first = first;
+      this.step = step;
+      this.size = size;
+    }
+
+    private long at(int index) {
+      return first + step * index;
+    }
+
+    private LongRange slice(int from, int to) {
+      return new LongRange(at(from), step, to - from);
+    }
+
+    private LongRange reverse() {
+      return new LongRange(at(size - 1), -step, size);
+    }
+
+    // index of given number in range, searching from start to end exclusive, or backwards if start > end
+    private int indexOf(long n, int start, int end) {
+      long low = Math.min(first, at(size - 1));
+      long high = Math.max(first, at(size - 1));
+      if (n < low || n > high) return -1;
+      int idx = (int) ((n - first) * step);
+      if (start <= end) {
+        return idx >= start && idx < end ? idx : -1;
+      }
+      return idx <= start && idx > end ? idx : -1;
+    }
+  }
+
+  private ListValue(Object store, int hash) {
+    this.store = store;
+    this.hash = hash;
+  }
+
+  // a list over given store, which it takes ownership of
+  private static ListValue ofStore(Object store) {
+    return new ListValue(store, 0);
   }
 
   public ListValue() {
-    this(TrieList.empty());
+    this(TrieList.empty(), 0);
   }
 
   public ListValue(List<Value> values) {
-    this.vec = TrieList.empty().addAll(values.toArray());
+    this(values.toArray());
   }
 
   public ListValue(Value[] values) {
-    this.vec = TrieList.empty().addAll(values);
+    this((Object[]) values);
   }
 
   ListValue(Object[] values) {
-    this.vec = TrieList.empty().addAll(values);
+    this(storeOf(values), 0);
   }
 
   public ListValue(Collection<Value> values) {
-    this.vec = TrieList.empty().addAll(values.toArray());
+    this(values.toArray());
+  }
+
+  // takes ownership of given array, which must not contain nulls
+  static ListValue wrap(Value[] values) {
+    return ofStore(values);
+  }
+
+  // takes ownership of given array, which must not contain nulls, packing it if possible
+  private static ListValue ofOwned(Value[] values) {
+    Object packed = packedStoreOf(values);
+    return ofStore(packed == null ? values : packed);
+  }
+
+  private static Object storeOf(Object[] values) {
+    Object packed = packedStoreOf(values);
+    if (packed != null) return packed;
+    Value[] ret = new Value[values.length];
+    for (int i = 0; i < values.length; i++) {
+      Value value = (Value) values[i];
+      ret[i] = value == null ? Values.NIL : value;
+    }
+    return ret;
+  }
+
+  // a long[] or double[] holding given values if they can be packed, null otherwise
+  private static Object packedStoreOf(Object[] values) {
+    if (isPackable(values, Types.LONG)){
+      long[] longs = new long[values.length];
+      for (int i = 0; i < values.length; i++) {
+        longs[i] = ((Value) values[i]).longValue();
+      }
+      return longs;
+    }
+    if (isPackable(values, Types.DOUBLE)){
+      double[] doubles = new double[values.length];
+      for (int i = 0; i < values.length; i++) {
+        doubles[i] = ((Value) values[i]).doubleValue();
+      }
+      return doubles;
+    }
+    return null;
+  }
+
+  private static boolean isPackable(Object[] values, Type type){
+    if (values.length < PACKING_THRESHOLD) return false;
+    for (Object value : values) {
+      if (!(value instanceof Value) || ((Value) value).type() != type) return false;
+    }
+    return true;
+  }
+
+  public static ListValue ofLongs(long[] values) {
+    return packed(Arrays.copyOf(values, values.length));
+  }
+
+  public static ListValue ofDoubles(double[] values) {
+    return packed(Arrays.copyOf(values, values.length));
+  }
+
+  // takes ownership of given array
+  static ListValue packed(long[] values) {
+    if (values.length >= PACKING_THRESHOLD){
+      return ofStore(values);
+    }
+    TrieList ret = TrieList.empty();
+    for (long value : values) {
+      ret = ret.add(Values.make(value));
+    }
+    return ofStore(ret);
+  }
+
+  // takes ownership of given array
+  static ListValue packed(double[] values) {
+    if (values.length >= PACKING_THRESHOLD){
+      return ofStore(values);
+    }
+    TrieList ret = TrieList.empty();
+    for (double value : values) {
+      ret = ret.add(Values.make(value));
+    }
+    return ofStore(ret);
+  }
+
+  // the longs from first to last inclusive, counting down if last < first
+  static ListValue range(long first, long last) {
+    long size = Math.abs(last - first) + 1;
+    if (size >= Integer.MAX_VALUE || size <= 0) throw new IllegalArgumentException("Cannot make range exceeding: " + Integer.MAX_VALUE + " items");
+    return ofStore(new LongRange(first, last < first ? -1 : 1, (int) size));
+  }
+
+  // packed lists hold longs or doubles only, and can be read without boxing
+
+  public boolean isPackedLongs() {
+    return store instanceof long[] || store instanceof LongRange;
+  }
+
+  public boolean isPackedDoubles() {
+    return store instanceof double[];
+  }
+
+  // ranges are packed longs that do not keep their elements in memory
+  public boolean isRange() {
+    return store instanceof LongRange;
+  }
+
+  public long longAt(int index) {
+    if (store instanceof LongRange){
+      LongRange range = (LongRange) store;
+      if (index < 0 || index >= range.size) throw new IndexOutOfBoundsException("index: "+index+" size: "+range.size);
+      return range.at(index);
+    }
+    return ((long[]) store)[index];
+  }
+
+  public double doubleAt(int index) {
+    return ((double[]) store)[index];
+  }
+
+  private boolean isTrie() {
+    return store instanceof TrieList;
+  }
+
+  private TrieList trie() {
+    if (store instanceof TrieList) return (TrieList) store;
+    if (store instanceof Value[]) return TrieList.empty().addAll((Value[]) store);
+
+    TrieList ret = TrieList.empty();
+    if (store instanceof double[]){
+      for (double d : (double[]) store) {
+        ret = ret.add(Values.make(d));
+      }
+    }
+    else {
+      for (int i = 0, size = size(); i < size; i++) {
+        ret = ret.add(Values.make(longAt(i)));
+      }
+    }
+    return ret;
+  }
+
+  // sub list of non-trie store
+  private ListValue subList(int from, int to) {
+    if (from == 0 && to == size()) return this;
+    if (from >= to) return new ListValue();
+    if (store instanceof LongRange) return ofStore(((LongRange) store).slice(from, to));
+    if (store instanceof Value[]) return ofOwned(Arrays.copyOfRange((Value[]) store, from, to));
+    if (store instanceof long[]) return packed(Arrays.copyOfRange((long[]) store, from, to));
+    return packed(Arrays.copyOfRange((double[]) store, from, to));
   }
 
   public Value get(long index) {
-    if (index >= 0 && index < vec.size()){
-      Value value = (Value) vec.get((int)index);
-      if (value == null) return Values.NIL;
-      return value;
+    if (index >= 0 && index < size()){
+      if (store instanceof TrieList){
+        Value value = (Value) ((TrieList) store).get((int)index);
+        if (value == null) return Values.NIL;
+        return value;
+      }
+      if (store instanceof Value[]) return ((Value[]) store)[(int) index];
+      if (store instanceof double[]) return Values.make(((double[]) store)[(int) index]);
+      return Values.make(longAt((int) index));
     }
 
     return Values.NIL;
@@ -72,154 +280,375 @@ final public class ListValue implements Iterable<Value> {
 
     if (index > Integer.MAX_VALUE || index < 0L) throw new LangException(LangError.INDEX_OUT_OF_BOUNDS, "cannot set index "+index);
 
-    TrieList ret = vec;
+    TrieList ret = trie();
 
-    if (index >= vec.size()){
+    if (index >= ret.size()){
       ret = ret.padTo((int)index, Values.NIL).add(value);
+      return ofStore(ret);
     }
-    else{
-      ret = ret.set((int)index, value);
+
+    ListValue updated = ofStore(ret.set((int)index, value));
+    if (hash != 0){
+      Value old = (Value) ret.get((int) index);
+      updated.hash = hash + (value.hashCode() - old.hashCode()) * pow31(ret.size() - 1 - (int) index);
     }
+    return updated;
+  }
 
-    return new ListValue(ret);
+  // 31^n with int overflow, as used by list hash codes
+  private static int pow31(int n){
+    int result = 1;
+    int base = 31;
+    while (n > 0){
+      if ((n & 1) == 1) result *= base;
+      base *= base;
+      n >>= 1;
+    }
+    return result;
   }
 
   public boolean isEmpty() {
-    return vec.isEmpty();
+    return size() == 0;
   }
 
   public ListValue append(Value v) {
-    return new ListValue(vec.add(v));
+    ListValue appended = ofStore(trie().add(v));
+    if (hash != 0 && v != null){
+      appended.hash = 31 * hash + v.hashCode();
+    }
+    return appended;
   }
 
   public ListValue appendAll(List<? extends Value> values) {
-    return new ListValue(vec.addAll(values.toArray()));
+    return appendAll(values.toArray(new Value[0]));
   }
 
   public ListValue appendAll(Value[] values) {
-    return new ListValue(vec.addAll(values));
+    if (isTrie() && !isEmpty()) return ofStore(trie().addAll(values));
+    return appendAll(new ListValue(values));
   }
 
   public ListValue appendAll(ListValue values) {
-    return new ListValue(vec.addAll(values.vec));
+    if (values.isEmpty()) return this;
+    if (isEmpty()) return values;
+
+    ListValue ret = concat(values);
+    if (hash != 0 && values.hash != 0){
+      int p = pow31(values.size());
+      ret.hash = hash * p + values.hash - p;
+    }
+    return ret;
+  }
+
+  // concatenates lists, appending to a dominant trie-backed first list shares its structure
+  public static ListValue concat(List<ListValue> lists) {
+
+    int count = lists.size();
+    if (count == 0) return new ListValue();
+
+    ListValue first = lists.get(0);
+    if (count == 1) return first;
+
+    long restSize = 0;
+    for (int i = 1; i < count; i++) {
+      restSize += lists.get(i).size();
+    }
+
+    if (first.isTrie() && first.size() >= restSize){
+      ListValue ret = first;
+      for (int i = 1; i < count; i++) {
+        ret = ret.appendAll(lists.get(i));
+      }
+      return ret;
+    }
+
+    TransientListValue t = new TransientListValue();
+    for (ListValue list : lists) {
+      t.appendAll(list);
+    }
+    return t.persistent();
+  }
+
+  private ListValue concat(ListValue values) {
+
+    // copying arrays pays off for appending large parts only
+    boolean copy = !isTrie() && (long) values.size() * 4 >= size();
+
+    if (store instanceof LongRange && values.store instanceof LongRange){
+      LongRange a = (LongRange) store;
+      LongRange b = (LongRange) values.store;
+      // continuing range
+      if (a.step == b.step && a.at(a.size-1) + a.step == b.first && (long) a.size + b.size < Integer.MAX_VALUE){
+        return ofStore(new LongRange(a.first, a.step, a.size + b.size));
+      }
+    }
+
+    if (copy && isPackedLongs() && values.isPackedLongs()){
+      int size = size();
+      long[] ret = new long[size + values.size()];
+      for (int i = 0; i < size; i++) {
+        ret[i] = longAt(i);
+      }
+      for (int i = 0, otherSize = values.size(); i < otherSize; i++) {
+        ret[size + i] = values.longAt(i);
+      }
+      return ofStore(ret);
+    }
+
+    if (copy && store instanceof double[] && values.store instanceof double[]){
+      double[] a = (double[]) store;
+      double[] b = (double[]) values.store;
+      double[] ret = Arrays.copyOf(a, a.length + b.length);
+      System.arraycopy(b, 0, ret, a.length, b.length);
+      return ofStore(ret);
+    }
+
+    if (copy && store instanceof Value[] && !values.isTrie()){
+      Value[] a = (Value[]) store;
+      Value[] ret = Arrays.copyOf(a, a.length + values.size());
+      for (int i = 0, size = values.size(); i < size; i++) {
+        ret[a.length + i] = values.get(i);
+      }
+      return ofOwned(ret);
+    }
+
+    return ofStore(trie().addAll(values.trie()));
   }
 
   public ListValue prepend(Value x) {
-    return new ListValue(vec.insert(0, x));
+    ListValue prepended = ofStore(trie().insert(0, x));
+    if (hash != 0 && x != null){
+      prepended.hash = hash + pow31(size()) * (30 + x.hashCode());
+    }
+    return prepended;
   }
 
   public ListValue padTo(long length, Value withValue) {
     if (length > Integer.MAX_VALUE) throw new LangException(LangError.INDEX_OUT_OF_BOUNDS, "cannot pad to length "+length);
-    return new ListValue(vec.padTo((int)length, withValue));
+    if (length <= size()) return this;
+    return ofStore(trie().padTo((int)length, withValue));
   }
   
   public ListValue insert(long idx, Value value) {
     if (idx >= Integer.MAX_VALUE) throw new LangException(LangError.INDEX_OUT_OF_BOUNDS, "cannot insert at index "+idx);
-    TrieList ret = vec;
-    if (idx > vec.size()){
+    TrieList ret = trie();
+    if (idx > ret.size()){
       ret = ret.padTo((int)idx, Values.NIL);
     }
 
     ret = ret.insert((int)idx, value);
 
-    return new ListValue(ret);
+    return ofStore(ret);
   }
 
   public ListValue delete(long idx) {
-    if (idx >= vec.size()) return this;
+    if (idx >= size()) return this;
     if (idx < 0) return this;
-    return new ListValue(vec.remove((int)idx));
+    return ofStore(trie().remove((int)idx));
   }
 
   public ListValue take(int n) {
-    return new ListValue(vec.slice(0, Math.min(n, vec.size())));
+    if (!isTrie()) return subList(0, Math.min(n, size()));
+    TrieList vec = trie();
+    return ofStore(vec.slice(0, Math.min(n, vec.size())));
   }
 
   public ListValue drop(int n) {
     if (n == 0) return this;
-    return new ListValue(vec.slice(Math.min(n, vec.size()), vec.size()));
+    if (!isTrie()) return subList(Math.min(n, size()), size());
+    TrieList vec = trie();
+    return ofStore(vec.slice(Math.min(n, vec.size()), vec.size()));
   }
 
   public ListValue init() {
-    if (vec.size() == 0){
+    if (size() == 0){
       return this;
     }
-    if (vec.size() == 1){
-      return new ListValue(TrieList.empty());
+    if (size() == 1){
+      return ofStore(TrieList.empty());
     }
-    return new ListValue(vec.slice(0, vec.size()-1));
+    if (!isTrie()) return subList(0, size()-1);
+    TrieList vec = trie();
+    return ofStore(vec.slice(0, vec.size()-1));
   }
 
   public ListValue tail() {
-    if (vec.size() == 0){
+    if (size() == 0){
       return this;
     }
-    if (vec.size() == 1){
-      return new ListValue(TrieList.empty());
+    if (size() == 1){
+      return ofStore(TrieList.empty());
     }
-    return new ListValue(vec.slice(1, vec.size()));
+    if (!isTrie()) return subList(1, size());
+    TrieList vec = trie();
+    return ofStore(vec.slice(1, vec.size()));
   }
 
   public ListValue reverse() {
 
-    if (vec.isEmpty()) return this;
+    if (isEmpty()) return this;
+
+    if (store instanceof LongRange){
+      return ofStore(((LongRange) store).reverse());
+    }
+
+    if (store instanceof long[]){
+      long[] longs = (long[]) store;
+      long[] ret = new long[longs.length];
+      for (int i = 0, j = longs.length-1; j >= 0; i++, j--) {
+        ret[i] = longs[j];
+      }
+      return ofStore(ret);
+    }
+
+    if (store instanceof double[]){
+      double[] doubles = (double[]) store;
+      double[] ret = new double[doubles.length];
+      for (int i = 0, j = doubles.length-1; j >= 0; i++, j--) {
+        ret[i] = doubles[j];
+      }
+      return ofStore(ret);
+    }
+
+    if (store instanceof Value[]){
+      Value[] values = (Value[]) store;
+      Value[] ret = new Value[values.length];
+      for (int i = 0, j = values.length-1; j >= 0; i++, j--) {
+        ret[i] = values[j];
+      }
+      return ofStore(ret);
+    }
 
     TrieList ret = TrieList.empty();
-    for(Iterator iterator = vec.reverseIterator(); iterator.hasNext();){
+    for(Iterator iterator = trie().reverseIterator(); iterator.hasNext();){
       ret = ret.add(iterator.next());
     }
-    return new ListValue(ret);
+    return ofStore(ret);
   }
 
   public Value head() {
-    return (Value) vec.get(0);
+    if (!isTrie()) return get(0);
+    return (Value) trie().get(0);
   }
 
   public Value last() {
+    if (!isTrie()) return get(size()-1);
+    TrieList vec = trie();
     return (Value) vec.get(vec.size()-1);
   }
 
   public ListValue slice(int startIndex, int endIndex) {
-    return new ListValue(vec.slice(startIndex, endIndex));
+    if (!isTrie() && startIndex >= 0 && startIndex <= endIndex && endIndex <= size()) return subList(startIndex, endIndex);
+    return ofStore(trie().slice(startIndex, endIndex));
+  }
+
+  // index of array or packed item identical to x, searching from start to end exclusive, or backwards if start > end
+  private int packedIndexOf(Value x, int start, int end) {
+    int step = start <= end ? 1 : -1;
+    if (store instanceof Value[]){
+      Value[] values = (Value[]) store;
+      for (int i = start; i != end; i += step) {
+        if (x.equals(values[i])) return i;
+      }
+      return -1;
+    }
+
+    if (store instanceof double[]){
+      if (x.type() != Types.DOUBLE) return -1;
+      double[] doubles = (double[]) store;
+      double d = x.doubleValue();
+      boolean nan = Double.isNaN(d);
+      for (int i = start; i != end; i += step) {
+        if (doubles[i] == d || nan && Double.isNaN(doubles[i])) return i;
+      }
+      return -1;
+    }
+
+    if (x.type() != Types.LONG) return -1;
+    long l = x.longValue();
+
+    if (store instanceof LongRange){
+      return ((LongRange) store).indexOf(l, start, end);
+    }
+
+    long[] longs = (long[]) store;
+    for (int i = start; i != end; i += step) {
+      if (longs[i] == l) return i;
+    }
+    return -1;
   }
 
   public Value indexOf(Value x) {
-    return Values.make(vec.indexOf(x));
+    if (!isTrie()) return Values.make(packedIndexOf(x, 0, size()));
+    return Values.make(trie().indexOf(x));
   }
 
   public Value indexOf(Value x, long from) {
     if (from > Integer.MAX_VALUE) return Values.LONG_NEG_ONE;
-    return Values.make(vec.indexOf(x, Math.max((int) from, 0)));
+    if (!isTrie()) {
+      int start = Math.max((int) from, 0);
+      if (start >= size()) return Values.LONG_NEG_ONE;
+      return Values.make(packedIndexOf(x, start, size()));
+    }
+    return Values.make(trie().indexOf(x, Math.max((int) from, 0)));
   }
   
   public Value lastIndexOf(Value x) {
-    return Values.make(vec.lastIndexOf(x));
+    if (!isTrie()) return Values.make(packedIndexOf(x, size()-1, -1));
+    return Values.make(trie().lastIndexOf(x));
   }
 
   public Value lastIndexOf(Value x, long end) {
     if (end >= Integer.MAX_VALUE) return Values.LONG_NEG_ONE;
+    if (!isTrie()) {
+      int start = Math.min(size()-1, (int) end);
+      if (start < 0) return Values.LONG_NEG_ONE;
+      return Values.make(packedIndexOf(x, start, -1));
+    }
+    TrieList vec = trie();
     return Values.make(vec.lastIndexOf(x, Math.min(vec.size()-1, (int)end)));
   }
 
   public int size() {
-    return vec.size();
+    if (store instanceof TrieList) return ((TrieList) store).size();
+    if (store instanceof Value[]) return ((Value[]) store).length;
+    if (store instanceof long[]) return ((long[]) store).length;
+    if (store instanceof double[]) return ((double[]) store).length;
+    return ((LongRange) store).size;
   }
 
   public boolean containsValue(Value value) {
-    return vec.contains(value);
+    if (!isTrie()) return packedIndexOf(value, 0, size()) >= 0;
+    return trie().contains(value);
   }
 
   @SuppressWarnings("unchecked")
   public ListValue sort(Comparator comparator){
-    Object[] values = vec.toArray();
+    Object[] values = isTrie() ? trie().toArray() : toArray();
     Arrays.sort(values, comparator);
     return new ListValue(values);
   }
 
   public Iterator<Value> iterator() {
 
+    if (!isTrie()){
+      return new Iterator<Value>() {
+        private int i = 0;
+        private final int size = size();
+
+        public boolean hasNext() {
+          return i < size;
+        }
+
+        public Value next() {
+          if (i >= size) throw new NoSuchElementException();
+          return get(i++);
+        }
+      };
+    }
+
     // basic iterator implementation that allows basic traversal only
-    Iterator internalIterator = vec.iterator();
+    Iterator internalIterator = trie().iterator();
 
     return new Iterator<Value>(){
       
@@ -260,11 +689,57 @@ final public class ListValue implements Iterable<Value> {
 
     if (!(o instanceof ListValue)) return false;
     ListValue values = (ListValue) o;
-    return vec.equals(values.vec);
+    if (store == values.store) return true;
+
+    // same semantics as trie lists, hash codes are cached and reject most unequal lists
+    int size = size();
+    if (size != values.size()) return false;
+    if (hashCode() != values.hashCode()) return false;
+
+    if (isPackedLongs() && values.isPackedLongs()){
+      for (int i = 0; i < size; i++) {
+        if (longAt(i) != values.longAt(i)) return false;
+      }
+      return true;
+    }
+
+    // versions of a list share most of their items
+    Iterator<Value> xi = iterator();
+    Iterator<Value> oi = values.iterator();
+    while (xi.hasNext()){
+      Value x = xi.next();
+      Value other = oi.next();
+      if (x != other && !x.equals(other)) return false;
+    }
+    return true;
 
   }
 
   public int hashCode() {
-    return vec.hashCode();
+    // same hash code as a trie list of the same values
+    int h = hash;
+    if (h == 0){
+      h = 1;
+      if (isTrie()){
+        h = trie().hashCode();
+      }
+      else if (store instanceof Value[]){
+        for (Value value : (Value[]) store) {
+          h = 31 * h + value.hashCode();
+        }
+      }
+      else if (store instanceof double[]){
+        for (double d : (double[]) store) {
+          h = 31 * h + Double.hashCode(d == 0.0 ? 0.0 : d);
+        }
+      }
+      else {
+        for (int i = 0, size = size(); i < size; i++) {
+          h = 31 * h + Double.hashCode((double) longAt(i));
+        }
+      }
+      hash = h;
+    }
+    return h;
   }
 }
@@ -0,0 +1,129 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import java.util.ArrayDeque;
+
+// deferred concatenation of strings, characters are copied once when the string is needed
+// pieces are Strings or StringRopes, short pieces are copied eagerly to keep the tree shallow and leaves chunky
+final class StringRope {
+
+  // concatenations up to this length are copied right away
+  static final int LEAF_LENGTH = 64;
+
+  // children are dropped once the rope is flattened, flat is set before they are cleared
+  private volatile Object left;
+  private volatile Object right;
+  private final int length;
+
+  // racing threads flatten to equal strings, any of them may be kept
+  private volatile String flat;
+
+  private StringRope(Object left, Object right, int length) {
+    this.left = left;
+    this.right = right;
+    this.length = length;
+  }
+
+  static int length(Object piece){
+    if (piece instanceof String) return ((String) piece).length();
+    return ((StringRope) piece).length;
+  }
+
+  static Object concat(Object left, Object right){
+
+    int leftLength = length(left);
+    int rightLength = length(right);
+
+    if (leftLength == 0) return right;
+    if (rightLength == 0) return left;
+
+    int length = leftLength + rightLength;
+    if (length < 0){
+      throw new OutOfMemoryError("string length exceeds implementation limit");
+    }
+
+    if (length <= LEAF_LENGTH){
+      return left.toString().concat(right.toString());
+    }
+
+    // appending a short string to a rope ending in a short string merges the two
+    if (left instanceof StringRope && right instanceof String){
+      StringRope rope = (StringRope) left;
+      Object ropeLeft = rope.left;
+      Object ropeRight = rope.right;
+      if (ropeLeft != null && ropeRight instanceof String){
+        String last = (String) ropeRight;
+        if (last.length() + rightLength <= LEAF_LENGTH){
+          return new StringRope(ropeLeft, last.concat((String) right), length);
+        }
+      }
+    }
+
+    return new StringRope(left, right, length);
+  }
+
+  @Override
+  public String toString() {
+    String s = flat;
+    if (s != null) return s;
+
+    char[] chars = new char[length];
+    int pos = 0;
+
+    ArrayDeque<Object> pending = new ArrayDeque<>();
+    pending.push(this);
+
+    while (!pending.isEmpty()){
+      Object piece = pending.pop();
+      if (piece instanceof StringRope){
+        StringRope rope = (StringRope) piece;
+        String ropeFlat = rope.flat;
+        if (ropeFlat == null){
+          Object ropeLeft = rope.left;
+          Object ropeRight = rope.right;
+          // flattened subtrees are copied as a whole
+          if (ropeLeft != null && ropeRight != null){
+            pending.push(ropeRight);
+            pending.push(ropeLeft);
+            continue;
+          }
+          ropeFlat = rope.flat;
+        }
+        piece = ropeFlat;
+      }
+      String str = (String) piece;
+      str.getChars(0, str.length(), chars, pos);
+      pos += str.length();
+    }
+
+    s = new String(chars);
+    flat = s;
+    left = null;
+    right = null;
+    return s;
+  }
+
+}
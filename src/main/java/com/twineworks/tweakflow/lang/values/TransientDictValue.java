@@ -38,7 +38,7 @@ public class TransientDictValue {
   }
 
   public TransientDictValue(DictValue d){
-    this(new TransientChampMap<>(d.map));
+    this(new TransientChampMap<>(d.champ()));
   }
 
   private TransientDictValue(TransientChampMap<String, Value> t){
@@ -69,7 +69,7 @@ public class TransientDictValue {
     t.setAll(m);
   }
   public void putAll(DictValue d){
-    t.setAll(d.map);
+    t.setAll(d.champ());
   }
   public void putAll(String[] keys, Value[] values){
     t.setAll(keys, values);
@@ -0,0 +1,162 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.types.Types;
+
+import java.util.Arrays;
+
+// builds a list in place, appending does not create intermediate lists
+// a buffer is handed to the persistent list without copying if it is filled exactly,
+// otherwise persistent() trims it to size first, which copies all items once
+// the trimmed buffer is kept, so repeated calls without appends do not copy again
+public class TransientListValue {
+
+  private Value[] items;
+  private int size;
+  private boolean allLongs = true;
+  private boolean allDoubles = true;
+
+  // items are owned by a persistent list
+  private boolean shared;
+
+  public TransientListValue(){
+    this(10);
+  }
+
+  public TransientListValue(int capacity){
+    items = new Value[Math.max(capacity, 0)];
+  }
+
+  public TransientListValue(ListValue list){
+    this(list.size());
+    appendAll(list);
+  }
+
+  public void append(Value v){
+    if (size == items.length || shared){
+      grow(size + 1);
+    }
+    if (v == null) v = Values.NIL;
+    track(v.type());
+    items[size++] = v;
+  }
+
+  public void appendAll(ListValue list){
+    int count = list.size();
+    if (size + count > items.length || shared){
+      grow(size + count);
+    }
+
+    if (list.isPackedLongs()){
+      allDoubles = allDoubles && count == 0;
+      for (int i = 0; i < count; i++) {
+        items[size++] = Values.make(list.longAt(i));
+      }
+    }
+    else if (list.isPackedDoubles()){
+      allLongs = allLongs && count == 0;
+      for (int i = 0; i < count; i++) {
+        items[size++] = Values.make(list.doubleAt(i));
+      }
+    }
+    else {
+      for (int i = 0; i < count; i++) {
+        Value v = list.get(i);
+        track(v.type());
+        items[size++] = v;
+      }
+    }
+  }
+
+  public void appendAll(Value[] values){
+    if (size + values.length > items.length || shared){
+      grow(size + values.length);
+    }
+    for (Value v : values) {
+      if (v == null) v = Values.NIL;
+      track(v.type());
+      items[size++] = v;
+    }
+  }
+
+  public Value get(int index){
+    if (index < 0 || index >= size) return Values.NIL;
+    return items[index];
+  }
+
+  public int size(){
+    return size;
+  }
+
+  public boolean isEmpty(){
+    return size == 0;
+  }
+
+  public ListValue persistent(){
+
+    if (size == 0) return new ListValue();
+
+    if (size >= ListValue.PACKING_THRESHOLD){
+      if (allLongs){
+        long[] longs = new long[size];
+        for (int i = 0; i < size; i++) {
+          longs[i] = items[i].longValue();
+        }
+        return ListValue.packed(longs);
+      }
+      if (allDoubles){
+        double[] doubles = new double[size];
+        for (int i = 0; i < size; i++) {
+          doubles[i] = items[i].doubleValue();
+        }
+        return ListValue.packed(doubles);
+      }
+    }
+
+    if (size < items.length){
+      items = Arrays.copyOf(items, size);
+    }
+
+    shared = true;
+    return ListValue.wrap(items);
+  }
+
+  private void track(Type type){
+    if (type != Types.LONG) allLongs = false;
+    if (type != Types.DOUBLE) allDoubles = false;
+  }
+
+  private void grow(int minCapacity){
+    int capacity = items.length;
+    if (minCapacity > capacity){
+      capacity = Math.max(minCapacity, capacity + (capacity >> 1));
+    }
+    items = Arrays.copyOf(items, capacity);
+    shared = false;
+  }
+
+}
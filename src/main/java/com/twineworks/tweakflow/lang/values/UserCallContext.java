@@ -24,6 +24,7 @@
 
 package com.twineworks.tweakflow.lang.values;
 
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
 import com.twineworks.tweakflow.lang.interpreter.Stack;
 
 public interface UserCallContext {
@@ -35,4 +36,7 @@ public interface UserCallContext {
 
   void debug(Value v);
   Stack getStack();
+
+  // the context of the calling evaluation, nested evaluations use it to stay within its budget
+  EvaluationContext getEvaluationContext();
 }
@@ -35,7 +35,11 @@ import static com.twineworks.tweakflow.lang.values.Values.NIL;
 final public class Value implements ValueProvider {
 
   private final Type type;
-  private final Object value;
+
+  // longs and doubles keep their payload in bits, and are boxed on demand only
+  // strings built through concatenation may hold a StringRope, which is flattened on demand
+  private Object value;
+  private final long bits;
 
   private int hashCode;
 
@@ -49,6 +53,26 @@ final public class Value implements ValueProvider {
 
     this.type = type;
     this.value = value;
+
+    if (type == Types.LONG){
+      bits = (Long) value;
+    }
+    else if (type == Types.DOUBLE){
+      bits = Double.doubleToRawLongBits((Double) value);
+    }
+    else {
+      bits = 0L;
+    }
+  }
+
+  Value(long l) {
+    this.type = Types.LONG;
+    this.bits = l;
+  }
+
+  Value(double d) {
+    this.type = Types.DOUBLE;
+    this.bits = Double.doubleToRawLongBits(d);
   }
 
   public Type type() {
@@ -56,13 +80,38 @@ final public class Value implements ValueProvider {
   }
 
   public Object value() {
-    return value;
+    Object v = value;
+    if (v instanceof StringRope){
+      return string();
+    }
+    if (v == null && type != Types.VOID){
+      // racing threads box equal payloads, any of them may be kept
+      if (type == Types.LONG){
+        v = bits;
+      }
+      else {
+        v = Double.longBitsToDouble(bits);
+      }
+      value = v;
+    }
+    return v;
   }
 
   public boolean isNil() {return this == NIL;}
 
   public String string() {
-    return (String) value;
+    Object v = value;
+    if (v instanceof StringRope){
+      String s = v.toString();
+      value = s;
+      return s;
+    }
+    return (String) v;
+  }
+
+  // string payload without flattening, a String or a StringRope
+  Object stringPayload() {
+    return value;
   }
 
   public DictValue dict() {
@@ -78,13 +127,28 @@ final public class Value implements ValueProvider {
   }
 
   public Long longNum() {
-    return (Long) value;
+    return (Long) value();
   }
 
   public Double doubleNum() {
+    return (Double) value();
+  }
+
+  // unboxed accessors, not applicable to nil
+  public long longValue() {
+    if (type == Types.LONG) return bits;
+    return (Long) value;
+  }
+
+  public double doubleValue() {
+    if (type == Types.DOUBLE) return Double.longBitsToDouble(bits);
     return (Double) value;
   }
 
+  public boolean boolValue() {
+    return (Boolean) value;
+  }
+
   public DateTimeValue dateTime() {
     return (DateTimeValue) value;
   }
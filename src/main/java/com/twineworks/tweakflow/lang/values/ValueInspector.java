@@ -86,12 +86,12 @@ public class ValueInspector {
     }
 
     if (v.type() == Types.LONG) {
-      out.append(leadingIndent).append(v.longNum().toString());
+      out.append(leadingIndent).append(Long.toString(v.longValue()));
       return;
     }
 
     if (v.type() == Types.DOUBLE) {
-      out.append(leadingIndent).append(v.doubleNum().toString());
+      out.append(leadingIndent).append(Double.toString(v.doubleValue()));
       return;
     }
 
@@ -0,0 +1,97 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import com.twineworks.tweakflow.lang.types.Type;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.util.BoundedCache;
+
+import java.math.BigDecimal;
+
+// bounded cache of string, decimal and datetime values
+// repetitive data read through an interner shares a single value per distinct payload
+// instances are thread-safe and may be shared by readers
+public final class ValueInterner {
+
+  private final BoundedCache<Object, Value> cache;
+
+  public ValueInterner(int capacity) {
+    this.cache = new BoundedCache<>(capacity);
+  }
+
+  public Value make(String s) {
+    if (s == null) return Values.NIL;
+    if (s.isEmpty()) return Values.EMPTY_STRING;
+    Value v = cache.get(s);
+    return v != null ? v : cache.putIfAbsent(s, Values.make(s));
+  }
+
+  public Value make(BigDecimal d) {
+    if (d == null) return Values.NIL;
+    Value v = cache.get(d);
+    return v != null ? v : cache.putIfAbsent(d, Values.make(d));
+  }
+
+  public Value make(DateTimeValue dt) {
+    if (dt == null) return Values.NIL;
+    Value v = cache.get(dt);
+    return v != null ? v : cache.putIfAbsent(dt, Values.make(dt));
+  }
+
+  // returns the cached equivalent of given value, other types are returned as is
+  public Value intern(Value v) {
+    if (v == null) return Values.NIL;
+    Type type = v.type();
+    if (type != Types.STRING && type != Types.DECIMAL && type != Types.DATETIME) return v;
+    if (v == Values.EMPTY_STRING) return v;
+
+    // payloads are of distinct classes, and their equality is exact:
+    // decimals of different scale and datetimes in different zones are kept apart
+    Object key = v.value();
+    Value cached = cache.get(key);
+    return cached != null ? cached : cache.putIfAbsent(key, v);
+  }
+
+  public int capacity() {
+    return cache.capacity();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  public long hits() {
+    return cache.hits();
+  }
+
+  public long misses() {
+    return cache.misses();
+  }
+
+  public void clear() {
+    cache.clear();
+  }
+
+}
@@ -81,6 +81,48 @@ final public class Values {
     return new Value(Types.STRING, s);
   }
 
+  // concatenates string values, nil concatenates as "nil"
+  // long results defer copying characters until the string is needed
+  public static Value concat(Value left, Value right) {
+    return makeConcatenated(StringRope.concat(concatPiece(left), concatPiece(right)));
+  }
+
+  public static Value concat(Value[] parts) {
+
+    Object[] pieces = new Object[parts.length];
+    boolean shortPieces = true;
+    for (int i = 0; i < parts.length; i++) {
+      Object piece = concatPiece(parts[i]);
+      pieces[i] = piece;
+      shortPieces = shortPieces && piece instanceof String && ((String) piece).length() <= StringRope.LEAF_LENGTH;
+    }
+
+    // short strings are cheap to copy
+    if (shortPieces){
+      StringBuilder b = new StringBuilder();
+      for (Object piece : pieces) {
+        b.append((String) piece);
+      }
+      return make(b.toString());
+    }
+
+    Object result = "";
+    for (Object piece : pieces) {
+      result = StringRope.concat(result, piece);
+    }
+    return makeConcatenated(result);
+  }
+
+  private static Object concatPiece(Value v){
+    if (v == NIL) return "nil";
+    return v.stringPayload();
+  }
+
+  private static Value makeConcatenated(Object payload){
+    if (payload instanceof String) return make((String) payload);
+    return new Value(Types.STRING, payload);
+  }
+
   public static Value make(byte[] bin) {
     if (bin == null) return NIL;
     if (bin.length == 0) return EMPTY_BINARY;
@@ -95,6 +137,25 @@ final public class Values {
     return new Value(Types.LONG, n);
   }
 
+  public static Value make(long n) {
+    if (n >= 0 && n < LONGS.length) {
+      return LONGS[(int) n];
+    }
+    return new Value(n);
+  }
+
+  public static Value make(double d) {
+    if (Double.isNaN(d)) return NAN;
+    if (d == Double.POSITIVE_INFINITY) return INFINITY;
+    if (d == Double.NEGATIVE_INFINITY) return NEG_INFINITY;
+    return new Value(d);
+  }
+
+  // keeps chars from widening to longs
+  public static Value make(char c) {
+    return new Value(Types.STRING, String.valueOf(c));
+  }
+
   public static Value make(Integer i) {
     if (i == null) return NIL;
     return make(i.longValue());
@@ -345,13 +406,7 @@ final public class Values {
       throw new IllegalArgumentException("Cannot make range exceeding: " + Integer.MAX_VALUE + " items");
     }
 
-    ListValue range = new ListValue();
-    long idx = from;
-    while (idx <= to) {
-      range = range.append(make(idx));
-      idx++;
-    }
-    return new Value(Types.LIST, range);
+    return new Value(Types.LIST, ListValue.range(from, to));
   }
 
   public static Value makeList(Value... values) {
@@ -82,7 +82,8 @@ public final class Core {
     @Override
     public Value call(UserCallContext context, Value x) {
       if (x == Values.NIL) return Values.NIL;
-      return TweakFlow.evaluate(x.string(), false);
+      // steps and time spent in the expression count against the caller's budget
+      return TweakFlow.evaluateInContext(x.string(), false, context.getEvaluationContext());
     }
   }
 
@@ -151,19 +151,19 @@ public final class Data {
       else if (xs.type() == Types.LIST) {
 
         ListValue list = xs.list();
-        ArrayList<Value> items = new ArrayList<>(list.size());
+        TransientListValue items = new TransientListValue(keysList.size());
         for (Value keyValue : keysList) {
           Long idxLong = keyValue.castTo(Types.LONG).longNum();
           if (idxLong == null) {
             throw new LangException(LangError.NIL_ERROR, "cannot select nil key");
           }
           if (idxLong < 0 || idxLong >= list.size()) {
-            items.add(notFound);
+            items.append(notFound);
           } else {
-            items.add(list.get(idxLong.intValue()));
+            items.append(list.get(idxLong.intValue()));
           }
         }
-        return Values.make(new ListValue(items));
+        return Values.make(items.persistent());
       } else {
         throw new LangException(LangError.ILLEGAL_ARGUMENT, "select is not defined for type " + xs.type().name());
       }
@@ -620,12 +620,14 @@ public final class Data {
         return Values.NIL;
       }
 
-      ListValue result = new ListValue();
+      // a single list is returned as is
+      if (listsList.size() == 1 && listsList.get(0).isList()) return listsList.get(0);
+
+      ArrayList<ListValue> nonEmpty = new ArrayList<>();
 
       for (Value list : listsList) {
         if (list.isList()){
-          ListValue listValue = list.list();
-          result = result.appendAll(listValue);
+          if (!list.list().isEmpty()) nonEmpty.add(list.list());
         }
         else if (list.isNil()){ // trying to concat with nil results in nil
           return Values.NIL;
@@ -636,7 +638,8 @@ public final class Data {
         }
       }
 
-      return Values.make(result);
+      if (nonEmpty.isEmpty()) return Values.EMPTY_LIST;
+      return Values.make(ListValue.concat(nonEmpty));
     }
   }
 
@@ -700,14 +703,14 @@ public final class Data {
 
       ListValue list = xs.list();
 
-      ArrayList<Value> out = new ArrayList<>();
+      int count = 0;
 
       if (withIndex){
         Arity2CallSite pcs = context.createArity2CallSite(p);
         for (int i = 0, listSize = list.size(); i < listSize; i++) {
           Value x = list.get(i);
           if (pcs.call(x, Values.make(i)).castTo(Types.BOOLEAN) == Values.TRUE) {
-            out.add(x);
+            count++;
           }
           else{
             break;
@@ -719,7 +722,7 @@ public final class Data {
         for (int i = 0, listSize = list.size(); i < listSize; i++) {
           Value x = list.get(i);
           if (pcs.call(x).castTo(Types.BOOLEAN) == Values.TRUE) {
-            out.add(x);
+            count++;
           }
           else{
             break;
@@ -727,7 +730,10 @@ public final class Data {
         }
       }
 
-      return Values.make(new ListValue(out));
+      // the taken items are a prefix of xs
+      if (count == list.size()) return xs;
+      if (count == 0) return Values.EMPTY_LIST;
+      return Values.make(list.take(count));
 
     }
   }
@@ -747,14 +753,14 @@ public final class Data {
 
       ListValue list = xs.list();
 
-      ArrayList<Value> out = new ArrayList<>();
+      int count = 0;
 
       if (withIndex){
         Arity2CallSite pcs = context.createArity2CallSite(p);
         for (int i = 0, listSize = list.size(); i < listSize; i++) {
           Value x = list.get(i);
           if (pcs.call(x, Values.make(i)).castTo(Types.BOOLEAN) != Values.TRUE) {
-            out.add(x);
+            count++;
           }
           else{
             break;
@@ -766,7 +772,7 @@ public final class Data {
         for (int i = 0, listSize = list.size(); i < listSize; i++) {
           Value x = list.get(i);
           if (pcs.call(x).castTo(Types.BOOLEAN) != Values.TRUE) {
-            out.add(x);
+            count++;
           }
           else{
             break;
@@ -774,7 +780,10 @@ public final class Data {
         }
       }
 
-      return Values.make(new ListValue(out));
+      // the taken items are a prefix of xs
+      if (count == list.size()) return xs;
+      if (count == 0) return Values.EMPTY_LIST;
+      return Values.make(list.take(count));
 
     }
   }
@@ -1036,12 +1045,14 @@ public final class Data {
         return Values.NIL;
       }
 
-      TransientDictValue t = new TransientDictValue();
+      Value first = null;
+      int nonEmpty = 0;
 
       for (Value dict : dictList) {
         if (dict.isDict()){
-          DictValue dictValue = dict.dict();
-          t.putAll(dictValue);
+          if (dict.dict().isEmpty()) continue;
+          if (first == null) first = dict;
+          nonEmpty++;
         }
         else if (dict.isNil()){ // trying to merge with nil
           return Values.NIL;
@@ -1052,6 +1063,21 @@ public final class Data {
         }
       }
 
+      if (first == null) return Values.EMPTY_DICT;
+      if (nonEmpty == 1) return first;
+
+      // merging starts out sharing the structure of the first dict
+      TransientDictValue t = new TransientDictValue(first.dict());
+      boolean seen = false;
+      for (Value dict : dictList) {
+        if (dict == first && !seen){
+          seen = true;
+        }
+        else if (seen){
+          t.putAll(dict.dict());
+        }
+      }
+
       return Values.make(t.persistent());
     }
   }
@@ -1072,15 +1098,21 @@ public final class Data {
         if (paramCount == 0) throw new LangException(LangError.ILLEGAL_ARGUMENT, "predicate function must accept at least one argument");
 
         boolean withIndex = paramCount >= 2;
-        ListValue retVal = new ListValue();
         ListValue list = xs.list();
 
+        // items are collected from the first rejected one on, a prefix is taken as a slice
+        TransientListValue retVal = null;
+
         if (withIndex){
           Arity2CallSite pcs = context.createArity2CallSite(p);
           for (int i = 0, listSize = list.size(); i < listSize; i++) {
             Value x = list.get(i);
             if (pcs.call(x, Values.make(i)).castTo(Types.BOOLEAN) == Values.TRUE){
-              retVal = retVal.append(x);
+              if (retVal != null) retVal.append(x);
+            }
+            else if (retVal == null){
+              retVal = new TransientListValue();
+              retVal.appendAll(list.take(i));
             }
           }
         }
@@ -1089,13 +1121,18 @@ public final class Data {
           for (int i = 0, listSize = list.size(); i < listSize; i++) {
             Value x = list.get(i);
             if (pcs.call(x).castTo(Types.BOOLEAN) == Values.TRUE){
-              retVal = retVal.append(x);
+              if (retVal != null) retVal.append(x);
+            }
+            else if (retVal == null){
+              retVal = new TransientListValue();
+              retVal.appendAll(list.take(i));
             }
           }
 
         }
 
-        return Values.make(retVal);
+        if (retVal == null) return xs;
+        return Values.make(retVal.persistent());
       }
       else if (xs.isDict()){
 
@@ -1103,28 +1140,61 @@ public final class Data {
         if (paramCount == 0) throw new LangException(LangError.ILLEGAL_ARGUMENT, "predicate function must accept at least one argument");
 
         boolean withKey = paramCount >= 2;
-        TransientDictValue retVal = new TransientDictValue();
 
         DictValue map = xs.dict();
+        int size = map.size();
+        String[] keys = new String[size];
+        Value[] values = new Value[size];
+        map.getAll(keys, values);
+
+        // accepted entries are compacted in place
+        int kept = 0;
+        String[] rejectedKeys = new String[size];
+        int rejected = 0;
+
         if (withKey){
           Arity2CallSite pcs = context.createArity2CallSite(p);
-          for (String key : map.keys()) {
-            Value x = map.get(key);
+          for (int i = 0; i < size; i++) {
+            String key = keys[i];
+            Value x = values[i];
             if (pcs.call(x, Values.make(key)).castTo(Types.BOOLEAN) == Values.TRUE){
-              retVal.put(key, x);
+              keys[kept] = key;
+              values[kept++] = x;
+            }
+            else {
+              rejectedKeys[rejected++] = key;
             }
           }
         }
         else{
           Arity1CallSite pcs = context.createArity1CallSite(p);
-          for (String key : map.keys()) {
-            Value x = map.get(key);
+          for (int i = 0; i < size; i++) {
+            String key = keys[i];
+            Value x = values[i];
             if (pcs.call(x).castTo(Types.BOOLEAN) == Values.TRUE){
-              retVal.put(key, x);
+              keys[kept] = key;
+              values[kept++] = x;
+            }
+            else {
+              rejectedKeys[rejected++] = key;
             }
           }
         }
 
+        if (kept == size) return xs;
+        if (kept == 0) return Values.EMPTY_DICT;
+
+        // removing few keys shares more structure than building from scratch
+        TransientDictValue retVal;
+        if (rejected <= kept){
+          retVal = new TransientDictValue(map);
+          retVal.removeAll(Arrays.asList(rejectedKeys).subList(0, rejected));
+        }
+        else {
+          retVal = new TransientDictValue();
+          retVal.putAll(Arrays.copyOf(keys, kept), Arrays.copyOf(values, kept));
+        }
+
         return Values.make(retVal.persistent());
 
       }
@@ -1376,11 +1446,11 @@ public final class Data {
 
       if (withRet){
         // we can pick the same index multiple times
-        ListValue ret = new ListValue();
+        TransientListValue ret = new TransientListValue(nr);
         for (int i=0;i<nr;i++){
-          ret = ret.append(list.get(r.nextInt(size)));
+          ret.append(list.get(r.nextInt(size)));
         }
-        return Values.make(ret);
+        return Values.make(ret.persistent());
       }
       else {
         // we cannot pick the same index multiple times
@@ -1390,11 +1460,11 @@ public final class Data {
         }
         shuffleArray(indexes, r);
 
-        ListValue ret = new ListValue();
+        TransientListValue ret = new TransientListValue(java.lang.Math.min(nr, size));
         for (int i=0;i<nr && i<size;i++){
-          ret = ret.append(list.get(indexes[i]));
+          ret.append(list.get(indexes[i]));
         }
-        return Values.make(ret);
+        return Values.make(ret.persistent());
 
       }
 
@@ -1412,7 +1482,7 @@ public final class Data {
       ListValue list = xs.list();
       if (list.size() < 2) return xs;
 
-      ArrayList<Value> out = new ArrayList<>();
+      TransientListValue out = new TransientListValue();
       HashSet<Value> set = new HashSet<>(list.size());
 
       for (Value value : list) {
@@ -1420,7 +1490,7 @@ public final class Data {
         // non-comparable -> never equal to anything
         boolean nonComparable = (value.isFunction() || value.isDoubleNum() && value.doubleNum().isNaN());
         if (nonComparable){
-          out.add(value);
+          out.append(value);
           continue;
         }
         // at this point values are comparable to each other
@@ -1429,11 +1499,11 @@ public final class Data {
         }
         else{
           set.add(value);
-          out.add(value);
+          out.append(value);
         }
 
       }
-      return Values.make(new ListValue(out));
+      return Values.make(out.persistent());
 
     }
   }
@@ -1512,12 +1582,12 @@ public final class Data {
       DictValue dict = xs.dict();
       if (dict.isEmpty()) return Values.EMPTY_LIST;
 
-      ListValue listValue = new ListValue();
+      TransientListValue listValue = new TransientListValue(dict.size());
       for (String k : dict.keys()) {
-        listValue = listValue.append(Values.makeDict("key", k, "value", dict.get(k)));
+        listValue.append(Values.makeDict("key", k, "value", dict.get(k)));
       }
 
-      return Values.make(listValue);
+      return Values.make(listValue.persistent());
     }
   }
 
@@ -1654,16 +1724,15 @@ public final class Data {
       if (xs.isList()){
 
         boolean withIndex = paramCount >= 2;
-        ListValue retVal = new ListValue();
 
         ListValue list = xs.list();
+        TransientListValue retVal = new TransientListValue(list.size());
 
         if (withIndex){
           Arity2CallSite fcs = context.createArity2CallSite(f);
           for (int i = 0, listSize = list.size(); i < listSize; i++) {
             Value x = list.get(i);
-            Value mapped = fcs.call(x, Values.make(i));
-            retVal = retVal.append(mapped);
+            retVal.append(fcs.call(x, Values.make(i)));
           }
         }
         else{
@@ -1671,12 +1740,11 @@ public final class Data {
 
           for (int i = 0, listSize = list.size(); i < listSize; i++) {
             Value x = list.get(i);
-            Value mapped = fcs.call(x);
-            retVal = retVal.append(mapped);
+            retVal.append(fcs.call(x));
           }
         }
 
-        return Values.make(retVal);
+        return Values.make(retVal.persistent());
       }
       else if (xs.isDict()){
 
@@ -1783,11 +1851,11 @@ public final class Data {
       }
       else if (xs.isList()){
         ListValue listValue = xs.list();
-        ListValue ret = new ListValue();
+        TransientListValue ret = new TransientListValue(listValue.size());
         for (Value value : listValue) {
-          ret = ret.append(pluck(key, value));
+          ret.append(pluck(key, value));
         }
-        return Values.make(ret);
+        return Values.make(ret.persistent());
       }
       else{
         throw new LangException(LangError.ILLEGAL_ARGUMENT, "pluck is not defined for type "+xs.type().name());
@@ -2251,9 +2319,10 @@ public final class Data {
         DictValue map = xs.dict();
         if (withKey){
           Arity2CallSite fcs = context.createArity2CallSite(f);
-          for (String key : map.keys()) {
-            Value x = map.get(key);
-            Value k = fcs.call(x, Values.make(key));
+          for (Iterator<Map.Entry<String, Value>> it = map.entryIterator(); it.hasNext(); ) {
+            Map.Entry<String, Value> entry = it.next();
+            Value x = entry.getValue();
+            Value k = fcs.call(x, Values.make(entry.getKey()));
             if (!k.isNil()){
               t.put(k.castTo(Types.STRING).string(), x);
             }
@@ -2262,9 +2331,9 @@ public final class Data {
         }
         else{
 
-          for (String key : map.keys()) {
-            Arity1CallSite fcs = context.createArity1CallSite(f);
-            Value x = map.get(key);
+          Arity1CallSite fcs = context.createArity1CallSite(f);
+          for (Iterator<Value> it = map.valueIterator(); it.hasNext(); ) {
+            Value x = it.next();
             Value k = fcs.call(x);
             if (!k.isNil()){
               t.put(k.castTo(Types.STRING).string(), x);
@@ -2691,21 +2760,21 @@ public final class Data {
       // nothing to remove
       if (xsDict.isEmpty()) return Values.EMPTY_DICT;
 
+      // only keys present in the dict need removing
       HashSet<String> keySet = new HashSet<>();
       for (Value value : keyList) {
         String k = value.castTo(Types.STRING).string();
-        if (k != null){
+        if (k != null && xsDict.containsKey(k)){
           keySet.add(k);
         }
       }
-      if (keySet.size() > 0){
-        TransientDictValue t = new TransientDictValue(xsDict);
-        t.removeAll(keySet);
-        return Values.make(t.persistent());
-      }
-      else{ // only nil keys to remove
-        return xs;
-      }
+
+      if (keySet.isEmpty()) return xs;
+      if (keySet.size() == xsDict.size()) return Values.EMPTY_DICT;
+
+      TransientDictValue t = new TransientDictValue(xsDict);
+      t.removeAll(keySet);
+      return Values.make(t.persistent());
 
     }
   }
@@ -49,9 +49,9 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       if (x.isLongNum()){
-        Long v = x.longNum();
+        long v = x.longValue();
         if (v < 0){
-          if (v.equals(Long.MIN_VALUE)) throw new LangException(LangError.NUMBER_OUT_OF_BOUNDS, "cannot represent magnitude as long");
+          if (v == Long.MIN_VALUE) throw new LangException(LangError.NUMBER_OUT_OF_BOUNDS, "cannot represent magnitude as long");
           return Values.make(-v);
         }
         else {
@@ -60,7 +60,7 @@ public final class Math {
       }
 
       if (x.isDoubleNum()){
-        Double v = x.doubleNum();
+        double v = x.doubleValue();
         if (v < 0.0){
           return Values.make(-v);
         }
@@ -118,22 +118,22 @@ public final class Math {
 
         // both double case
         if (b.isDoubleNum()){
-          double ad = a.doubleNum();
-          double bd = b.doubleNum();
+          double ad = a.doubleValue();
+          double bd = b.doubleValue();
           if (ad < bd) return Values.LONG_NEG_ONE;
           if (ad > bd) return Values.LONG_ONE;
           return Values.LONG_ZERO;
         }
         else if (b.isLongNum()){
           // b long
-          double ad = a.doubleNum();
-          long bl = b.longNum();
+          double ad = a.doubleValue();
+          long bl = b.longValue();
           if (ad < bl) return Values.LONG_NEG_ONE;
           if (ad > bl) return Values.LONG_ONE;
           return Values.LONG_ZERO;
         }
         else { // b is decimal
-          double d = a.doubleNum();
+          double d = a.doubleValue();
           if (Double.isFinite(d)){
             // b decimal
             BigDecimal ad = BigDecimal.valueOf(d);
@@ -153,23 +153,23 @@ public final class Math {
       else if(a.isLongNum()){
         // both long case
         if (b.isLongNum()){
-          long al = a.longNum();
-          long bl = b.longNum();
+          long al = a.longValue();
+          long bl = b.longValue();
           if (al == bl) return Values.LONG_ZERO;
           if (al < bl) return Values.LONG_NEG_ONE;
           return Values.LONG_ONE;
         }
         else if (b.isDoubleNum()){
           // a long, b double
-          long al = a.longNum();
-          double bd = b.doubleNum();
+          long al = a.longValue();
+          double bd = b.doubleValue();
           if (al < bd) return Values.LONG_NEG_ONE;
           if (al > bd) return Values.LONG_ONE;
           return Values.LONG_ZERO;
         }
         else {
           // a long, b decimal
-          BigDecimal ad = BigDecimal.valueOf(a.longNum());
+          BigDecimal ad = BigDecimal.valueOf(a.longValue());
           BigDecimal bd = b.decimal();
           int cmp = ad.compareTo(bd);
           if (cmp < 0) return Values.LONG_NEG_ONE;
@@ -180,7 +180,7 @@ public final class Math {
       else { /* a decimal */
         if (b.isLongNum()){
           BigDecimal ad = a.decimal();
-          BigDecimal bd = BigDecimal.valueOf(b.longNum());
+          BigDecimal bd = BigDecimal.valueOf(b.longValue());
 
           int cmp = ad.compareTo(bd);
           if (cmp < 0) return Values.LONG_NEG_ONE;
@@ -188,7 +188,7 @@ public final class Math {
           return Values.LONG_ZERO;
         }
         else if (b.isDoubleNum()){
-          double d = b.doubleNum();
+          double d = b.doubleValue();
           if (Double.isFinite(d)){
             BigDecimal ad = a.decimal();
             BigDecimal bd = BigDecimal.valueOf(d);
@@ -225,12 +225,12 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       if (x.isLongNum()){
-        Long v = x.longNum();
+        long v = x.longValue();
         return Values.make(v+1L);
       }
 
       if (x.isDoubleNum()){
-        Double v = x.doubleNum();
+        double v = x.doubleValue();
         return Values.make(v+1.0);
       }
 
@@ -253,12 +253,12 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       if (x.isLongNum()){
-        Long v = x.longNum();
+        long v = x.longValue();
         return Values.make(v-1L);
       }
 
       if (x.isDoubleNum()){
-        Double v = x.doubleNum();
+        double v = x.doubleValue();
         return Values.make(v-1.0);
       }
 
@@ -287,7 +287,7 @@ public final class Math {
     @Override
     public Value call(UserCallContext context, Value count, Value seed) {
       if (count == Values.NIL) return Values.NIL;
-      long longCount = count.longNum();
+      long longCount = count.longValue();
       if (longCount < 0) throw new LangException(LangError.ILLEGAL_ARGUMENT, "count cannot be negative, found: "+longCount);
       if (longCount == 0) return Values.EMPTY_LIST;
 
@@ -320,6 +320,27 @@ public final class Math {
       ListValue list = xs.list();
       if (list.isEmpty()) return Values.NIL;
 
+      // packed lists are scanned without boxing
+      if (list.isPackedLongs()){
+        long packedMin = list.longAt(0);
+        for (int i = 1, size = list.size(); i < size; i++) {
+          long num = list.longAt(i);
+          if (num < packedMin) packedMin = num;
+        }
+        return Values.make(packedMin);
+      }
+
+      if (list.isPackedDoubles()){
+        double packedMin = list.doubleAt(0);
+        if (Double.isNaN(packedMin)) return Values.NIL;
+        for (int i = 1, size = list.size(); i < size; i++) {
+          double num = list.doubleAt(i);
+          if (Double.isNaN(num)) return Values.NIL;
+          if (num < packedMin) packedMin = num;
+        }
+        return Values.make(packedMin);
+      }
+
       // only one element?
       if (list.size() == 1) {
         Value v = list.get(0);
@@ -327,7 +348,7 @@ public final class Math {
           return v;
         }
         else if (v.isDoubleNum()){
-          if (v.doubleNum().isNaN()) return Values.NIL;
+          if (Double.isNaN(v.doubleValue())) return Values.NIL;
           return v;
         }
         else{
@@ -349,10 +370,10 @@ public final class Math {
       Value min = list.get(0);
       if (min.isLongNum()){
         mode = MODE_LONG;
-        longMin = min.longNum();
+        longMin = min.longValue();
       }
       else if (min.isDoubleNum()) {
-        doubleMin = min.doubleNum();
+        doubleMin = min.doubleValue();
         if (Double.isNaN(doubleMin)){
           return Values.NIL;
         }
@@ -374,7 +395,7 @@ public final class Math {
         if (mode == MODE_LONG){
           // long mode
           if (v.isLongNum()){
-            long num = v.longNum();
+            long num = v.longValue();
             if (num < longMin){
               longMin = num;
               min = v;
@@ -382,7 +403,7 @@ public final class Math {
           }
           else if (v.isDoubleNum()){
             doubleMin = longMin;
-            double num = v.doubleNum();
+            double num = v.doubleValue();
             if (Double.isNaN(num)) return Values.NIL;
             if (num < doubleMin){
               doubleMin = num;
@@ -406,14 +427,14 @@ public final class Math {
         else if (mode == MODE_DOUBLE){
           // double mode
           if (v.isLongNum()){
-            long num = v.longNum();
+            long num = v.longValue();
             if (num < doubleMin){
               doubleMin = num;
               min = v;
             }
           }
           else if (v.isDoubleNum()){
-            double num = v.doubleNum();
+            double num = v.doubleValue();
             if (Double.isNaN(num)) return Values.NIL;
             if (num < doubleMin){
               doubleMin = num;
@@ -435,14 +456,14 @@ public final class Math {
         else {
           // decimal mode
           if (v.isLongNum()){
-            BigDecimal num = BigDecimal.valueOf(v.longNum());
+            BigDecimal num = BigDecimal.valueOf(v.longValue());
             if (num.compareTo(decimalMin) < 0){
               decimalMin = num;
               min = v;
             }
           }
           else if (v.isDoubleNum()){
-            double d = v.doubleNum();
+            double d = v.doubleValue();
             if (Double.isFinite(d)){
               BigDecimal num = BigDecimal.valueOf(d);
               if (num.compareTo(decimalMin) < 0){
@@ -495,6 +516,27 @@ public final class Math {
       ListValue list = xs.list();
       if (list.isEmpty()) return Values.NIL;
 
+      // packed lists are scanned without boxing
+      if (list.isPackedLongs()){
+        long packedMax = list.longAt(0);
+        for (int i = 1, size = list.size(); i < size; i++) {
+          long num = list.longAt(i);
+          if (num > packedMax) packedMax = num;
+        }
+        return Values.make(packedMax);
+      }
+
+      if (list.isPackedDoubles()){
+        double packedMax = list.doubleAt(0);
+        if (Double.isNaN(packedMax)) return Values.NIL;
+        for (int i = 1, size = list.size(); i < size; i++) {
+          double num = list.doubleAt(i);
+          if (Double.isNaN(num)) return Values.NIL;
+          if (num > packedMax) packedMax = num;
+        }
+        return Values.make(packedMax);
+      }
+
       // only one element?
       if (list.size() == 1) {
         Value v = list.get(0);
@@ -502,7 +544,7 @@ public final class Math {
           return v;
         }
         else if (v.isDoubleNum()){
-          if (v.doubleNum().isNaN()) return Values.NIL;
+          if (Double.isNaN(v.doubleValue())) return Values.NIL;
           return v;
         }
         else{
@@ -524,10 +566,10 @@ public final class Math {
       Value max = list.get(0);
       if (max.isLongNum()){
         mode = MODE_LONG;
-        longMax = max.longNum();
+        longMax = max.longValue();
       }
       else if (max.isDoubleNum()) {
-        doubleMax = max.doubleNum();
+        doubleMax = max.doubleValue();
         if (Double.isNaN(doubleMax)){
           return Values.NIL;
         }
@@ -549,7 +591,7 @@ public final class Math {
         if (mode == MODE_LONG){
           // long mode
           if (v.isLongNum()){
-            long num = v.longNum();
+            long num = v.longValue();
             if (num > longMax){
               longMax = num;
               max = v;
@@ -557,7 +599,7 @@ public final class Math {
           }
           else if (v.isDoubleNum()){
             doubleMax = longMax;
-            double num = v.doubleNum();
+            double num = v.doubleValue();
             if (Double.isNaN(num)) return Values.NIL;
             if (num > doubleMax){
               doubleMax = num;
@@ -581,14 +623,14 @@ public final class Math {
         else if (mode == MODE_DOUBLE){
           // double mode
           if (v.isLongNum()){
-            long num = v.longNum();
+            long num = v.longValue();
             if (num > doubleMax){
               doubleMax = num;
               max = v;
             }
           }
           else if (v.isDoubleNum()){
-            double num = v.doubleNum();
+            double num = v.doubleValue();
             if (Double.isNaN(num)) return Values.NIL;
             if (num > doubleMax){
               doubleMax = num;
@@ -610,14 +652,14 @@ public final class Math {
         else {
           // decimal mode
           if (v.isLongNum()){
-            BigDecimal num = BigDecimal.valueOf(v.longNum());
+            BigDecimal num = BigDecimal.valueOf(v.longValue());
             if (num.compareTo(decimalMax) > 0){
               decimalMax = num;
               max = v;
             }
           }
           else if (v.isDoubleNum()){
-            double d = v.doubleNum();
+            double d = v.doubleValue();
             if (Double.isFinite(d)){
               BigDecimal num = BigDecimal.valueOf(d);
               if (num.compareTo(decimalMax) > 0){
@@ -659,7 +701,7 @@ public final class Math {
     public Value call(UserCallContext context, Value x) {
 
       if (x == Values.NIL) return Values.NIL;
-      return Values.make(java.lang.Math.round(x.doubleNum()));
+      return Values.make(java.lang.Math.round(x.doubleValue()));
 
     }
   }
@@ -672,7 +714,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.ceil(x.doubleNum())
+          java.lang.Math.ceil(x.doubleValue())
       );
     }
   }
@@ -685,7 +727,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.floor(x.doubleNum())
+          java.lang.Math.floor(x.doubleValue())
       );
     }
   }
@@ -697,7 +739,7 @@ public final class Math {
     public Value call(UserCallContext context, Value x) {
       if (x.isNil()) return Values.FALSE;
       if (!x.isDoubleNum()) return Values.FALSE;
-      return Double.isNaN(x.doubleNum()) ? Values.TRUE : Values.FALSE;
+      return Double.isNaN(x.doubleValue()) ? Values.TRUE : Values.FALSE;
     }
   }
 
@@ -709,7 +751,7 @@ public final class Math {
       if (x.isNil()) return Values.FALSE;
       if (!x.isNumeric()) throw new LangException(LangError.ILLEGAL_ARGUMENT, "x must be numeric, found: "+x);
       if (!x.isDoubleNum()) return Values.TRUE;
-      return Double.isFinite(x.doubleNum()) ? Values.TRUE : Values.FALSE;
+      return Double.isFinite(x.doubleValue()) ? Values.TRUE : Values.FALSE;
     }
   }
 
@@ -721,7 +763,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.sqrt(x.doubleNum())
+          java.lang.Math.sqrt(x.doubleValue())
       );
     }
   }
@@ -732,7 +774,7 @@ public final class Math {
     @Override
     public Value call(UserCallContext context, Value x) {
       if (x == Values.NIL) return Values.NIL;
-      return Values.make(Long.bitCount(x.longNum()));
+      return Values.make(Long.bitCount(x.longValue()));
     }
   }
 
@@ -742,7 +784,7 @@ public final class Math {
     @Override
     public Value call(UserCallContext context, Value n) {
       if (n == Values.NIL) return Values.NIL;
-      long x = n.longNum();
+      long x = n.longValue();
       if (x < 0){
         throw new LangException(LangError.ILLEGAL_ARGUMENT, "cannot calculate factorial of negative value: "+x);
       }
@@ -763,7 +805,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.sin(x.doubleNum())
+          java.lang.Math.sin(x.doubleValue())
       );
     }
   }
@@ -776,7 +818,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.cos(x.doubleNum())
+          java.lang.Math.cos(x.doubleValue())
       );
     }
   }
@@ -789,7 +831,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.tan(x.doubleNum())
+          java.lang.Math.tan(x.doubleValue())
       );
     }
   }
@@ -802,7 +844,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.asin(x.doubleNum())
+          java.lang.Math.asin(x.doubleValue())
       );
     }
   }
@@ -815,7 +857,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.acos(x.doubleNum())
+          java.lang.Math.acos(x.doubleValue())
       );
     }
   }
@@ -828,7 +870,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.atan(x.doubleNum())
+          java.lang.Math.atan(x.doubleValue())
       );
     }
   }
@@ -841,7 +883,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.log(x.doubleNum())
+          java.lang.Math.log(x.doubleValue())
       );
     }
   }
@@ -854,7 +896,7 @@ public final class Math {
       if (x.isNil()) return Values.NIL;
 
       return Values.make(
-          java.lang.Math.log10(x.doubleNum())
+          java.lang.Math.log10(x.doubleValue())
       );
     }
   }
@@ -874,10 +916,10 @@ public final class Math {
 
       String out;
       if (x.isDoubleNum()){
-        out = formatter.format(x.doubleNum());
+        out = formatter.format(x.doubleValue());
       }
       else if (x.isLongNum()){
-        out = formatter.format(x.longNum());
+        out = formatter.format(x.longValue());
       }
       else if (x.isDecimal()){
         out = formatter.format(x.decimal());
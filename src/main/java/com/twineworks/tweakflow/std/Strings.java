@@ -48,19 +48,12 @@ public final class Strings {
       ListValue xsList = xs.list();
       if (xsList == null) return Values.NIL;
 
-      StringBuilder b = new StringBuilder();
+      Value[] parts = new Value[xsList.size()];
+      int i = 0;
       for (Value x : xsList) {
-
-        Value value = x.castTo(Types.STRING);
-
-        if (value.isNil()) {
-          b.append("nil");
-        } else {
-          b.append(value.string());
-        }
-
+        parts[i++] = x.castTo(Types.STRING);
       }
-      return Values.make(b.toString());
+      return Values.concat(parts);
     }
   }
 
@@ -193,25 +186,19 @@ public final class Strings {
       String sep = s.string();
       boolean emptySep = sep.isEmpty();
 
-      StringBuilder b = new StringBuilder();
+      if (list.isEmpty()) return Values.EMPTY_STRING;
+
+      Value[] parts = new Value[emptySep ? list.size() : 2*list.size()-1];
 
       int i = 0;
       for (Value x : list) {
 
-        if (!emptySep && i > 0) b.append(sep);
-
-        Value value = x.castTo(Types.STRING);
+        if (!emptySep && i > 0) parts[i++] = s;
+        parts[i++] = x.castTo(Types.STRING);
 
-        if (value.isNil()) {
-          b.append("nil");
-        } else {
-          b.append(value.string());
-        }
-
-        i++;
       }
 
-      return Values.make(b.toString());
+      return Values.concat(parts);
     }
   }
 
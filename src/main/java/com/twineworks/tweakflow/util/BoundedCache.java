@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.util;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// bounded cache with hit and miss counts, safe for concurrent use
+// lookups do not lock, stores are serialized while they update the eviction order
+// eviction approximates least recently used: entries sit on a clock ring, and the
+// hand skips entries that were read since it last passed them
+public final class BoundedCache<K, V> {
+
+  private static final class Entry<K, V> {
+
+    private final K key;
+    private final V value;
+    private volatile boolean referenced;
+
+    private Entry(K key, V value) {
+      this.key = key;
+      this.value = value;
+    }
+  }
+
+  private final int capacity;
+  private final ConcurrentHashMap<K, Entry<K, V>> map = new ConcurrentHashMap<>();
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  // guarded by this, the ring grows up to capacity
+  private Entry<?, ?>[] ring;
+  private int count;
+  private int hand;
+
+  public BoundedCache(int capacity) {
+    if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive, got: "+capacity);
+    this.capacity = capacity;
+    this.ring = new Entry<?, ?>[Math.min(capacity, 16)];
+  }
+
+  public V get(K key) {
+    Entry<K, V> e = map.get(key);
+    if (e == null){
+      misses.increment();
+      return null;
+    }
+    hits.increment();
+    if (!e.referenced) e.referenced = true;
+    return e.value;
+  }
+
+  // returns the cached value, which is given value unless another thread stored one first
+  public V putIfAbsent(K key, V value) {
+    synchronized (this){
+      Entry<K, V> existing = map.get(key);
+      if (existing != null) return existing.value;
+
+      Entry<K, V> e = new Entry<>(key, value);
+      if (count < capacity){
+        if (count == ring.length){
+          ring = Arrays.copyOf(ring, (int) Math.min((long) count * 2, capacity));
+        }
+        ring[count++] = e;
+      }
+      else {
+        ring[evict()] = e;
+      }
+      map.put(key, e);
+      return value;
+    }
+  }
+
+  // removes an entry that has not been read recently, returns its ring index
+  private int evict() {
+    while (true){
+      @SuppressWarnings("unchecked")
+      Entry<K, V> e = (Entry<K, V>) ring[hand];
+      int idx = hand;
+      hand = (hand + 1) % capacity;
+      if (e.referenced){
+        e.referenced = false;
+      }
+      else {
+        map.remove(e.key, e);
+        return idx;
+      }
+    }
+  }
+
+  public int size() {
+    return map.size();
+  }
+
+  public int capacity() {
+    return capacity;
+  }
+
+  public long hits() {
+    return hits.sum();
+  }
+
+  public long misses() {
+    return misses.sum();
+  }
+
+  public double hitRate() {
+    long h = hits.sum();
+    long lookups = h + misses.sum();
+    return lookups == 0 ? 0.0 : (double) h / lookups;
+  }
+
+  public void clear() {
+    synchronized (this){
+      map.clear();
+      ring = new Entry<?, ?>[Math.min(capacity, 16)];
+      count = 0;
+      hand = 0;
+    }
+    hits.reset();
+    misses.reset();
+  }
+
+}
@@ -55,12 +55,17 @@ public class TestHelper {
       .build();
 
   public static Collection<DynamicTest> dynamicTestsSpecModule(String path) {
+    return dynamicTestsSpecModule(path, false);
+  }
+
+  public static Collection<DynamicTest> dynamicTestsSpecModule(String path, boolean compiledOps) {
 
     Runtime runtime;
     List<String> paths = Collections.singletonList(path);
 
     try {
       runtime = TweakFlow.compile(loadPath, paths, new SimpleDebugHandler(System.err, false), true);
+      runtime.setCompiledOps(compiledOps);
       runtime.evaluate();
     } catch (LangException e) {
       e.printDigestMessageAndStackTrace();
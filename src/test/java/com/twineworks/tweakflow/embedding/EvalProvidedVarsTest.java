@@ -30,6 +30,7 @@ import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
 import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
 import com.twineworks.tweakflow.lang.runtime.Runtime;
 import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.ValueProvider;
 import com.twineworks.tweakflow.lang.values.Values;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
@@ -241,4 +242,91 @@ public class EvalProvidedVarsTest {
       a.update(null);
     });
   }
+
+  @Test
+  public void re_evaluates_dependants_of_changed_key_paths_only() throws Exception {
+
+    String module = "import data from 'std';" +
+        "library lib {" +
+        "provided dict input; " +
+        "tier: {:tier input[:customer, :tier]};" +
+        "name: {:name input[:customer][:name]};" +
+        "first: {:first input[:items, 0]};" +
+        "label: {:label tier[:tier] .. '/' .. name[:name]};" +
+        "size: {:size data.size(input)};" +
+        "}";
+    Runtime.Module m = compileModule(module);
+    Runtime.Library lib = m.getLibrary("lib");
+    Runtime.Var input = lib.getVar("input");
+    Runtime.Var tier = lib.getVar("tier");
+    Runtime.Var name = lib.getVar("name");
+    Runtime.Var first = lib.getVar("first");
+    Runtime.Var label = lib.getVar("label");
+    Runtime.Var size = lib.getVar("size");
+
+    Value customer = Values.makeDict("tier", "gold", "name", "Joe");
+    Value items = Values.makeList(1L, 2L);
+    Runtime.ChangeSensitiveUpdateBatch batch = m.getRuntime().createChangeSensitiveUpdateBatch(new Runtime.Var[]{input});
+    batch.update(new ValueProvider[]{() -> Values.makeDict("customer", customer, "items", items, "seq", 1L)});
+
+    Value tier0 = tier.getValue();
+    Value name0 = name.getValue();
+    Value first0 = first.getValue();
+    Value label0 = label.getValue();
+    Value size0 = size.getValue();
+    assertThat(label0).isEqualTo(Values.makeDict("label", "gold/Joe"));
+
+    // only an unrelated key changes, the whole value reader re-evaluates
+    batch.update(new ValueProvider[]{() -> Values.makeDict("customer", customer, "items", items, "seq", 2L)});
+    assertThat(tier.getValue()).isSameAs(tier0);
+    assertThat(name.getValue()).isSameAs(name0);
+    assertThat(first.getValue()).isSameAs(first0);
+    assertThat(label.getValue()).isSameAs(label0);
+    assertThat(size.getValue()).isNotSameAs(size0);
+
+    // the tier changes, tier re-evaluates and so does label through it
+    input.update(Values.makeDict("customer", Values.makeDict("tier", "silver", "name", "Joe"), "items", items, "seq", 2L));
+    assertThat(tier.getValue()).isEqualTo(Values.makeDict("tier", "silver"));
+    assertThat(name.getValue()).isSameAs(name0);
+    assertThat(first.getValue()).isSameAs(first0);
+    assertThat(label.getValue()).isEqualTo(Values.makeDict("label", "silver/Joe"));
+
+    // a list index changes
+    m.getRuntime().updateVars(input, Values.makeDict("customer", Values.makeDict("tier", "silver", "name", "Joe"), "items", Values.makeList(3L), "seq", 2L));
+    assertThat(name.getValue()).isSameAs(name0);
+    assertThat(first.getValue()).isEqualTo(Values.makeDict("first", 3L));
+
+    // keys vanishing count as changes
+    input.update(Values.makeDict("seq", 2L));
+    assertThat(tier.getValue()).isEqualTo(Values.makeDict("tier", Values.NIL));
+    assertThat(name.getValue()).isEqualTo(Values.makeDict("name", Values.NIL));
+    assertThat(first.getValue()).isEqualTo(Values.makeDict("first", Values.NIL));
+    assertThat(label.getValue()).isEqualTo(Values.makeDict("label", "nil/nil"));
+
+  }
+
+  @Test
+  public void re_evaluates_dependants_reading_through_functions() throws Exception {
+
+    String module = "library lib {" +
+        "provided dict input; " +
+        "f: (x) -> x .. input[:a];" +
+        "r: {:r f('x')};" +
+        "}";
+    Runtime.Module m = compileModule(module);
+    Runtime.Library lib = m.getLibrary("lib");
+    Runtime.Var input = lib.getVar("input");
+    Runtime.Var r = lib.getVar("r");
+
+    input.update(Values.makeDict("a", "1", "b", "1"));
+    Value r0 = r.getValue();
+    assertThat(r0).isEqualTo(Values.makeDict("r", "x1"));
+
+    input.update(Values.makeDict("a", "1", "b", "2"));
+    assertThat(r.getValue()).isSameAs(r0);
+
+    input.update(Values.makeDict("a", "2", "b", "2"));
+    assertThat(r.getValue()).isEqualTo(Values.makeDict("r", "x2"));
+
+  }
 }
@@ -495,6 +495,43 @@ class OutTest {
 
   }
 
+  @Test
+  void reads_through_interner() throws Exception {
+
+    ValueInterner interner = new ValueInterner(16);
+
+    try (Out out = new Out(w, 17)) {
+      for (int i=0;i<100;i++){
+        out.write(Values.makeDict(
+            "status", i % 2 == 0 ? "active" : "inactive",
+            "amount", new BigDecimal("1.50"),
+            "at", Instant.EPOCH
+        ));
+      }
+    }
+    w.close();
+
+    try (In in = new In(r, 17, interner)){
+      Value first = in.readNext();
+      for (int i=1;i<100;i++){
+        Value v = in.readNext();
+        assertThat(v.dict().get("amount")).isSameAs(first.dict().get("amount"));
+        assertThat(v.dict().get("at")).isSameAs(first.dict().get("at"));
+        if (i % 2 == 0){
+          assertThat(v).isEqualTo(first);
+          assertThat(v.dict().get("status")).isSameAs(first.dict().get("status"));
+        }
+      }
+      Value end = in.readNext();
+      assertThat(end).isNull();
+    }
+    r.close();
+
+    assertThat(interner.size()).isLessThanOrEqualTo(16);
+    assertThat(interner.hits()).isGreaterThan(0);
+
+  }
+
   @Test
   void cannot_serialize_functions() throws Exception {
 
@@ -1,6 +1,8 @@
 package com.twineworks.tweakflow.io.chunk;
 
+import com.twineworks.tweakflow.lang.values.ListValue;
 import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.ValueInterner;
 import com.twineworks.tweakflow.lang.values.Values;
 import org.junit.jupiter.api.Test;
 
@@ -65,6 +67,23 @@ class ChunkInTest {
 
   }
 
+  @Test
+  void reads_through_interner() throws Exception {
+
+    ValueInterner interner = new ValueInterner(16);
+    Value src = Values.makeList("NL", "DE", "NL", "This is longer than chunk size.", "This is longer than chunk size.");
+
+    ChunkIn in = new ChunkIn(getChunks(src, 16), interner);
+    ListValue v = in.read().list();
+
+    assertThat(v).isEqualTo(src.list());
+    assertThat(v.get(2)).isSameAs(v.get(0));
+    assertThat(v.get(4)).isSameAs(v.get(3));
+    assertThat(interner.hits()).isEqualTo(2);
+    assertThat(interner.misses()).isEqualTo(3);
+
+  }
+
   @Test
   void reads_string_parts() throws Exception {
 
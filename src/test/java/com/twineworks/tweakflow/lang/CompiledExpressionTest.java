@@ -0,0 +1,245 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang;
+
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CompiledExpressionTest {
+
+  @Test
+  void evaluates_with_bound_inputs() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("a", Types.LONG)
+        .input("b", Types.LONG)
+        .expression("a * 10 + b")
+        .build();
+
+    assertThat(exp.getInputNames()).containsExactly("a", "b");
+    assertThat(exp.evaluate(Values.make(1L), Values.make(2L))).isEqualTo(Values.make(12L));
+    assertThat(exp.evaluate(Values.make(3L), Values.make(4L))).isEqualTo(Values.make(34L));
+  }
+
+  @Test
+  void casts_inputs_to_declared_types() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("x", Types.LONG)
+        .input("s", Types.STRING)
+        .expression("s .. x")
+        .build();
+
+    assertThat(exp.evaluate(Values.make("42"), Values.make(1L))).isEqualTo(Values.make("142"));
+
+    LangException e = assertThrows(LangException.class, () -> exp.evaluate(Values.make("foo"), Values.make("bar")));
+    assertThat(e.getCode()).isEqualTo(LangError.CAST_ERROR);
+  }
+
+  @Test
+  void evaluates_with_named_inputs() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("customer")
+        .input("discount", Types.DOUBLE)
+        .expression("let {tier: customer[:tier];} if tier == \"gold\" then (discount default 0.0) + 0.1 else discount")
+        .build();
+
+    Map<String, Value> inputs = new HashMap<>();
+    inputs.put("customer", Values.makeDict("tier", "gold"));
+    assertThat(exp.evaluate(inputs)).isEqualTo(Values.make(0.1));
+
+    inputs.put("discount", Values.make(0.5));
+    assertThat(exp.evaluate(inputs)).isEqualTo(Values.make(0.6));
+
+    inputs.put("customer", Values.makeDict("tier", "silver"));
+    assertThat(exp.evaluate(inputs)).isEqualTo(Values.make(0.5));
+
+    // missing inputs are nil
+    assertThat(exp.evaluate(Collections.emptyMap())).isEqualTo(Values.NIL);
+  }
+
+  @Test
+  void evaluates_without_inputs() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .expression("for x <- [1, 2, 3], x * 2")
+        .build();
+
+    assertThat(exp.getInputNames()).isEmpty();
+    assertThat(exp.evaluate()).isEqualTo(Values.makeList(2L, 4L, 6L));
+  }
+
+  @Test
+  void rejects_invalid_inputs() {
+    assertThrows(IllegalArgumentException.class, () -> new CompiledExpression.Builder().input("a").input("a"));
+    assertThrows(IllegalArgumentException.class, () -> new CompiledExpression.Builder().input(null));
+    assertThrows(IllegalArgumentException.class, () -> new CompiledExpression.Builder().build());
+
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("a")
+        .expression("a")
+        .build();
+
+    assertThrows(IllegalArgumentException.class, () -> exp.evaluate(Values.make(1L), Values.make(2L)));
+    assertThrows(IllegalArgumentException.class, () -> exp.evaluate(Collections.singletonMap("b", Values.NIL)));
+  }
+
+  @Test
+  void reports_unresolved_references_at_build_time() {
+    LangException e = assertThrows(LangException.class, () -> new CompiledExpression.Builder()
+        .input("a")
+        .expression("a + b")
+        .build());
+    assertThat(e.getCode()).isEqualTo(LangError.UNRESOLVED_REFERENCE);
+  }
+
+  @Test
+  void evaluates_concurrently() throws Exception {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("n", Types.LONG)
+        .expression("let {sum: (long i) -> if i <= 0 then 0 else i + sum(i - 1);} sum(n)")
+        .build();
+
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Value>> results = new ArrayList<>();
+      for (int i = 0; i < 64; i++) {
+        long n = i;
+        results.add(pool.submit(() -> exp.evaluate(Values.make(n))));
+      }
+      for (int i = 0; i < results.size(); i++) {
+        assertThat(results.get(i).get()).isEqualTo(Values.make((long) i * (i + 1) / 2));
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void evaluates_rows() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("price", Types.DOUBLE)
+        .input("qty", Types.LONG)
+        .expression("price * qty")
+        .build();
+
+    List<Map<String, Value>> rows = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      Map<String, Value> row = new HashMap<>();
+      row.put("price", Values.make(i * 0.5));
+      row.put("qty", Values.make("2"));
+      rows.add(row);
+    }
+
+    ListValue results = exp.evaluateRows(rows);
+    assertThat(results.size()).isEqualTo(100);
+    for (int i = 0; i < 100; i++) {
+      assertThat(results.get(i)).isEqualTo(Values.make(i * 1.0));
+    }
+
+    assertThat(exp.evaluateRows(Collections.emptyList())).isEqualTo(Values.EMPTY_LIST.list());
+  }
+
+  @Test
+  void evaluates_columns() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("a", Types.LONG)
+        .input("b", Types.LONG)
+        .expression("if a > b then a else b")
+        .build();
+
+    ListValue results = exp.evaluateColumns(
+        Values.makeList(1L, 5L, 3L).list(),
+        Values.makeList(4L, 2L, 3L).list());
+
+    assertThat(results).isEqualTo(Values.makeList(4L, 5L, 3L).list());
+
+    assertThrows(IllegalArgumentException.class, () -> exp.evaluateColumns(Values.makeList(1L).list()));
+    assertThrows(IllegalArgumentException.class, () -> exp.evaluateColumns(
+        Values.makeList(1L).list(),
+        Values.makeList(1L, 2L).list()));
+  }
+
+  @Test
+  void evaluates_columns_in_parallel() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("x", Types.LONG)
+        .expression("let {f: (long i) -> if i <= 0 then 0 else i + f(i - 1);} f(x % 50)")
+        .build();
+
+    int size = 10000;
+    long[] xs = new long[size];
+    for (int i = 0; i < size; i++) {
+      xs[i] = i;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      ListValue sequential = exp.evaluateColumns(ListValue.ofLongs(xs));
+      ListValue parallel = exp.evaluateColumns(pool, ListValue.ofLongs(xs));
+      assertThat(parallel).isEqualTo(sequential);
+      assertThat(parallel.get(99)).isEqualTo(Values.make(49L * 50 / 2));
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void reports_failing_rows_in_parallel() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("x", Types.LONG)
+        .expression("if x == 5000 then throw \"bad row\" else x")
+        .build();
+
+    long[] xs = new long[10000];
+    for (int i = 0; i < xs.length; i++) {
+      xs[i] = i;
+    }
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      LangException e = assertThrows(LangException.class, () -> exp.evaluateColumns(pool, ListValue.ofLongs(xs)));
+      assertThat(e.getCode()).isEqualTo(LangError.CUSTOM_ERROR);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+}
@@ -0,0 +1,153 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang;
+
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.interpreter.CallContext;
+import com.twineworks.tweakflow.lang.interpreter.EvaluationContext;
+import com.twineworks.tweakflow.lang.interpreter.Stack;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import com.twineworks.tweakflow.std.Core;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ExpressionCacheTest {
+
+  @Test
+  void compiles_expressions_once() {
+    ExpressionCache cache = new ExpressionCache(16);
+    String exp = "let {a: 1; b: 2;} for x <- [a, b], x * 10";
+
+    Value first = cache.evaluate(exp, false);
+    Value second = cache.evaluate(exp, false);
+
+    assertThat(first).isEqualTo(Values.makeList(10L, 20L));
+    assertThat(second).isEqualTo(first);
+    assertThat(cache.compile(exp, false)).isSameAs(cache.compile(exp, false));
+    assertThat(cache.hits()).isEqualTo(3);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.hitRate()).isEqualTo(0.75);
+    assertThat(cache.size()).isEqualTo(1);
+
+    // native function permissions are part of the key
+    cache.evaluate(exp, true);
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.misses()).isEqualTo(2);
+
+    cache.clear();
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(cache.hits()).isEqualTo(0);
+    assertThat(cache.hitRate()).isEqualTo(0.0);
+  }
+
+  @Test
+  void evicts_least_recently_used() {
+    ExpressionCache cache = new ExpressionCache(2);
+    cache.evaluate("1", false);
+    cache.evaluate("2", false);
+    cache.evaluate("1", false);
+    cache.evaluate("3", false);
+
+    assertThat(cache.size()).isEqualTo(2);
+    assertThat(cache.capacity()).isEqualTo(2);
+
+    cache.evaluate("1", false);
+    assertThat(cache.hits()).isEqualTo(2);
+    cache.evaluate("2", false);
+    assertThat(cache.misses()).isEqualTo(4);
+  }
+
+  @Test
+  void does_not_cache_errors() {
+    ExpressionCache cache = new ExpressionCache(4);
+    assertThrows(LangException.class, () -> cache.evaluate("1 +", false));
+    assertThrows(LangException.class, () -> cache.evaluate("1 +", false));
+    assertThat(cache.size()).isEqualTo(0);
+
+    // runtime errors are raised on each evaluation
+    assertThrows(LangException.class, () -> cache.evaluate("throw 'err'", false));
+    assertThrows(LangException.class, () -> cache.evaluate("throw 'err'", false));
+    assertThat(cache.size()).isEqualTo(1);
+  }
+
+  @Test
+  void rejects_invalid_capacity() {
+    assertThrows(IllegalArgumentException.class, () -> new ExpressionCache(0));
+  }
+
+  @Test
+  void backs_evaluate_and_core_eval() {
+    ExpressionCache previous = TweakFlow.getExpressionCache();
+    ExpressionCache cache = new ExpressionCache(8);
+    TweakFlow.setExpressionCache(cache);
+    try {
+      assertThat(TweakFlow.evaluate("1+2")).isEqualTo(Values.make(3L));
+      assertThat(TweakFlow.evaluate("1+2")).isEqualTo(Values.make(3L));
+      CallContext context = new CallContext(new Stack(), new EvaluationContext());
+      assertThat(new Core.eval().call(context, Values.make("1+2"))).isEqualTo(Values.make(3L));
+      assertThat(new Core.eval().call(context, Values.make("1+2"))).isEqualTo(Values.make(3L));
+      assertThat(cache.hits()).isEqualTo(2);
+      assertThat(cache.misses()).isEqualTo(2);
+
+      TweakFlow.setExpressionCache(null);
+      assertThat(TweakFlow.evaluate("1+2")).isEqualTo(Values.make(3L));
+      assertThat(cache.hits() + cache.misses()).isEqualTo(4);
+    }
+    finally {
+      TweakFlow.setExpressionCache(previous);
+    }
+  }
+
+  @Test
+  void evaluates_concurrently() throws Exception {
+    ExpressionCache cache = new ExpressionCache(8);
+    String exp = "let {f: (x) -> x * x;} for x <- [1, 2, 3, 4], f(x)";
+    ExecutorService pool = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<Value>> results = new ArrayList<>();
+      for (int i = 0; i < 100; i++) {
+        results.add(pool.submit(() -> cache.evaluate(exp, false)));
+      }
+      for (Future<Value> result : results) {
+        assertThat(result.get()).isEqualTo(Values.makeList(1L, 4L, 9L, 16L));
+      }
+    }
+    finally {
+      pool.shutdown();
+    }
+    assertThat(cache.size()).isEqualTo(1);
+    assertThat(cache.hits() + cache.misses()).isEqualTo(100);
+  }
+
+}
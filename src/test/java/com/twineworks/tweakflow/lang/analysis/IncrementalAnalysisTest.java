@@ -0,0 +1,134 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.analysis;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IncrementalAnalysisTest {
+
+  private LoadPath loadPath(Map<String, String> modules) {
+    MemoryLocation.Builder location = new MemoryLocation.Builder();
+    for (String name : modules.keySet()) {
+      location.add(name, modules.get(name));
+    }
+    return new LoadPath.Builder()
+        .addStdLocation()
+        .add(location.build())
+        .build();
+  }
+
+  private Map<String, String> modules(String base) {
+    Map<String, String> modules = new HashMap<>();
+    modules.put("base.tf", base);
+    modules.put("conf.tf", "global module conf;\n export library conf { factor: 10; provided offset; }");
+    modules.put("mid.tf", "import lib as base from 'base.tf';\n export library lib { y: base.x * $conf.conf.factor + ($conf.conf.offset default 0); }");
+    modules.put("top.tf", "import lib as mid from 'mid.tf';\n export library lib { z: mid.y + 1; }");
+    modules.put("other.tf", "import data from 'std';\n export library lib { w: data.size([1, 2, 3]); }");
+    return modules;
+  }
+
+  private Value value(Runtime runtime, String module, String var) {
+    Runtime.Module m = runtime.getModules().get(runtime.unitKey(module));
+    return m.getLibrary("lib").getVar(var).getValue();
+  }
+
+  private AnalysisUnit unit(Runtime runtime, String path) {
+    return runtime.getRuntimeSet().getAnalysisSet().getUnits().get(runtime.unitKey(path));
+  }
+
+  @Test
+  void reanalyzes_changed_modules_and_their_dependants() {
+
+    Runtime previous = TweakFlow.compile(loadPath(modules("export library lib { x: 1; }")), Arrays.asList("conf.tf", "top.tf", "other.tf"));
+    previous.evaluate();
+    assertThat(value(previous, "top.tf", "z")).isEqualTo(Values.make(11L));
+    assertThat(value(previous, "other.tf", "w")).isEqualTo(Values.make(3L));
+
+    Runtime runtime = TweakFlow.recompile(previous, loadPath(modules("export library lib { x: 2; }")), Collections.singletonList("base.tf"));
+    runtime.evaluate();
+
+    assertThat(value(runtime, "base.tf", "x")).isEqualTo(Values.make(2L));
+    assertThat(value(runtime, "mid.tf", "y")).isEqualTo(Values.make(20L));
+    assertThat(value(runtime, "top.tf", "z")).isEqualTo(Values.make(21L));
+    assertThat(value(runtime, "other.tf", "w")).isEqualTo(Values.make(3L));
+
+    // changed modules and their dependants are analyzed again, others carry over
+    for (String path : Arrays.asList("base.tf", "mid.tf", "top.tf")) {
+      assertThat(unit(runtime, path).getUnit()).isNotSameAs(unit(previous, path).getUnit());
+    }
+    for (String path : Arrays.asList("conf.tf", "other.tf", "std")) {
+      assertThat(unit(runtime, path).getUnit()).isSameAs(unit(previous, path).getUnit());
+    }
+
+    // the previous runtime is unaffected
+    assertThat(value(previous, "top.tf", "z")).isEqualTo(Values.make(11L));
+
+    // updates propagate from carried over modules to analyzed modules
+    runtime.getModules().get(runtime.unitKey("conf.tf")).getLibrary("conf").getVar("offset").update(Values.make(5L));
+    assertThat(value(runtime, "top.tf", "z")).isEqualTo(Values.make(26L));
+
+  }
+
+  @Test
+  void reanalyzes_dependants_of_global_modules() {
+
+    Map<String, String> modules = modules("export library lib { x: 1; }");
+    Runtime previous = TweakFlow.compile(loadPath(modules), Arrays.asList("conf.tf", "top.tf"));
+
+    modules.put("conf.tf", "global module conf;\n export library conf { factor: 100; provided offset; }");
+    Runtime runtime = TweakFlow.recompile(previous, loadPath(modules), Collections.singletonList("conf.tf"));
+    runtime.evaluate();
+
+    assertThat(value(runtime, "top.tf", "z")).isEqualTo(Values.make(101L));
+    assertThat(unit(runtime, "base.tf").getUnit()).isSameAs(unit(previous, "base.tf").getUnit());
+
+  }
+
+  @Test
+  void reports_errors_in_changed_modules() {
+
+    Map<String, String> modules = modules("export library lib { x: 1; }");
+    Runtime previous = TweakFlow.compile(loadPath(modules), Arrays.asList("conf.tf", "top.tf"));
+
+    modules.put("base.tf", "export library lib { x: y; }");
+    AnalysisResult result = Analysis.analyze(previous.getRuntimeSet().getAnalysisResult(), loadPath(modules), Collections.singletonList("base.tf"));
+
+    assertThat(result.isError()).isTrue();
+
+  }
+
+}
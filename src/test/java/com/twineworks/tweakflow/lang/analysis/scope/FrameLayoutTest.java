@@ -0,0 +1,181 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.analysis.scope;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.ast.Node;
+import com.twineworks.tweakflow.lang.ast.expressions.ReferenceNode;
+import com.twineworks.tweakflow.lang.interpreter.ops.ClosureReferenceOp;
+import com.twineworks.tweakflow.lang.interpreter.ops.FrameReferenceOp;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.scope.LocalScope;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class FrameLayoutTest {
+
+  private Value evalVar(String src, String var) {
+    Map<String, String> modules = new HashMap<>();
+    modules.put("main", "library lib {" + src + "}");
+    Runtime runtime = TweakFlow.compile(modules);
+    runtime.evaluate();
+    return runtime.getModules().get(runtime.unitKey("main")).getLibrary("lib").getVar(var).getValue();
+  }
+
+  // all references named name in the analyzed library, in source order
+  private List<ReferenceNode> references(String src, String name) {
+    Map<String, String> modules = new HashMap<>();
+    modules.put("main", "library lib {" + src + "}");
+    Runtime runtime = TweakFlow.compile(modules);
+    Node unit = runtime.getRuntimeSet().getAnalysisSet().getUnits().get(runtime.unitKey("main")).getUnit();
+    List<ReferenceNode> found = new ArrayList<>();
+    collectReferences(unit, name, found);
+    return found;
+  }
+
+  private void collectReferences(Node node, String name, List<ReferenceNode> found) {
+    if (node == null) return;
+    if (node instanceof ReferenceNode) {
+      ReferenceNode ref = (ReferenceNode) node;
+      if (ref.getElements().size() == 1 && ref.getElements().get(0).equals(name)) {
+        found.add(ref);
+      }
+    }
+    for (Node child : node.getChildren()) {
+      collectReferences(child, name, found);
+    }
+  }
+
+  private void assertFrameReference(ReferenceNode ref, int depth) {
+    assertThat(ref.getOp()).isInstanceOf(FrameReferenceOp.class);
+    FrameReferenceOp op = (FrameReferenceOp) ref.getOp();
+    LocalScope symbolScope = (LocalScope) ref.getReferencedSymbol().getScope();
+    assertThat(op.getDepth()).isEqualTo(depth);
+    assertThat(op.getSlot()).isEqualTo(symbolScope.getFrameSlot(ref.getElements().get(0)));
+  }
+
+  @Test
+  public void assigns_depth_and_slot_to_local_references() {
+    String src = "f: (x) -> let {a: x+1;} let {b: a*2;} b+a+x;";
+
+    List<ReferenceNode> xs = references(src, "x");
+    assertThat(xs).hasSize(2);
+    // x+1 is evaluated in the frame of the outer let
+    assertFrameReference(xs.get(0), 1);
+    // b+a+x is evaluated in the frame of the inner let
+    assertFrameReference(xs.get(1), 2);
+
+    List<ReferenceNode> as = references(src, "a");
+    assertThat(as).hasSize(2);
+    assertFrameReference(as.get(0), 1);
+    assertFrameReference(as.get(1), 1);
+
+    List<ReferenceNode> bs = references(src, "b");
+    assertThat(bs).hasSize(1);
+    assertFrameReference(bs.get(0), 0);
+  }
+
+  @Test
+  public void assigns_slots_to_match_and_for_locals() {
+    String src = "f: (xs) -> for x <- xs, y: x*2, match y 4 -> y, @z -> z+x;";
+
+    for (ReferenceNode ref : references(src, "z")) {
+      assertFrameReference(ref, 0);
+    }
+    List<ReferenceNode> ys = references(src, "y");
+    assertThat(ys).hasSize(2);
+    // the match subject is in the for frame, the line result in the match line frame
+    assertFrameReference(ys.get(0), 0);
+    assertFrameReference(ys.get(1), 1);
+  }
+
+  @Test
+  public void reads_closures_through_captured_values() {
+    String src = "f: (x) -> let {a: x; g: (y) -> let {b: y;} (z) -> a+b+z;} g(2)(3);";
+
+    List<ReferenceNode> as = references(src, "a");
+    assertThat(as).hasSize(1);
+    assertThat(as.get(0).getOp()).isInstanceOf(ClosureReferenceOp.class);
+
+    List<ReferenceNode> zs = references(src, "z");
+    assertThat(zs).hasSize(1);
+    assertFrameReference(zs.get(0), 0);
+  }
+
+  @Test
+  public void reads_locals_across_nested_frames() {
+    Value v = evalVar(
+        "f: (x) -> let {a: x+1;} let {b: a*2;} for i <- [1, 2], j: i+b, j+a+x;" +
+            "out: f(1);",
+        "out"
+    );
+    // a=2, b=4, i+b+a+x = i+7
+    assertThat(v).isEqualTo(Values.makeList(8L, 9L));
+  }
+
+  @Test
+  public void reads_locals_from_match_and_catch_frames() {
+    Value v = evalVar(
+        "f: (x) -> let {a: 10;} match x [@h, @t] -> h+t+a, default -> try throw x catch e e+a;" +
+            "out: [f([1, 2]), f(5)];",
+        "out"
+    );
+    assertThat(v).isEqualTo(Values.makeList(13L, 15L));
+  }
+
+  @Test
+  public void captures_locals_in_closures() {
+    Value v = evalVar(
+        "f: (x) -> let {a: x; g: (y) -> let {b: y;} (z) -> a+b+z;} g(2)(3);" +
+            "out: f(1);",
+        "out"
+    );
+    assertThat(v).isEqualTo(Values.make(6L));
+  }
+
+  @Test
+  public void evaluates_recursive_local_functions() {
+    Value v = evalVar(
+        "out: let {n: 10; fact: (x) -> if x <= 1 then 1 else x*fact(x-1);} fact(n);",
+        "out"
+    );
+    assertThat(v).isEqualTo(Values.make(3628800L));
+  }
+
+  @Test
+  public void reads_locals_in_standalone_expressions() {
+    Value v = TweakFlow.evaluate("let {a: 1;} let {b: 2;} for x <- [a, b], y: x*10, match y 10 -> y+a, default -> y+b");
+    assertThat(v).isEqualTo(Values.makeList(11L, 22L));
+  }
+
+}
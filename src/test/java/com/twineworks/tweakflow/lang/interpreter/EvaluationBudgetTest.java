@@ -0,0 +1,214 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter;
+
+import com.twineworks.tweakflow.lang.CompiledExpression;
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.types.Types;
+import com.twineworks.tweakflow.lang.values.ListValue;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EvaluationBudgetTest {
+
+  private static final String COUNT_DOWN = "let {f: (n) -> if n == 0 then 0 else f(n-1);} ";
+
+  private Runtime compile(String module){
+    LoadPath loadPath = new LoadPath.Builder()
+        .addStdLocation()
+        .add(new MemoryLocation.Builder()
+            .add("userModule", module)
+            .build())
+        .build();
+    return TweakFlow.compile(loadPath, "userModule");
+  }
+
+  private Runtime.Library library(Runtime runtime){
+    return runtime.getModules().get(runtime.unitKey("userModule")).getLibrary("lib");
+  }
+
+  private void assertBudgetExceeded(String exp, EvaluationBudget budget){
+    LangException e = assertThrows(LangException.class, () -> TweakFlow.evaluate(exp, true, budget));
+    assertThat(e.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+  }
+
+  @Test
+  void limits_steps() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().maxSteps(100).build();
+    assertThat(TweakFlow.evaluate(COUNT_DOWN + "f(50)", true, budget)).isEqualTo(Values.make(0L));
+    assertBudgetExceeded(COUNT_DOWN + "f(500)", budget);
+    assertBudgetExceeded("for x <- [1, 2, 3], y <- [1, 2, 3], z <- [1, 2, 3], w <- [1, 2, 3], [x, y, z, w]", budget);
+  }
+
+  @Test
+  void limits_call_depth() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().maxCallDepth(100).build();
+    String sum = "let {f: (n) -> if n == 0 then 0 else n + f(n-1);} ";
+    assertThat(TweakFlow.evaluate(sum + "f(50)", true, budget)).isEqualTo(Values.make(1275L));
+    assertBudgetExceeded(sum + "f(200)", budget);
+    // tail calls do not grow the stack
+    assertThat(TweakFlow.evaluate(COUNT_DOWN + "f(200)", true, budget)).isEqualTo(Values.make(0L));
+  }
+
+  @Test
+  void limits_time() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().timeout(50, TimeUnit.MILLISECONDS).build();
+    long start = System.nanoTime();
+    assertBudgetExceeded("let {fib: (x) -> if x > 2 then fib(x-2)+fib(x-1) else 1;} fib(80)", budget);
+    assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(5));
+  }
+
+  @Test
+  void limits_collection_size() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().maxCollectionSize(5).build();
+    assertThat(TweakFlow.evaluate("for x <- [1, 2, 3, 4, 5], x", true, budget)).isEqualTo(Values.makeList(1L, 2L, 3L, 4L, 5L));
+    assertBudgetExceeded("for x <- [1, 2, 3], y <- [1, 2], [x, y]", budget);
+    assertBudgetExceeded("let {xs: [1, 2, 3];} [...xs, ...xs]", budget);
+    assertBudgetExceeded("let {a: {:a 1, :b 2, :c 3}; b: {:d 4, :e 5, :f 6};} {...a, ...b}", budget);
+  }
+
+  @Test
+  void cannot_be_caught() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().maxSteps(100).build();
+    assertBudgetExceeded("try " + COUNT_DOWN + "f(500) catch \"caught\"", budget);
+    // other errors are still caught
+    assertThat(TweakFlow.evaluate("try throw \"error\" catch \"caught\"", true, budget)).isEqualTo(Values.make("caught"));
+  }
+
+  @Test
+  void limits_std_higher_order_functions() {
+    Runtime runtime = compile(
+        "import data from 'std';\n" +
+        "library lib {\n" +
+        "  provided long n;\n" +
+        "  mapped: data.map(data.range(1, n), (x) -> x * 2);\n" +
+        "  repeated: data.repeat(n, 0);\n" +
+        "}");
+    Runtime.Library lib = library(runtime);
+
+    runtime.setEvaluationBudget(new EvaluationBudget.Builder().maxSteps(100).maxCollectionSize(200).build());
+    runtime.updateVars(lib.getVar("n"), Values.make(50L));
+    assertThat(lib.getVar("mapped").getValue().list().size()).isEqualTo(50);
+
+    // each update starts a fresh budget
+    runtime.updateVars(lib.getVar("n"), Values.make(60L));
+    assertThat(lib.getVar("mapped").getValue().list().size()).isEqualTo(60);
+
+    LangException steps = assertThrows(LangException.class, () -> runtime.updateVars(lib.getVar("n"), Values.make(500L)));
+    assertThat(steps.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+
+    runtime.setEvaluationBudget(new EvaluationBudget.Builder().maxCollectionSize(200).build());
+    LangException size = assertThrows(LangException.class, () -> runtime.updateVars(lib.getVar("n"), Values.make(1000L)));
+    assertThat(size.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+
+    // lifting the budget evaluates freely
+    runtime.setEvaluationBudget(null);
+    runtime.updateVars(lib.getVar("n"), Values.make(2000L));
+    assertThat(lib.getVar("repeated").getValue().list().size()).isEqualTo(2000);
+  }
+
+  @Test
+  void bounds_vars_evaluated_on_a_pool_together() {
+    StringBuilder vars = new StringBuilder();
+    for (int i = 0; i < 4; i++) {
+      vars.append("  v").append(i).append(": ").append(COUNT_DOWN).append("f(n);\n");
+    }
+    Runtime runtime = compile("library lib {\n  provided long n;\n" + vars + "}");
+    Runtime.Library lib = library(runtime);
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      runtime.setEvaluationPool(pool);
+      runtime.setEvaluationBudget(new EvaluationBudget.Builder().maxSteps(100).build());
+
+      runtime.updateVars(lib.getVar("n"), Values.make(10L));
+      assertThat(lib.getVar("v3").getValue()).isEqualTo(Values.make(0L));
+
+      // each var stays within the limit, all of them together do not
+      LangException e = assertThrows(LangException.class, () -> runtime.updateVars(lib.getVar("n"), Values.make(40L)));
+      assertThat(e.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+    }
+    finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void applies_to_core_eval() {
+    Runtime runtime = compile(
+        "import core from 'std';\n" +
+        "library lib {\n" +
+        "  provided long n;\n" +
+        "  counted: core.eval(\"" + COUNT_DOWN + "f(\" .. n .. \")\");\n" +
+        "}");
+    Runtime.Library lib = library(runtime);
+
+    runtime.setEvaluationBudget(new EvaluationBudget.Builder().maxSteps(100).build());
+    runtime.updateVars(lib.getVar("n"), Values.make(50L));
+    assertThat(lib.getVar("counted").getValue()).isEqualTo(Values.make(0L));
+
+    LangException e = assertThrows(LangException.class, () -> runtime.updateVars(lib.getVar("n"), Values.make(100000L)));
+    assertThat(e.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+  }
+
+  @Test
+  void applies_to_each_row_of_compiled_expressions() {
+    CompiledExpression exp = new CompiledExpression.Builder()
+        .input("n", Types.LONG)
+        .expression(COUNT_DOWN + "f(n)")
+        .budget(new EvaluationBudget.Builder().maxSteps(100).build())
+        .build();
+
+    long[] ns = new long[1000];
+    for (int i = 0; i < ns.length; i++) {
+      ns[i] = i % 90;
+    }
+    ListValue results = exp.evaluateColumns(ListValue.ofLongs(ns));
+    assertThat(results.size()).isEqualTo(1000);
+
+    LangException e = assertThrows(LangException.class, () -> exp.evaluate(Values.make(200L)));
+    assertThat(e.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+  }
+
+  @Test
+  void rejects_invalid_limits() {
+    assertThrows(IllegalArgumentException.class, () -> new EvaluationBudget.Builder().maxSteps(0));
+    assertThrows(IllegalArgumentException.class, () -> new EvaluationBudget.Builder().maxCallDepth(-1));
+    assertThrows(IllegalArgumentException.class, () -> new EvaluationBudget.Builder().maxCollectionSize(-1));
+    assertThrows(IllegalArgumentException.class, () -> new EvaluationBudget.Builder().timeout(0, TimeUnit.SECONDS));
+  }
+
+}
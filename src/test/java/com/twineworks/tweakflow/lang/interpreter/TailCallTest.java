@@ -0,0 +1,160 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class TailCallTest {
+
+  // deep enough to overflow the java stack without tail calls
+  private static final long DEPTH = 100000L;
+
+  private Runtime.Library library(String module, boolean compiledOps){
+    LoadPath loadPath = new LoadPath.Builder()
+        .addStdLocation()
+        .add(new MemoryLocation.Builder()
+            .add("userModule", module)
+            .build())
+        .build();
+    Runtime runtime = TweakFlow.compile(loadPath, "userModule");
+    runtime.setCompiledOps(compiledOps);
+    Runtime.Module m = runtime.getModules().get(runtime.unitKey("userModule"));
+    m.evaluate();
+    return m.getLibrary("lib");
+  }
+
+  @Test
+  void runs_deep_self_recursion() {
+    assertThat(TweakFlow.evaluate("let {f: (n) -> if n == 0 then \"done\" else f(n-1);} f(" + DEPTH + ")"))
+        .isEqualTo(Values.make("done"));
+  }
+
+  @Test
+  void runs_deep_recursion_of_typed_functions() {
+    assertThat(TweakFlow.evaluate("let {sum: (long n, long acc) -> long if n == 0 then acc else sum(n-1, acc+n);} sum(" + DEPTH + ", 0)"))
+        .isEqualTo(Values.make(5000050000L));
+
+    // return type casts apply to the final result
+    assertThat(TweakFlow.evaluate("let {f: (long n) -> string if n == 0 then n else f(n-1);} f(" + DEPTH + ")"))
+        .isEqualTo(Values.make("0"));
+    assertThat(TweakFlow.evaluate("let {f: (long n) -> string if n == 0 then 42 else g(n-1); g: (long n) -> long f(n);} f(3)"))
+        .isEqualTo(Values.make("42"));
+  }
+
+  @Test
+  void runs_deep_mutual_recursion() {
+    Runtime.Library lib = library(
+        "library lib {\n" +
+        "  even?: (long n) -> boolean if n == 0 then true else odd?(n-1);\n" +
+        "  odd?: (long n) -> boolean if n == 0 then false else even?(n-1);\n" +
+        "}", false);
+
+    assertThat(lib.getVar("even?").call(Values.make(DEPTH))).isEqualTo(Values.TRUE);
+    assertThat(lib.getVar("odd?").call(Values.make(DEPTH + 1))).isEqualTo(Values.TRUE);
+  }
+
+  @Test
+  void runs_deep_recursion_in_let_and_match() {
+    Runtime.Library lib = library(
+        "import data from 'std';\n" +
+        "library lib {\n" +
+        "  sum: (list xs, acc=0) ->\n" +
+        "    match xs\n" +
+        "      [] -> acc,\n" +
+        "      [@x, @...rest] -> let {next: acc + x;} sum(rest, next);\n" +
+        "  sum_range: (long n) -> sum(data.range(1, n));\n" +
+        "}", false);
+
+    assertThat(lib.getVar("sum_range").call(Values.make(20000L))).isEqualTo(Values.make(200010000L));
+  }
+
+  @Test
+  void runs_deep_recursion_with_compiled_ops() {
+    Runtime.Library lib = library(
+        "library lib {\n" +
+        "  f: (long n, long acc) -> long if n == 0 then acc else f(n-1, acc+1);\n" +
+        "}", true);
+
+    assertThat(lib.getVar("f").call(Values.make(DEPTH), Values.LONG_ZERO)).isEqualTo(Values.make(DEPTH));
+  }
+
+  @Test
+  void runs_deep_recursion_of_callbacks() {
+    Runtime.Library lib = library(
+        "import data from 'std';\n" +
+        "library lib {\n" +
+        "  count: (long n, long acc) -> if n == 0 then acc else count(n-1, acc+1);\n" +
+        "  counts: data.map([10, " + DEPTH + "], (x) -> count(x, 0));\n" +
+        "  native_tail: (xs) -> let {size: data.size;} size(xs);\n" +
+        "  size: native_tail([1, 2, 3]);\n" +
+        "}", false);
+
+    assertThat(lib.getVar("counts").getValue()).isEqualTo(Values.makeList(10L, DEPTH));
+    assertThat(lib.getVar("size").getValue()).isEqualTo(Values.make(3L));
+  }
+
+  @Test
+  void keeps_non_tail_calls() {
+    assertThat(TweakFlow.evaluate("let {fib: (x) -> if x > 2 then fib(x-2)+fib(x-1) else 1;} fib(20)"))
+        .isEqualTo(Values.make(6765L));
+    assertThat(TweakFlow.evaluate("let {f: (n) -> if n == 0 then [] else [n, ...f(n-1)];} f(3)"))
+        .isEqualTo(Values.makeList(3L, 2L, 1L));
+  }
+
+  @Test
+  void reports_errors_of_tail_calls() {
+    LangException e = assertThrows(LangException.class,
+        () -> TweakFlow.evaluate("let {f: (long n) -> if n == 0 then throw \"bottom\" else f(n-1);} f(" + DEPTH + ")"));
+    assertThat(e.getCode()).isEqualTo(LangError.CUSTOM_ERROR);
+
+    assertThat(TweakFlow.evaluate("let {f: (long n) -> if n == 0 then throw \"bottom\" else f(n-1);} try f(" + DEPTH + ") catch \"caught\""))
+        .isEqualTo(Values.make("caught"));
+
+    LangException cast = assertThrows(LangException.class,
+        () -> TweakFlow.evaluate("let {f: (long n) -> if n == 0 then 0 else f(\"a\");} f(1)"));
+    assertThat(cast.getCode()).isEqualTo(LangError.CAST_ERROR);
+  }
+
+  @Test
+  void counts_against_evaluation_budget() {
+    EvaluationBudget budget = new EvaluationBudget.Builder().timeout(50, TimeUnit.MILLISECONDS).build();
+    LangException e = assertThrows(LangException.class,
+        () -> TweakFlow.evaluate("let {loop: (n) -> loop(n+1);} loop(0)", true, budget));
+    assertThat(e.getCode()).isEqualTo(LangError.BUDGET_EXCEEDED);
+  }
+
+}
@@ -0,0 +1,210 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.interpreter.compiler;
+
+import com.twineworks.tweakflow.TestHelper;
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.StandardFunctionValue;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.Collection;
+
+import static org.assertj.core.api.StrictAssertions.assertThat;
+import static org.assertj.core.api.StrictAssertions.fail;
+
+public class OpCompilerTest {
+
+  private Runtime.Module compileModule(String module, boolean compiledOps){
+
+    LoadPath loadPath = new LoadPath.Builder()
+        .addStdLocation()
+        .add(new MemoryLocation.Builder()
+            .allowNativeFunctions(false)
+            .add("userModule", module)
+            .build())
+        .build();
+
+    Runtime runtime = TweakFlow.compile(loadPath, "userModule");
+    runtime.setCompiledOps(compiledOps);
+    Runtime.Module m = runtime.getModules().get(runtime.unitKey("userModule"));
+    m.evaluate();
+    return m;
+  }
+
+  @Test
+  public void compiles_function_body() throws Exception {
+
+    String module = "library lib {\n" +
+        "  f: (long x, long y) -> long if x < y then x + y else (x - y) * 2;\n" +
+        "}";
+
+    Runtime.Module m = compileModule(module, true);
+    Runtime.Var f = m.getLibrary("lib").getVar("f");
+
+    assertThat(f.call(Values.make(1L), Values.make(2L))).isEqualTo(Values.make(3L));
+    assertThat(f.call(Values.make(5L), Values.make(2L))).isEqualTo(Values.make(6L));
+    assertThat(f.call(Values.NIL, Values.make(2L))).isEqualTo(Values.NIL);
+
+    StandardFunctionValue fv = (StandardFunctionValue) f.getValue().function();
+    assertThat(fv.getBody().getCompiledOp()).isInstanceOf(CompiledOp.class);
+
+  }
+
+  @Test
+  public void evaluates_recursive_function() throws Exception {
+
+    String module = "library lib {\n" +
+        "  fib: (long n) -> long if n < 2 then n else fib(n-1) + fib(n-2);\n" +
+        "  x: fib(20);\n" +
+        "}";
+
+    Runtime.Module interpreted = compileModule(module, false);
+    Runtime.Module compiled = compileModule(module, true);
+
+    Value expected = interpreted.getLibrary("lib").getVar("x").getValue();
+    assertThat(expected).isEqualTo(Values.make(6765L));
+    assertThat(compiled.getLibrary("lib").getVar("x").getValue()).isEqualTo(expected);
+
+  }
+
+  @Test
+  public void falls_back_to_interpreted_ops() throws Exception {
+
+    String module = "library lib {\n" +
+        "  f: (long x) -> [x, x];\n" +
+        "}";
+
+    Runtime.Module m = compileModule(module, true);
+    Runtime.Var f = m.getLibrary("lib").getVar("f");
+
+    assertThat(f.call(Values.make(1L))).isEqualTo(Values.makeList(1L, 1L));
+
+    StandardFunctionValue fv = (StandardFunctionValue) f.getValue().function();
+    assertThat(fv.getBody().getCompiledOp()).isSameAs(fv.getBody().getOp());
+
+  }
+
+  @Test
+  public void reports_errors_from_compiled_ops() throws Exception {
+
+    String module = "library lib {\n" +
+        "  f: (long x) -> if x > 0 then x // 0 else x;\n" +
+        "}";
+
+    Runtime.Module m = compileModule(module, true);
+    Runtime.Var f = m.getLibrary("lib").getVar("f");
+
+    try {
+      f.call(Values.make(1L));
+    } catch (LangException e) {
+      assertThat(e.getCode()).isEqualTo(LangError.DIVISION_BY_ZERO);
+      assertThat(e.getSourceInfo().getSourceCode()).isEqualTo("x // 0");
+      return;
+    }
+
+    fail("Expected to catch and return. Should not be here.");
+
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> plus() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/plus.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> minus() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/minus.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> mult() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/mult.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> div() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/div.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> less_than() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/less_than.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> less_than_or_equal() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/less_than_or_equal.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> greater_than() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/greater_than.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> greater_than_or_equal() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/greater_than_or_equal.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> equal() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/equal.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> not_equal() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/not_equal.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> and() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/and.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> or() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/or.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> not() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/not.tf", true);
+  }
+
+  @TestFactory
+  public Collection<DynamicTest> match() throws Exception {
+    return TestHelper.dynamicTestsSpecModule("fixtures/tweakflow/evaluation/operators/match.tf", true);
+  }
+
+}
@@ -27,6 +27,8 @@ package com.twineworks.tweakflow.lang.load.loadpath;
 import com.twineworks.tweakflow.lang.TweakFlow;
 import com.twineworks.tweakflow.lang.errors.LangError;
 import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.parse.ParseResult;
+import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
 import com.twineworks.tweakflow.lang.runtime.Runtime;
 import com.twineworks.tweakflow.lang.values.Values;
 import org.junit.jupiter.api.Assertions;
@@ -149,4 +151,50 @@ public class ResourceLocationTest {
     fail("should have thrown");
   }
 
-}
\ No newline at end of file
+  @Test
+  public void std_location_uses_bundled_snapshot() throws Exception {
+    LoadPath loadPath = new LoadPath.Builder()
+        .addStdLocation()
+        .build();
+
+    ResourceLocation std = (ResourceLocation) loadPath.getLocations().get(0);
+    assertThat(std.usesSnapshots()).isTrue();
+
+    ParseUnit unit = std.getParseUnit("std.tf");
+    ParseResult first = std.getParseSnapshot(unit);
+    ParseResult second = std.getParseSnapshot(unit);
+    assertThat(first).isNotNull();
+    assertThat(second).isNotNull();
+
+    // every use gets its own tree
+    assertThat(first.getNode()).isNotSameAs(second.getNode());
+
+    ResourceLocation plain = new ResourceLocation.Builder().path(Paths.get("com/twineworks/tweakflow/std")).build();
+    assertThat(plain.getParseSnapshot(plain.getParseUnit("std.tf"))).isNull();
+  }
+
+  @Test
+  public void snapshot_and_parsed_std_evaluate_the_same() throws Exception {
+
+    String module = "import data, strings from 'std'; library lib { x: strings.join(data.map([1, 2, 3], (x) -> x * 2), ','); }";
+
+    LoadPath snapshot = new LoadPath.Builder()
+        .addStdLocation()
+        .add(new MemoryLocation.Builder().add("main.tf", module).build())
+        .build();
+
+    LoadPath parsed = new LoadPath.Builder()
+        .add(new ResourceLocation.Builder().path(Paths.get("com/twineworks/tweakflow/std")).build())
+        .add(new MemoryLocation.Builder().add("main.tf", module).build())
+        .build();
+
+    Runtime a = TweakFlow.compile(snapshot, "main.tf");
+    Runtime b = TweakFlow.compile(parsed, "main.tf");
+    a.evaluate();
+    b.evaluate();
+
+    assertThat(a.getModules().get("main.tf").getLibrary("lib").getVar("x").getValue()).isEqualTo(Values.make("2,4,6"));
+    assertThat(b.getModules().get("main.tf").getLibrary("lib").getVar("x").getValue()).isEqualTo(Values.make("2,4,6"));
+  }
+
+}
@@ -0,0 +1,147 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.parse;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import com.twineworks.tweakflow.lang.ast.structure.ModuleNode;
+import com.twineworks.tweakflow.lang.interpreter.SimpleDebugHandler;
+import com.twineworks.tweakflow.lang.load.loadpath.LoadPath;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.load.loadpath.ResourceLocation;
+import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
+import com.twineworks.tweakflow.lang.runtime.Runtime;
+import com.twineworks.tweakflow.lang.values.Value;
+import com.twineworks.tweakflow.lang.values.Values;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DiskParseCacheTest {
+
+  private Path dir;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    dir = Files.createTempDirectory("tf-parse-cache");
+  }
+
+  @AfterEach
+  void tearDown() throws IOException {
+    try (Stream<Path> files = Files.walk(dir)) {
+      for (Path p : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+        Files.delete(p);
+      }
+    }
+  }
+
+  private List<Path> entries() throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      return files.collect(Collectors.toList());
+    }
+  }
+
+  private LoadPath loadPath(String module) {
+    // std without bundled snapshot, so it goes through the cache as well
+    return new LoadPath.Builder()
+        .add(new ResourceLocation.Builder().path(Paths.get("com/twineworks/tweakflow/std")).build())
+        .add(new MemoryLocation.Builder().add("main.tf", module).build())
+        .withDiskParseCache(new DiskParseCache(dir))
+        .build();
+  }
+
+  private Value eval(LoadPath loadPath, boolean multiThreaded) {
+    Runtime runtime = TweakFlow.compile(loadPath, Collections.singletonList("main.tf"), new SimpleDebugHandler(), multiThreaded);
+    runtime.evaluate();
+    return runtime.getModules().get("main.tf").getLibrary("lib").getVar("x").getValue();
+  }
+
+  private static final String MODULE = "import strings, data from 'std';\n" +
+      "library lib {\n" +
+      "  x: strings.join(data.map([1, 2, 3], (long n) -> n * 2), \"-\") .. \" at \" .. (2020-01-01T as string);\n" +
+      "}";
+
+  @Test
+  void caches_parse_results_across_load_paths() throws IOException {
+
+    Value parsed = eval(loadPath(MODULE), false);
+    assertThat(parsed.string()).startsWith("2-4-6 at 2020-01-01");
+
+    // std and main module
+    assertThat(entries()).hasSize(2);
+
+    LoadPath loadPath = loadPath(MODULE);
+    ParseUnit std = loadPath.findParseUnit("std");
+    ParseResult cached = loadPath.getDiskParseCache().get(std);
+    assertThat(cached).isNotNull();
+    assertThat(cached.getNode()).isInstanceOf(ModuleNode.class);
+    assertThat(cached.getNode().getSourceInfo().getParseUnit()).isSameAs(std);
+
+    assertThat(eval(loadPath, false)).isEqualTo(parsed);
+    assertThat(eval(loadPath(MODULE), true)).isEqualTo(parsed);
+
+  }
+
+  @Test
+  void ignores_entries_for_other_content() throws IOException {
+
+    assertThat(eval(loadPath("library lib { x: 1; }"), false)).isEqualTo(Values.make(1L));
+
+    LoadPath loadPath = loadPath("library lib { x: 2; }");
+    assertThat(loadPath.getDiskParseCache().get(loadPath.findParseUnit("main.tf"))).isNull();
+    assertThat(eval(loadPath, false)).isEqualTo(Values.make(2L));
+
+    // entry is replaced
+    assertThat(entries()).hasSize(1);
+    assertThat(loadPath.getDiskParseCache().get(loadPath.findParseUnit("main.tf"))).isNotNull();
+
+  }
+
+  @Test
+  void ignores_unreadable_entries() throws IOException {
+
+    assertThat(eval(loadPath("library lib { x: 1; }"), false)).isEqualTo(Values.make(1L));
+
+    for (Path entry : entries()) {
+      Files.write(entry, new byte[]{1, 2, 3});
+    }
+
+    LoadPath loadPath = loadPath("library lib { x: 1; }");
+    assertThat(loadPath.getDiskParseCache().get(loadPath.findParseUnit("main.tf"))).isNull();
+    assertThat(eval(loadPath, false)).isEqualTo(Values.make(1L));
+
+  }
+
+}
@@ -0,0 +1,70 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.parse;
+
+import com.twineworks.tweakflow.lang.ast.structure.ModuleNode;
+import com.twineworks.tweakflow.lang.load.loadpath.MemoryLocation;
+import com.twineworks.tweakflow.lang.parse.units.ParseUnit;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParseSnapshotTest {
+
+  private static ParseUnit unit(String text) {
+    return new MemoryLocation.Builder().add("main.tf", text).build().getParseUnit("main.tf");
+  }
+
+  private static byte[] snapshot(ParseUnit unit) throws IOException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    ParseSnapshot.write(out, unit, new Parser(unit).parseUnit());
+    return out.toByteArray();
+  }
+
+  @Test
+  void restores_parse_result() throws IOException {
+
+    ParseUnit unit = unit("library lib { x: 1 + 2; }");
+    ParseResult restored = ParseSnapshot.read(new ByteArrayInputStream(snapshot(unit)), unit);
+
+    assertThat(restored).isNotNull();
+    assertThat(restored.isSuccess()).isTrue();
+    assertThat(restored.getNode()).isInstanceOf(ModuleNode.class);
+    assertThat(restored.getNode().getSourceInfo().getParseUnit()).isSameAs(unit);
+
+  }
+
+  @Test
+  void ignores_snapshot_of_other_content() throws IOException {
+
+    byte[] snapshot = snapshot(unit("library lib { x: 1; }"));
+    assertThat(ParseSnapshot.read(new ByteArrayInputStream(snapshot), unit("library lib { x: 2; }"))).isNull();
+
+  }
+
+}
@@ -24,11 +24,17 @@
 
 package com.twineworks.tweakflow.lang.runtime;
 
+import com.twineworks.tweakflow.lang.errors.LangError;
+import com.twineworks.tweakflow.lang.errors.LangException;
+import com.twineworks.tweakflow.lang.interpreter.memory.Cell;
 import com.twineworks.tweakflow.lang.values.Values;
 import com.twineworks.tweakflow.util.VarTable;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.assertj.core.api.StrictAssertions.assertThat;
 
@@ -90,6 +96,149 @@ class RuntimeTest {
 
   }
 
+  @Test
+  void copies_share_compiled_runtime_set() {
+
+    VarTable table = new VarTable.Builder()
+        .setPrologue("library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("p", "row.a*row.a")
+        .build();
+
+    Runtime orig = table.compile();
+    Runtime copy = orig.copy();
+
+    // the compiled program is shared, evaluation state is not
+    assertThat(copy.getRuntimeSet()).isSameAs(orig.getRuntimeSet());
+    assertThat(copy.getState()).isNotSameAs(orig.getState());
+
+    Runtime.Module origModule = orig.getModules().get(table.getModulePath());
+    Runtime.Module copyModule = copy.getModules().get(table.getModulePath());
+
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(2));
+    assertThat(copyModule.getLibrary("row").getVar("a").getValue()).isNull();
+    assertThat(copyModule.getLibrary("lib").getVar("p").isDirty()).isTrue();
+
+    copy.updateVars(copyModule.getLibrary("row").getVar("a"), Values.make(3));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(4));
+    assertThat(copyModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(9));
+
+  }
+
+  @Test
+  void var_cells_hold_values_of_the_owning_runtime() {
+
+    VarTable table = new VarTable.Builder()
+        .setPrologue("library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("p", "row.a*row.a")
+        .build();
+
+    Runtime orig = table.compile();
+    Runtime copy = orig.copy();
+
+    Runtime.Module origModule = orig.getModules().get(table.getModulePath());
+    Runtime.Module copyModule = copy.getModules().get(table.getModulePath());
+
+    Cell moduleCell = orig.getRuntimeSet().getGlobalMemorySpace().getUnitSpace().getCells().gets(table.getModulePath());
+    Cell p = moduleCell.getCells().gets("lib").getCells().gets("p");
+
+    // raw var cells read the state of the runtime the runtime set was compiled for, copies do not affect them
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(2));
+    copy.updateVars(copyModule.getLibrary("row").getVar("a"), Values.make(3));
+
+    assertThat(p.isDirty()).isFalse();
+    assertThat(p.getValue()).isEqualTo(Values.make(4));
+    assertThat(p.getValue(copy.getState())).isEqualTo(Values.make(9));
+
+  }
+
+  @Test
+  void forks_share_evaluated_state() {
+
+    VarTable table = new VarTable.Builder()
+        .setPrologue("import data from 'std';\n\n" +
+            "library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("table", "data.map(data.range(0, 99), (x) -> x*x)")
+        .addVar("p", "table[row.a]")
+        .build();
+
+    Runtime orig = table.compile();
+    Runtime.Module origModule = orig.getModules().get(table.getModulePath());
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(2));
+
+    Runtime fork = orig.fork();
+    Runtime.Module forkModule = fork.getModules().get(table.getModulePath());
+
+    // evaluated values are shared
+    assertThat(forkModule.getLibrary("lib").getVar("table").getValue())
+        .isSameAs(origModule.getLibrary("lib").getVar("table").getValue());
+    assertThat(forkModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(4));
+
+    // updates in the fork do not affect the original
+    fork.updateVars(forkModule.getLibrary("row").getVar("a"), Values.make(3));
+    assertThat(forkModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(9));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(4));
+
+    // updates in the original do not affect the fork
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(5));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(25));
+    assertThat(forkModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(9));
+
+    // forks of forks
+    Runtime forkOfFork = fork.fork();
+    Runtime.Module forkOfForkModule = forkOfFork.getModules().get(table.getModulePath());
+    forkOfFork.updateVars(forkOfForkModule.getLibrary("row").getVar("a"), Values.make(6));
+    assertThat(forkOfForkModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(36));
+    assertThat(forkModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(9));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(25));
+
+  }
+
+  @Test
+  void copies_resolve_references_to_own_cells() {
+
+    VarTable table = new VarTable.Builder()
+        .setPrologue("library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("p", "let {x: row.a;} x*row.a")
+        .addVar("f", "(y) -> y+row.a")
+        .addVar("q", "f(1)")
+        .build();
+
+    Runtime orig = table.compile();
+    Runtime.Module origModule = orig.getModules().get(table.getModulePath());
+
+    // populate resolved references in original runtime
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(3));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(9));
+    assertThat(origModule.getLibrary("lib").getVar("q").getValue()).isSameAs(Values.make(4));
+
+    // copies share ops with the original, but must see their own cells
+    for (int i = 0; i < 10; i++) {
+      Runtime copy = orig.copy();
+      Runtime.Module copyModule = copy.getModules().get(table.getModulePath());
+      copy.updateVars(copyModule.getLibrary("row").getVar("a"), Values.make(i));
+      assertThat(copyModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(i*i));
+      assertThat(copyModule.getLibrary("lib").getVar("q").getValue()).isSameAs(Values.make(i+1));
+    }
+
+    // original runtime keeps resolving to its own cells
+    orig.updateVars(origModule.getLibrary("row").getVar("a"), Values.make(5));
+    assertThat(origModule.getLibrary("lib").getVar("p").getValue()).isSameAs(Values.make(25));
+    assertThat(origModule.getLibrary("lib").getVar("q").getValue()).isSameAs(Values.make(6));
+
+  }
+
   @Test
   void can_access_copies_concurrently() throws Throwable {
 
@@ -154,4 +303,137 @@ class RuntimeTest {
     }
 
   }
-}
\ No newline at end of file
+
+  @Test
+  void can_fork_concurrently() throws Throwable {
+
+    VarTable table = new VarTable.Builder()
+        .setPrologue("import data from 'std';\n\n" +
+            "library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("squares", "data.map(data.range(0, 999), (x) -> x*x)")
+        .addVar("p", "squares[row.a % 1000]")
+        .build();
+
+    Runtime base = table.compile();
+    base.evaluate();
+
+    AtomicReference<Throwable> failure = new AtomicReference<>();
+    ArrayList<Thread> threads = new ArrayList<>();
+
+    for (int t = 0; t < 20; t++) {
+      int seed = t;
+      Thread thread = new Thread(() -> {
+        try {
+          for (int i = 0; i < 1_000; i++) {
+            Runtime runtime = base.fork();
+            Runtime.Module module = runtime.getModules().get(table.getModulePath());
+            int n = (seed * 1_000 + i) % 1000;
+            runtime.updateVars(module.getLibrary("row").getVar("a"), Values.make(n));
+            assertThat(module.getLibrary("lib").getVar("p").getValue()).isEqualTo(Values.make(n*n));
+          }
+        } catch (Throwable e) {
+          failure.compareAndSet(null, e);
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    if (failure.get() != null) throw failure.get();
+
+  }
+
+  @Test
+  void evaluates_on_pool() {
+
+    VarTable.Builder builder = new VarTable.Builder()
+        .setPrologue("import data, math from 'std';\n\n" +
+            "library row { \n" +
+            "  provided a;\n" +
+            "}\n")
+        .setVarLibraryName("lib")
+        .addVar("even?", "(x) -> if x == 0 then true else odd?(x-1)")
+        .addVar("odd?", "(x) -> if x == 0 then false else even?(x-1)");
+
+    StringBuilder all = new StringBuilder("[");
+    for (int i = 0; i < 200; i++) {
+      builder.addVar("v" + i, "math.abs(row.a - " + i + ") * (if even?(" + i + ") then 1 else -1)");
+      all.append(i == 0 ? "" : ", ").append("v").append(i);
+    }
+    builder.addVar("sum", "data.reduce(" + all + "], 0, (a, x) -> a + x)");
+    builder.addVar("total", "sum + v0 + v199");
+
+    VarTable table = builder.build();
+
+    Runtime sequential = table.compile();
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Runtime parallel = sequential.copy().setEvaluationPool(pool);
+
+      sequential.evaluate();
+      parallel.evaluate();
+      assertSameVars(table, sequential, parallel);
+
+      for (int a = 0; a < 20; a++) {
+        for (Runtime runtime : new Runtime[]{sequential, parallel}) {
+          runtime.updateVars(runtime.getModules().get(table.getModulePath()).getLibrary("row").getVar("a"), Values.make(a * 17));
+        }
+        assertSameVars(table, sequential, parallel);
+      }
+
+      // forks inherit the pool
+      Runtime fork = parallel.fork();
+      assertThat(fork.getEvaluationPool()).isSameAs(pool);
+      fork.getModules().get(table.getModulePath()).getLibrary("row").getVar("a").update(Values.make(1000));
+      assertThat(fork.getModules().get(table.getModulePath()).getLibrary("lib").getVar("v0").getValue()).isEqualTo(Values.make(1000));
+      assertSameVars(table, sequential, parallel);
+    }
+    finally {
+      pool.shutdown();
+    }
+
+  }
+
+  @Test
+  void throws_errors_of_evaluation_on_pool() {
+
+    VarTable.Builder builder = new VarTable.Builder()
+        .setVarLibraryName("lib");
+
+    for (int i = 0; i < 50; i++) {
+      builder.addVar("v" + i, "" + i);
+    }
+    builder.addVar("bad", "throw 'bad'");
+    builder.addVar("after", "bad + v0");
+
+    VarTable table = builder.build();
+
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      Runtime runtime = table.compile().setEvaluationPool(pool);
+      LangException e = Assertions.assertThrows(LangException.class, runtime::evaluate);
+      assertThat(e.getCode()).isEqualTo(LangError.CUSTOM_ERROR);
+    }
+    finally {
+      pool.shutdown();
+    }
+
+  }
+
+  private void assertSameVars(VarTable table, Runtime expected, Runtime actual) {
+    Runtime.Library expectedLib = expected.getModules().get(table.getModulePath()).getLibrary("lib");
+    Runtime.Library actualLib = actual.getModules().get(table.getModulePath()).getLibrary("lib");
+    for (String name : expectedLib.getNames()) {
+      if (name.equals("even?") || name.equals("odd?")) continue;
+      assertThat(actualLib.getVar(name).isDirty()).isFalse();
+      assertThat(actualLib.getVar(name).getValue()).isEqualTo(expectedLib.getVar(name).getValue());
+    }
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import com.twineworks.tweakflow.lang.TweakFlow;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictValueTest {
+
+  private static DictValue shaped(String[] keys, Value[] values) {
+    DictShape shape = DictShape.of(keys);
+    Value[] slots = new Value[keys.length];
+    for (int i = 0; i < keys.length; i++) {
+      slots[shape.indexOf(keys[i])] = values[i];
+    }
+    return new DictValue(shape, slots);
+  }
+
+  private static DictValue record() {
+    return shaped(
+        new String[]{"id", "name", "score"},
+        new Value[]{Values.make(1L), Values.make("a"), Values.make(2.5)});
+  }
+
+  private static DictValue champ() {
+    return new DictValue()
+        .put("score", Values.make(2.5))
+        .put("id", Values.make(1L))
+        .put("name", Values.make("a"));
+  }
+
+  private static List<String> keys(DictValue dict) {
+    List<String> keys = new ArrayList<>();
+    Iterator<String> iter = dict.keyIterator();
+    while (iter.hasNext()) {
+      keys.add(iter.next());
+    }
+    return keys;
+  }
+
+  @Test
+  void creates_shapes() {
+    assertThat(DictShape.of("a", "b")).isSameAs(DictShape.of("b", "a"));
+    assertThat(DictShape.of("a", "a")).isNull();
+    assertThat(DictShape.of()).isNull();
+    assertThat(DictShape.of("a", "b").indexOf("c")).isEqualTo(-1);
+  }
+
+  @Test
+  void shaped_dicts_equal_champ_dicts() {
+    DictValue shaped = record();
+    DictValue champ = champ();
+
+    assertThat(shaped.shape()).isNotNull();
+    assertThat(champ.shape()).isNull();
+
+    assertThat(shaped).isEqualTo(champ);
+    assertThat(champ).isEqualTo(shaped);
+    assertThat(shaped.hashCode()).isEqualTo(champ.hashCode());
+    assertThat(keys(shaped)).isEqualTo(keys(champ));
+    assertThat(shaped.values()).isEqualTo(champ.values());
+    assertThat(shaped.toHashMap()).isEqualTo(champ.toHashMap());
+
+    assertThat(shaped).isNotEqualTo(champ.put("id", Values.make(2L)));
+    assertThat(shaped).isNotEqualTo(champ.delete("id"));
+  }
+
+  @Test
+  void reads_shaped_dicts() {
+    DictValue dict = record();
+    assertThat(dict.size()).isEqualTo(3);
+    assertThat(dict.isEmpty()).isFalse();
+    assertThat(dict.get("name")).isEqualTo(Values.make("a"));
+    assertThat(dict.get("missing")).isSameAs(Values.NIL);
+    assertThat(dict.containsKey("score")).isTrue();
+    assertThat(dict.containsKey("missing")).isFalse();
+    assertThat(dict.containsValue(Values.make(1L))).isTrue();
+    assertThat(dict.slot(dict.shape().indexOf("id"))).isEqualTo(Values.make(1L));
+  }
+
+  @Test
+  void keeps_shape_on_replacing_keys() {
+    DictValue dict = record();
+    DictValue updated = dict.put("name", Values.make("b"));
+
+    assertThat(updated.shape()).isSameAs(dict.shape());
+    assertThat(updated.get("name")).isEqualTo(Values.make("b"));
+    assertThat(dict.get("name")).isEqualTo(Values.make("a"));
+    assertThat(dict.delete("missing")).isSameAs(dict);
+
+    // hash codes are carried over
+    DictValue hashed = record();
+    hashed.hashCode();
+    assertThat(hashed.put("name", Values.make("b")).hashCode()).isEqualTo(champ().put("name", Values.make("b")).hashCode());
+  }
+
+  @Test
+  void promotes_on_changing_keys() {
+    DictValue dict = record();
+
+    DictValue added = dict.put("extra", Values.TRUE);
+    assertThat(added.shape()).isNull();
+    assertThat(added).isEqualTo(champ().put("extra", Values.TRUE));
+
+    DictValue deleted = dict.delete("id");
+    assertThat(deleted.shape()).isNull();
+    assertThat(deleted).isEqualTo(champ().delete("id"));
+
+    TransientDictValue t = new TransientDictValue(dict);
+    t.put("extra", Values.TRUE);
+    assertThat(t.persistent()).isEqualTo(added);
+  }
+
+  @Test
+  void builds_shaped_dicts_from_literals() {
+    Value v = TweakFlow.evaluate("let {f: (x) -> {:id x, :name 'a', :score 2.5};} [f(1), f(2)]");
+    DictValue first = v.list().get(0).dict();
+    DictValue second = v.list().get(1).dict();
+
+    assertThat(first.shape()).isNotNull();
+    assertThat(second.shape()).isSameAs(first.shape());
+    assertThat(first).isEqualTo(champ());
+    assertThat(second.get("id")).isEqualTo(Values.make(2L));
+
+    assertThat(TweakFlow.evaluate("let {f: (x) -> {:id x, :name 'a'};} [f(1)[:id], f(2)[:name], f(3)[:missing]]"))
+        .isEqualTo(Values.makeList(1L, "a", null));
+  }
+
+}
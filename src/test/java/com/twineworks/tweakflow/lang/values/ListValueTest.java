@@ -0,0 +1,238 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+package com.twineworks.tweakflow.lang.values;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ListValueTest {
+
+  private static ListValue generic(ListValue list) {
+    // appending one by one always builds a trie list
+    ListValue ret = new ListValue();
+    for (Value value : list) {
+      ret = ret.append(value);
+    }
+    assertThat(ret.isPackedLongs() || ret.isPackedDoubles()).isFalse();
+    return ret;
+  }
+
+  private static ListValue doubles(int size) {
+    List<Value> values = new ArrayList<>();
+    for (int i = 0; i < size; i++) {
+      values.add(Values.make(i / 2.0));
+    }
+    return new ListValue(values);
+  }
+
+  @Test
+  void packs_numeric_lists() {
+    assertThat(Values.makeRange(1, 100).list().isPackedLongs()).isTrue();
+    assertThat(doubles(100).isPackedDoubles()).isTrue();
+
+    // small lists stay generic
+    assertThat(new ListValue(Values.makeRange(1, 3).list().toList()).isPackedLongs()).isFalse();
+
+    List<Value> mixed = new ArrayList<>(Values.makeRange(1, 100).list().toList());
+    mixed.add(Values.make(1.0));
+    ListValue mixedList = new ListValue(mixed);
+    assertThat(mixedList.isPackedLongs() || mixedList.isPackedDoubles()).isFalse();
+  }
+
+  @Test
+  void packed_lists_equal_generic_lists() {
+    ListValue range = Values.makeRange(-20, 20).list();
+    ListValue generic = generic(range);
+
+    assertThat(range).isEqualTo(generic);
+    assertThat(generic).isEqualTo(range);
+    assertThat(range.hashCode()).isEqualTo(generic.hashCode());
+
+    ListValue doubles = doubles(50);
+    assertThat(doubles).isEqualTo(generic(doubles));
+    assertThat(doubles.hashCode()).isEqualTo(generic(doubles).hashCode());
+
+    assertThat(range).isNotEqualTo(Values.makeRange(-20, 21).list());
+    assertThat(range).isNotEqualTo(range.set(3, Values.make(1.0)));
+  }
+
+  @Test
+  void degrades_on_writes() {
+    ListValue range = Values.makeRange(0, 99).list();
+
+    ListValue mixed = range.set(10, Values.make("x"));
+    assertThat(mixed.isPackedLongs()).isFalse();
+    assertThat(mixed.get(10)).isEqualTo(Values.make("x"));
+    assertThat(mixed.get(11)).isEqualTo(Values.make(11L));
+
+    assertThat(range.append(Values.make(100L))).isEqualTo(Values.makeRange(0, 100).list());
+    assertThat(range.prepend(Values.make(-1L))).isEqualTo(Values.makeRange(-1, 99).list());
+    assertThat(range.delete(0)).isEqualTo(Values.makeRange(1, 99).list());
+    assertThat(range.insert(102, Values.make(1L)).get(101)).isSameAs(Values.NIL);
+
+    // original is unchanged
+    assertThat(range).isEqualTo(Values.makeRange(0, 99).list());
+    assertThat(range.isPackedLongs()).isTrue();
+  }
+
+  @Test
+  void keeps_packing_on_bulk_operations() {
+    ListValue range = new ListValue(Values.makeRange(0, 99).list().toList());
+    assertThat(range.isPackedLongs()).isTrue();
+    assertThat(range.isRange()).isFalse();
+
+    assertThat(range.take(50)).isEqualTo(generic(range).take(50));
+    assertThat(range.take(50).isPackedLongs()).isTrue();
+    assertThat(range.drop(30)).isEqualTo(generic(range).drop(30));
+    assertThat(range.slice(10, 90)).isEqualTo(generic(range).slice(10, 90));
+    assertThat(range.init()).isEqualTo(generic(range).init());
+    assertThat(range.tail()).isEqualTo(generic(range).tail());
+    assertThat(range.reverse()).isEqualTo(generic(range).reverse());
+    assertThat(range.reverse().isPackedLongs()).isTrue();
+
+    ListValue twice = range.appendAll(range);
+    assertThat(twice.isPackedLongs()).isTrue();
+    assertThat(twice).isEqualTo(generic(range).appendAll(generic(range)));
+  }
+
+  @Test
+  void searches_packed_lists() {
+    ListValue range = Values.makeRange(0, 99).list().appendAll(Values.makeRange(0, 99).list());
+
+    assertThat(range.indexOf(Values.make(42L))).isEqualTo(Values.make(42L));
+    assertThat(range.indexOf(Values.make(42L), 43)).isEqualTo(Values.make(142L));
+    assertThat(range.lastIndexOf(Values.make(42L))).isEqualTo(Values.make(142L));
+    assertThat(range.lastIndexOf(Values.make(42L), 141)).isEqualTo(Values.make(42L));
+    assertThat(range.indexOf(Values.make(42.0))).isEqualTo(Values.LONG_NEG_ONE);
+    assertThat(range.containsValue(Values.make(99L))).isTrue();
+    assertThat(range.containsValue(Values.make(100L))).isFalse();
+
+    List<Value> withNaN = doubles(40).toList();
+    withNaN.add(Values.make(Double.NaN));
+    ListValue doubles = new ListValue(withNaN);
+    assertThat(doubles.isPackedDoubles()).isTrue();
+    assertThat(doubles.containsValue(Values.make(Double.NaN))).isTrue();
+    assertThat(doubles.lastIndexOf(Values.make(Double.NaN))).isEqualTo(Values.make(40L));
+    assertThat(doubles(40).indexOf(Values.make(1.5))).isEqualTo(Values.make(3L));
+  }
+
+  @Test
+  void keeps_ranges_lazy() {
+    ListValue range = Values.makeRange(1, 1_000_000_000).list();
+    assertThat(range.isRange()).isTrue();
+    assertThat(range.size()).isEqualTo(1_000_000_000);
+    assertThat(range.get(999_999_999)).isEqualTo(Values.make(1_000_000_000L));
+    assertThat(range.last()).isEqualTo(Values.make(1_000_000_000L));
+
+    ListValue slice = range.drop(10).take(5);
+    assertThat(slice.isRange()).isTrue();
+    assertThat(slice).isEqualTo(Values.makeRange(11, 15).list());
+
+    ListValue reversed = range.reverse();
+    assertThat(reversed.isRange()).isTrue();
+    assertThat(reversed.head()).isEqualTo(Values.make(1_000_000_000L));
+    assertThat(reversed.indexOf(Values.make(1L))).isEqualTo(Values.make(999_999_999L));
+    assertThat(reversed.indexOf(Values.make(0L))).isEqualTo(Values.LONG_NEG_ONE);
+    assertThat(reversed.lastIndexOf(Values.make(3L), 10)).isEqualTo(Values.LONG_NEG_ONE);
+
+    // continuing ranges stay lazy
+    ListValue joined = Values.makeRange(1, 10).list().appendAll(Values.makeRange(11, 20).list());
+    assertThat(joined.isRange()).isTrue();
+    assertThat(joined).isEqualTo(Values.makeRange(1, 20).list());
+
+    ListValue gap = Values.makeRange(1, 10).list().appendAll(Values.makeRange(12, 20).list());
+    assertThat(gap.isRange()).isFalse();
+    assertThat(gap.size()).isEqualTo(19);
+    assertThat(gap.get(10)).isEqualTo(Values.make(12L));
+
+    // writes materialize
+    ListValue small = Values.makeRange(1, 5).list();
+    assertThat(small.set(0, Values.make("a")).get(0)).isEqualTo(Values.make("a"));
+    assertThat(small).isEqualTo(generic(small));
+    assertThat(small.hashCode()).isEqualTo(generic(small).hashCode());
+  }
+
+  private static int rehash(ListValue list) {
+    // hash code of a structurally equal list without cached state
+    return new ListValue(list.toList()).hashCode();
+  }
+
+  @Test
+  void carries_hash_codes_over() {
+    ListValue list = generic(Values.makeRange(1, 1000).list());
+    int h = list.hashCode();
+
+    ListValue set = list.set(500, Values.make("x"));
+    ListValue appended = list.append(Values.make(2.5));
+    ListValue prepended = list.prepend(Values.makeList(1L, 2L));
+    ListValue joined = list.appendAll(appended);
+
+    assertThat(set.hashCode()).isEqualTo(rehash(set));
+    assertThat(appended.hashCode()).isEqualTo(rehash(appended));
+    assertThat(prepended.hashCode()).isEqualTo(rehash(prepended));
+    assertThat(joined.hashCode()).isEqualTo(rehash(joined));
+    assertThat(list.set(500, list.get(500)).hashCode()).isEqualTo(h);
+
+    assertThat(set).isNotEqualTo(list);
+    assertThat(list.set(500, Values.make(501L))).isEqualTo(list);
+  }
+
+  @Test
+  void hashes_zeros_alike() {
+    Value zero = Values.make(0.0);
+    Value negZero = Values.make(-0.0);
+    assertThat(negZero).isEqualTo(zero);
+    assertThat(negZero.hashCode()).isEqualTo(zero.hashCode());
+    assertThat(doubles(20).set(0, negZero).hashCode()).isEqualTo(doubles(20).hashCode());
+    assertThat(doubles(20).set(0, negZero)).isEqualTo(doubles(20));
+  }
+
+  @Test
+  void concatenates_lists() {
+    ListValue trie = new ListValue();
+    for (long i = 0; i < 100; i++) {
+      trie = trie.append(Values.make(i));
+    }
+    ListValue tail = ListValue.wrap(new Value[]{Values.make(100L), Values.make("x")});
+
+    List<ListValue> lists = new ArrayList<>();
+    lists.add(trie);
+    lists.add(tail);
+    ListValue shared = ListValue.concat(lists);
+    assertThat(shared.size()).isEqualTo(102);
+    assertThat(shared.get(99)).isEqualTo(Values.make(99L));
+    assertThat(shared.get(101)).isEqualTo(Values.make("x"));
+
+    lists.add(0, tail);
+    ListValue copied = ListValue.concat(lists);
+    assertThat(copied.size()).isEqualTo(104);
+    assertThat(copied.take(2)).isEqualTo(tail);
+    assertThat(copied.drop(2)).isEqualTo(shared);
+  }
+
+}
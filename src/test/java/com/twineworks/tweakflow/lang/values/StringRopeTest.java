@@ -0,0 +1,119 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StringRopeTest {
+
+  private static String repeat(char c, int n){
+    StringBuilder b = new StringBuilder();
+    for (int i = 0; i < n; i++) {
+      b.append(c);
+    }
+    return b.toString();
+  }
+
+  @Test
+  void copies_short_strings_eagerly() {
+    Value v = Values.concat(Values.make("foo"), Values.make("bar"));
+    assertThat(v.stringPayload()).isEqualTo("foobar");
+    assertThat(Values.concat(Values.NIL, Values.make("!")).string()).isEqualTo("nil!");
+    assertThat(Values.concat(Values.EMPTY_STRING, Values.EMPTY_STRING)).isSameAs(Values.EMPTY_STRING);
+    assertThat(Values.concat(new Value[0])).isSameAs(Values.EMPTY_STRING);
+  }
+
+  @Test
+  void defers_long_concatenations() {
+    String a = repeat('a', 100);
+    String b = repeat('b', 100);
+    Value v = Values.concat(Values.make(a), Values.make(b));
+
+    assertThat(v.stringPayload()).isInstanceOf(StringRope.class);
+    assertThat(v).isEqualTo(Values.make(a+b));
+    assertThat(v.hashCode()).isEqualTo(Values.make(a+b).hashCode());
+    assertThat(v.stringPayload()).isEqualTo(a+b);
+    assertThat(v.value()).isEqualTo(a+b);
+  }
+
+  @Test
+  void accumulates_many_pieces() {
+    Value acc = Values.EMPTY_STRING;
+    StringBuilder expected = new StringBuilder();
+    for (int i = 0; i < 100000; i++) {
+      Value piece = Values.make(Integer.toString(i));
+      acc = i % 2 == 0 ? Values.concat(acc, piece) : Values.concat(new Value[]{acc, Values.make(","), piece});
+      if (i % 2 == 1) expected.append(',');
+      expected.append(i);
+    }
+    assertThat(acc.string()).isEqualTo(expected.toString());
+  }
+
+  @Test
+  void concatenates_flattened_and_deferred_pieces() {
+    Value a = Values.concat(Values.make(repeat('a', 50)), Values.make(repeat('b', 50)));
+    Value b = Values.concat(a, Values.make("c"));
+    assertThat(a.string()).isEqualTo(repeat('a', 50)+repeat('b', 50));
+    Value c = Values.concat(new Value[]{b, a, Values.NIL});
+    assertThat(c.string()).isEqualTo(repeat('a', 50)+repeat('b', 50)+"c"+repeat('a', 50)+repeat('b', 50)+"nil");
+    assertThat(b.string()).isEqualTo(repeat('a', 50)+repeat('b', 50)+"c");
+  }
+
+  @Test
+  void flattens_shared_pieces_from_many_threads() throws Exception {
+    Value inner = Values.concat(Values.make(repeat('a', 70)), Values.make(repeat('b', 70)));
+    List<Value> outer = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      outer.add(Values.concat(new Value[]{inner, Values.make(repeat('c', 70)), inner}));
+    }
+    String expected = repeat('a', 70)+repeat('b', 70)+repeat('c', 70)+repeat('a', 70)+repeat('b', 70);
+
+    List<Thread> threads = new ArrayList<>();
+    List<String> results = new ArrayList<>();
+    for (Value v : outer) {
+      Thread t = new Thread(() -> {
+        String s = v.string();
+        synchronized (results){
+          results.add(s);
+        }
+      });
+      threads.add(t);
+      t.start();
+    }
+    for (Thread t : threads) {
+      t.join();
+    }
+
+    assertThat(results).hasSize(8).containsOnly(expected);
+    assertThat(inner.string()).isEqualTo(repeat('a', 70)+repeat('b', 70));
+    assertThat(Values.concat(inner, Values.make("d")).string()).isEqualTo(repeat('a', 70)+repeat('b', 70)+"d");
+  }
+
+}
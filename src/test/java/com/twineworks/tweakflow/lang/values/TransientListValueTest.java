@@ -0,0 +1,116 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class TransientListValueTest {
+
+  @Test
+  void builds_lists() {
+    TransientListValue t = new TransientListValue();
+    t.append(Values.make("a"));
+    t.append(null);
+    t.append(Values.make(1L));
+
+    ListValue list = t.persistent();
+    assertThat(list.size()).isEqualTo(3);
+    assertThat(list.get(1)).isSameAs(Values.NIL);
+    assertThat(list).isEqualTo(new ListValue().append(Values.make("a")).append(Values.NIL).append(Values.make(1L)));
+    assertThat(list.hashCode()).isEqualTo(new ListValue().append(Values.make("a")).append(Values.NIL).append(Values.make(1L)).hashCode());
+
+    assertThat(new TransientListValue().persistent()).isEqualTo(new ListValue());
+  }
+
+  @Test
+  void packs_numeric_lists() {
+    TransientListValue longs = new TransientListValue();
+    TransientListValue doubles = new TransientListValue();
+    for (int i = 0; i < 100; i++) {
+      longs.append(Values.make((long) i));
+      doubles.append(Values.make(i / 2.0));
+    }
+    assertThat(longs.persistent().isPackedLongs()).isTrue();
+    assertThat(doubles.persistent().isPackedDoubles()).isTrue();
+    assertThat(longs.persistent()).isEqualTo(Values.makeRange(0, 99).list());
+  }
+
+  @Test
+  void does_not_change_persistent_lists() {
+    TransientListValue t = new TransientListValue(2);
+    t.append(Values.make("a"));
+    t.append(Values.make("b"));
+
+    // buffer is filled exactly, and shared with the persistent list
+    ListValue first = t.persistent();
+
+    t.append(Values.make("c"));
+    t.appendAll(first);
+    ListValue second = t.persistent();
+
+    assertThat(first.size()).isEqualTo(2);
+    assertThat(first.get(1)).isEqualTo(Values.make("b"));
+    assertThat(second.size()).isEqualTo(5);
+    assertThat(second.get(2)).isEqualTo(Values.make("c"));
+    assertThat(second.get(4)).isEqualTo(Values.make("b"));
+  }
+
+  @Test
+  void does_not_change_trimmed_persistent_lists() {
+    TransientListValue t = new TransientListValue(10);
+    t.append(Values.make("a"));
+    t.append(Values.make("b"));
+
+    // buffer is trimmed to size, and the trimmed buffer is shared with the persistent list
+    ListValue first = t.persistent();
+    ListValue again = t.persistent();
+
+    t.append(Values.make("c"));
+    ListValue second = t.persistent();
+
+    assertThat(first).isEqualTo(again);
+    assertThat(first.size()).isEqualTo(2);
+    assertThat(second.size()).isEqualTo(3);
+    assertThat(second.get(2)).isEqualTo(Values.make("c"));
+  }
+
+  @Test
+  void appends_lists() {
+    TransientListValue t = new TransientListValue(Values.makeRange(1, 20).list());
+    t.appendAll(new Value[]{Values.make(21L), Values.make(22L)});
+    t.appendAll(Values.makeRange(23, 30).list());
+
+    assertThat(t.size()).isEqualTo(30);
+    assertThat(t.get(29)).isEqualTo(Values.make(30L));
+    assertThat(t.get(30)).isSameAs(Values.NIL);
+
+    ListValue list = t.persistent();
+    assertThat(list.isPackedLongs()).isTrue();
+    assertThat(list).isEqualTo(Values.makeRange(1, 30).list());
+  }
+
+}
@@ -0,0 +1,93 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ValueInternerTest {
+
+  @Test
+  void interns_strings() {
+    ValueInterner interner = new ValueInterner(8);
+    Value a = interner.make(new String("active"));
+    Value b = interner.make(new String("active"));
+
+    assertThat(b).isSameAs(a);
+    assertThat(interner.intern(Values.make("active"))).isSameAs(a);
+    assertThat(interner.make("")).isSameAs(Values.EMPTY_STRING);
+    assertThat(interner.make((String) null)).isSameAs(Values.NIL);
+
+    assertThat(interner.hits()).isEqualTo(2);
+    assertThat(interner.misses()).isEqualTo(1);
+    assertThat(interner.size()).isEqualTo(1);
+  }
+
+  @Test
+  void keeps_exact_payloads_apart() {
+    ValueInterner interner = new ValueInterner(8);
+
+    Value d1 = interner.make(new BigDecimal("1.0"));
+    Value d2 = interner.make(new BigDecimal("1.00"));
+    assertThat(d2).isNotSameAs(d1);
+    assertThat(d2.decimal().scale()).isEqualTo(2);
+
+    Instant now = Instant.parse("2020-01-01T00:00:00Z");
+    Value utc = interner.make(new DateTimeValue(ZonedDateTime.ofInstant(now, ZoneId.of("UTC"))));
+    Value berlin = interner.make(new DateTimeValue(ZonedDateTime.ofInstant(now, ZoneId.of("Europe/Berlin"))));
+    assertThat(berlin).isNotSameAs(utc);
+    assertThat(interner.make(new DateTimeValue(ZonedDateTime.ofInstant(now, ZoneId.of("UTC"))))).isSameAs(utc);
+
+    // other types pass through
+    Value n = Values.make(1000L);
+    assertThat(interner.intern(n)).isSameAs(n);
+    assertThat(interner.size()).isEqualTo(4);
+  }
+
+  @Test
+  void is_bounded() {
+    ValueInterner interner = new ValueInterner(4);
+    for (int i = 0; i < 100; i++) {
+      interner.make("s" + i);
+    }
+    assertThat(interner.size()).isEqualTo(4);
+    assertThat(interner.capacity()).isEqualTo(4);
+    assertThat(interner.misses()).isEqualTo(100);
+
+    interner.clear();
+    assertThat(interner.size()).isEqualTo(0);
+    assertThat(interner.misses()).isEqualTo(0);
+
+    assertThrows(IllegalArgumentException.class, () -> new ValueInterner(0));
+  }
+
+}
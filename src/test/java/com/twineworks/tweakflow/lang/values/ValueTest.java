@@ -0,0 +1,73 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.lang.values;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ValueTest {
+
+  @Test
+  void unboxed_longs_equal_boxed_longs() {
+    Value unboxed = Values.make(1234567L);
+    Value boxed = Values.make(Long.valueOf(1234567L));
+
+    assertThat(unboxed.longValue()).isEqualTo(1234567L);
+    assertThat(unboxed.longNum()).isEqualTo(1234567L);
+    assertThat(unboxed.value()).isEqualTo(1234567L);
+    assertThat(unboxed).isEqualTo(boxed);
+    assertThat(unboxed.hashCode()).isEqualTo(boxed.hashCode());
+    assertThat(unboxed.valueEquals(Values.make(1234567.0))).isTrue();
+    assertThat(unboxed.hashCode()).isEqualTo(Values.make(1234567.0).hashCode());
+  }
+
+  @Test
+  void unboxed_doubles_equal_boxed_doubles() {
+    Value unboxed = Values.make(-0.25);
+    Value boxed = Values.make(Double.valueOf(-0.25));
+
+    assertThat(unboxed.doubleValue()).isEqualTo(-0.25);
+    assertThat(unboxed.doubleNum()).isEqualTo(-0.25);
+    assertThat(unboxed.value()).isEqualTo(-0.25);
+    assertThat(unboxed).isEqualTo(boxed);
+    assertThat(unboxed.hashCode()).isEqualTo(boxed.hashCode());
+
+    assertThat(Values.make(Double.NaN)).isSameAs(Values.NAN);
+    assertThat(Values.make(Double.POSITIVE_INFINITY)).isSameAs(Values.INFINITY);
+    assertThat(Values.make(Double.NEGATIVE_INFINITY)).isSameAs(Values.NEG_INFINITY);
+  }
+
+  @Test
+  void keeps_primitive_overloads_apart() {
+    assertThat(Values.make(7).type()).isSameAs(Values.make(7L).type());
+    assertThat(Values.make(1.5f)).isEqualTo(Values.make(1.5));
+    assertThat(Values.make('c')).isEqualTo(Values.make("c"));
+    assertThat(Values.make(true)).isSameAs(Values.TRUE);
+    assertThat(Values.NIL.longNum()).isNull();
+    assertThat(Values.NIL.doubleNum()).isNull();
+  }
+
+}
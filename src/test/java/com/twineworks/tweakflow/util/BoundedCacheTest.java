@@ -0,0 +1,124 @@
+/*
+ * The MIT License (MIT)
+ *
+ * Copyright (c) 2019 Twineworks GmbH
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package com.twineworks.tweakflow.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedCacheTest {
+
+  @Test
+  void counts_hits_and_misses() {
+    BoundedCache<String, Integer> cache = new BoundedCache<>(4);
+    assertThat(cache.get("a")).isNull();
+    assertThat(cache.putIfAbsent("a", 1)).isEqualTo(1);
+    assertThat(cache.putIfAbsent("a", 2)).isEqualTo(1);
+    assertThat(cache.get("a")).isEqualTo(1);
+
+    assertThat(cache.hits()).isEqualTo(1);
+    assertThat(cache.misses()).isEqualTo(1);
+    assertThat(cache.hitRate()).isEqualTo(0.5);
+
+    cache.clear();
+    assertThat(cache.size()).isEqualTo(0);
+    assertThat(cache.hits()).isEqualTo(0);
+    assertThat(cache.misses()).isEqualTo(0);
+    assertThat(cache.hitRate()).isEqualTo(0.0);
+  }
+
+  @Test
+  void keeps_recently_read_entries() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<>(3);
+    cache.putIfAbsent(1, 1);
+    cache.putIfAbsent(2, 2);
+    cache.putIfAbsent(3, 3);
+    cache.get(1);
+    cache.get(3);
+
+    cache.putIfAbsent(4, 4);
+    assertThat(cache.size()).isEqualTo(3);
+    assertThat(cache.get(2)).isNull();
+    assertThat(cache.get(1)).isEqualTo(1);
+    assertThat(cache.get(3)).isEqualTo(3);
+    assertThat(cache.get(4)).isEqualTo(4);
+  }
+
+  @Test
+  void is_bounded() {
+    BoundedCache<Integer, Integer> cache = new BoundedCache<>(100);
+    for (int i = 0; i < 10000; i++) {
+      cache.putIfAbsent(i, i);
+      if (i % 3 == 0) cache.get(i / 2);
+    }
+    assertThat(cache.size()).isEqualTo(100);
+    assertThat(cache.capacity()).isEqualTo(100);
+    assertThat(cache.get(9999)).isEqualTo(9999);
+
+    assertThrows(IllegalArgumentException.class, () -> new BoundedCache<>(0));
+  }
+
+  @Test
+  void shares_values_across_threads() throws Exception {
+    BoundedCache<Integer, Object> cache = new BoundedCache<>(64);
+    ConcurrentMap<Integer, Object> seen = new ConcurrentHashMap<>();
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> errors = new ArrayList<>();
+
+    for (int t = 0; t < 4; t++) {
+      Thread thread = new Thread(() -> {
+        try {
+          for (int i = 0; i < 10000; i++) {
+            int key = i % 32;
+            Object v = cache.get(key);
+            if (v == null) v = cache.putIfAbsent(key, new Object());
+            Object first = seen.putIfAbsent(key, v);
+            if (first != null && first != v) throw new AssertionError("distinct values for key " + key);
+          }
+        } catch (Throwable e) {
+          synchronized (errors){
+            errors.add(e);
+          }
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(errors).isEmpty();
+    assertThat(cache.size()).isEqualTo(32);
+    assertThat(cache.hits() + cache.misses()).isEqualTo(40000);
+  }
+
+}
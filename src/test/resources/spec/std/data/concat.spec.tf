@@ -23,6 +23,14 @@ library spec {
         expect(concat([[1,2,3], [4,5,6], [7,8,9]]), to.be([1,2,3,4,5,6,7,8,9]))
       ),
 
+      it("with_empties", () ->
+        expect(concat([[], [1,2], [], [3], []]), to.be([1,2,3]))
+      ),
+
+      it("large_first", () ->
+        expect(concat([data.range(1, 100), [101], [], [102, 103]]), to.be(data.range(1, 103)))
+      ),
+
       it("of_nil", () ->
         expect(concat(nil), to.be_nil())
       ),
@@ -19,6 +19,10 @@ library spec {
         expect(filter([1,2,3], (x) -> x % 2 == 1), to.be([1,3]))
       ),
     
+      it("keep_all_but_middle_list", () -> 
+        expect(filter([1,2,3,4,5], (x) -> x != 3), to.be([1,2,4,5]))
+      ),
+    
       it("keep_some_via_index_list", () -> 
         expect(filter([1,2,3], (_, i) -> i % 2 == 1), to.be([2]))
       ),
@@ -60,6 +64,14 @@ library spec {
         expect(filter({:a 1, :b 2}, (_, k) -> k == :b), to.be({:b 2}))
       ),
     
+      it("keep_most_dict", () -> 
+        expect(filter({:a 1, :b 2, :c 3, :d 4, :e 5}, (x) -> x != 3), to.be({:a 1, :b 2, :d 4, :e 5}))
+      ),
+    
+      it("keep_few_dict", () -> 
+        expect(filter({:a 1, :b 2, :c 3, :d 4, :e 5}, (x) -> x == 3), to.be({:c 3}))
+      ),
+    
       it("keep_some_dict_with_cast", () -> 
         expect(filter({:a 1, :b 2}, (x) -> if x == 2 then "keep" else []), to.be({:b 2}))
       ),
@@ -31,6 +31,18 @@ library spec {
         expect(merge([{:a 1, :b 2}, {:c 3, :b "r", :d 4}, {:e 5, :b "win", :f 6}]), to.be({:a 1, :b "win", :c 3, :d 4, :e 5, :f 6}))
       ),
     
+      it("with_empties", () -> 
+        expect(merge([{}, {:a 1, :b 2}, {}, {:b 3}]), to.be({:a 1, :b 3}))
+      ),
+    
+      it("single_non_empty", () -> 
+        expect(merge([{}, {:a 1, :b 2}, {}]), to.be({:a 1, :b 2}))
+      ),
+    
+      it("of_nil_after_dicts", () -> 
+        expect(merge([{:a 1}, {:b 2}, nil]), to.be_nil())
+      ),
+    
       it("of_nil", () -> 
         expect(merge(nil), to.be_nil())
       ),
@@ -35,6 +35,13 @@ library spec {
         )
       ),
 
+      it("omits mix of found and not-found keys", () ->
+        expect(
+          omit({:a 1, :b 2, :c 3}, ["e", "a", nil, "c", "a"]),
+          to.be({:b 2})
+        )
+      ),
+
       it("omits from empty", () ->
         expect(
           omit({}, ["e", "f", "g"]),
@@ -39,5 +39,20 @@ library spec {
         expect(range(0, nil), to.be_nil())
       ),
 
+      it("of_large_range", () ->
+        let {
+          xs: range(1, 1000000000);
+        }
+        expect(data.size(xs), to.be(1000000000)) &&
+        expect(data.last(xs), to.be(1000000000)) &&
+        expect(data.take(3, data.drop(999999997, xs)), to.be([999999998, 999999999, 1000000000])) &&
+        expect(data.index_of(xs, 500), to.be(499)) &&
+        expect(data.reverse(data.take(3, xs)), to.be([3, 2, 1]))
+      ),
+
+      it("as_generator", () ->
+        expect((for x <- range(1, 20), x % 7 == 0, x), to.be([7, 14]))
+      ),
+
   ]);
 }
\ No newline at end of file
@@ -1,4 +1,4 @@
-import math as m from 'std.tf';
+import math as m, data from 'std.tf';
 import assert, expect, expect_error, to, describe, it, subject, before, after from "std/spec";
 
 alias m.min as min;
@@ -71,6 +71,12 @@ library spec {
         expect(min([-Infinity, Infinity, 1d, 2d]), to.be(-Infinity))
       ),
     
+      it("of_large_lists", () ->
+        expect(min(data.range(-10, 100)), to.be(-10)) &&
+        expect(min(data.map(data.range(0, 20), (x) -> x / 2)), to.be(0.0)) &&
+        expect(min(data.map(data.range(0, 20), (x) -> if x == 7 then NaN else x / 2)), to.be_nil())
+      ),
+
       it("of_non_numeric", () -> 
         expect_error(
           () -> min([1, 2, "foo"]),